@@ -0,0 +1,96 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.benchmark;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.william278.huskclaims.util.datastrcture.ConcurrentLong2ObjectMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the chunk map claim worlds cache claims in, under contention between threads reading it (claim lookups
+ * from the server and async tasks) and a thread editing it (claims being created, resized and removed).
+ * <p>
+ * A map wrapped in a single lock is measured alongside it as a baseline.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChunkMapContentionBenchmark {
+
+    // Chunk keys are drawn from a square of chunks this many chunks wide, half of which are filled
+    private static final int SPAN = 512;
+
+    @Param({"concurrent", "synchronized"})
+    private String map;
+
+    private Long2ObjectMap<Object> chunks;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.chunks = map.equals("concurrent")
+                ? new ConcurrentLong2ObjectMap<>(1024, 0.6f)
+                : Long2ObjectMaps.synchronize(new Long2ObjectOpenHashMap<>(1024, 0.6f));
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < SPAN * SPAN / 2; i++) {
+            chunks.put(randomKey(random), Boolean.TRUE);
+        }
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(7)
+    public Object readHeavyGet() {
+        return chunks.get(randomKey(ThreadLocalRandom.current()));
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(1)
+    public Object readHeavyEdit() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        return random.nextBoolean() ? chunks.put(randomKey(random), Boolean.TRUE) : chunks.remove(randomKey(random));
+    }
+
+    @Benchmark
+    @Group("balanced")
+    @GroupThreads(4)
+    public Object balancedGet() {
+        return chunks.get(randomKey(ThreadLocalRandom.current()));
+    }
+
+    @Benchmark
+    @Group("balanced")
+    @GroupThreads(4)
+    public Object balancedEdit() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        return random.nextBoolean() ? chunks.put(randomKey(random), Boolean.TRUE) : chunks.remove(randomKey(random));
+    }
+
+    private static long randomKey(ThreadLocalRandom random) {
+        final int x = random.nextInt(SPAN) - SPAN / 2, z = random.nextInt(SPAN) - SPAN / 2;
+        return ((long) x << 32) | (z & 0xffffffffL);
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.benchmark;
+
+import net.william278.huskclaims.FakeHuskClaims;
+import net.william278.huskclaims.claim.ClaimWorld;
+import net.william278.huskclaims.claim.SyntheticClaims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the heap retained by a claim world loaded from the database, reported as the {@code bytesPerClaim}
+ * secondary result. Run it on two commits to compare claim layouts, e.g.:
+ * {@code ./gradlew :benchmarks:jmh -Pbenchmarks='ClaimFootprintBenchmark'}
+ * <p>
+ * With 250,000 claims on JDK 21, the compact claim layout cut the retained heap from 921 MiB (3,865 bytes per
+ * claim) to 682 MiB (2,860 bytes per claim), 26% less.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class ClaimFootprintBenchmark {
+
+    @Param({"250000"})
+    private int claims;
+
+    private FakeHuskClaims plugin;
+    private String encoded;
+    private ClaimWorld loaded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.plugin = FakeHuskClaims.create();
+        this.encoded = plugin.getGson().toJson(SyntheticClaims.generate(ClaimLookupBenchmark.WORLD, claims,
+                ClaimLookupBenchmark.SEED, plugin).getClaimWorld());
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        plugin.close();
+    }
+
+    @Benchmark
+    public void load(Footprint footprint) {
+        this.loaded = null;
+        final long before = getUsedHeap();
+        this.loaded = plugin.getClaimWorldFromJson(0, encoded);
+        footprint.bytesPerClaim = (getUsedHeap() - before) / (double) claims;
+    }
+
+    // Get the heap in use after collecting garbage, so only reachable objects are counted
+    private static long getUsedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public double bytesPerClaim;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesPerClaim = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.benchmark;
+
+import net.william278.huskclaims.FakeHuskClaims;
+import net.william278.huskclaims.claim.Claim;
+import net.william278.huskclaims.claim.ClaimWorld;
+import net.william278.huskclaims.claim.Region;
+import net.william278.huskclaims.claim.SyntheticClaims;
+import net.william278.huskclaims.position.Position;
+import net.william278.huskclaims.position.World;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks looking up claims by position and by region in claim worlds of increasing size
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ClaimLookupBenchmark {
+
+    static final World WORLD = World.of("world", new UUID(0, 278), "normal");
+    static final long SEED = 278;
+    private static final int SAMPLES = 4096;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int claims;
+
+    private ClaimWorld claimWorld;
+    private Position[] positions;
+    private Region[] regions;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        try (FakeHuskClaims plugin = FakeHuskClaims.create()) {
+            final SyntheticClaims synthetic = SyntheticClaims.generate(WORLD, claims, SEED, plugin);
+            final Random random = new Random(SEED);
+            this.claimWorld = synthetic.getClaimWorld();
+            this.positions = new Position[SAMPLES];
+            this.regions = new Region[SAMPLES];
+            for (int i = 0; i < SAMPLES; i++) {
+                positions[i] = synthetic.getRandomPosition(random);
+                regions[i] = Region.around(synthetic.getRandomPosition(random), 8 + random.nextInt(56));
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<Claim> getClaimAt() {
+        return claimWorld.getClaimAt(positions[next()]);
+    }
+
+    @Benchmark
+    public Optional<Claim> getParentClaimAt() {
+        return claimWorld.getParentClaimAt(positions[next()]);
+    }
+
+    @Benchmark
+    public List<Claim> getParentClaimsOverlapping() {
+        return claimWorld.getParentClaimsOverlapping(regions[next()]);
+    }
+
+    @Benchmark
+    public boolean isRegionClaimed() {
+        return claimWorld.isRegionClaimed(regions[next()]);
+    }
+
+    private int next() {
+        return cursor++ & (SAMPLES - 1);
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.benchmark;
+
+import net.william278.huskclaims.FakeHuskClaims;
+import net.william278.huskclaims.claim.ClaimWorld;
+import net.william278.huskclaims.claim.SyntheticClaims;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks encoding claim worlds to JSON to be saved, and decoding them when they are loaded from the database
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ClaimWorldSerializerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int claims;
+
+    private FakeHuskClaims plugin;
+    private ClaimWorld claimWorld;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.plugin = FakeHuskClaims.create();
+        this.claimWorld = SyntheticClaims.generate(ClaimLookupBenchmark.WORLD, claims, ClaimLookupBenchmark.SEED,
+                plugin).getClaimWorld();
+        this.encoded = encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        plugin.close();
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return plugin.getGson().toJson(claimWorld).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public ClaimWorld decode() {
+        return plugin.getClaimWorldFromJson(0, new String(encoded, StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.benchmark;
+
+import net.william278.huskclaims.FakeHuskClaims;
+import net.william278.huskclaims.claim.Claim;
+import net.william278.huskclaims.claim.ClaimWorld;
+import net.william278.huskclaims.claim.SyntheticClaims;
+import net.william278.huskclaims.position.Position;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks resolving the claims at every block destroyed by an explosion, one block at a time versus batched
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExplosionLookupBenchmark {
+
+    private static final int SAMPLES = 64;
+
+    @Param({"10000"})
+    private int claims;
+
+    @Param({"4", "8"})
+    private int radius;
+
+    private ClaimWorld claimWorld;
+    private List<List<Position>> explosions;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        try (FakeHuskClaims plugin = FakeHuskClaims.create()) {
+            final SyntheticClaims synthetic = SyntheticClaims.generate(ClaimLookupBenchmark.WORLD, claims,
+                    ClaimLookupBenchmark.SEED, plugin);
+            final Random random = new Random(ClaimLookupBenchmark.SEED);
+            this.claimWorld = synthetic.getClaimWorld();
+            this.explosions = new ArrayList<>(SAMPLES);
+            for (int i = 0; i < SAMPLES; i++) {
+                explosions.add(getExplosion(synthetic.getRandomPosition(random), radius));
+            }
+        }
+    }
+
+    @Benchmark
+    public void single(Blackhole blackhole) {
+        for (Position position : explosions.get(next())) {
+            blackhole.consume(claimWorld.getClaimAt(position));
+        }
+    }
+
+    @Benchmark
+    public Claim[] batched() {
+        return claimWorld.getClaimsAt(explosions.get(next()));
+    }
+
+    // Get the block positions in a sphere around a position
+    private static List<Position> getExplosion(Position center, int radius) {
+        final List<Position> blocks = new ArrayList<>();
+        for (int x = -radius; x <= radius; x++) {
+            for (int y = -radius; y <= radius; y++) {
+                for (int z = -radius; z <= radius; z++) {
+                    if (x * x + y * y + z * z <= radius * radius) {
+                        blocks.add(Position.at(center.getBlockX() + x, 64 + y, center.getBlockZ() + z,
+                                center.getWorld()));
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private int next() {
+        return cursor++ & (SAMPLES - 1);
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.benchmark;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.william278.huskclaims.highlighter.BlockHighlighter.Diff;
+import net.william278.huskclaims.highlighter.BlockHighlighter.HighlightBlock;
+import net.william278.huskclaims.highlighter.Highlightable;
+import net.william278.huskclaims.position.Position;
+import net.william278.huskclaims.position.World;
+import net.william278.huskclaims.util.BlockProvider;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks refreshing a shown highlight after the viewer has moved a few blocks, done every time a user's
+ * highlights are redrawn
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HighlightDiffBenchmark {
+
+    private static final World WORLD = World.of("world", UUID.randomUUID(), "normal");
+    private static final BlockProvider.MaterialBlock STONE = new BlockProvider.MaterialBlock() {
+        @NotNull
+        @Override
+        public String getMaterialKey() {
+            return "minecraft:stone";
+        }
+    };
+
+    @Param({"2000", "20000"})
+    private int points;
+
+    private Long2ObjectMap<HighlightBlock> shown;
+    private Map<HighlightBlock, Highlightable.Type> moved;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.shown = Diff.compute(new Long2ObjectOpenHashMap<>(), getLine(0, points),
+                HighlightDiffBenchmark::create).getHighlighted();
+        this.moved = getLine(3, points);
+    }
+
+    @Benchmark
+    public Diff<HighlightBlock> refresh() {
+        return Diff.compute(shown, moved, HighlightDiffBenchmark::create);
+    }
+
+    // Get a line of surface blocks along the X axis, from a starting X coordinate
+    @NotNull
+    private static Map<HighlightBlock, Highlightable.Type> getLine(int fromX, int length) {
+        final Map<HighlightBlock, Highlightable.Type> blocks = new LinkedHashMap<>(length);
+        for (int x = fromX; x < fromX + length; x++) {
+            blocks.put(new HighlightBlock(Position.at(x, 64, 0, WORLD), STONE), Highlightable.Type.EDGE);
+        }
+        return blocks;
+    }
+
+    @NotNull
+    private static HighlightBlock create(@NotNull HighlightBlock origin, @NotNull Highlightable.Type type) {
+        return new HighlightBlock(origin.getPosition(), STONE, type);
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.benchmark;
+
+import net.william278.huskclaims.claim.Region;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks listing the chunks a region spans, done whenever a claim is cached, resized or removed
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RegionChunksBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"16", "64", "256", "1024"})
+    private int size;
+
+    private Region[] regions;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(ClaimLookupBenchmark.SEED);
+        this.regions = new Region[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            final int x = random.nextInt(100_000) - 50_000, z = random.nextInt(100_000) - 50_000;
+            regions[i] = Region.from(Region.Point.at(x, z), Region.Point.at(x + size - 1, z + size - 1));
+        }
+    }
+
+    @Benchmark
+    public Set<int[]> getChunks() {
+        return regions[cursor++ & (SAMPLES - 1)].getChunks();
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.benchmark;
+
+import net.william278.huskclaims.moderation.SignFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks filtering sign lines against a list of filtered words, done for every line of every edited sign
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SignFilterBenchmark {
+
+    private static final int SAMPLES = 512;
+    private static final String LOWER = "abcdefghijklmnopqrstuvwxyz";
+
+    @Param({"900"})
+    private int words;
+
+    private List<String> filteredWords;
+    private SignFilter filter;
+    private String[] lines;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(ClaimLookupBenchmark.SEED);
+        this.filteredWords = new ArrayList<>(words);
+        for (int i = 0; i < words; i++) {
+            filteredWords.add(getWord(random, 1 + random.nextInt(6), LOWER));
+        }
+        this.filter = SignFilter.compile(filteredWords);
+        this.lines = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            lines[i] = getWord(random, 15, LOWER + " " + LOWER.toUpperCase());
+        }
+    }
+
+    @Benchmark
+    public String filter() {
+        return filter.filter(lines[cursor++ & (SAMPLES - 1)], '#');
+    }
+
+    @Benchmark
+    public SignFilter compile() {
+        return SignFilter.compile(filteredWords);
+    }
+
+    private static String getWord(Random random, int length, String alphabet) {
+        final StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return word.toString();
+    }
+
+}
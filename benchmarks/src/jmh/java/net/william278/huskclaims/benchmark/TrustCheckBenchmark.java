@@ -0,0 +1,131 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.benchmark;
+
+import net.william278.cloplib.operation.Operation;
+import net.william278.cloplib.operation.OperationType;
+import net.william278.huskclaims.FakeHuskClaims;
+import net.william278.huskclaims.claim.Claim;
+import net.william278.huskclaims.claim.SyntheticClaims;
+import net.william278.huskclaims.position.Position;
+import net.william278.huskclaims.trust.TrustLevel;
+import net.william278.huskclaims.user.FakeOnlineUser;
+import net.william278.huskclaims.user.OnlineUser;
+import net.william278.huskclaims.user.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks checking whether users may carry out operations in claims, and resolving their trust levels.
+ * <p>
+ * A third of checks are by the claim owner, a third by someone trusted in the claim, and a third by another player.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TrustCheckBenchmark {
+
+    private static final int SAMPLES = 4096;
+    private static final List<OperationType> TYPES = List.of(
+            OperationType.BLOCK_BREAK, OperationType.BLOCK_PLACE,
+            OperationType.BLOCK_INTERACT, OperationType.CONTAINER_OPEN
+    );
+
+    @Param({"10000"})
+    private int claims;
+
+    private FakeHuskClaims plugin;
+    private Claim[] checkedClaims;
+    private OnlineUser[] users;
+    private Operation[] operations;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.plugin = FakeHuskClaims.create();
+        final SyntheticClaims synthetic = SyntheticClaims.generate(ClaimLookupBenchmark.WORLD, claims,
+                ClaimLookupBenchmark.SEED, plugin);
+        final Random random = new Random(ClaimLookupBenchmark.SEED);
+        this.checkedClaims = new Claim[SAMPLES];
+        this.users = new OnlineUser[SAMPLES];
+        this.operations = new Operation[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            Position position;
+            Optional<Claim> claim;
+            do {
+                position = synthetic.getRandomPosition(random);
+                claim = synthetic.getClaimWorld().getClaimAt(position);
+            } while (claim.isEmpty());
+
+            final User user = getUser(claim.get(), synthetic.getPlayers(), random, i % 3);
+            checkedClaims[i] = claim.get();
+            users[i] = new FakeOnlineUser(user.getName(), user.getUuid(), position, plugin);
+            operations[i] = Operation.of(users[i], TYPES.get(random.nextInt(TYPES.size())), position);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        plugin.close();
+    }
+
+    @Benchmark
+    public boolean isOperationAllowed() {
+        final int i = next();
+        return checkedClaims[i].isOperationAllowed(operations[i], plugin);
+    }
+
+    @Benchmark
+    public Optional<TrustLevel> getUserTrustLevel() {
+        final int i = next();
+        return checkedClaims[i].getUserTrustLevel(users[i], plugin);
+    }
+
+    @Benchmark
+    public Optional<TrustLevel> getEffectiveTrustLevel() {
+        final int i = next();
+        return checkedClaims[i].getEffectiveTrustLevel(users[i], plugin);
+    }
+
+    // Get the owner of the claim, a user trusted in it, or any player
+    private static User getUser(Claim claim, List<User> players, Random random, int kind) {
+        final List<UUID> trusted = List.copyOf(claim.getTrustedUsersView().keySet());
+        if (kind == 0 && claim.getOwner().isPresent()) {
+            return getPlayer(players, claim.getOwner().get());
+        } else if (kind == 1 && !trusted.isEmpty()) {
+            return getPlayer(players, trusted.get(random.nextInt(trusted.size())));
+        }
+        return players.get(random.nextInt(players.size()));
+    }
+
+    private static User getPlayer(List<User> players, UUID uuid) {
+        return players.stream().filter(player -> player.getUuid().equals(uuid)).findFirst().orElseThrow();
+    }
+
+    private int next() {
+        return cursor++ & (SAMPLES - 1);
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.benchmark;
+
+import net.william278.huskclaims.trust.TrustLevel;
+import net.william278.huskclaims.trust.TrustLevelTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks resolving stored trust level IDs, by scanning the configured levels versus using a
+ * {@link TrustLevelTable}, as done for every trust check
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TrustLevelTableBenchmark {
+
+    private static final int SAMPLES = 4096;
+    private static final List<TrustLevel> LEVELS = List.of(
+            level("manage", 400), level("build", 300), level("container", 200), level("access", 100)
+    );
+
+    private TrustLevelTable table;
+    private String[] ids;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(ClaimLookupBenchmark.SEED);
+        this.table = new TrustLevelTable(LEVELS);
+        this.ids = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            // Decoded IDs are each their own String instance
+            ids[i] = new String(LEVELS.get(random.nextInt(LEVELS.size())).getId());
+        }
+    }
+
+    @Benchmark
+    public Optional<TrustLevel> scan() {
+        final String id = next();
+        return LEVELS.stream().filter(level -> level.getId().equalsIgnoreCase(id)).findFirst();
+    }
+
+    @Benchmark
+    public Optional<TrustLevel> table() {
+        return table.find(next());
+    }
+
+    private String next() {
+        return ids[cursor++ & (SAMPLES - 1)];
+    }
+
+    private static TrustLevel level(String id, int weight) {
+        return TrustLevel.builder().id(id).displayName(id).description(id).weight(weight).build();
+    }
+
+}
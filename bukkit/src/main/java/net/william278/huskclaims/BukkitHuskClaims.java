@@ -41,19 +41,28 @@ import net.william278.huskclaims.config.Settings;
 import net.william278.huskclaims.config.TrustLevels;
 import net.william278.huskclaims.database.Database;
 import net.william278.huskclaims.event.BukkitEventDispatcher;
+import net.william278.huskclaims.event.EventDispatchCounters;
+import net.william278.huskclaims.highlighter.HighlightScheduler;
 import net.william278.huskclaims.highlighter.Highlighter;
 import net.william278.huskclaims.hook.BukkitHookProvider;
 import net.william278.huskclaims.hook.Hook;
+import net.william278.huskclaims.hook.MapMarkerSync;
 import net.william278.huskclaims.listener.BukkitListener;
 import net.william278.huskclaims.listener.ClaimsListener;
+import net.william278.huskclaims.metrics.BlockingCallDetector;
+import net.william278.huskclaims.metrics.MetricsRegistry;
+import net.william278.huskclaims.moderation.MarkedDropIndex;
+import net.william278.huskclaims.moderation.SignFilter;
 import net.william278.huskclaims.network.Broker;
 import net.william278.huskclaims.network.PluginMessageBroker;
 import net.william278.huskclaims.pet.BukkitPetHandler;
 import net.william278.huskclaims.position.Position;
 import net.william278.huskclaims.position.World;
 import net.william278.huskclaims.trust.TrustLevel;
+import net.william278.huskclaims.trust.TrustLevelTable;
 import net.william278.huskclaims.trust.TrustTag;
 import net.william278.huskclaims.trust.UserGroup;
+import net.william278.huskclaims.trust.UserGroupIndex;
 import net.william278.huskclaims.user.*;
 import net.william278.huskclaims.util.*;
 import net.william278.toilet.BukkitToilet;
@@ -88,15 +97,23 @@ public class BukkitHuskClaims extends JavaPlugin implements HuskClaims, BukkitTa
     private Toilet toilet;
     private final Gson gson = getGsonBuilder().create();
     private final Set<TrustTag> trustTags = ConcurrentHashMap.newKeySet();
-    private final ConcurrentMap<UUID, List<DroppedItem>> markedDrops = Maps.newConcurrentMap();
+    private final MarkedDropIndex markedDrops = new MarkedDropIndex();
+    private final EventDispatchCounters eventDispatchCounters = new EventDispatchCounters();
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+    private final BlockingCallDetector blockingCallDetector = new BlockingCallDetector(this);
     private final ConcurrentMap<UUID, Set<GroundStack>> trackedItems = Maps.newConcurrentMap();
     private final ConcurrentMap<String, List<User>> globalUserList = Maps.newConcurrentMap();
+    private final UserNameIndex userNameIndex = new UserNameIndex();
+    private final ChunkSnapshotCache chunkSnapshotCache = new ChunkSnapshotCache();
     private final ConcurrentMap<UUID, ClaimSelection> claimSelections = Maps.newConcurrentMap();
     private final ConcurrentMap<UUID, OnlineUser> onlineUserMap = Maps.newConcurrentMap();
     private final ConcurrentMap<UUID, SavedUser> userCache = Maps.newConcurrentMap();
     private final ConcurrentMap<UUID, Highlighter> highlighterCache = Maps.newConcurrentMap();
     private final List<Command> commands = Lists.newArrayList();
     private final List<Highlighter> highlighters = Lists.newArrayList();
+    private final HighlightScheduler highlightScheduler = new HighlightScheduler(this);
+    private final MapMarkerSync mapMarkerSync = new MapMarkerSync(this);
+    private final UserGroupIndex userGroupIndex = new UserGroupIndex();
     private final HashMap<String, ClaimWorld> claimWorlds = Maps.newHashMap();
     private final Queue<Task.Async> taskQueue = Queues.newConcurrentLinkedQueue();
 
@@ -113,6 +130,10 @@ public class BukkitHuskClaims extends JavaPlugin implements HuskClaims, BukkitTa
     @Setter
     private TrustLevels trustLevels;
     @Setter
+    private TrustLevelTable trustLevelTable;
+    @Setter
+    private SignFilter signFilter;
+    @Setter
     private Locales locales;
     @Setter
     @Nullable
@@ -59,6 +59,11 @@ public class BukkitCommand extends org.bukkit.command.Command {
         return completable.getSuggestions(user, args);
     }
 
+    @NotNull
+    public Command getCommand() {
+        return command;
+    }
+
     public void register() {
         // Register with bukkit
         plugin.getMorePaperLib().commandRegistration().getServerCommandMap()
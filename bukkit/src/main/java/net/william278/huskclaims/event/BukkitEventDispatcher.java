@@ -45,6 +45,11 @@ public interface BukkitEventDispatcher extends EventDispatcher {
         return event instanceof Cancellable cancellable && cancellable.isCancelled();
     }
 
+    @Override
+    default <T extends Event> boolean hasListeners(@NotNull T event) {
+        return ((org.bukkit.event.Event) event).getHandlers().getRegisteredListeners().length > 0;
+    }
+
     @Override
     @NotNull
     default ClaimBlocksChangeEvent getClaimBlocksChangeEvent(@NotNull User user, long oldBlocks, long newBlocks,
@@ -212,7 +212,7 @@ public class BukkitGriefPreventionImporter extends Importer {
             claimWorlds.add(claimWorld);
             hcc.getOwner().flatMap(owner -> users.stream().filter(gpu -> gpu.uuid.equals(owner)).findFirst())
                     .ifPresent(user -> claimWorld.cacheUser(user.toUser()));
-            hcc.getTrustedUsers().keySet().forEach(u -> users.stream().filter(gpu -> gpu.uuid.equals(u))
+            hcc.getTrustedUsersView().keySet().forEach(u -> users.stream().filter(gpu -> gpu.uuid.equals(u))
                     .findFirst().ifPresent(user -> claimWorld.cacheUser(user.toUser())));
 
             // Add the claim to either its parent or the claim world
@@ -222,7 +222,7 @@ public class BukkitGriefPreventionImporter extends Importer {
                         .map(Map.Entry::getKey).findFirst()
                         .ifPresent(parent -> {
                             parent.getOwner().ifPresent(hcc::setOwner);
-                            parent.getChildren().add(hcc);
+                            parent.addChild(hcc);
                         });
             } else {
                 claimWorld.addClaim(hcc);
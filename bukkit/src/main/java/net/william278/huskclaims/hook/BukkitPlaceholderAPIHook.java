@@ -29,17 +29,28 @@ import net.william278.cloplib.operation.Operation;
 import net.william278.cloplib.operation.OperationType;
 import net.william278.huskclaims.BukkitHuskClaims;
 import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.claim.ClaimWorld;
+import net.william278.huskclaims.event.BukkitEnterClaimEvent;
+import net.william278.huskclaims.event.BukkitExitClaimEvent;
+import net.william278.huskclaims.position.Position;
 import net.william278.huskclaims.trust.TrustLevel;
 import net.william278.huskclaims.user.OnlineUser;
+import net.william278.huskclaims.user.Preferences;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Locale;
-import java.util.Map;
-import java.util.function.BiFunction;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @PluginHook(
@@ -49,6 +60,7 @@ import java.util.stream.Collectors;
 public class BukkitPlaceholderAPIHook extends Hook {
 
     private HuskClaimsExpansion expansion;
+    private PlaceholderCache cache;
 
     protected BukkitPlaceholderAPIHook(@NotNull HuskClaims plugin) {
         super(plugin);
@@ -56,8 +68,11 @@ public class BukkitPlaceholderAPIHook extends Hook {
 
     @Override
     public void load() {
+        final BukkitHuskClaims plugin = (BukkitHuskClaims) this.plugin;
         final String version = plugin.getPluginVersion().toStringWithoutMetadata();
-        this.expansion = new HuskClaimsExpansion((BukkitHuskClaims) plugin, version);
+        this.cache = new PlaceholderCache(plugin);
+        plugin.getServer().getPluginManager().registerEvents(cache, plugin);
+        this.expansion = new HuskClaimsExpansion(plugin, cache, version);
         this.expansion.register();
     }
 
@@ -66,6 +81,10 @@ public class BukkitPlaceholderAPIHook extends Hook {
         if (this.expansion != null) {
             this.expansion.unregister();
         }
+        if (this.cache != null) {
+            HandlerList.unregisterAll(cache);
+            this.cache.clear();
+        }
     }
 
     @RequiredArgsConstructor
@@ -74,6 +93,8 @@ public class BukkitPlaceholderAPIHook extends Hook {
 
         @Getter(AccessLevel.NONE)
         private final BukkitHuskClaims plugin;
+        @Getter(AccessLevel.NONE)
+        private final PlaceholderCache cache;
         private final String version;
         private final String author = "William278";
         private final String name = "HuskClaims";
@@ -85,10 +106,16 @@ public class BukkitPlaceholderAPIHook extends Hook {
             if (player == null) {
                 return null;
             }
+            final Placeholder placeholder = Placeholder.IDENTIFIER_MAP.get(id.toLowerCase(Locale.ENGLISH));
+            if (placeholder == null) {
+                return null;
+            }
 
             // Format placeholders, handle exceptions (placeholder formatting is non-critical)
             try {
-                return Placeholder.format(plugin, plugin.getOnlineUser(player), id.toLowerCase(Locale.ENGLISH));
+                final OnlineUser user = plugin.getOnlineUser(player);
+                return player.isOnline() ? cache.get(user, placeholder)
+                        : placeholder.resolve(plugin, user, user.getPosition());
             } catch (IllegalArgumentException | IllegalStateException | NullPointerException e) {
                 return plugin.getLocales().getNotApplicable();
             }
@@ -100,83 +127,233 @@ public class BukkitPlaceholderAPIHook extends Hook {
             return true;
         }
 
-        @AllArgsConstructor
-        private enum Placeholder {
-            CLAIM_BLOCKS((plugin, user) -> Long.toString(plugin.getCachedClaimBlocks(user))),
-            CLAIM_BLOCKS_FORMATTED((plugin, user) -> String.format("%,d", plugin.getCachedClaimBlocks(user))),
-            ACCRUED_CLAIM_BLOCKS((plugin, user) -> {
-                long started = plugin.getSettings().getClaims().getStartingClaimBlocks();
-                long available = Math.max(0, plugin.getCachedClaimBlocks(user));
-                long spent = Math.max(0, plugin.getCachedSpentClaimBlocks(user));
-                long earned = (available + spent) - started;
-                return Long.toString(started + Math.max(0, earned));
-            }),
-            ACCRUED_CLAIM_BLOCKS_FORMATTED((plugin, user) -> {
-                long started = plugin.getSettings().getClaims().getStartingClaimBlocks();
-                long available = Math.max(0, plugin.getCachedClaimBlocks(user));
-                long spent = Math.max(0, plugin.getCachedSpentClaimBlocks(user));
-                long earned = (available + spent) - started;
-                return String.format("%,d", started + Math.max(0, earned));
-            }),
-            CURRENT_IS_CLAIMED((plugin, user) -> formatBoolean(plugin.getClaimAt(user.getPosition()).isPresent())),
-            CURRENT_CLAIM_OWNER((plugin, user) -> plugin.getClaimWorld(user.getPosition().getWorld())
-                    .flatMap(world -> world.getClaimAt(user.getPosition())
-                            .map(claim -> claim.getOwnerName(world, plugin)))
-                    .orElse(plugin.getLocales().getNotApplicable())),
-            CURRENT_CLAIM_IS_TRUSTED((plugin, user) -> formatBoolean(plugin.getClaimWorld(user.getPosition().getWorld())
-                    .map(world -> world.getClaimAt(user.getPosition())
-                            .flatMap(claim -> claim.getTrustLevel(user, plugin)))
-                    .isPresent())),
-            CURRENT_CLAIM_TRUST_LEVEL((plugin, user) -> plugin.getClaimWorld(user.getPosition().getWorld())
-                    .flatMap(world -> world.getClaimAt(user.getPosition())
-                            .flatMap(claim -> claim.getTrustLevel(user, plugin)))
-                    .map(TrustLevel::getDisplayName)
-                    .orElse(plugin.getLocales().getNotApplicable())),
-            CAN_BUILD((plugin, user) -> formatBoolean(plugin.cancelOperation(
-                    Operation.of(user, OperationType.BLOCK_PLACE, user.getPosition(), true)
-            ))),
-            CAN_OPEN_CONTAINERS((plugin, user) -> formatBoolean(plugin.cancelOperation(
-                    Operation.of(user, OperationType.CONTAINER_OPEN, user.getPosition(), true)
-            ))),
-            CAN_INTERACT((plugin, user) -> formatBoolean(plugin.cancelOperation(
-                    Operation.of(user, OperationType.BLOCK_INTERACT, user.getPosition(), true)
-            )));
-
-            private static final String IDENTIFIER = "huskclaims";
-            private static final Map<String, Placeholder> IDENTIFIER_MAP = Arrays.stream(values())
-                    .map(p -> Map.entry(p.name().toLowerCase(Locale.ENGLISH), p))
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-
-            private final BiFunction<HuskClaims, OnlineUser, String> resolver;
-
-            @Nullable
-            public static String format(@NotNull HuskClaims plugin, @NotNull OnlineUser user, @NotNull String id) {
-                return IDENTIFIER_MAP.containsKey(id) ? IDENTIFIER_MAP.get(id).resolve(plugin, user) : null;
-            }
+    }
 
-            @NotNull
-            private static List<String> getFormattedList() {
-                return Arrays.stream(values()).map(Placeholder::getFormattedName).toList();
+    /**
+     * Per-player snapshots of resolved placeholder values, so that a placeholder request is usually a map read.
+     * <p>
+     * Values describing the claim a player is standing in are kept until they enter or exit a claim (or teleport),
+     * the claim world is edited (which includes trust changes), or they toggle ignoring claims. Claim block values
+     * are kept until the player's cached claim block balance changes.
+     */
+    @RequiredArgsConstructor
+    public static class PlaceholderCache implements Listener {
+
+        // Upper bound on how long claim values are kept, as trust through user groups, trust tags and
+        // permissions can change without an event to invalidate on
+        private static final long MAX_CLAIM_VALUES_AGE_MILLIS = 5000;
+
+        private final BukkitHuskClaims plugin;
+        private final Map<UUID, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+        @NotNull
+        private String get(@NotNull OnlineUser user, @NotNull Placeholder placeholder) {
+            final Snapshot snapshot = snapshots.computeIfAbsent(user.getUuid(), uuid -> new Snapshot());
+            synchronized (snapshot) {
+                return placeholder.isPositional()
+                        ? snapshot.getClaimValue(plugin, user, placeholder)
+                        : snapshot.getBlocksValue(plugin, user, placeholder);
             }
+        }
 
-            @NotNull
-            private static String formatBoolean(boolean bool) {
-                return bool ? PlaceholderAPIPlugin.booleanTrue() : PlaceholderAPIPlugin.booleanFalse();
+        // Record where a player now is, so claim values are resolved there (or at their position, if null)
+        private void moveTo(@NotNull UUID uuid, @Nullable Position position) {
+            final Snapshot snapshot = snapshots.get(uuid);
+            if (snapshot == null) {
+                return;
             }
+            synchronized (snapshot) {
+                snapshot.moveTo(plugin, position);
+            }
+        }
 
-            @NotNull
-            private String resolve(@NotNull HuskClaims plugin, @NotNull OnlineUser user) {
-                return resolver.apply(plugin, user);
+        private void clear() {
+            snapshots.clear();
+        }
+
+        // Enter events are fired before the move completes, and may be cancelled after an exit event was fired
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onEnterClaim(@NotNull BukkitEnterClaimEvent e) {
+            moveTo(e.getPlayer().getUniqueId(), e.isCancelled() ? e.getFrom() : e.getTo());
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onExitClaim(@NotNull BukkitExitClaimEvent e) {
+            moveTo(e.getPlayer().getUniqueId(), e.isCancelled() ? e.getFrom() : e.getTo());
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onTeleport(@NotNull PlayerTeleportEvent e) {
+            final Location to = e.getTo();
+            moveTo(e.getPlayer().getUniqueId(), to != null && to.getWorld() != null
+                    ? BukkitHuskClaims.Adapter.adapt(to) : null);
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onRespawn(@NotNull PlayerRespawnEvent e) {
+            moveTo(e.getPlayer().getUniqueId(), BukkitHuskClaims.Adapter.adapt(e.getRespawnLocation()));
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onChangeWorld(@NotNull PlayerChangedWorldEvent e) {
+            moveTo(e.getPlayer().getUniqueId(), null);
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onQuit(@NotNull PlayerQuitEvent e) {
+            snapshots.remove(e.getPlayer().getUniqueId());
+        }
+
+    }
+
+    // A player's resolved placeholder values, and the state they were resolved against
+    private static final class Snapshot {
+
+        private final Map<Placeholder, String> claimValues = new EnumMap<>(Placeholder.class);
+        private final Map<Placeholder, String> blocksValues = new EnumMap<>(Placeholder.class);
+
+        @Nullable
+        private Position position;
+        @Nullable
+        private ClaimWorld claimWorld;
+        private boolean moved = true;
+        private long worldRevision;
+        private boolean ignoringClaims;
+        private long resolvedAt;
+
+        private long claimBlocks = Long.MIN_VALUE;
+        private long spentClaimBlocks = Long.MIN_VALUE;
+
+        private void moveTo(@NotNull HuskClaims plugin, @Nullable Position position) {
+            relocate(plugin, position);
+            this.moved = true;
+        }
+
+        private void relocate(@NotNull HuskClaims plugin, @Nullable Position position) {
+            this.position = position;
+            this.claimWorld = position != null ? plugin.getClaimWorld(position.getWorld()).orElse(null) : null;
+        }
+
+        @NotNull
+        private String getClaimValue(@NotNull HuskClaims plugin, @NotNull OnlineUser user,
+                                     @NotNull Placeholder placeholder) {
+            if (position == null) {
+                moveTo(plugin, user.getPosition());
+            }
+            final boolean ignoring = plugin.getCachedUserPreferences(user.getUuid())
+                    .map(Preferences::isIgnoringClaims).orElse(false);
+            final long now = System.currentTimeMillis();
+            if (moved || ignoring != ignoringClaims || getWorldRevision() != worldRevision
+                || now - resolvedAt > MAX_CLAIM_VALUES_AGE_MILLIS) {
+                // Unless a claim border was just crossed, the player may have walked since values were resolved
+                if (!moved) {
+                    relocate(plugin, user.getPosition());
+                }
+                claimValues.clear();
+                moved = false;
+                ignoringClaims = ignoring;
+                worldRevision = getWorldRevision();
+                resolvedAt = now;
             }
+            final Position at = Objects.requireNonNull(position);
+            return claimValues.computeIfAbsent(placeholder, p -> p.resolve(plugin, user, at));
+        }
 
-            @NotNull
-            private String getFormattedName() {
-                return "%s_%s".formatted(
-                        Placeholder.IDENTIFIER,
-                        name().toLowerCase(Locale.ENGLISH).replaceAll("[^A-Za-z0-9]", "_")
-                );
+        private long getWorldRevision() {
+            return claimWorld != null ? claimWorld.getRevision() : 0;
+        }
+
+        @NotNull
+        private String getBlocksValue(@NotNull HuskClaims plugin, @NotNull OnlineUser user,
+                                      @NotNull Placeholder placeholder) {
+            final long blocks = plugin.getCachedClaimBlocks(user);
+            final long spent = plugin.getCachedSpentClaimBlocks(user);
+            if (blocks != claimBlocks || spent != spentClaimBlocks) {
+                blocksValues.clear();
+                claimBlocks = blocks;
+                spentClaimBlocks = spent;
             }
+            return blocksValues.computeIfAbsent(placeholder, p -> p.resolve(plugin, user, user.getPosition()));
+        }
 
+    }
+
+    @AllArgsConstructor
+    private enum Placeholder {
+        CLAIM_BLOCKS(false, (plugin, user, pos) -> Long.toString(plugin.getCachedClaimBlocks(user))),
+        CLAIM_BLOCKS_FORMATTED(false, (plugin, user, pos) -> String.format("%,d", plugin.getCachedClaimBlocks(user))),
+        ACCRUED_CLAIM_BLOCKS(false, (plugin, user, pos) -> Long.toString(getAccruedClaimBlocks(plugin, user))),
+        ACCRUED_CLAIM_BLOCKS_FORMATTED(false, (plugin, user, pos) -> String.format("%,d",
+                getAccruedClaimBlocks(plugin, user))),
+        CURRENT_IS_CLAIMED(true, (plugin, user, pos) -> formatBoolean(plugin.getClaimAt(pos).isPresent())),
+        CURRENT_CLAIM_OWNER(true, (plugin, user, pos) -> plugin.getClaimWorld(pos.getWorld())
+                .flatMap(world -> world.getClaimAt(pos)
+                        .map(claim -> claim.getOwnerName(world, plugin)))
+                .orElse(plugin.getLocales().getNotApplicable())),
+        CURRENT_CLAIM_IS_TRUSTED(true, (plugin, user, pos) -> formatBoolean(plugin.getClaimWorld(pos.getWorld())
+                .map(world -> world.getClaimAt(pos)
+                        .flatMap(claim -> claim.getTrustLevel(user, plugin)))
+                .isPresent())),
+        CURRENT_CLAIM_TRUST_LEVEL(true, (plugin, user, pos) -> plugin.getClaimWorld(pos.getWorld())
+                .flatMap(world -> world.getClaimAt(pos)
+                        .flatMap(claim -> claim.getTrustLevel(user, plugin)))
+                .map(TrustLevel::getDisplayName)
+                .orElse(plugin.getLocales().getNotApplicable())),
+        CAN_BUILD(true, (plugin, user, pos) -> formatBoolean(plugin.cancelOperation(
+                Operation.of(user, OperationType.BLOCK_PLACE, pos, true)
+        ))),
+        CAN_OPEN_CONTAINERS(true, (plugin, user, pos) -> formatBoolean(plugin.cancelOperation(
+                Operation.of(user, OperationType.CONTAINER_OPEN, pos, true)
+        ))),
+        CAN_INTERACT(true, (plugin, user, pos) -> formatBoolean(plugin.cancelOperation(
+                Operation.of(user, OperationType.BLOCK_INTERACT, pos, true)
+        )));
+
+        private static final String IDENTIFIER = "huskclaims";
+        private static final Map<String, Placeholder> IDENTIFIER_MAP = Arrays.stream(values())
+                .map(p -> Map.entry(p.name().toLowerCase(Locale.ENGLISH), p))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        // Whether the value depends on the claim the player is standing in, rather than their claim blocks
+        @Getter
+        private final boolean positional;
+        private final Resolver resolver;
+
+        @NotNull
+        private static List<String> getFormattedList() {
+            return Arrays.stream(values()).map(Placeholder::getFormattedName).toList();
+        }
+
+        @NotNull
+        private static String formatBoolean(boolean bool) {
+            return bool ? PlaceholderAPIPlugin.booleanTrue() : PlaceholderAPIPlugin.booleanFalse();
+        }
+
+        private static long getAccruedClaimBlocks(@NotNull HuskClaims plugin, @NotNull OnlineUser user) {
+            long started = plugin.getSettings().getClaims().getStartingClaimBlocks();
+            long available = Math.max(0, plugin.getCachedClaimBlocks(user));
+            long spent = Math.max(0, plugin.getCachedSpentClaimBlocks(user));
+            long earned = (available + spent) - started;
+            return started + Math.max(0, earned);
+        }
+
+        @NotNull
+        private String resolve(@NotNull HuskClaims plugin, @NotNull OnlineUser user, @NotNull Position position) {
+            return resolver.resolve(plugin, user, position);
+        }
+
+        @NotNull
+        private String getFormattedName() {
+            return "%s_%s".formatted(
+                    Placeholder.IDENTIFIER,
+                    name().toLowerCase(Locale.ENGLISH).replaceAll("[^A-Za-z0-9]", "_")
+            );
+        }
+
+        @FunctionalInterface
+        private interface Resolver {
+            @NotNull
+            String resolve(@NotNull HuskClaims plugin, @NotNull OnlineUser user, @NotNull Position position);
         }
 
     }
@@ -70,6 +70,22 @@ public interface BukkitDropsListener extends Listener {
                     ? dropLocation.distance(other.getDropLocation()) : Double.MAX_VALUE;
         }
 
+        @NotNull
+        @Override
+        public String getWorldName() {
+            return dropLocation.getWorld() != null ? dropLocation.getWorld().getName() : "";
+        }
+
+        @Override
+        public double getX() {
+            return dropLocation.getX();
+        }
+
+        @Override
+        public double getZ() {
+            return dropLocation.getZ();
+        }
+
         @Override
         public boolean equals(Object obj) {
             return obj instanceof BukkitDroppedItem item
@@ -22,26 +22,38 @@ package net.william278.huskclaims.listener;
 import lombok.Getter;
 import net.william278.cloplib.listener.BukkitOperationListener;
 import net.william278.cloplib.operation.OperationPosition;
+import net.william278.cloplib.operation.OperationType;
 import net.william278.cloplib.operation.OperationUser;
 import net.william278.huskclaims.BukkitHuskClaims;
 import net.william278.huskclaims.moderation.SignListener;
 import net.william278.huskclaims.position.World;
 import net.william278.huskclaims.user.User;
+import net.william278.huskclaims.util.ChunkSnapshotCache;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Tameable;
 import org.bukkit.event.Cancellable;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.block.*;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
 import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.player.*;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.StructureGrowEvent;
 import org.bukkit.event.world.WorldLoadEvent;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 import java.util.Optional;
 
 @Getter
@@ -104,6 +116,136 @@ public class BukkitListener extends BukkitOperationListener implements BukkitPet
         }
     }
 
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSurfaceBlockPlace(@NotNull BlockPlaceEvent e) {
+        plugin.getChunkSnapshotCache().invalidate(e.getBlock());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSurfaceBlockBreak(@NotNull BlockBreakEvent e) {
+        plugin.getChunkSnapshotCache().invalidate(e.getBlock());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSurfaceBlockBurn(@NotNull BlockBurnEvent e) {
+        plugin.getChunkSnapshotCache().invalidate(e.getBlock());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSurfaceEntityExplode(@NotNull EntityExplodeEvent e) {
+        invalidateSnapshots(e.blockList());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSurfaceBlockExplode(@NotNull BlockExplodeEvent e) {
+        invalidateSnapshots(e.blockList());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSurfacePistonExtend(@NotNull BlockPistonExtendEvent e) {
+        invalidatePistonSnapshots(e.getBlock(), e.getBlocks(), e.getDirection());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSurfacePistonRetract(@NotNull BlockPistonRetractEvent e) {
+        invalidatePistonSnapshots(e.getBlock(), e.getBlocks(), e.getDirection());
+    }
+
+    // Flowing water only replaces blocks the surface scan passes over, so only lava (and dragon eggs) are checked
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSurfaceFluidFlow(@NotNull BlockFromToEvent e) {
+        if (e.getBlock().getType() != Material.WATER) {
+            plugin.getChunkSnapshotCache().invalidate(e.getToBlock());
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSurfaceStructureGrow(@NotNull StructureGrowEvent e) {
+        final ChunkSnapshotCache cache = plugin.getChunkSnapshotCache();
+        if (cache.isIdle()) {
+            return;
+        }
+        long last = Long.MIN_VALUE;
+        for (BlockState state : e.getBlocks()) {
+            last = invalidateColumn(cache, e.getWorld(), state.getX(), state.getZ(), last);
+        }
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSurfaceBlockGrow(@NotNull BlockGrowEvent e) {
+        invalidateSnapshot(e.getBlock(), e.getNewState().getType());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSurfaceBlockForm(@NotNull BlockFormEvent e) {
+        invalidateSnapshot(e.getBlock(), e.getNewState().getType());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSurfaceBlockFade(@NotNull BlockFadeEvent e) {
+        invalidateSnapshot(e.getBlock(), e.getNewState().getType());
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
+    public void onSurfaceEntityChangeBlock(@NotNull EntityChangeBlockEvent e) {
+        invalidateSnapshot(e.getBlock(), e.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onSurfaceChunkUnload(@NotNull ChunkUnloadEvent e) {
+        plugin.getChunkSnapshotCache().invalidate(e.getWorld(), e.getChunk().getX(), e.getChunk().getZ());
+    }
+
+    // Drop the cached snapshot of a changed block's chunk, unless the block is non-solid before and after, as the
+    // surface scan passes over non-solid blocks (e.g. crops growing)
+    private void invalidateSnapshot(@NotNull Block block, @NotNull Material to) {
+        final ChunkSnapshotCache cache = plugin.getChunkSnapshotCache();
+        if (!cache.isIdle() && (to.isSolid() || block.getType().isSolid())) {
+            cache.invalidate(block);
+        }
+    }
+
+    // Drop the cached snapshots of the chunks a list of changed blocks are in
+    private void invalidateSnapshots(@NotNull List<Block> blocks) {
+        final ChunkSnapshotCache cache = plugin.getChunkSnapshotCache();
+        if (blocks.isEmpty() || cache.isIdle()) {
+            return;
+        }
+        final org.bukkit.World world = blocks.get(0).getWorld();
+        long last = Long.MIN_VALUE;
+        for (Block block : blocks) {
+            last = invalidateColumn(cache, world, block.getX(), block.getZ(), last);
+        }
+    }
+
+    // Drop the cached snapshots of the chunks blocks moved by a piston were in and were moved into, and of the head
+    private void invalidatePistonSnapshots(@NotNull Block piston, @NotNull List<Block> blocks,
+                                           @NotNull BlockFace direction) {
+        final ChunkSnapshotCache cache = plugin.getChunkSnapshotCache();
+        if (cache.isIdle()) {
+            return;
+        }
+        final org.bukkit.World world = piston.getWorld();
+        final int dx = direction.getModX();
+        final int dz = direction.getModZ();
+        long last = invalidateColumn(cache, world, piston.getX() + dx, piston.getZ() + dz, Long.MIN_VALUE);
+        for (Block block : blocks) {
+            for (int offset = -1; offset <= 1; offset++) {
+                last = invalidateColumn(cache, world, block.getX() + offset * dx, block.getZ() + offset * dz, last);
+            }
+        }
+    }
+
+    // Drop the cached snapshot of the chunk a block column is in, unless it was the last one dropped; returns its key
+    private static long invalidateColumn(@NotNull ChunkSnapshotCache cache, @NotNull org.bukkit.World world,
+                                         int x, int z, long last) {
+        final long chunk = ((long) (x >> 4) << 32) | ((z >> 4) & 0xFFFFFFFFL);
+        if (chunk != last) {
+            cache.invalidate(world, x >> 4, z >> 4);
+        }
+        return chunk;
+    }
+
     // Fix: End crystals are not treated as explosion in wilderness by cloplib, so their
     // block damage bypasses explosion_damage_terrain. Override here to handle them correctly.
     @EventHandler(ignoreCancelled = true, priority = EventPriority.HIGH)
@@ -111,12 +253,24 @@ public class BukkitListener extends BukkitOperationListener implements BukkitPet
         if (!e.getEntity().getType().getKey().getKey().equals("end_crystal")) {
             return;
         }
-        e.blockList().removeIf(block -> plugin.cancelOperation(
-                net.william278.cloplib.operation.Operation.of(
-                        net.william278.cloplib.operation.OperationType.EXPLOSION_DAMAGE_TERRAIN,
-                        getPosition(block.getLocation())
-                )
-        ));
+        removeCancelledBlocks(e.blockList(), OperationType.EXPLOSION_DAMAGE_TERRAIN);
+    }
+
+    // Remove the blocks an operation is cancelled at from a list, checking them as a batch
+    private void removeCancelledBlocks(@NotNull List<Block> blocks, @NotNull OperationType type) {
+        final BitSet cancelled = plugin.cancelOperations(type, blocks.stream()
+                .map(block -> BukkitHuskClaims.Adapter.adapt(block.getLocation())).toList());
+        if (cancelled.isEmpty()) {
+            return;
+        }
+        final List<Block> allowed = new ArrayList<>(blocks.size() - cancelled.cardinality());
+        for (int i = 0; i < blocks.size(); i++) {
+            if (!cancelled.get(i)) {
+                allowed.add(blocks.get(i));
+            }
+        }
+        blocks.clear();
+        blocks.addAll(allowed);
     }
         
     @EventHandler(ignoreCancelled = true)
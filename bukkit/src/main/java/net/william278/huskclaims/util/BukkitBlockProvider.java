@@ -26,12 +26,14 @@ import net.william278.huskclaims.highlighter.Highlightable;
 import net.william278.huskclaims.position.BlockPosition;
 import net.william278.huskclaims.position.Position;
 import net.william278.huskclaims.position.World;
-import org.bukkit.Location;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
-import org.bukkit.block.Block;
-import org.bukkit.block.BlockFace;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -52,44 +54,67 @@ public interface BukkitBlockProvider extends BlockProvider {
             @NotNull Map<? extends BlockPosition, Highlightable.Type> positions,
             @NotNull World surfaceWorld, @NotNull Position viewerPosition
     ) {
-        final Map<BlockHighlighter.HighlightBlock, Highlightable.Type> blocks = Maps.newHashMap();
-        final Location viewerLocation = Adapter.adapt(viewerPosition);
-        positions.forEach((position, highlightType) -> {
-            final Location location = Adapter.adapt(Position.at(position, viewerPosition.getY(), surfaceWorld));
-            final org.bukkit.World world = Objects.requireNonNull(location.getWorld(), "World is null");
-            final boolean loaded = world.isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4);
-            if (loaded && location.distance(viewerLocation) <= BlockHighlighter.VIEWING_RANGE) {
-                final Block block = getSurfaceBlockAt(location.getBlock(), world.getMinHeight(), world.getMaxHeight());
+        final org.bukkit.World world = Adapter.adapt(surfaceWorld);
+        final int viewerY = (int) Math.floor(viewerPosition.getY());
+        final int minHeight = world.getMinHeight();
+        final int maxHeight = world.getMaxHeight();
+
+        // Group the points in viewing range by chunk, so each chunk is only looked up once
+        final Long2ObjectMap<List<Map.Entry<? extends BlockPosition, Highlightable.Type>>> chunks =
+                new Long2ObjectOpenHashMap<>();
+        for (Map.Entry<? extends BlockPosition, Highlightable.Type> entry : positions.entrySet()) {
+            final double dx = entry.getKey().getBlockX() - viewerPosition.getX();
+            final double dz = entry.getKey().getBlockZ() - viewerPosition.getZ();
+            if (dx * dx + dz * dz <= BlockHighlighter.VIEWING_RANGE * BlockHighlighter.VIEWING_RANGE) {
+                chunks.computeIfAbsent(entry.getKey().getLongChunkCoords(), k -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        final Map<BlockHighlighter.HighlightBlock, Highlightable.Type> blocks = Maps.newHashMapWithExpectedSize(
+                positions.size()
+        );
+        for (Long2ObjectMap.Entry<List<Map.Entry<? extends BlockPosition, Highlightable.Type>>> chunk :
+                chunks.long2ObjectEntrySet()) {
+            final int chunkX = (int) (chunk.getLongKey() >> 32);
+            final int chunkZ = (int) chunk.getLongKey();
+            if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                continue;
+            }
+            final ChunkSnapshot snapshot = getChunkSnapshotCache().get(world, chunkX, chunkZ);
+            for (Map.Entry<? extends BlockPosition, Highlightable.Type> point : chunk.getValue()) {
+                final int x = point.getKey().getBlockX();
+                final int z = point.getKey().getBlockZ();
+                final int y = getSurfaceY(snapshot, x & 15, viewerY, z & 15, minHeight, maxHeight);
                 blocks.put(new BlockHighlighter.HighlightBlock(
-                        Adapter.adapt(block.getLocation()),
-                        new BlockDataBlock(block.getBlockData())
-                ), highlightType);
+                        Position.at(x, y, z, surfaceWorld),
+                        new BlockDataBlock(snapshot.getBlockData(x & 15, y, z & 15))
+                ), point.getValue());
             }
-        });
+        }
         return blocks;
     }
 
-    // Scans up or down relative to where the player is standing to find a good surface block
-    @NotNull
-    private Block getSurfaceBlockAt(@NotNull Block block, int minHeight, int maxHeight) {
-        final BlockFace direction = !isOccluding(block) ? BlockFace.DOWN : BlockFace.UP;
-        while (isObscured(block, minHeight, maxHeight)) {
-            block = block.getRelative(direction);
+    // Scans up or down relative to where the player is standing to find a good surface block. Only blocks that
+    // don't block motion sit above the chunk's MOTION_BLOCKING heightmap, and the scan passes over those anyway, so
+    // when the player is above it, the scan starts from the heightmap instead
+    private int getSurfaceY(@NotNull ChunkSnapshot chunk, int x, int y, int z, int minHeight, int maxHeight) {
+        y = Math.max(minHeight, Math.min(Math.min(y, chunk.getHighestBlockYAt(x, z)), maxHeight - 1));
+        final int direction = !isOccluding(chunk.getBlockType(x, y, z)) ? -1 : 1;
+        while (isObscured(chunk, x, y, z, minHeight, maxHeight)) {
+            y += direction;
         }
-        return block;
+        return Math.max(minHeight, y);
     }
 
     // Returns if a block would be obscured by the block above it (and that it's within the world boundaries)
-    private boolean isObscured(@NotNull Block block, int minHeight, int maxHeight) {
-        return (isOccluding(block.getRelative(BlockFace.UP)) || !isOccluding(block)) &&
-                block.getY() >= minHeight && (block.getY() < maxHeight - 1);
+    private boolean isObscured(@NotNull ChunkSnapshot chunk, int x, int y, int z, int minHeight, int maxHeight) {
+        return y >= minHeight && y < maxHeight - 1
+                && (isOccluding(chunk.getBlockType(x, y + 1, z)) || !isOccluding(chunk.getBlockType(x, y, z)));
     }
 
     // Returns if a block occludes vision/light
-    private boolean isOccluding(@NotNull Block block) {
-        return (block.isLiquid() && block.getType() == Material.LAVA)
-                || block.getType().isSolid() && (block.getType().isOccluding()
-                || isAllowedMaterial(block.getType()));
+    private boolean isOccluding(@NotNull Material type) {
+        return type == Material.LAVA || type.isSolid() && (type.isOccluding() || isAllowedMaterial(type));
     }
 
     private boolean isAllowedMaterial(@NotNull Material material) {
@@ -108,4 +133,7 @@ public interface BukkitBlockProvider extends BlockProvider {
         };
     }
 
+    @NotNull
+    ChunkSnapshotCache getChunkSnapshotCache();
+
 }
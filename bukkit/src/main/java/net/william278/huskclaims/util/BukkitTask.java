@@ -139,6 +139,12 @@ public interface BukkitTask extends Task {
             return new Sync(getPlugin(), runnable, initialDelay);
         }
 
+        // Matches the check Sync#run uses to decide whether to run inline, so Folia's global region thread counts
+        @Override
+        default boolean isSyncThread() {
+            return ((BukkitHuskClaims) getPlugin()).getMorePaperLib().scheduling().isOnGlobalRegionThread();
+        }
+
         @NotNull
         @Override
         default Task.Async getAsyncTask(@NotNull Runnable runnable) {
@@ -0,0 +1,122 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.util;
+
+import com.google.common.collect.Maps;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A short-lived cache of {@link ChunkSnapshot}s, used to resolve the surface blocks claim highlights are shown on.
+ * <p>
+ * Re-highlighting as a player moves reads the same few chunks over and over; snapshotting each chunk once and reading
+ * columns from the snapshot avoids a world block lookup for every block scanned. Snapshots are dropped when a block
+ * change event that could move the surface touches their chunk, or when the chunk unloads. Changes that fire no
+ * event, such as WorldEdit edits, are picked up when the snapshot expires a few seconds later.
+ * <p>
+ * Invalidating is called for block changes all over the server, so it returns straight away without locking or
+ * allocating when no snapshot has been taken within the lifetime, i.e. when nobody is being shown highlights.
+ *
+ * @since 1.5.12
+ */
+public class ChunkSnapshotCache {
+
+    // How long a chunk snapshot is reused for before the chunk is read again
+    private static final long SNAPSHOT_LIFETIME_MILLIS = 3000;
+
+    private final ConcurrentMap<ChunkKey, Snapshot> snapshots = Maps.newConcurrentMap();
+    private volatile long lastTaken;
+
+    /**
+     * Get a snapshot of a loaded chunk, including its surface heightmap, taking a new one if needed
+     *
+     * @param world  the world the chunk is in
+     * @param chunkX the chunk X coordinate
+     * @param chunkZ the chunk Z coordinate
+     * @return the chunk snapshot
+     * @since 1.5.12
+     */
+    @NotNull
+    public ChunkSnapshot get(@NotNull World world, int chunkX, int chunkZ) {
+        final long now = System.currentTimeMillis();
+        final ChunkKey key = new ChunkKey(world.getUID(), chunkX, chunkZ);
+        final Snapshot cached = snapshots.get(key);
+        if (cached != null && now - cached.taken() < SNAPSHOT_LIFETIME_MILLIS) {
+            return cached.snapshot();
+        }
+
+        // Drop expired snapshots when none have been taken for a lifetime, so the map only holds recent chunks
+        if (now - lastTaken >= SNAPSHOT_LIFETIME_MILLIS) {
+            snapshots.clear();
+        }
+        lastTaken = now;
+        final ChunkSnapshot snapshot = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(true, false, false);
+        snapshots.put(key, new Snapshot(snapshot, now));
+        return snapshot;
+    }
+
+    /**
+     * Drop the snapshot of the chunk containing a block, if one is cached
+     *
+     * @param block the block that changed
+     * @since 1.5.12
+     */
+    public void invalidate(@NotNull Block block) {
+        invalidate(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+    }
+
+    /**
+     * Drop the snapshot of a chunk, if one is cached
+     *
+     * @param world  the world the chunk is in
+     * @param chunkX the chunk X coordinate
+     * @param chunkZ the chunk Z coordinate
+     * @since 1.5.12
+     */
+    public void invalidate(@NotNull World world, int chunkX, int chunkZ) {
+        if (isIdle()) {
+            return;
+        }
+        snapshots.remove(new ChunkKey(world.getUID(), chunkX, chunkZ));
+    }
+
+    /**
+     * Returns whether no snapshot has been taken within the snapshot lifetime, so none are held that could be stale
+     *
+     * @return {@code true} if invalidating can be skipped
+     * @since 1.5.12
+     */
+    public boolean isIdle() {
+        return snapshots.isEmpty() || System.currentTimeMillis() - lastTaken >= SNAPSHOT_LIFETIME_MILLIS;
+    }
+
+    private record ChunkKey(@NotNull UUID world, int x, int z) {
+    }
+
+    // A chunk snapshot and when it was taken
+    private record Snapshot(@NotNull ChunkSnapshot snapshot, long taken) {
+    }
+
+}
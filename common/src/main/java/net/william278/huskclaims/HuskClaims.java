@@ -30,6 +30,7 @@ import net.william278.huskclaims.highlighter.HighlighterProvider;
 import net.william278.huskclaims.hook.HookProvider;
 import net.william278.huskclaims.hook.PluginHook;
 import net.william278.huskclaims.listener.ListenerProvider;
+import net.william278.huskclaims.metrics.MetricsProvider;
 import net.william278.huskclaims.moderation.DropsHandler;
 import net.william278.huskclaims.moderation.SignNotifier;
 import net.william278.huskclaims.network.BrokerProvider;
@@ -52,7 +53,7 @@ import java.util.logging.Level;
 public interface HuskClaims extends Task.Supplier, ConfigProvider, UserProvider, SavedUserProvider, DatabaseProvider,
         GsonProvider, SignNotifier, ClaimManager, GroupManager, TrustTagManager, ListenerProvider, CommandProvider,
         PetHandler, DropsHandler, BrokerProvider, TextValidator, AudiencesProvider, BlockProvider, SafeTeleportProvider,
-        MetaProvider, EventDispatcher, HookProvider, HighlighterProvider, DumpProvider {
+        MetaProvider, EventDispatcher, HookProvider, HighlighterProvider, DumpProvider, MetricsProvider {
 
     /**
      * Load plugin systems
@@ -82,6 +83,7 @@ public interface HuskClaims extends Task.Supplier, ConfigProvider, UserProvider,
      */
     default void enable() {
         try {
+            loadMetricsRegistry();
             loadDatabase();
             loadClaimWorlds();
             loadHighlighters();
@@ -91,6 +93,9 @@ public interface HuskClaims extends Task.Supplier, ConfigProvider, UserProvider,
             loadCommands();
             loadListeners();
             loadClaimBlockScheduler();
+            startPermissionRefresh();
+            startMarkedDropReaper();
+            startMapMarkerSync();
             registerHooks(PluginHook.Register.ON_ENABLE);
             loadAPI();
             loadMetrics();
@@ -112,9 +117,11 @@ public interface HuskClaims extends Task.Supplier, ConfigProvider, UserProvider,
     default void shutdown() {
         log(Level.INFO, String.format("Disabling HuskClaims v%s...", getPluginVersion()));
         try {
+            clearAllMapMarkersNow();
             unloadHooks(PluginHook.Register.values());
             closeBroker();
             closeDatabase();
+            closeMetricsExporter();
             cancelTasks();
             unloadAPI();
         } catch (Throwable e) {
@@ -913,7 +913,7 @@ public class HuskClaimsAPI {
     public void setTrustLevel(@NotNull Claim claim, @NotNull ClaimWorld claimWorld,
                               @NotNull Trustable trustable, @NotNull TrustLevel level) {
         plugin.runAsync(() -> {
-            claim.setTrustLevel(trustable, level);
+            claimWorld.setTrustLevel(claim, trustable, level);
             plugin.getDatabase().updateClaimWorld(claimWorld);
         });
     }
@@ -1035,7 +1035,7 @@ public class HuskClaimsAPI {
      * @since 1.0
      */
     public Optional<UserGroup> getUserGroupByName(@NotNull User user, @NotNull String name) {
-        return getUserGroups(user).stream().filter(group -> group.name().equalsIgnoreCase(name)).findFirst();
+        return plugin.getUserGroup(user.getUuid(), name);
     }
 
     /**
@@ -22,8 +22,13 @@ package net.william278.huskclaims.claim;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -34,22 +39,34 @@ import net.william278.huskclaims.HuskClaims;
 import net.william278.huskclaims.highlighter.Highlightable;
 import net.william278.huskclaims.position.BlockPosition;
 import net.william278.huskclaims.trust.TrustLevel;
+import net.william278.huskclaims.trust.TrustLevelTable;
 import net.william278.huskclaims.trust.TrustTag;
 import net.william278.huskclaims.trust.Trustable;
 import net.william278.huskclaims.trust.UserGroup;
 import net.william278.huskclaims.user.OnlineUser;
 import net.william278.huskclaims.user.User;
+import net.william278.huskclaims.util.datastrcture.OperationTypeSet;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * A {@link Region} in a {@link ClaimWorld} governed by user {@link TrustLevel}s and a set of
  * base {@link OperationType} flags
+ * <p>
+ * Most claims trust nobody and have no children, so a claim's trust, ban and child collections are shared empty
+ * collections until they are first written to. Read them through the {@code ...View()} accessors, which do not
+ * allocate the collections of claims that have none.
  *
  * @see Region
  * @since 1.0
@@ -57,6 +74,9 @@ import java.util.concurrent.ConcurrentMap;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class Claim implements Highlightable {
 
+    // Sentinel for claims created before creation times were recorded
+    private static final long UNKNOWN_CREATION_TIME = Long.MIN_VALUE;
+
     /**
      * The claim region
      */
@@ -76,41 +96,35 @@ public class Claim implements Highlightable {
      * Map of UUID players to their {@link TrustLevel} in this claim
      */
     @Expose
-    @Getter
     @SerializedName("trusted_users")
-    private Map<UUID, String> trustedUsers;
+    private volatile Map<UUID, String> trustedUsers;
 
     /**
      * Map of group names to their {@link TrustLevel} in this claim
      */
     @Expose
-    @Getter
     @SerializedName("trusted_groups")
-    private Map<String, String> trustedGroups;
+    private volatile Map<String, String> trustedGroups;
 
     /**
      * Map of tag names to their {@link TrustLevel} in this claim
      */
     @Expose
-    @Getter
     @SerializedName("trusted_tags")
-    private Map<String, String> trustedTags;
+    private volatile Map<String, String> trustedTags;
 
     /**
      * Map of banned users in this claim (UUID of the banned player, UUID of the banner)
      */
     @Expose
-    @Getter
     @SerializedName("banned_users")
-    private Map<UUID, UUID> bannedUsers;
+    private volatile Map<UUID, UUID> bannedUsers;
 
     /**
      * List of child claims
      */
     @Expose
-    @Getter
-    private Set<Claim> children;
-
+    private volatile Set<Claim> children;
 
     /**
      * The parent claim of this claim
@@ -122,12 +136,11 @@ public class Claim implements Highlightable {
     private Claim parent;
 
     /**
-     * List of OperationTypes allowed on this claim to everyone
+     * Set of OperationTypes allowed on this claim to everyone
      */
     @Expose
-    @Getter
     @SerializedName("default_flags")
-    private Set<OperationType> defaultFlags;
+    private OperationTypeSet defaultFlags;
 
     /**
      * If this is a child claim, whether to inherit member trust levels from the parent.
@@ -152,27 +165,27 @@ public class Claim implements Highlightable {
     private boolean privateClaim;
 
     /**
-     * The time the claim was created (as a stringified {@link OffsetDateTime})
+     * The time the claim was created, in epoch milliseconds (serialized as a stringified {@link OffsetDateTime})
      */
     @Expose
-    @Nullable
     @SerializedName("creation_time")
-    private String creationTime;
+    @JsonAdapter(CreationTimeAdapter.class)
+    private long creationTime = UNKNOWN_CREATION_TIME;
 
     protected Claim(@Nullable UUID owner, @NotNull Region region, @NotNull ConcurrentMap<UUID, String> users,
                     @NotNull ConcurrentMap<String, String> groups, @NotNull ConcurrentMap<String, String> tags,
                     @NotNull ConcurrentMap<UUID, UUID> bannedUsers, @NotNull Set<Claim> children, boolean inheritParent,
-                    @NotNull Set<OperationType> defaultFlags, boolean privateClaim) {
+                    @NotNull Collection<OperationType> defaultFlags, boolean privateClaim) {
         this.owner = owner;
         this.region = region;
-        this.trustedUsers = users;
-        this.trustedGroups = groups;
-        this.trustedTags = tags;
-        this.bannedUsers = bannedUsers;
-        this.children = children;
-        this.defaultFlags = defaultFlags;
+        this.trustedUsers = compacted(users);
+        this.trustedGroups = compacted(groups);
+        this.trustedTags = compacted(tags);
+        this.bannedUsers = compacted(bannedUsers);
+        this.children = compacted(children);
+        this.defaultFlags = new OperationTypeSet(defaultFlags);
         this.inheritParent = inheritParent;
-        this.creationTime = OffsetDateTime.now().toString();
+        this.creationTime = System.currentTimeMillis();
         this.privateClaim = privateClaim;
         children.forEach(child -> child.setParent(this));
     }
@@ -182,10 +195,10 @@ public class Claim implements Highlightable {
                 owner, region,
                 Maps.newConcurrentMap(), Maps.newConcurrentMap(), Maps.newConcurrentMap(),
                 Maps.newConcurrentMap(), Sets.newConcurrentHashSet(), true,
-                Sets.newConcurrentHashSet(owner != null
+                owner != null
                         ? plugin.getSettings().getClaims().getDefaultFlags()
-                        : plugin.getSettings().getClaims().getAdminFlags()), 
-                        false
+                        : plugin.getSettings().getClaims().getAdminFlags(),
+                false
         );
     }
 
@@ -222,43 +235,167 @@ public class Claim implements Highlightable {
      */
     public void setOwner(@NotNull UUID uuid) {
         this.owner = uuid;
-        getChildren().forEach(child -> child.setOwner(uuid));
+        children.forEach(child -> child.setOwner(uuid));
     }
 
     /**
-     * Get the map of {@link TrustTag}s to {@link TrustLevel}s in this claim
+     * Get the map of trusted user UUIDs to the IDs of their {@link TrustLevel}s in this claim.
+     * The returned map may be modified
      *
-     * @param plugin the plugin instance
-     * @return the map of trusted tags
+     * @return the trusted users
+     * @deprecated use {@link #getTrustedUsersView()} to read the trusted users, as this allocates a map for claims
+     * that have none, and the methods of this class to modify them
      * @since 1.0
      */
     @NotNull
-    private Map<TrustTag, TrustLevel> getTrustTagMap(@NotNull HuskClaims plugin) {
-        final Map<TrustTag, TrustLevel> map = Maps.newHashMap();
-        for (Map.Entry<String, String> entry : trustedTags.entrySet()) {
-            plugin.getTrustTag(entry.getKey()).ifPresent(tag -> plugin.getTrustLevel(entry.getValue())
-                    .ifPresent(level -> map.put(tag, level)));
-        }
-        return map;
+    @Deprecated(since = "1.5.12")
+    public Map<UUID, String> getTrustedUsers() {
+        return writableTrustedUsers();
     }
 
     /**
-     * Get the map of {@link UserGroup}s to {@link TrustLevel}s in this claim
+     * Get the map of trusted user UUIDs to the IDs of their {@link TrustLevel}s in this claim
      *
-     * @param plugin the plugin instance
-     * @return the map of trusted groups
+     * @return an unmodifiable view of the trusted users
+     * @since 1.5.12
+     */
+    @NotNull
+    @Unmodifiable
+    public Map<UUID, String> getTrustedUsersView() {
+        return Collections.unmodifiableMap(trustedUsers);
+    }
+
+    /**
+     * Get the map of trusted group names to the IDs of their {@link TrustLevel}s in this claim.
+     * The returned map may be modified
+     *
+     * @return the trusted groups
+     * @deprecated use {@link #getTrustedGroupsView()} to read the trusted groups, as this allocates a map for claims
+     * that have none, and the methods of this class to modify them
      * @since 1.0
      */
     @NotNull
-    private Map<UserGroup, TrustLevel> getTrustedGroupMap(@NotNull HuskClaims plugin) {
-        if (owner == null) {
-            return Map.of();
-        }
+    @Deprecated(since = "1.5.12")
+    public Map<String, String> getTrustedGroups() {
+        return writableTrustedGroups();
+    }
+
+    /**
+     * Get the map of trusted group names to the IDs of their {@link TrustLevel}s in this claim
+     *
+     * @return an unmodifiable view of the trusted groups
+     * @since 1.5.12
+     */
+    @NotNull
+    @Unmodifiable
+    public Map<String, String> getTrustedGroupsView() {
+        return Collections.unmodifiableMap(trustedGroups);
+    }
 
-        final Map<UserGroup, TrustLevel> map = Maps.newHashMap();
-        for (Map.Entry<String, String> entry : trustedGroups.entrySet()) {
-            plugin.getUserGroup(owner, entry.getKey()).ifPresent(group -> plugin.getTrustLevel(entry.getValue())
-                    .ifPresent(level -> map.put(group, level)));
+    /**
+     * Get the map of trusted tag names to the IDs of their {@link TrustLevel}s in this claim.
+     * The returned map may be modified
+     *
+     * @return the trusted tags
+     * @deprecated use {@link #getTrustedTagsView()} to read the trusted tags, as this allocates a map for claims
+     * that have none, and the methods of this class to modify them
+     * @since 1.0
+     */
+    @NotNull
+    @Deprecated(since = "1.5.12")
+    public Map<String, String> getTrustedTags() {
+        return writableTrustedTags();
+    }
+
+    /**
+     * Get the map of trusted tag names to the IDs of their {@link TrustLevel}s in this claim
+     *
+     * @return an unmodifiable view of the trusted tags
+     * @since 1.5.12
+     */
+    @NotNull
+    @Unmodifiable
+    public Map<String, String> getTrustedTagsView() {
+        return Collections.unmodifiableMap(trustedTags);
+    }
+
+    /**
+     * Get the map of users banned from this claim to the users who banned them.
+     * The returned map may be modified
+     *
+     * @return the banned users
+     * @deprecated use {@link #getBannedUsersView()} to read the banned users, as this allocates a map for claims
+     * that have none, and the methods of this class to modify them
+     * @since 1.3
+     */
+    @NotNull
+    @Deprecated(since = "1.5.12")
+    public Map<UUID, UUID> getBannedUsers() {
+        return writableBannedUsers();
+    }
+
+    /**
+     * Get the map of users banned from this claim to the users who banned them
+     *
+     * @return an unmodifiable view of the banned users
+     * @since 1.5.12
+     */
+    @NotNull
+    @Unmodifiable
+    public Map<UUID, UUID> getBannedUsersView() {
+        return Collections.unmodifiableMap(bannedUsers);
+    }
+
+    /**
+     * Get the child claims of this claim. The returned set may be modified
+     *
+     * @return the child claims
+     * @deprecated use {@link #getChildrenView()} to read the child claims, as this allocates a set for claims that
+     * have none, and {@link #addChild(Claim)} and {@link #removeChild(Claim)} to modify them
+     * @since 1.0
+     */
+    @NotNull
+    @Deprecated(since = "1.5.12")
+    public Set<Claim> getChildren() {
+        return writableChildren();
+    }
+
+    /**
+     * Get the child claims of this claim. Use {@link #addChild(Claim)} and {@link #removeChild(Claim)} to modify them
+     *
+     * @return an unmodifiable view of the child claims
+     * @since 1.5.12
+     */
+    @NotNull
+    @Unmodifiable
+    public Set<Claim> getChildrenView() {
+        return Collections.unmodifiableSet(children);
+    }
+
+    /**
+     * Get the set of {@link OperationType}s allowed on this claim to everyone. The returned set may be modified
+     *
+     * @return the default flags of this claim
+     * @since 1.0
+     */
+    @NotNull
+    public Set<OperationType> getDefaultFlags() {
+        return defaultFlags;
+    }
+
+    /**
+     * Get the map of {@link TrustTag}s to {@link TrustLevel}s in this claim
+     *
+     * @param plugin the plugin instance
+     * @return the map of trusted tags
+     * @since 1.0
+     */
+    @NotNull
+    private Map<TrustTag, TrustLevel> getTrustTagMap(@NotNull HuskClaims plugin) {
+        final Map<TrustTag, TrustLevel> map = Maps.newHashMap();
+        for (Map.Entry<String, String> entry : trustedTags.entrySet()) {
+            plugin.getTrustTag(entry.getKey()).ifPresent(tag -> plugin.getTrustLevel(entry.getValue())
+                    .ifPresent(level -> map.put(tag, level)));
         }
         return map;
     }
@@ -291,7 +428,7 @@ public class Claim implements Highlightable {
         if (bannedUsers.containsKey(uuid)) {
             throw new IllegalArgumentException("Cannot set trust level for banned user");
         }
-        trustedUsers.put(uuid, level.getId());
+        writableTrustedUsers().put(uuid, level.getId());
     }
 
     /**
@@ -302,7 +439,7 @@ public class Claim implements Highlightable {
      * @since 1.0
      */
     public void setGroupTrustLevel(@NotNull UserGroup group, @NotNull TrustLevel level) {
-        trustedGroups.put(group.name(), level.getId());
+        writableTrustedGroups().put(group.name(), level.getId());
     }
 
     /**
@@ -313,7 +450,7 @@ public class Claim implements Highlightable {
      * @since 1.0
      */
     public void setTagTrustLevel(@NotNull TrustTag tag, @NotNull TrustLevel level) {
-        trustedTags.put(tag.getName(), level.getId());
+        writableTrustedTags().put(tag.getName(), level.getId());
     }
 
     /**
@@ -415,9 +552,9 @@ public class Claim implements Highlightable {
         }
 
         // Check if the user is in a trusted group
-        final Map<UserGroup, TrustLevel> groups = getTrustedGroupMap(plugin);
-        final Optional<TrustLevel> groupLevel = groups.entrySet().stream()
-                .filter(entry -> entry.getKey().includes(user)).map(Map.Entry::getValue)
+        final Optional<TrustLevel> groupLevel = owner == null ? Optional.empty() : trustedGroups.entrySet().stream()
+                .filter(entry -> plugin.isUserGroupMember(owner, entry.getKey(), user))
+                .flatMap(entry -> plugin.getTrustLevel(entry.getValue()).stream())
                 .sorted().findFirst();
         if (groupLevel.isPresent()) {
             return groupLevel;
@@ -474,6 +611,21 @@ public class Claim implements Highlightable {
         return bannedUsers.containsKey(user.getUuid());
     }
 
+    /**
+     * Replace the trust level IDs in this claim and its children with their canonical instances from a
+     * {@link TrustLevelTable}, so claims share one copy of each ID rather than each holding their own
+     *
+     * @param table the trust level table
+     * @since 1.5.12
+     */
+    @ApiStatus.Internal
+    public void internTrustLevels(@NotNull TrustLevelTable table) {
+        trustedUsers.replaceAll((uuid, level) -> table.intern(level));
+        trustedGroups.replaceAll((group, level) -> table.intern(level));
+        trustedTags.replaceAll((tag, level) -> table.intern(level));
+        children.forEach(child -> child.internTrustLevels(table));
+    }
+
     /**
      * Ban a user from this claim.
      * <p>
@@ -492,7 +644,7 @@ public class Claim implements Highlightable {
             throw new IllegalArgumentException("Cannot ban self from claim");
         }
         trustedUsers.remove(user.getUuid());
-        bannedUsers.put(user.getUuid(), arbiter.getUuid());
+        writableBannedUsers().put(user.getUuid(), arbiter.getUuid());
     }
 
     /**
@@ -561,17 +713,18 @@ public class Claim implements Highlightable {
 
     @NotNull
     public Optional<OffsetDateTime> getCreationTime() {
-        return Optional.ofNullable(creationTime).map(OffsetDateTime::parse);
+        return creationTime == UNKNOWN_CREATION_TIME ? Optional.empty()
+                : Optional.of(OffsetDateTime.ofInstant(Instant.ofEpochMilli(creationTime), ZoneId.systemDefault()));
     }
 
     @NotNull
     public Optional<Claim> getChildClaimAt(@NotNull BlockPosition position) {
-        return getChildren().stream().filter(claim -> claim.getRegion().contains(position)).findFirst();
+        return children.stream().filter(claim -> claim.getRegion().contains(position)).findFirst();
     }
 
     @NotNull
     public List<Claim> getChildClaimsWithin(@NotNull Region region) {
-        return getChildren().stream().filter(claim -> claim.getRegion().overlaps(region)).toList();
+        return children.stream().filter(claim -> claim.getRegion().overlaps(region)).toList();
     }
 
     public boolean containsChild(@NotNull Claim child) {
@@ -618,11 +771,103 @@ public class Claim implements Highlightable {
             throw new IllegalArgumentException("Child claim must be fully enclosed within parent claim");
         }
         final Claim child = new Claim(owner, subRegion, plugin);
-        children.add(child);
-        child.setParent(this);
+        addChild(child);
         return child;
     }
 
+    /**
+     * Add a child claim to this claim, setting this claim as its parent
+     *
+     * @param child the child claim to add
+     * @since 1.5.12
+     */
+    public void addChild(@NotNull Claim child) {
+        writableChildren().add(child);
+        child.setParent(this);
+    }
+
+    /**
+     * Remove a child claim from this claim
+     *
+     * @param child the child claim to remove
+     * @return whether this claim contained the child
+     * @since 1.5.12
+     */
+    public boolean removeChild(@NotNull Claim child) {
+        return children.remove(child);
+    }
+
+    /**
+     * Swap the collections of a claim deserialized by Gson, and those of its children, for their compact forms
+     *
+     * @return this claim
+     */
+    @NotNull
+    Claim compact() {
+        trustedUsers = compacted(trustedUsers);
+        trustedGroups = compacted(trustedGroups);
+        trustedTags = compacted(trustedTags);
+        bannedUsers = compacted(bannedUsers);
+        children = compacted(children);
+        if (defaultFlags == null) {
+            defaultFlags = new OperationTypeSet();
+        }
+        children.forEach(Claim::compact);
+        return this;
+    }
+
+    // Get each collection for writing, replacing the shared empty collection with a concurrent one on first write
+    @NotNull
+    private synchronized Map<UUID, String> writableTrustedUsers() {
+        return trustedUsers = concurrent(trustedUsers);
+    }
+
+    @NotNull
+    private synchronized Map<String, String> writableTrustedGroups() {
+        return trustedGroups = concurrent(trustedGroups);
+    }
+
+    @NotNull
+    private synchronized Map<String, String> writableTrustedTags() {
+        return trustedTags = concurrent(trustedTags);
+    }
+
+    @NotNull
+    private synchronized Map<UUID, UUID> writableBannedUsers() {
+        return bannedUsers = concurrent(bannedUsers);
+    }
+
+    @NotNull
+    private synchronized Set<Claim> writableChildren() {
+        return children = concurrent(children);
+    }
+
+    // Get the compact form of a map: the shared empty map, or a concurrent map of its entries
+    @NotNull
+    private static <K, V> Map<K, V> compacted(@Nullable Map<K, V> map) {
+        return map == null || map.isEmpty() ? Collections.emptyMap() : concurrent(map);
+    }
+
+    @NotNull
+    private static <E> Set<E> compacted(@Nullable Set<E> set) {
+        return set == null || set.isEmpty() ? Collections.emptySet() : concurrent(set);
+    }
+
+    @NotNull
+    private static <K, V> Map<K, V> concurrent(@NotNull Map<K, V> map) {
+        return map instanceof ConcurrentMap ? map : new ConcurrentHashMap<>(map);
+    }
+
+    @NotNull
+    private static <E> Set<E> concurrent(@NotNull Set<E> set) {
+        if (set instanceof ConcurrentHashMap.KeySetView) {
+            return set;
+        }
+        final Set<E> copy = ConcurrentHashMap.newKeySet(set.size());
+        copy.addAll(set);
+        return copy;
+    }
+
     @Override
     @NotNull
     public Map<Region.Point, Type> getHighlightPoints(@NotNull ClaimWorld world, boolean showOverlap,
@@ -642,4 +887,34 @@ public class Claim implements Highlightable {
         return obj instanceof Claim c && c.region.equals(region) && c.children.equals(children);
     }
 
+    // Reads and writes creation times as stringified OffsetDateTimes, as they were stored before being held as longs
+    private static final class CreationTimeAdapter extends TypeAdapter<Long> {
+
+        @Override
+        public void write(@NotNull JsonWriter out, @Nullable Long value) throws IOException {
+            if (value == null || value == UNKNOWN_CREATION_TIME) {
+                out.nullValue();
+                return;
+            }
+            out.value(OffsetDateTime.ofInstant(Instant.ofEpochMilli(value), ZoneId.systemDefault()).toString());
+        }
+
+        @Override
+        @Nullable
+        public Long read(@NotNull JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            } else if (in.peek() == JsonToken.NUMBER) {
+                return in.nextLong();
+            }
+            try {
+                return OffsetDateTime.parse(in.nextString()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+
+    }
+
 }
@@ -161,7 +161,7 @@ public interface ClaimEditor {
         }
 
         // Check all existing child claims still fit within the resized claim
-        if (!claim.getChildren().stream().map(Claim::getRegion).allMatch(resized::fullyEncloses)) {
+        if (!claim.getChildrenView().stream().map(Claim::getRegion).allMatch(resized::fullyEncloses)) {
             getPlugin().getLocales().getLocale("selection_resize_not_enclosing_children")
                     .ifPresent(user::sendMessage);
             return;
@@ -306,6 +306,7 @@ public interface ClaimEditor {
             getPlugin().removeMappedClaim(claim, claimWorld);
             claim.unBanUser(newOwner);
             claim.setOwner(newOwner.getUuid());
+            claimWorld.incrementRevision();
             getPlugin().runQueued(() -> getPlugin().getDatabase().updateClaimWorld(claimWorld));
             getPlugin().addMappedClaim(claim, claimWorld);
             getPlugin().getHighlighter(user).startHighlighting(user, user.getWorld(), claim);
@@ -325,7 +326,7 @@ public interface ClaimEditor {
             final Claim claim = getPlugin().createAdminClaimAt(world, region);
 
             // Grant the claim creator the highest trust level
-            claim.setTrustLevel(user, getPlugin().getHighestTrustLevel());
+            world.setTrustLevel(claim, user, getPlugin().getHighestTrustLevel());
 
             // Highlight the claim
             getPlugin().getHighlighter(user).startHighlighting(user, user.getWorld(), claim);
@@ -22,18 +22,18 @@ package net.william278.huskclaims.claim;
 import net.william278.cloplib.handler.Handler;
 import net.william278.cloplib.operation.Operation;
 import net.william278.cloplib.operation.OperationPosition;
+import net.william278.cloplib.operation.OperationType;
 import net.william278.cloplib.operation.OperationUser;
 import net.william278.cloplib.operation.OperationWorld;
 import net.william278.huskclaims.HuskClaims;
-import net.william278.huskclaims.command.IgnoreClaimsCommand;
+import net.william278.huskclaims.metrics.MetricsRegistry;
 import net.william278.huskclaims.position.Position;
 import net.william278.huskclaims.position.World;
 import net.william278.huskclaims.user.OnlineUser;
 import net.william278.huskclaims.user.Preferences;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Optional;
-import net.william278.cloplib.operation.OperationType;
+import java.util.*;
 
 /**
  * Handler for {@link Operation}s in {@link Claim}s
@@ -47,9 +47,56 @@ public interface ClaimHandler extends Handler {
         if (isOperationIgnored(operation)) {
             return false;
         }
-        return getClaimWorld((World) operation.getOperationPosition().getWorld())
-                .map(world -> !world.isOperationAllowed(operation, getPlugin()))
-                .orElse(false);
+        final MetricsRegistry metrics = getPlugin().getMetricsRegistry();
+        final long start = metrics.startTiming();
+        final Optional<Boolean> allowed = getClaimWorld((World) operation.getOperationPosition().getWorld())
+                .map(world -> world.isOperationAllowed(operation, getPlugin()));
+        metrics.recordSince(ClaimMetrics.CLAIM_LOOKUPS_OPERATION, start);
+        if (allowed.isEmpty()) {
+            return false;
+        }
+        if (metrics.isEnabled()) {
+            metrics.increment(ClaimMetrics.operationChecks(operation.getType(), allowed.get()));
+        }
+        return !allowed.get();
+    }
+
+    /**
+     * Get at which of a batch of positions an operation not involving a user should be cancelled, such as when
+     * blocks are damaged by an explosion. This is equivalent to checking {@link #cancelOperation(Operation)} for each
+     * position, but claims are resolved chunk by chunk, and the operation is checked once per distinct claim.
+     *
+     * @param type      the type of operation
+     * @param positions the positions of the operation, all in the same world
+     * @return the indexes of the positions at which the operation should be cancelled
+     * @since 1.5.12
+     */
+    @NotNull
+    default BitSet cancelOperations(@NotNull OperationType type, @NotNull List<? extends Position> positions) {
+        final BitSet cancelled = new BitSet(positions.size());
+        final Optional<ClaimWorld> optionalClaimWorld = positions.isEmpty()
+                ? Optional.empty() : getClaimWorld(positions.get(0).getWorld());
+        if (optionalClaimWorld.isEmpty()) {
+            return cancelled;
+        }
+
+        final ClaimWorld claimWorld = optionalClaimWorld.get();
+        final MetricsRegistry metrics = getPlugin().getMetricsRegistry();
+        final long start = metrics.startTiming();
+        final Claim[] claims = claimWorld.getClaimsAt(positions);
+        metrics.recordSince(ClaimMetrics.CLAIM_LOOKUPS_BATCH, start);
+        final Map<Claim, Boolean> allowedInClaims = new IdentityHashMap<>();
+        final boolean allowedInWilderness = claimWorld.getWildernessFlags().contains(type);
+        for (int i = 0; i < claims.length; i++) {
+            final Position position = positions.get(i);
+            final boolean allowed = claims[i] == null ? allowedInWilderness : allowedInClaims.computeIfAbsent(
+                    claims[i], claim -> claim.isOperationAllowed(Operation.of(type, position), getPlugin())
+            );
+            if (!allowed) {
+                cancelled.set(i);
+            }
+        }
+        return cancelled;
     }
 
     @Override
@@ -67,8 +114,11 @@ public interface ClaimHandler extends Handler {
         final ClaimWorld world = optionalClaimWorld.get();
 
         // Determine from and to claims
+        final MetricsRegistry metrics = getPlugin().getMetricsRegistry();
+        final long start = metrics.startTiming();
         final Optional<Claim> fromClaim = world.getClaimAt((Position) from);
         final Optional<Claim> toClaim = world.getClaimAt((Position) to);
+        metrics.recordSince(ClaimMetrics.CLAIM_LOOKUPS_MOVEMENT, start);
         if (fromClaim.equals(toClaim)) {
             return false;
         }
@@ -130,10 +180,20 @@ public interface ClaimHandler extends Handler {
             return false;
         }
 
-        // If the two claims are the same or share the same owner, allow it, otherwise, deny it
+        // Changes within an unclaimed chunk, or a chunk covered by one claim, are always allowed
         final ClaimWorld claimWorld = optionalClaimWorld.get();
-        final Optional<Claim> claim1 = claimWorld.getClaimAt((Position) position1);
-        final Optional<Claim> claim2 = claimWorld.getClaimAt((Position) position2);
+        final Position pos1 = (Position) position1;
+        final Position pos2 = (Position) position2;
+        final long chunk = pos1.getLongChunkCoords();
+        if (chunk == pos2.getLongChunkCoords()
+                && claimWorld.getChunkOccupancy(chunk) != ClaimWorld.ChunkOccupancy.MIXED) {
+            return false;
+        }
+
+        // If the two claims are the same or share the same owner, allow it, otherwise, deny it
+        // Child claims share their parent's owner, so only the parent claims need to be resolved
+        final Optional<Claim> claim1 = claimWorld.getParentClaimAt(pos1);
+        final Optional<Claim> claim2 = claimWorld.getParentClaimAt(pos2);
         if (claim1.isPresent() && claim2.isPresent()) {
             final Claim c1 = claim1.get();
             final Claim c2 = claim2.get();
@@ -156,35 +216,24 @@ public interface ClaimHandler extends Handler {
             }
             
             // Check if user has permission to bypass this specific operation type
-            return hasIgnoreClaimsPermission(onlineUser, operation.getType());
+            return onlineUser.getPermissions().canIgnoreOperation(operation.getType());
         }).orElse(false);
     }
 
-    // Checks if a user has permission to bypass a specific operation type when ignoring claims
-    private boolean hasIgnoreClaimsPermission(@NotNull OnlineUser user, @NotNull OperationType operationType) {
-        // Check for wildcard permission first
-        if (getPlugin().canUseCommand(IgnoreClaimsCommand.class, user, "operations", "*")) {
-            return true;
-        }
-        
-        // Check for specific operation type permission
-        return getPlugin().canUseCommand(IgnoreClaimsCommand.class, user, "operations", operationType.asMinimalString());
-    }
-
     // Checks if a user has permission to bypass claim bans when ignoring claims
     default boolean hasIgnoreClaimsBanPermission(@NotNull OnlineUser user) {
-        return getPlugin().canUseCommand(IgnoreClaimsCommand.class, user, "bans");
+        return user.getPermissions().canIgnoreBans();
     }
 
     // Checks if a user has permission to bypass private claims when ignoring claims
     default boolean hasIgnoreClaimsPrivatePermission(@NotNull OnlineUser user) {
-        return getPlugin().canUseCommand(IgnoreClaimsCommand.class, user, "private");
+        return user.getPermissions().canIgnorePrivateClaims();
     }
 
     // Checks if a user is ignoring claims, ensuring they also have permission to ignore claims
     default boolean isIgnoringClaims(@NotNull OnlineUser u) {
         boolean toggled = getPlugin().getCachedUserPreferences(u.getUuid()).map(Preferences::isIgnoringClaims).orElse(false);
-        if (toggled && !getPlugin().canUseCommand(IgnoreClaimsCommand.class, u)) {
+        if (toggled && !u.getPermissions().canIgnoreClaims()) {
             getPlugin().runAsync(() -> {
                 getPlugin().editUserPreferences(u, (preferences) -> preferences.setIgnoringClaims(false));
                 getPlugin().getLocales().getLocale("respecting_claims")
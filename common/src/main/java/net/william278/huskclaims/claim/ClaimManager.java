@@ -21,10 +21,12 @@ package net.william278.huskclaims.claim;
 
 import com.google.common.collect.Maps;
 import net.william278.huskclaims.database.Database;
+import net.william278.huskclaims.metrics.MetricsRegistry;
 import net.william278.huskclaims.network.Message;
 import net.william278.huskclaims.network.Payload;
 import net.william278.huskclaims.position.Position;
 import net.william278.huskclaims.position.World;
+import net.william278.huskclaims.trust.TrustLevelTable;
 import net.william278.huskclaims.user.ClaimBlocksManager;
 import net.william278.huskclaims.user.OnlineUser;
 import net.william278.huskclaims.user.User;
@@ -93,7 +95,11 @@ public interface ClaimManager extends ClaimHandler, ClaimEditor, ClaimPruner {
      * @since 1.0
      */
     default Optional<Claim> getClaimAt(@NotNull Position position) {
-        return getClaimWorld(position.getWorld()).flatMap(world -> world.getClaimAt(position));
+        final MetricsRegistry metrics = getPlugin().getMetricsRegistry();
+        final long start = metrics.startTiming();
+        final Optional<Claim> claim = getClaimWorld(position.getWorld()).flatMap(world -> world.getClaimAt(position));
+        metrics.recordSince(ClaimMetrics.CLAIM_LOOKUPS_LOOKUP, start);
+        return claim;
     }
 
     /**
@@ -178,7 +184,7 @@ public interface ClaimManager extends ClaimHandler, ClaimEditor, ClaimPruner {
         }
 
         // Ensure claim encloses all of its children
-        if (!claim.getChildren().stream().map(Claim::getRegion).allMatch(newRegion::fullyEncloses)) {
+        if (!claim.getChildrenView().stream().map(Claim::getRegion).allMatch(newRegion::fullyEncloses)) {
             throw new IllegalArgumentException("Region does not fully enclose its children");
         }
 
@@ -298,6 +304,7 @@ public interface ClaimManager extends ClaimHandler, ClaimEditor, ClaimPruner {
 
         // Create and add child claim
         final Claim child = parent.createAndAddChild(region, getPlugin());
+        world.incrementRevision();
         getPlugin().runQueued(() -> getDatabase().updateClaimWorld(world));
         getPlugin().addMappedClaim(child, world);
         getPlugin().invalidateClaimListCache(parent.getOwner().orElse(null));
@@ -305,9 +312,10 @@ public interface ClaimManager extends ClaimHandler, ClaimEditor, ClaimPruner {
     }
 
     default void deleteChildClaim(@NotNull ClaimWorld world, @NotNull Claim parent, @NotNull Claim child) {
-        if (!parent.getChildren().remove(child)) {
+        if (!parent.removeChild(child)) {
             throw new IllegalArgumentException("Parent does not contain child");
         }
+        world.incrementRevision();
         getPlugin().removeMappedClaim(child, world);
         getPlugin().runQueued(() -> getDatabase().updateClaimWorld(world));
         getPlugin().invalidateClaimListCache(parent.getOwner().orElse(null));
@@ -337,6 +345,7 @@ public interface ClaimManager extends ClaimHandler, ClaimEditor, ClaimPruner {
         // Update the claim
         getPlugin().removeMappedClaim(claim, world);
         claim.setRegion(newRegion);
+        world.incrementRevision();
         getPlugin().runQueued(() -> getDatabase().updateClaimWorld(world));
         getPlugin().addMappedClaim(claim, world);
     }
@@ -367,6 +376,7 @@ public interface ClaimManager extends ClaimHandler, ClaimEditor, ClaimPruner {
             }
         }
         setClaimWorlds(loadedWorlds);
+        internClaimTrustLevels();
 
         // Determine loaded claim worlds
         final Collection<ClaimWorld> claimWorlds = getClaimWorlds().values();
@@ -397,6 +407,16 @@ public interface ClaimManager extends ClaimHandler, ClaimEditor, ClaimPruner {
         pruneClaims();
     }
 
+    /**
+     * Point the trust level IDs held by loaded claims at the canonical IDs of the loaded trust levels
+     *
+     * @since 1.5.12
+     */
+    default void internClaimTrustLevels() {
+        final TrustLevelTable table = getPlugin().getTrustLevelTable();
+        getClaimWorlds().values().forEach(world -> world.getClaims().forEach(claim -> claim.internTrustLevels(table)));
+    }
+
     /**
      * Highlight a claim at a position for a user
      *
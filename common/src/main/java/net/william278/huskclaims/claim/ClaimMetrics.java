@@ -0,0 +1,56 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.claim;
+
+import net.william278.cloplib.operation.OperationType;
+import net.william278.huskclaims.metrics.Metric;
+import net.william278.huskclaims.metrics.MetricsRegistry.Handle;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.william278.huskclaims.metrics.MetricsRegistry.handle;
+
+// Handles to the metrics recorded when checking operations and movement, so they aren't looked up on every event
+final class ClaimMetrics {
+
+    static final Handle CLAIM_LOOKUPS_OPERATION = handle(Metric.CLAIM_LOOKUPS, "operation");
+    static final Handle CLAIM_LOOKUPS_BATCH = handle(Metric.CLAIM_LOOKUPS, "batch");
+    static final Handle CLAIM_LOOKUPS_MOVEMENT = handle(Metric.CLAIM_LOOKUPS, "movement");
+    static final Handle CLAIM_LOOKUPS_LOOKUP = handle(Metric.CLAIM_LOOKUPS, "lookup");
+
+    // Allowed and denied operation check counters, by operation type
+    private static final Map<OperationType, Handle[]> OPERATION_CHECKS = new ConcurrentHashMap<>();
+
+    private ClaimMetrics() {
+    }
+
+    // Get the handle to the counter of allowed or denied checks of an operation type
+    @NotNull
+    static Handle operationChecks(@NotNull OperationType type, boolean allowed) {
+        final Handle[] handles = OPERATION_CHECKS.computeIfAbsent(type, t -> new Handle[]{
+                handle(Metric.OPERATION_CHECKS, t.asMinimalString(), "allowed"),
+                handle(Metric.OPERATION_CHECKS, t.asMinimalString(), "denied")
+        });
+        return handles[allowed ? 0 : 1];
+    }
+
+}
@@ -24,6 +24,7 @@ import com.google.common.collect.Sets;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -33,6 +34,8 @@ import net.william278.cloplib.operation.OperationType;
 import net.william278.huskclaims.HuskClaims;
 import net.william278.huskclaims.position.BlockPosition;
 import net.william278.huskclaims.position.Position;
+import net.william278.huskclaims.trust.TrustLevel;
+import net.william278.huskclaims.trust.Trustable;
 import net.william278.huskclaims.user.OnlineUser;
 import net.william278.huskclaims.user.User;
 import net.william278.huskclaims.util.datastrcture.ConcurrentLong2ObjectMap;
@@ -44,6 +47,7 @@ import org.jetbrains.annotations.Unmodifiable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Getter
@@ -77,6 +81,14 @@ public class ClaimWorld {
     private Long2ObjectMap<Set<Claim>> cachedClaims;
     @Expose(deserialize = false, serialize = false)
     private transient Map<UUID, Set<Claim>> userClaims;
+    // The parent claim fully covering each chunk that no other claim overlaps, to skip region checks
+    @Getter(AccessLevel.NONE)
+    private final transient Long2ObjectMap<Claim> chunkCoverage = new ConcurrentLong2ObjectMap<>(
+            INITIAL_CHUNK_CACHE_CAPACITY, PERFORMANCE_LOAD_FACTOR
+    );
+    // Incremented each time claims in the claim world are edited, so derived state can be revalidated
+    @Getter(AccessLevel.NONE)
+    private final transient AtomicLong revision = new AtomicLong();
     @Expose
     @Setter
     @SerializedName("schema_version")
@@ -138,6 +150,27 @@ public class ClaimWorld {
         this.id = id;
     }
 
+    /**
+     * Get the revision of the ClaimWorld, which changes each time claims in it are edited
+     *
+     * @return the revision
+     * @since 1.5.12
+     */
+    public long getRevision() {
+        return revision.get();
+    }
+
+    /**
+     * Mark the ClaimWorld as having been edited, changing its {@link #getRevision() revision}. Edits made through
+     * the ClaimWorld's own methods do this already; this is for edits made to its claims directly.
+     *
+     * @since 1.5.12
+     */
+    @ApiStatus.Internal
+    public void incrementRevision() {
+        revision.incrementAndGet();
+    }
+
     /**
      * Add a claim to the ClaimWorld
      *
@@ -146,6 +179,7 @@ public class ClaimWorld {
      */
     public void addClaim(@NotNull Claim claim) {
         cacheClaim(claim);
+        revision.incrementAndGet();
     }
 
     /**
@@ -171,7 +205,9 @@ public class ClaimWorld {
             if (chunkClaims != null) {
                 chunkClaims.remove(claim);
             }
+            classifyChunk(asLong);
         });
+        revision.incrementAndGet();
     }
 
     /**
@@ -197,6 +233,7 @@ public class ClaimWorld {
             if (chunkClaims != null) {
                 chunkClaims.remove(claim);
             }
+            classifyChunk(asLong);
         });
 
         // Set new region, cache new chunks
@@ -206,7 +243,37 @@ public class ClaimWorld {
             final Set<Claim> chunkClaims = cachedClaims.computeIfAbsent(asLong,
                     k -> new ConcurrentObject2ObjectMap<Claim, Boolean>(INITIAL_SINGLE_CHUNK_CACHE_CAPACITY, LOW_LATENCY_LOAD_FACTOR).keySet());
             chunkClaims.add(claim);
+            classifyChunk(asLong);
         });
+        revision.incrementAndGet();
+    }
+
+    /**
+     * Set the trust level of a {@link Trustable} in a claim in this ClaimWorld
+     *
+     * @param claim     the claim to set the trust level in
+     * @param trustable the {@link Trustable} to set the trust level of
+     * @param level     the trust level
+     * @since 1.5.12
+     */
+    public void setTrustLevel(@NotNull Claim claim, @NotNull Trustable trustable, @NotNull TrustLevel level) {
+        claim.setTrustLevel(trustable, level);
+        if (trustable instanceof User user) {
+            cacheUser(user);
+        }
+        revision.incrementAndGet();
+    }
+
+    /**
+     * Remove the trust level of a {@link Trustable} from a claim in this ClaimWorld
+     *
+     * @param claim     the claim to remove the trust level from
+     * @param trustable the {@link Trustable} to remove the trust level of
+     * @since 1.5.12
+     */
+    public void removeTrustLevel(@NotNull Claim claim, @NotNull Trustable trustable) {
+        claim.removeTrustLevel(trustable, this);
+        revision.incrementAndGet();
     }
 
     /**
@@ -249,12 +316,14 @@ public class ClaimWorld {
         if (!userClaims.containsKey(uuid)) {
             return false;
         }
+        revision.incrementAndGet();
         return userClaims.remove(uuid).stream().allMatch(claim -> claim.getRegion().getChunks().stream().allMatch(
                 (chunk) -> {
                     final long asLong = ((long) chunk[0] << 32) | (chunk[1] & 0xffffffffL);
                     final Set<Claim> chunkClaims = cachedClaims.get(asLong);
                     if (chunkClaims != null) {
                         chunkClaims.remove(claim);
+                        classifyChunk(asLong);
                         return true;
                     }
                     return false;
@@ -317,6 +386,10 @@ public class ClaimWorld {
      */
     public Optional<Claim> getParentClaimAt(@NotNull BlockPosition position) {
         final long asLong = position.getLongChunkCoords();
+        final Claim covering = chunkCoverage.get(asLong);
+        if (covering != null) {
+            return Optional.of(covering);
+        }
         return Optional.ofNullable(cachedClaims.get(asLong)).stream()
                 .flatMap(Collection::stream)
                 .filter(c -> c.getRegion().contains(position))
@@ -331,11 +404,59 @@ public class ClaimWorld {
      * @since 1.0
      */
     public Optional<Claim> getClaimAt(@NotNull BlockPosition position) {
-        return getParentClaimAt(position).map(parent -> parent.getChildren().stream()
+        return getParentClaimAt(position).map(parent -> parent.getChildrenView().stream()
                 .filter(c -> c.getRegion().contains(position)).findFirst()
                 .orElse(parent));
     }
 
+    /**
+     * Get the claims at a batch of positions (including child claims), such as the blocks damaged by an explosion.
+     * <p>
+     * Positions are resolved chunk by chunk, so positions in an unclaimed chunk, or a chunk covered by a single claim,
+     * are resolved without checking claim regions.
+     *
+     * @param positions The positions to check
+     * @return an array of the claim at each position, or {@code null} where a position is not claimed
+     * @since 1.5.12
+     */
+    @NotNull
+    public Claim[] getClaimsAt(@NotNull List<? extends BlockPosition> positions) {
+        final Claim[] claims = new Claim[positions.size()];
+        final Long2ObjectMap<Object> chunks = new Long2ObjectOpenHashMap<>();
+        for (int i = 0; i < claims.length; i++) {
+            final BlockPosition position = positions.get(i);
+            final long chunk = position.getLongChunkCoords();
+            Object resolved = chunks.get(chunk);
+            if (resolved == null) {
+                resolved = resolveChunk(chunk);
+                chunks.put(chunk, resolved);
+            }
+            if (resolved instanceof Claim claim) {
+                claims[i] = claim;
+            } else if (resolved == ChunkOccupancy.MIXED) {
+                claims[i] = getClaimAt(position).orElse(null);
+            }
+        }
+        return claims;
+    }
+
+    /**
+     * Get how claims occupy a chunk
+     *
+     * @param chunk The chunk coordinates, packed as a long (see {@link BlockPosition#getLongChunkCoords()})
+     * @return the occupancy of the chunk
+     * @since 1.5.12
+     */
+    @NotNull
+    public ChunkOccupancy getChunkOccupancy(long chunk) {
+        final Claim covering = chunkCoverage.get(chunk);
+        if (covering != null) {
+            return covering.getChildrenView().isEmpty() ? ChunkOccupancy.SINGLE : ChunkOccupancy.MIXED;
+        }
+        final Set<Claim> chunkClaims = cachedClaims.get(chunk);
+        return chunkClaims == null || chunkClaims.isEmpty() ? ChunkOccupancy.UNCLAIMED : ChunkOccupancy.MIXED;
+    }
+
     /**
      * Get all claims in this world
      *
@@ -458,6 +579,17 @@ public class ClaimWorld {
         return userClaims.values().stream().mapToInt(Set::size).sum();
     }
 
+    /**
+     * Get the number of chunks known to be fully covered by a single childless claim
+     *
+     * @return the number of covered chunks
+     * @since 1.5.12
+     */
+    @ApiStatus.Internal
+    public int getCoveredChunkCount() {
+        return chunkCoverage.size();
+    }
+
     // Check if a user is banned from a claim
     @ApiStatus.Internal
     public boolean isBannedFromClaim(@NotNull OnlineUser user, @NotNull Claim claim, @NotNull HuskClaims plugin) {
@@ -513,7 +645,9 @@ public class ClaimWorld {
         this.userCache = new ConcurrentObject2ObjectMap<>(INITIAL_USER_CACHE_CAPACITY, PERFORMANCE_LOAD_FACTOR);
         this.userClaims = new ConcurrentObject2ObjectMap<>(INITIAL_USER_CACHE_CAPACITY, PERFORMANCE_LOAD_FACTOR);
         this.wildernessFlags = Sets.newCopyOnWriteArraySet();
+        this.chunkCoverage.clear();
         claims.forEach(this::cacheClaim);
+        revision.incrementAndGet();
     }
 
     // Cache a user claim
@@ -530,7 +664,7 @@ public class ClaimWorld {
         }
 
         // Set parents
-        claim.getChildren().forEach(c -> c.setParent(claim));
+        claim.getChildrenView().forEach(c -> c.setParent(claim));
         cacheOwnedClaim(claim);
 
         claim.getRegion().getChunks().forEach(chunk -> {
@@ -538,9 +672,40 @@ public class ClaimWorld {
             final Set<Claim> chunkClaims = cachedClaims.computeIfAbsent(asLong,
                     k -> new ConcurrentObject2ObjectMap<Claim, Boolean>(INITIAL_SINGLE_CHUNK_CACHE_CAPACITY, LOW_LATENCY_LOAD_FACTOR).keySet());
             chunkClaims.add(claim);
+            classifyChunk(asLong);
         });
     }
 
+    // Resolve a chunk to the childless claim covering it, or otherwise its occupancy
+    @NotNull
+    private Object resolveChunk(long chunk) {
+        final Claim covering = chunkCoverage.get(chunk);
+        if (covering != null) {
+            return covering.getChildrenView().isEmpty() ? covering : ChunkOccupancy.MIXED;
+        }
+        return getChunkOccupancy(chunk);
+    }
+
+    // Record the claim covering a chunk, if the chunk is fully covered by one claim and no others overlap it
+    private void classifyChunk(long chunk) {
+        final Set<Claim> chunkClaims = cachedClaims.get(chunk);
+        final Claim claim = chunkClaims != null && chunkClaims.size() == 1
+                ? chunkClaims.stream().findFirst().orElse(null) : null;
+        if (claim == null) {
+            chunkCoverage.remove(chunk);
+            return;
+        }
+        final int minX = (int) (chunk >> 32) << 4;
+        final int minZ = (int) chunk << 4;
+        final Region region = claim.getRegion();
+        if (region.getNearX() <= minX && region.getFarX() >= minX + 15
+                && region.getNearZ() <= minZ && region.getFarZ() >= minZ + 15) {
+            chunkCoverage.put(chunk, claim);
+        } else {
+            chunkCoverage.remove(chunk);
+        }
+    }
+
     // Check if an operation is allowed in a specific claim
     private boolean isOperationAllowedInClaim(@NotNull Operation operation, @NotNull Claim claim,
                                               @NotNull HuskClaims plugin) {
@@ -582,4 +747,24 @@ public class ClaimWorld {
         return Objects.hash(id);
     }
 
+    /**
+     * How claims occupy a chunk
+     *
+     * @since 1.5.12
+     */
+    public enum ChunkOccupancy {
+        /**
+         * No claims overlap the chunk
+         */
+        UNCLAIMED,
+        /**
+         * The chunk is fully covered by exactly one claim, which has no child claims
+         */
+        SINGLE,
+        /**
+         * The chunk is partially claimed, overlapped by several claims, or covered by a claim with child claims
+         */
+        MIXED
+    }
+
 }
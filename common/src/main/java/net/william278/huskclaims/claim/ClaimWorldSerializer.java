@@ -70,7 +70,8 @@ public class ClaimWorldSerializer implements JsonSerializer<ClaimWorld>, JsonDes
         final Set<Claim> claims = Sets.newHashSet();
         final JsonArray claimsArray = jsonObject.has("claims")
                 ? jsonObject.getAsJsonArray("claims") : new JsonArray();
-        claimsArray.forEach(claimElement -> claims.add(plugin.getGson().fromJson(claimElement, Claim.class)));
+        claimsArray.forEach(claimElement -> claims.add(
+                plugin.getGson().fromJson(claimElement, Claim.class).compact()));
         claimWorld.loadClaims(claims);
 
         final JsonObject userCache = jsonObject.has("user_cache")
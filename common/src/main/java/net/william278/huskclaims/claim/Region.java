@@ -22,9 +22,7 @@ package net.william278.huskclaims.claim;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.gson.annotations.Expose;
-import com.google.gson.annotations.SerializedName;
 import lombok.AccessLevel;
-import lombok.Getter;
 import lombok.NoArgsConstructor;
 import net.william278.huskclaims.highlighter.Highlightable;
 import net.william278.huskclaims.position.BlockPosition;
@@ -40,27 +38,33 @@ import static net.william278.huskclaims.highlighter.Highlightable.Type.getClaimT
 
 /**
  * A rectangular region defined by two {@link Point} points
+ * <p>
+ * The bounds are held inline as four coordinates, rather than as two corner points; regions are serialized as an
+ * array of the corner coordinates by the {@link RegionSerializer}
  *
  * @see Point
  * @since 1.0
  */
-@Getter
 @NoArgsConstructor
 public class Region {
 
-    @Expose
-    @SerializedName("near_corner")
-    private Point nearCorner;
-    @Expose
-    @SerializedName("far_corner")
-    private Point farCorner;
+    // Inclusive bounds; the near corner is the one closest to 0, 0
+    private int nearX;
+    private int nearZ;
+    private int farX;
+    private int farZ;
 
     private static final int STEP = 10;
 
     private Region(@NotNull BlockPosition pos1, @NotNull BlockPosition pos2) {
-        final List<Point> corners = getQuadCorners(pos1, pos2);
-        this.nearCorner = corners.get(0);
-        this.farCorner = corners.get(3);
+        final Point near = Point.at(Math.min(pos1.getBlockX(), pos2.getBlockX()),
+                Math.min(pos1.getBlockZ(), pos2.getBlockZ()));
+        final Point far = Point.at(Math.max(pos1.getBlockX(), pos2.getBlockX()),
+                Math.max(pos1.getBlockZ(), pos2.getBlockZ()));
+        this.nearX = near.getBlockX();
+        this.nearZ = near.getBlockZ();
+        this.farX = far.getBlockX();
+        this.farZ = far.getBlockZ();
     }
 
     /**
@@ -93,21 +97,65 @@ public class Region {
     }
 
     /**
-     * Get a list of four {@link Point corner points} that form the quad region
+     * Get the corner of this region closest to 0, 0
      *
-     * @param pos1 The first position
-     * @param pos2 The second position
-     * @return A list of four sorted normalized {@link Point corner points} that form the square region
+     * @return the near corner of this region
      * @since 1.0
      */
     @NotNull
-    private static List<Point> getQuadCorners(@NotNull BlockPosition pos1, @NotNull BlockPosition pos2) {
-        return List.of(
-                Point.at(Math.min(pos1.getBlockX(), pos2.getBlockX()), Math.min(pos1.getBlockZ(), pos2.getBlockZ())),
-                Point.at(Math.max(pos1.getBlockX(), pos2.getBlockX()), Math.min(pos1.getBlockZ(), pos2.getBlockZ())),
-                Point.at(Math.min(pos1.getBlockX(), pos2.getBlockX()), Math.max(pos1.getBlockZ(), pos2.getBlockZ())),
-                Point.at(Math.max(pos1.getBlockX(), pos2.getBlockX()), Math.max(pos1.getBlockZ(), pos2.getBlockZ()))
-        );
+    public Point getNearCorner() {
+        return Point.at(nearX, nearZ);
+    }
+
+    /**
+     * Get the corner of this region furthest from 0, 0
+     *
+     * @return the far corner of this region
+     * @since 1.0
+     */
+    @NotNull
+    public Point getFarCorner() {
+        return Point.at(farX, farZ);
+    }
+
+    /**
+     * Get the x coordinate of the near corner of this region, without allocating a {@link Point}
+     *
+     * @return the minimum block x coordinate in this region
+     * @since 1.5.12
+     */
+    public int getNearX() {
+        return nearX;
+    }
+
+    /**
+     * Get the z coordinate of the near corner of this region, without allocating a {@link Point}
+     *
+     * @return the minimum block z coordinate in this region
+     * @since 1.5.12
+     */
+    public int getNearZ() {
+        return nearZ;
+    }
+
+    /**
+     * Get the x coordinate of the far corner of this region, without allocating a {@link Point}
+     *
+     * @return the maximum block x coordinate in this region
+     * @since 1.5.12
+     */
+    public int getFarX() {
+        return farX;
+    }
+
+    /**
+     * Get the z coordinate of the far corner of this region, without allocating a {@link Point}
+     *
+     * @return the maximum block z coordinate in this region
+     * @since 1.5.12
+     */
+    public int getFarZ() {
+        return farZ;
     }
 
     /**
@@ -118,7 +166,7 @@ public class Region {
      */
     @NotNull
     public List<Point> getCorners() {
-        return getQuadCorners(nearCorner, farCorner);
+        return List.of(Point.at(nearX, nearZ), Point.at(farX, nearZ), Point.at(nearX, farZ), Point.at(farX, farZ));
     }
 
     /**
@@ -130,8 +178,8 @@ public class Region {
     @NotNull
     public Point getCenter() {
         return Point.at(
-                (nearCorner.getBlockX() + farCorner.getBlockX()) / 2,
-                (nearCorner.getBlockZ() + farCorner.getBlockZ()) / 2
+                (nearX + farX) / 2,
+                (nearZ + farZ) / 2
         );
     }
 
@@ -142,7 +190,7 @@ public class Region {
      * @since 1.0
      */
     public int getSurfaceArea() {
-        return nearCorner.getSurfaceArea(farCorner);
+        return (1 + farX - nearX) * (1 + farZ - nearZ);
     }
 
     /**
@@ -153,8 +201,8 @@ public class Region {
      * @since 1.0
      */
     public boolean contains(@NotNull BlockPosition position) {
-        return position.getBlockX() >= nearCorner.getBlockX() && position.getBlockX() <= farCorner.getBlockX()
-                && position.getBlockZ() >= nearCorner.getBlockZ() && position.getBlockZ() <= farCorner.getBlockZ();
+        return position.getBlockX() >= nearX && position.getBlockX() <= farX
+                && position.getBlockZ() >= nearZ && position.getBlockZ() <= farZ;
     }
 
     /**
@@ -165,7 +213,7 @@ public class Region {
      * @since 1.0
      */
     public boolean fullyEncloses(@NotNull Region region) {
-        return contains(region.getNearCorner()) && contains(region.getFarCorner());
+        return region.nearX >= nearX && region.farX <= farX && region.nearZ >= nearZ && region.farZ <= farZ;
     }
 
     /**
@@ -177,11 +225,9 @@ public class Region {
      */
     public boolean overlaps(@NotNull Region region) {
         return (// X overlap
-                nearCorner.getBlockX() <= region.getFarCorner().getBlockX() &&
-                        farCorner.getBlockX() >= region.getNearCorner().getBlockX()) &&
+                nearX <= region.farX && farX >= region.nearX) &&
                 // Z overlap
-                (nearCorner.getBlockZ() <= region.getFarCorner().getBlockZ() &&
-                        farCorner.getBlockZ() >= region.getNearCorner().getBlockZ());
+                (nearZ <= region.farZ && farZ >= region.nearZ);
     }
 
     /**
@@ -232,17 +278,17 @@ public class Region {
     public Region getResized(int extendNorth, int extendEast, int extendSouth, int extendWest) {
         return from(
                 // Near corner: closest to 0, 0 (modify west/north)
-                Point.at(nearCorner.getBlockX() - extendWest, nearCorner.getBlockZ() - extendNorth),
+                Point.at(nearX - extendWest, nearZ - extendNorth),
                 // Far corner: furthest from 0, 0 (modify east/south)
-                Point.at(farCorner.getBlockX() + extendSouth, farCorner.getBlockZ() + extendEast)
+                Point.at(farX + extendSouth, farZ + extendEast)
         );
     }
 
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof Region region) {
-            return region.nearCorner.equals(nearCorner)
-                    && region.farCorner.equals(farCorner);
+            return region.nearX == nearX && region.nearZ == nearZ
+                    && region.farX == farX && region.farZ == farZ;
         }
         return false;
     }
@@ -264,39 +310,61 @@ public class Region {
         return positions;
     }
 
-    // X and Z edges
+    // X and Z edges, clipped to the viewer's range before any points along them are generated
     private void addEdgePoints(@NotNull Map<Point, Highlightable.Type> positions, @NotNull Highlightable.Type type,
                                @NotNull BlockPosition viewer, long range) {
-        final List<Point> edgePoints = Lists.newArrayList();
         // X edges
-        for (int x = nearCorner.getBlockX() + STEP; x < farCorner.getBlockX(); x += STEP) {
-            edgePoints.add(Point.at(x, nearCorner.getBlockZ()));
-            edgePoints.add(Point.at(x, farCorner.getBlockZ()));
-        }
+        addClippedEdge(positions, type, viewer, range, nearX, farX, nearZ, false);
+        addClippedEdge(positions, type, viewer, range, nearX, farX, farZ, false);
 
         // Z edges
-        for (int z = nearCorner.getBlockZ() + STEP; z < farCorner.getBlockZ(); z += STEP) {
-            edgePoints.add(Point.at(nearCorner.getBlockX(), z));
-            edgePoints.add(Point.at(farCorner.getBlockX(), z));
+        addClippedEdge(positions, type, viewer, range, nearZ, farZ, nearX, true);
+        addClippedEdge(positions, type, viewer, range, nearZ, farZ, farX, true);
+    }
+
+    // Add points every STEP blocks along an edge strictly between two corners, only where the edge is within range
+    private static void addClippedEdge(@NotNull Map<Point, Highlightable.Type> positions,
+                                       @NotNull Highlightable.Type type, @NotNull BlockPosition viewer, long range,
+                                       int from, int to, int fixed, boolean alongZ) {
+        final int viewerAlong = alongZ ? viewer.getBlockZ() : viewer.getBlockX();
+        final int viewerAcross = alongZ ? viewer.getBlockX() : viewer.getBlockZ();
+
+        // Work out the span of the edge within the viewer's circle. Distances are rounded, so the circle radius is
+        // padded by half a block and the exact distance is checked at each point
+        final double radius = range + 0.5d;
+        final double across = fixed - viewerAcross;
+        if (Math.abs(across) > radius) {
+            return;
+        }
+        final double halfSpan = Math.sqrt(radius * radius - across * across);
+        final long spanStart = (long) Math.floor(viewerAlong - halfSpan);
+        final long spanEnd = (long) Math.ceil(viewerAlong + halfSpan);
+
+        // Snap the start of the span onto the STEP grid of the edge
+        final long firstStep = Math.max(1, Math.floorDiv(spanStart - from + STEP - 1, STEP));
+        for (long along = from + firstStep * STEP; along < to && along <= spanEnd; along += STEP) {
+            final Point point = alongZ ? Point.at(fixed, (int) along) : Point.at((int) along, fixed);
+            if (point.distanceFrom(viewer) <= range) {
+                positions.put(point, type);
+            }
         }
-        edgePoints.stream().filter(c -> c.distanceFrom(viewer) <= range).forEach((c) -> positions.put(c, type));
     }
 
     // L-shaped corners
     private void addLShapedCorners(@NotNull Map<Point, Highlightable.Type> positions, @NotNull Highlightable.Type type,
                                    @NotNull BlockPosition viewer, long range) {
         final List<Point> cornerPoints = Lists.newArrayList();
-        if (Math.abs(farCorner.getBlockZ() - nearCorner.getBlockZ()) > 2) {
-            cornerPoints.add(Point.at(nearCorner.getBlockX(), nearCorner.getBlockZ() + 1));
-            cornerPoints.add(Point.at(farCorner.getBlockX(), nearCorner.getBlockZ() + 1));
-            cornerPoints.add(Point.at(nearCorner.getBlockX(), farCorner.getBlockZ() - 1));
-            cornerPoints.add(Point.at(farCorner.getBlockX(), farCorner.getBlockZ() - 1));
+        if (Math.abs(farZ - nearZ) > 2) {
+            cornerPoints.add(Point.at(nearX, nearZ + 1));
+            cornerPoints.add(Point.at(farX, nearZ + 1));
+            cornerPoints.add(Point.at(nearX, farZ - 1));
+            cornerPoints.add(Point.at(farX, farZ - 1));
         }
-        if (Math.abs(farCorner.getBlockX() - nearCorner.getBlockX()) > 2) {
-            cornerPoints.add(Point.at(nearCorner.getBlockX() + 1, nearCorner.getBlockZ()));
-            cornerPoints.add(Point.at(farCorner.getBlockX() - 1, nearCorner.getBlockZ()));
-            cornerPoints.add(Point.at(nearCorner.getBlockX() + 1, farCorner.getBlockZ()));
-            cornerPoints.add(Point.at(farCorner.getBlockX() - 1, farCorner.getBlockZ()));
+        if (Math.abs(farX - nearX) > 2) {
+            cornerPoints.add(Point.at(nearX + 1, nearZ));
+            cornerPoints.add(Point.at(farX - 1, nearZ));
+            cornerPoints.add(Point.at(nearX + 1, farZ));
+            cornerPoints.add(Point.at(farX - 1, farZ));
         }
         cornerPoints.stream().filter(c -> c.distanceFrom(viewer) <= range).forEach((c) -> positions.put(c, type));
     }
@@ -309,8 +377,8 @@ public class Region {
      */
     public int getShortestEdge() {
         return 1 + Math.min(
-                Math.abs(farCorner.getBlockX() - nearCorner.getBlockX()),
-                Math.abs(farCorner.getBlockZ() - nearCorner.getBlockZ())
+                Math.abs(farX - nearX),
+                Math.abs(farZ - nearZ)
         );
     }
 
@@ -322,8 +390,8 @@ public class Region {
      */
     public int getLongestEdge() {
         return 1 + Math.max(
-                Math.abs(farCorner.getBlockX() - nearCorner.getBlockX()),
-                Math.abs(farCorner.getBlockZ() - nearCorner.getBlockZ())
+                Math.abs(farX - nearX),
+                Math.abs(farZ - nearZ)
         );
     }
 
@@ -334,10 +402,10 @@ public class Region {
      */
     @NotNull
     public Set<int[]> getChunks() {
-        final int chunkX1 = getNearCorner().getBlockX() >> 4;
-        final int chunkZ1 = getNearCorner().getBlockZ() >> 4;
-        final int chunkX2 = getFarCorner().getBlockX() >> 4;
-        final int chunkZ2 = getFarCorner().getBlockZ() >> 4;
+        final int chunkX1 = nearX >> 4;
+        final int chunkZ1 = nearZ >> 4;
+        final int chunkX2 = farX >> 4;
+        final int chunkZ2 = farZ >> 4;
         final int chunkXMin = Math.min(chunkX1, chunkX2);
         final int chunkXMax = Math.max(chunkX1, chunkX2);
         final int chunkZMin = Math.min(chunkZ1, chunkZ2);
@@ -419,6 +487,11 @@ public class Region {
             return false;
         }
 
+        @Override
+        public int hashCode() {
+            return 31 * x + z;
+        }
+
         // Check if a point, when modified by numberBy on either axis, is out of the supported range
         public static boolean isOutOfRange(@NotNull BlockPosition position, int dx, int dz) {
             return Math.abs(position.getBlockX()) + Math.abs(dx) > RANGE
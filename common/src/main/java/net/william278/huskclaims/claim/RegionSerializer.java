@@ -34,10 +34,10 @@ public class RegionSerializer implements JsonSerializer<Region>, JsonDeserialize
     @Override
     public JsonElement serialize(Region region, Type type, JsonSerializationContext jsonSerializationContext) {
         final JsonArray jsonArray = new JsonArray();
-        jsonArray.add(region.getNearCorner().getBlockX());
-        jsonArray.add(region.getNearCorner().getBlockZ());
-        jsonArray.add(region.getFarCorner().getBlockX());
-        jsonArray.add(region.getFarCorner().getBlockZ());
+        jsonArray.add(region.getNearX());
+        jsonArray.add(region.getNearZ());
+        jsonArray.add(region.getFarX());
+        jsonArray.add(region.getFarZ());
         return jsonArray;
     }
 
@@ -76,6 +76,11 @@ public class AdminClaimsListCommand extends ClaimsListCommand implements GlobalC
         adminClaims = null;
     }
 
+    protected int getCachedEntries() {
+        final List<ServerWorldClaim> claims = adminClaims;
+        return claims != null ? claims.size() : 0;
+    }
+
 
     @Override
     @NotNull
@@ -64,6 +64,7 @@ public class ClaimBanCommand extends InClaimCommand implements UserListTabComple
             claim.banUser(user, executor);
             world.cacheUser(user);
             world.cacheUser(executor);
+            world.incrementRevision();
             plugin.getDatabase().updateClaimWorld(world);
             plugin.invalidateClaimListCache(claim.getOwner().orElse(null));
             plugin.getLocales().getLocale("user_banned", user.getName())
@@ -79,7 +80,7 @@ public class ClaimBanCommand extends InClaimCommand implements UserListTabComple
 
     private void unBanUser(@NotNull OnlineUser executor, @NotNull ClaimWorld world, @NotNull Claim claim,
                            @NotNull User user) {
-        if (!claim.getBannedUsers().containsKey(user.getUuid())) {
+        if (!claim.getBannedUsersView().containsKey(user.getUuid())) {
             plugin.getLocales().getLocale("error_user_not_banned", user.getName())
                     .ifPresent(executor::sendMessage);
             return;
@@ -87,6 +88,7 @@ public class ClaimBanCommand extends InClaimCommand implements UserListTabComple
 
         plugin.fireClaimUnBanEvent(executor, claim, world, user, (event) -> {
             claim.unBanUser(user);
+            world.incrementRevision();
             plugin.getDatabase().updateClaimWorld(world);
             plugin.invalidateClaimListCache(claim.getOwner().orElse(null));
             plugin.getLocales().getLocale("user_unbanned", user.getName())
@@ -95,7 +97,7 @@ public class ClaimBanCommand extends InClaimCommand implements UserListTabComple
     }
 
     private void showBanList(@NotNull OnlineUser executor, @NotNull ClaimWorld world, @NotNull Claim claim) {
-        final List<BanEntry> bans = BanEntry.from(claim.getBannedUsers(), world);
+        final List<BanEntry> bans = BanEntry.from(claim.getBannedUsersView(), world);
         if (bans.isEmpty()) {
             plugin.getLocales().getLocale("error_ban_list_empty")
                     .ifPresent(executor::sendMessage);
@@ -117,7 +119,7 @@ public class ClaimBanCommand extends InClaimCommand implements UserListTabComple
     }
 
     private boolean checkCanBan(@NotNull OnlineUser executor, @NotNull Claim claim, @NotNull User user) {
-        if (claim.getBannedUsers().containsKey(user.getUuid())) {
+        if (claim.getBannedUsersView().containsKey(user.getUuid())) {
             plugin.getLocales().getLocale("error_user_banned", user.getName())
                     .ifPresent(executor::sendMessage);
             return false;
@@ -166,11 +168,17 @@ public class ClaimBanCommand extends InClaimCommand implements UserListTabComple
         };
     }
 
+    // Banned users are looked up from the claim the user is in, so only complete names to ban off the server thread
+    @Override
+    public boolean isSuggestingUserNames(@NotNull String[] args) {
+        return args.length == 2 && args[0].equalsIgnoreCase("ban");
+    }
+
     @Nullable
     public List<String> getBannedNamesAtUser(@NotNull OnlineUser user) {
         return plugin.getClaimWorld(user.getWorld())
                 .flatMap(world -> world.getClaimAt(user.getPosition())
-                        .map(claim -> claim.getBannedUsers().keySet().stream()
+                        .map(claim -> claim.getBannedUsersView().keySet().stream()
                                 .map(uuid -> world.getUser(uuid).map(User::getName).orElse(null))
                                 .filter(Objects::nonNull).toList()))
                 .orElse(null);
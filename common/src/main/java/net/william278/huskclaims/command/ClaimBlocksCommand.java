@@ -213,4 +213,9 @@ public class ClaimBlocksCommand extends Command implements UserListTabCompletabl
             default -> null;
         };
     }
+
+    @Override
+    public boolean isSuggestingUserNames(@NotNull String[] args) {
+        return args.length <= 1;
+    }
 }
@@ -120,6 +120,7 @@ public class ClaimFlagsCommand extends OnlineUserCommand implements TabCompletab
         } else {
             types.remove(type);
         }
+        world.incrementRevision();
         plugin.getDatabase().updateClaimWorld(world);
 
         // Send flag list on correct page to indicate the update
@@ -59,6 +59,7 @@ public class ClaimPrivateCommand extends InClaimCommand implements ToggleTabComp
     private void setClaimPrivacy(@NotNull OnlineUser user, @NotNull Claim claim,
                                  @NotNull ClaimWorld world, boolean value) {
         claim.setPrivateClaim(value);
+        world.incrementRevision();
         plugin.getDatabase().updateClaimWorld(world);
 
         if (claim.isPrivateClaim()) {
@@ -79,7 +79,7 @@ public abstract class ClaimsListCommand extends Command implements GlobalClaimsP
     private String getClaimChildren(@NotNull Claim claim) {
         return plugin.getLocales().getRawLocale(
                 "claim_list_children",
-                Integer.toString(claim.getChildren().size())
+                Integer.toString(claim.getChildrenView().size())
         ).orElse("");
     }
 
@@ -87,7 +87,7 @@ public abstract class ClaimsListCommand extends Command implements GlobalClaimsP
     private String getClaimMembers(@NotNull Claim claim) {
         return plugin.getLocales().getRawLocale(
                 "claim_list_trustees",
-                Integer.toString(claim.getTrustedUsers().size() + claim.getTrustedGroups().size())
+                Integer.toString(claim.getTrustedUsersView().size() + claim.getTrustedGroupsView().size())
         ).orElse("");
     }
 
@@ -157,8 +157,8 @@ public abstract class ClaimsListCommand extends Command implements GlobalClaimsP
         WORLD(Comparator.comparing(c -> c.serverWorld().world().getName())),
         SERVER(Comparator.comparing(c -> c.serverWorld().server())),
         SIZE(Comparator.comparing(c -> c.claim().getRegion().getSurfaceArea())),
-        MEMBERS(Comparator.comparingInt(c -> c.claim().getTrustedUsers().size())),
-        CHILDREN(Comparator.comparingInt(c -> c.claim().getChildren().size()));
+        MEMBERS(Comparator.comparingInt(c -> c.claim().getTrustedUsersView().size())),
+        CHILDREN(Comparator.comparingInt(c -> c.claim().getChildrenView().size()));
 
         public static final List<SortOption> LISTED_OPTIONS = List.of(SIZE, WORLD, CHILDREN);
 
@@ -180,6 +180,23 @@ public interface CommandProvider {
                 });
     }
 
+    /**
+     * Get the number of claims held in cached claim lists
+     *
+     * @return the number of cached claim list entries
+     * @since 1.5.12
+     */
+    default int getCachedClaimListEntries() {
+        return getCommands().stream().mapToInt(c -> {
+            if (c instanceof AdminClaimsListCommand admin) {
+                return admin.getCachedEntries();
+            } else if (c instanceof UserClaimsListCommand user) {
+                return user.getCachedEntries();
+            }
+            return 0;
+        }).sum();
+    }
+
     /**
      * Invalidates all cached admin claim lists
      *
@@ -33,6 +33,9 @@ import net.william278.huskclaims.config.Locales;
 import net.william278.huskclaims.hook.HuskHomesHook;
 import net.william278.huskclaims.hook.Importer;
 import net.william278.huskclaims.hook.PluginHook;
+import net.william278.huskclaims.metrics.BlockingCallDetector;
+import net.william278.huskclaims.metrics.HeapEstimator;
+import net.william278.huskclaims.metrics.Histogram;
 import net.william278.huskclaims.position.Position;
 import net.william278.huskclaims.user.AuditLogger;
 import net.william278.huskclaims.user.CommandUser;
@@ -52,16 +55,18 @@ import java.util.stream.IntStream;
 public class HuskClaimsCommand extends Command implements TabCompletable {
 
     private static final int ITEMS_PER_LIST_PAGE = 8;
-    private static final Map<String, Boolean> SUB_COMMANDS = Map.of(
-            "about", false,
-            "help", false,
-            "teleport", true,
-            "logs", true,
-            "status", true,
-            "dump", true,
-            "import", true,
-            "reload", true,
-            "update", true
+    private static final Map<String, Boolean> SUB_COMMANDS = Map.ofEntries(
+            Map.entry("about", false),
+            Map.entry("help", false),
+            Map.entry("teleport", true),
+            Map.entry("logs", true),
+            Map.entry("status", true),
+            Map.entry("dump", true),
+            Map.entry("blocking", true),
+            Map.entry("memory", true),
+            Map.entry("import", true),
+            Map.entry("reload", true),
+            Map.entry("update", true)
     );
 
     private final UpdateChecker updateChecker;
@@ -139,6 +144,24 @@ public class HuskClaimsCommand extends Command implements TabCompletable {
                             .decorate(TextDecoration.UNDERLINED).color(NamedTextColor.GRAY));
                 });
             }
+            case "blocking" -> handleBlockingCommand(executor, removeFirstArg(args));
+            case "memory" -> plugin.runAsync(() -> {
+                final List<HeapEstimator.Section> sections = new HeapEstimator(plugin).estimate();
+                final Runtime runtime = Runtime.getRuntime();
+                getPlugin().getLocales().getLocale("memory_report_header").ifPresent(executor::sendMessage);
+                executor.sendMessage(Component.join(JoinConfiguration.newlines(), sections.stream()
+                        .map(section -> getMemoryLine(section.name(), HeapEstimator.formatBytes(section.getBytes()))
+                                .hoverEvent(Component.join(JoinConfiguration.newlines(), section.entries().stream()
+                                        .map(entry -> Component.text("%s (%,d): %s".formatted(entry.name(),
+                                                entry.count(), HeapEstimator.formatBytes(entry.bytes()))))
+                                        .toList())))
+                        .toList()));
+                executor.sendMessage(getMemoryLine("Total", "%s (%s of %s heap in use)".formatted(
+                        HeapEstimator.formatBytes(sections.stream().mapToLong(HeapEstimator.Section::getBytes).sum()),
+                        HeapEstimator.formatBytes(runtime.totalMemory() - runtime.freeMemory()),
+                        HeapEstimator.formatBytes(runtime.maxMemory())
+                )));
+            });
             case "import" -> handleImportCommand(executor, removeFirstArg(args));
             case "reload" -> plugin.runSync(() -> {
                 try {
@@ -146,8 +169,11 @@ public class HuskClaimsCommand extends Command implements TabCompletable {
                     plugin.loadLocales();
                     plugin.loadSettings();
                     plugin.loadTrustLevels();
+                    plugin.internClaimTrustLevels();
+                    plugin.invalidatePermissions();
                     plugin.loadHooks(PluginHook.Register.ON_ENABLE);
                     plugin.registerHooks(PluginHook.Register.ON_ENABLE);
+                    plugin.pruneMapMarkers();
                     plugin.getLocales().getLocale("reload_complete").ifPresent(executor::sendMessage);
                 } catch (Throwable e) {
                     executor.sendMessage(new MineDown(
@@ -186,6 +212,7 @@ public class HuskClaimsCommand extends Command implements TabCompletable {
                                     .map("%s:"::formatted)).toList();
                 };
                 case "dump" -> List.of("confirm");
+                case "blocking" -> List.of("reset");
                 case "help" -> IntStream.rangeClosed(1, getCommandList(user).getTotalPages())
                         .mapToObj(Integer::toString).toList();
                 default -> null;
@@ -213,6 +240,47 @@ public class HuskClaimsCommand extends Command implements TabCompletable {
         }
     }
 
+    @NotNull
+    private Component getMemoryLine(@NotNull String name, @NotNull String value) {
+        return Component.text("•").appendSpace()
+                .append(Component.text(name, TextColor.color(0x848484)))
+                .append(Component.text(':')).append(Component.space().color(NamedTextColor.WHITE))
+                .append(Component.text(value));
+    }
+
+    private void handleBlockingCommand(@NotNull CommandUser executor, @NotNull String[] args) {
+        final BlockingCallDetector detector = plugin.getBlockingCallDetector();
+        if (!detector.isEnabled()) {
+            plugin.getLocales().getLocale("error_blocking_calls_disabled")
+                    .ifPresent(executor::sendMessage);
+            return;
+        }
+        if (parseStringArg(args, 0).map(arg -> arg.equalsIgnoreCase("reset")).orElse(false)) {
+            detector.reset();
+            plugin.getLocales().getLocale("blocking_calls_reset")
+                    .ifPresent(executor::sendMessage);
+            return;
+        }
+
+        final List<BlockingCallDetector.Report> reports = detector.getWorstOffenders(ITEMS_PER_LIST_PAGE);
+        if (reports.isEmpty()) {
+            plugin.getLocales().getLocale("blocking_calls_none")
+                    .ifPresent(executor::sendMessage);
+            return;
+        }
+        plugin.getLocales().getLocale("blocking_calls_header").ifPresent(executor::sendMessage);
+        executor.sendMessage(Component.join(JoinConfiguration.newlines(), reports.stream()
+                .map(report -> Component.text("•").appendSpace()
+                        .append(Component.text(report.call(), TextColor.color(0x848484)))
+                        .append(Component.text(" at %s: %,d calls, %s total, %s max".formatted(
+                                report.caller(), report.calls(), Histogram.formatDuration(report.totalNanos()),
+                                Histogram.formatDuration(report.maxNanos())
+                        ), NamedTextColor.WHITE))
+                        .hoverEvent(Component.join(JoinConfiguration.newlines(), report.stack().stream()
+                                .map(frame -> Component.text(frame, NamedTextColor.GRAY)).toList())))
+                .toList()));
+    }
+
     private void handleLogsCommand(@NotNull CommandUser executor, @NotNull String[] args) {
         final Optional<SavedUser> optionalUser = parseStringArg(args, 0).flatMap(plugin.getDatabase()::getUser);
         if (optionalUser.isEmpty()) {
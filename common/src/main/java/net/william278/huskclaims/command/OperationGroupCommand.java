@@ -55,6 +55,7 @@ public class OperationGroupCommand extends InClaimCommand implements ToggleTabCo
                     .ifPresent(executor::sendMessage);
         }
 
+        world.incrementRevision();
         plugin.runQueued(() -> plugin.getDatabase().updateClaimWorld(world));
     }
 
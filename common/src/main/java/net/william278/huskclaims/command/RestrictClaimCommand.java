@@ -54,6 +54,7 @@ public class RestrictClaimCommand extends InClaimOwnerCommand implements ToggleT
                                     @NotNull OnlineUser user, @NotNull String[] args) {
         boolean shouldInheritParent = parseBooleanArg(args, 0).orElse(!claim.isInheritParent());
         claim.setInheritParent(shouldInheritParent);
+        world.incrementRevision();
         plugin.getDatabase().updateClaimWorld(world);
         plugin.getLocales().getLocale(shouldInheritParent ? "child_claims_inherit" : "child_claims_do_not_inherit")
                 .ifPresent(user::sendMessage);
@@ -78,10 +78,7 @@ public class TrustCommand extends InClaimCommand implements TrustableTabCompleta
                 return;
             }
 
-            claim.setTrustLevel(trustable, level);
-            if (trustable instanceof User user) {
-                world.cacheUser(user);
-            }
+            world.setTrustLevel(claim, trustable, level);
             plugin.runQueued(() -> plugin.getDatabase().updateClaimWorld(world));
             plugin.invalidateClaimListCache(claim.getOwner().orElse(null));
             plugin.getLocales().getLocale("trust_level_set", trustable.getTrustIdentifier(plugin),
@@ -73,8 +73,8 @@ public class TrustListCommand extends InClaimCommand {
                 Long.toString(claim.getRegion().getSurfaceArea()),
                 Integer.toString(claim.getRegion().getLongestEdge()),
                 Integer.toString(claim.getRegion().getShortestEdge()),
-                Integer.toString(claim.getChildren().size()),
-                Integer.toString(claim.getTrustedUsers().size()),
+                Integer.toString(claim.getChildrenView().size()),
+                Integer.toString(claim.getTrustedUsersView().size()),
                 claim.getCreationTime().map(t -> t.format(DateTimeFormatter.ISO_LOCAL_DATE)).orElse(na)
         ).orElse(ownerName);
     }
@@ -88,7 +88,7 @@ public class TrustListCommand extends InClaimCommand {
                 Long.toString(claim.getRegion().getSurfaceArea()),
                 Integer.toString(claim.getRegion().getLongestEdge()),
                 Integer.toString(claim.getRegion().getShortestEdge()),
-                Integer.toString(claim.getTrustedUsers().size()),
+                Integer.toString(claim.getTrustedUsersView().size()),
                 plugin.getLocales().getRawLocale(String.format("child_claims_inherit_%srestricted",
                         claim.isInheritParent() ? "un" : "")).orElse(Boolean.toString(claim.isInheritParent())),
                 claim.getCreationTime().map(t -> t.format(DateTimeFormatter.ISO_LOCAL_DATE)).orElse(na)
@@ -101,13 +101,13 @@ public class TrustListCommand extends InClaimCommand {
         joiner.setEmptyValue(plugin.getLocales().getNone());
 
         // Add trusted users and groups
-        claim.getTrustedUsers().entrySet().stream()
+        claim.getTrustedUsersView().entrySet().stream()
                 .filter(e -> e.getValue().equals(level.getId()))
                 .forEach(e -> joiner.add(getMemberEntry(e.getKey(), world)));
-        claim.getOwner().ifPresent(owner -> claim.getTrustedGroups().entrySet().stream()
+        claim.getOwner().ifPresent(owner -> claim.getTrustedGroupsView().entrySet().stream()
                 .filter(e -> e.getValue().equals(level.getId()))
                 .forEach(e -> joiner.add(getGroupEntry(e.getKey(), owner, plugin))));
-        claim.getTrustedTags().entrySet().stream()
+        claim.getTrustedTagsView().entrySet().stream()
                 .filter(e -> e.getValue().equals(level.getId()))
                 .forEach(e -> joiner.add(getTagEntry(e.getKey(), plugin)));
 
@@ -57,6 +57,16 @@ public interface TrustableTabCompletable extends UserListTabCompletable {
         return UserListTabCompletable.super.suggest(user, args);
     }
 
+    // Group names are looked up from the claim the user is in, so only complete user names off the server thread
+    @Override
+    default boolean isSuggestingUserNames(@NotNull String[] args) {
+        final String arg = args.length > 0 ? args[args.length - 1] : "";
+        final Settings.UserGroupSettings groups = getPlugin().getSettings().getUserGroups();
+        final Settings.TrustTagSettings tags = getPlugin().getSettings().getTrustTags();
+        return !(groups.isEnabled() && arg.startsWith(groups.getGroupSpecifierPrefix()))
+                && !(tags.isEnabled() && arg.startsWith(tags.getTagSpecifierPrefix()));
+    }
+
     @Nullable
     UUID getGroupOwner(@NotNull OnlineUser user);
 
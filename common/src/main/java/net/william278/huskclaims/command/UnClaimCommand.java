@@ -50,7 +50,7 @@ public class UnClaimCommand extends InClaimOwnerCommand {
 
         // Require confirmation for deleting a claim which has children
         if (plugin.getSettings().getClaims().isConfirmDeletingParentClaims() &&
-                !claim.getChildren().isEmpty() && !confirmed) {
+                !claim.getChildrenView().isEmpty() && !confirmed) {
             plugin.getLocales().getLocale("confirm_deletion_parent_claim",
                     String.format("%s confirm", getName())).ifPresent(executor::sendMessage);
             return;
@@ -83,7 +83,7 @@ public class UnTrustCommand extends InClaimCommand implements TabCompletable {
 
         // Remove the trust level from the trustable
         plugin.fireUnTrustEvent(executor, trustLevel.get(), toUntrust, claim, world, (event) -> {
-            claim.removeTrustLevel(toUntrust, world);
+            world.removeTrustLevel(claim, toUntrust);
             plugin.getLocales().getLocale("trust_level_removed", identifier)
                     .ifPresent(executor::sendMessage);
             plugin.runQueued(() -> plugin.getDatabase().updateClaimWorld(world));
@@ -95,7 +95,7 @@ public class UnTrustCommand extends InClaimCommand implements TabCompletable {
     @Override
     protected Optional<UserGroup> resolveGroup(@NotNull OnlineUser user, @NotNull String name, @NotNull Claim claim,
                                                @NotNull Settings.UserGroupSettings groups) {
-        if (!claim.getTrustedGroups().containsKey(name)) {
+        if (!claim.getTrustedGroupsView().containsKey(name)) {
             return Optional.empty();
         }
         return claim.getOwner().map(o -> new UserGroup(o, name, List.of()));
@@ -103,7 +103,7 @@ public class UnTrustCommand extends InClaimCommand implements TabCompletable {
 
     @Override
     protected Optional<TrustTag> resolveTag(@NotNull OnlineUser user, @NotNull String name, @NotNull Claim claim) {
-        if (!claim.getTrustedTags().containsKey(name)) {
+        if (!claim.getTrustedTagsView().containsKey(name)) {
             return Optional.empty();
         }
         return Optional.of(TrustTag.getDeletedTag(name));
@@ -120,13 +120,13 @@ public class UnTrustCommand extends InClaimCommand implements TabCompletable {
         return plugin.getClaimWorld(user.getWorld())
                 .flatMap(world -> world.getClaimAt(user.getPosition()).map(claim -> {
                     final List<String> names = Lists.newArrayList();
-                    claim.getTrustedUsers().keySet().stream()
+                    claim.getTrustedUsersView().keySet().stream()
                             .map(uuid -> world.getUser(uuid).map(User::getName))
                             .forEach(optionalName -> optionalName.ifPresent(names::add));
-                    claim.getTrustedGroups().keySet().stream()
+                    claim.getTrustedGroupsView().keySet().stream()
                             .map(group -> plugin.getSettings().getUserGroups().getGroupSpecifierPrefix() + group)
                             .forEach(names::add);
-                    claim.getTrustedTags().keySet().stream()
+                    claim.getTrustedTagsView().keySet().stream()
                             .map(tag -> plugin.getSettings().getTrustTags().getTagSpecifierPrefix() + tag)
                             .forEach(names::add);
                     return names;
@@ -101,6 +101,10 @@ public class UserClaimsListCommand extends ClaimsListCommand implements UserList
         claimLists.removeAll(userUuid);
     }
 
+    protected int getCachedEntries() {
+        return claimLists.size();
+    }
+
     @Override
     @NotNull
     protected String getListTitle(@NotNull Locales locales, @Nullable User user, int claimCount, @NotNull SortOption sort, boolean ascend) {
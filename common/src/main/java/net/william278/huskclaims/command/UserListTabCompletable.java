@@ -22,7 +22,6 @@ package net.william278.huskclaims.command;
 import net.william278.huskclaims.HuskClaims;
 import net.william278.huskclaims.user.CommandUser;
 import net.william278.huskclaims.user.OnlineUser;
-import net.william278.huskclaims.user.User;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -30,23 +29,53 @@ import java.util.List;
 
 public interface UserListTabCompletable extends TabCompletable {
 
+    // Maximum number of usernames to suggest at once
+    int MAX_USER_SUGGESTIONS = 100;
+
     @Override
     @Nullable
     default List<String> suggest(@NotNull CommandUser user, @NotNull String[] args) {
-        if (user instanceof OnlineUser onlineUser) {
-            return getPlugin().getUserList().stream()
-                    .filter(userInList -> {
-                        if (userInList instanceof OnlineUser onlineUserInList) {
-                            return onlineUser.canSee(onlineUserInList);
-                        }
-                        return true;
-                    })
-                    .map(User::getName)
-                    .toList();
-        }
-        return getPlugin().getUserList().stream()
-                .map(User::getName)
-                .toList();
+        return suggestUserNames(user, args);
+    }
+
+    /**
+     * Get whether the argument being completed is suggested from the user name index alone. Only these arguments
+     * are completed off the server thread; completers that read world or claim state for an argument must return
+     * {@code false} for it
+     *
+     * @param args the command arguments
+     * @return whether the last argument is completed with user names only
+     * @since 1.5.12
+     */
+    default boolean isSuggestingUserNames(@NotNull String[] args) {
+        return true;
+    }
+
+    /**
+     * Get filtered user name suggestions for the last argument from the user name index. This is safe to call off
+     * the server thread
+     *
+     * @param user the user completing the command
+     * @param args the command arguments
+     * @return the user name suggestions
+     * @since 1.5.12
+     */
+    @NotNull
+    default List<String> getUserNameSuggestions(@NotNull CommandUser user, @NotNull String[] args) {
+        return filter(suggestUserNames(user, args), args);
+    }
+
+    // Suggest names of users matching the last argument, hiding online users the completing user can't see
+    @NotNull
+    private List<String> suggestUserNames(@NotNull CommandUser user, @NotNull String[] args) {
+        final String prefix = args.length > 0 ? args[args.length - 1] : "";
+        return getPlugin().getUserNameIndex().getMatching(prefix, MAX_USER_SUGGESTIONS, (indexed) -> {
+            if (!(user instanceof OnlineUser onlineUser)) {
+                return true;
+            }
+            final OnlineUser onlineIndexed = getPlugin().getOnlineUserMap().get(indexed.getUuid());
+            return onlineIndexed == null || onlineUser.canSee(onlineIndexed);
+        });
     }
 
     @NotNull
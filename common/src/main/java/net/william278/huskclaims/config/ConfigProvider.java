@@ -26,6 +26,8 @@ import de.exlll.configlib.YamlConfigurations;
 import net.william278.cloplib.operation.OperationType;
 import net.william278.huskclaims.HuskClaims;
 import net.william278.huskclaims.trust.TrustLevel;
+import net.william278.huskclaims.moderation.SignFilter;
+import net.william278.huskclaims.trust.TrustLevelTable;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.InputStream;
@@ -77,8 +79,26 @@ public interface ConfigProvider {
                 Settings.class,
                 YAML_CONFIGURATION_PROPERTIES.header(Settings.CONFIG_HEADER).build()
         ));
+        setSignFilter(SignFilter.compile(getSettings().getModeration().getSigns().getFilteredWords()));
     }
 
+    /**
+     * Get the filter for sign text, compiled from the filtered words when settings are loaded
+     *
+     * @return the sign filter
+     * @since 1.5.12
+     */
+    @NotNull
+    SignFilter getSignFilter();
+
+    /**
+     * Set the filter for sign text
+     *
+     * @param signFilter The sign filter to set
+     * @since 1.5.12
+     */
+    void setSignFilter(@NotNull SignFilter signFilter);
+
     /**
      * Get the locales for the plugin
      *
@@ -191,9 +211,26 @@ public interface ConfigProvider {
      * @since 1.0
      */
     default Optional<TrustLevel> getTrustLevel(@NotNull String id) {
-        return getTrustLevels().stream().filter(trustLevel -> trustLevel.getId().equalsIgnoreCase(id)).findFirst();
+        return getTrustLevelTable().find(id);
     }
 
+    /**
+     * Get the lookup table of trust levels by ID, built when trust levels are loaded
+     *
+     * @return the trust level table
+     * @since 1.5.12
+     */
+    @NotNull
+    TrustLevelTable getTrustLevelTable();
+
+    /**
+     * Set the lookup table of trust levels by ID
+     *
+     * @param trustLevelTable The trust level table to set
+     * @since 1.5.12
+     */
+    void setTrustLevelTable(@NotNull TrustLevelTable trustLevelTable);
+
     /**
      * Set the trust levels
      *
@@ -213,6 +250,7 @@ public interface ConfigProvider {
                 TrustLevels.class,
                 YAML_CONFIGURATION_PROPERTIES.header(TrustLevels.CONFIG_HEADER).build()
         ).sortByWeight());
+        setTrustLevelTable(new TrustLevelTable(getTrustLevels()));
     }
 
     @NotNull
@@ -408,6 +408,19 @@ public final class Settings {
         @Comment("If using block displays, whether highlights should use a glow effect (requires Paper 1.19.4+)")
         private boolean glowEffect = true;
 
+        @Comment("The maximum number of highlight blocks shown or hidden across the server each tick. "
+                + "Large or simultaneous highlights are spread over several ticks")
+        private int maxBlocksPerTick = 2500;
+
+        @Comment("If using block displays, the maximum number of display entities used to highlight for one player")
+        private int maxDisplaysPerPlayer = 2000;
+
+        @Comment("If using block displays, the maximum number of display entities used to highlight across the server")
+        private int maxDisplays = 20000;
+
+        @Comment("If using block displays, how long (in seconds) unused display entities are kept to be reused")
+        private long displayPoolTimeout = 60;
+
         @Comment("The blocks to use when highlighting claims")
         private Map<Highlightable.Type, String> blockTypes = new TreeMap<>(Map.of(
                 Highlightable.Type.EDGE, "minecraft:gold_block",
@@ -539,6 +552,38 @@ public final class Settings {
 
     }
 
+    @Comment("Settings for recording internal performance metrics, shown in /huskclaims status and dumps")
+    private MetricsSettings metrics = new MetricsSettings();
+
+    @Getter
+    @Configuration
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class MetricsSettings {
+        @Comment("Whether to record claim lookup, database, cache and network metrics")
+        private boolean enabled = true;
+
+        @Comment("Whether to periodically write metrics in the Prometheus text format to a file in the plugin folder")
+        private boolean writeFile = false;
+
+        @Comment("The name of the metrics file to write")
+        private String fileName = "metrics.prom";
+
+        @Comment("How often, in seconds, to write the metrics file")
+        private int fileIntervalSeconds = 15;
+
+        @Comment({"Whether to serve metrics in the Prometheus text format at http://localhost:<port>/metrics",
+                "The endpoint only listens on the loopback interface, so it can't be reached from other machines"})
+        private boolean serveHttp = false;
+
+        @Comment("The port to serve metrics on")
+        private int httpPort = 9721;
+
+        @Comment({"Debug option: whether to detect database and network broker calls made on the server thread, "
+                + "which can cause lag spikes",
+                "View the worst offenders with /huskclaims blocking, or in a system dump"})
+        private boolean detectBlockingCalls = false;
+    }
+
     @Comment("Settings for integration hooks with other plugins")
     private HookSettings hooks = new HookSettings();
 
@@ -664,6 +709,18 @@ public final class Settings {
 
             @Comment("The label format for markers. '%s' will be replaced with the claim owner's name")
             private String labelFormat = "Claim by %s";
+
+            @Comment("The max number of markers to add, redraw or remove each tick. Further changes are applied in "
+                    + "later ticks")
+            private int maxUpdatesPerTick = 250;
+
+            @Comment("Whether to merge the markers of touching or overlapping claims with the same owner into single "
+                    + "outlines. Reduces the size of the web map's marker data on servers with many claims")
+            private boolean mergeOwnerMarkers = false;
+
+            @Comment("The max number of corners a merged marker can have. Claims that would merge into a more complex "
+                    + "outline are marked individually")
+            private int maxMergedMarkerVertices = 500;
         }
 
         @NotNull
@@ -20,6 +20,7 @@
 package net.william278.huskclaims.database;
 
 import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.config.Settings;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -37,8 +38,10 @@ public interface DatabaseProvider {
     void closeDatabase();
 
     default void loadDatabase() throws IllegalStateException {
-        // Create database instance
-        final Database database = createDatabase();
+        // Create database instance, timing calls to it if metrics or blocking call detection are enabled
+        final Settings.MetricsSettings metrics = getPlugin().getSettings().getMetrics();
+        final Database database = metrics.isEnabled() || metrics.isDetectBlockingCalls()
+                ? new TimedDatabase(getPlugin(), createDatabase()) : createDatabase();
 
         // Initialize database
         database.initialize();
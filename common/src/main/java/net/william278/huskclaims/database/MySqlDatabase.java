@@ -24,9 +24,11 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.gson.JsonSyntaxException;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import net.william278.huskclaims.HuskClaims;
 import net.william278.huskclaims.claim.ClaimWorld;
 import net.william278.huskclaims.config.Settings;
+import net.william278.huskclaims.metrics.Metric;
 import net.william278.huskclaims.position.ServerWorld;
 import net.william278.huskclaims.position.World;
 import net.william278.huskclaims.trust.UserGroup;
@@ -39,6 +41,7 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.function.ToIntFunction;
 import java.util.logging.Level;
 
 @SuppressWarnings("DuplicatedCode")
@@ -108,6 +111,22 @@ public class MySqlDatabase extends Database {
                         "maintainTimeStats", "false")
         );
         dataSource.setDataSourceProperties(properties);
+
+        // Expose connection pool stats
+        plugin.getMetricsRegistry().registerGauge(Metric.DATABASE_POOL_CONNECTIONS,
+                () -> getPoolStat(HikariPoolMXBean::getActiveConnections), "active");
+        plugin.getMetricsRegistry().registerGauge(Metric.DATABASE_POOL_CONNECTIONS,
+                () -> getPoolStat(HikariPoolMXBean::getIdleConnections), "idle");
+        plugin.getMetricsRegistry().registerGauge(Metric.DATABASE_POOL_CONNECTIONS,
+                () -> getPoolStat(HikariPoolMXBean::getTotalConnections), "total");
+        plugin.getMetricsRegistry().registerGauge(Metric.DATABASE_POOL_CONNECTIONS,
+                () -> getPoolStat(HikariPoolMXBean::getThreadsAwaitingConnection), "awaiting");
+    }
+
+    // Get a stat of the connection pool, or 0 if the pool has not started yet
+    private int getPoolStat(@NotNull ToIntFunction<HikariPoolMXBean> stat) {
+        final HikariPoolMXBean pool = dataSource != null ? dataSource.getHikariPoolMXBean() : null;
+        return pool != null ? stat.applyAsInt(pool) : 0;
     }
 
     @SuppressWarnings("SqlSourceToSinkFlow")
@@ -0,0 +1,196 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.database;
+
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.claim.ClaimWorld;
+import net.william278.huskclaims.metrics.Metric;
+import net.william278.huskclaims.position.ServerWorld;
+import net.william278.huskclaims.position.World;
+import net.william278.huskclaims.trust.UserGroup;
+import net.william278.huskclaims.user.SavedUser;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Database} that wraps another, recording how long each call to it takes in the
+ * {@link Metric#DATABASE_CALLS database call metrics}, and reporting calls made on the server thread to the
+ * {@link net.william278.huskclaims.metrics.BlockingCallDetector}
+ *
+ * @since 1.5.12
+ */
+public class TimedDatabase extends Database {
+
+    private final Database database;
+
+    public TimedDatabase(@NotNull HuskClaims plugin, @NotNull Database database) {
+        super(plugin);
+        this.database = database;
+    }
+
+    @Override
+    protected void executeScript(@NotNull Connection connection, @NotNull String name) throws SQLException {
+        database.executeScript(connection, name);
+    }
+
+    @Override
+    public void initialize() throws IllegalStateException {
+        time("initialize", database::initialize);
+    }
+
+    @Override
+    public boolean isCreated() {
+        return database.isCreated();
+    }
+
+    @Override
+    public int getSchemaVersion() {
+        return time("getSchemaVersion", database::getSchemaVersion);
+    }
+
+    @Override
+    public void setSchemaVersion(int version) {
+        time("setSchemaVersion", () -> database.setSchemaVersion(version));
+    }
+
+    @Override
+    public Optional<SavedUser> getUser(@NotNull UUID uuid) {
+        return time("getUser", () -> database.getUser(uuid));
+    }
+
+    @Override
+    public Optional<SavedUser> getUser(@NotNull String username) {
+        return time("getUserByName", () -> database.getUser(username));
+    }
+
+    @Override
+    public List<SavedUser> getInactiveUsers(long daysInactive) {
+        return time("getInactiveUsers", () -> database.getInactiveUsers(daysInactive));
+    }
+
+    @Override
+    public void createUser(@NotNull SavedUser user) {
+        time("createUser", () -> database.createUser(user));
+    }
+
+    @Override
+    public void updateUser(@NotNull SavedUser user) {
+        time("updateUser", () -> database.updateUser(user));
+    }
+
+    @Override
+    public void createOrUpdateUser(@NotNull SavedUser user) {
+        time("createOrUpdateUser", () -> database.createOrUpdateUser(user));
+    }
+
+    @NotNull
+    @Override
+    public Set<UserGroup> getUserGroups(@NotNull UUID uuid) {
+        return time("getUserGroups", () -> database.getUserGroups(uuid));
+    }
+
+    @NotNull
+    @Override
+    public Map<UUID, Set<UserGroup>> getAllUserGroups() {
+        return time("getAllUserGroups", database::getAllUserGroups);
+    }
+
+    @Override
+    public void addUserGroup(@NotNull UserGroup group) {
+        time("addUserGroup", () -> database.addUserGroup(group));
+    }
+
+    @Override
+    public void updateUserGroup(@NotNull UUID owner, @NotNull String name, @NotNull UserGroup newGroup) {
+        time("updateUserGroup", () -> database.updateUserGroup(owner, name, newGroup));
+    }
+
+    @Override
+    public void deleteUserGroup(@NotNull UserGroup group) {
+        time("deleteUserGroup", () -> database.deleteUserGroup(group));
+    }
+
+    @NotNull
+    @Override
+    public Map<World, ClaimWorld> getClaimWorlds(@NotNull String server) throws IllegalStateException {
+        return time("getClaimWorlds", () -> database.getClaimWorlds(server));
+    }
+
+    @NotNull
+    @Override
+    public Map<ServerWorld, ClaimWorld> getAllClaimWorlds() throws IllegalStateException {
+        return time("getAllClaimWorlds", database::getAllClaimWorlds);
+    }
+
+    @NotNull
+    @Override
+    public ClaimWorld createClaimWorld(@NotNull World world) {
+        return time("createClaimWorld", () -> database.createClaimWorld(world));
+    }
+
+    @Override
+    public void updateClaimWorld(@NotNull ClaimWorld claimWorld) {
+        time("updateClaimWorld", () -> database.updateClaimWorld(claimWorld));
+    }
+
+    @Override
+    public void close() {
+        database.close();
+    }
+
+    @Override
+    public boolean hasLoaded() {
+        return database.hasLoaded();
+    }
+
+    /**
+     * Get the database this one wraps
+     *
+     * @return the wrapped database
+     * @since 1.5.12
+     */
+    @NotNull
+    public Database getDelegate() {
+        return database;
+    }
+
+    // Time a call to the wrapped database, including calls that throw
+    private <T> T time(@NotNull String method, @NotNull Supplier<T> call) {
+        final long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            plugin.getMetricsRegistry().getHistogram(Metric.DATABASE_CALLS, method).recordSince(start);
+            plugin.getBlockingCallDetector().record("Database#" + method, start);
+        }
+    }
+
+    private void time(@NotNull String method, @NotNull Runnable call) {
+        time(method, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.event;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how events of each type have been dispatched
+ *
+ * @since 1.5.12
+ */
+public class EventDispatchCounters {
+
+    private final Map<Class<?>, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Record an event having been fired to listeners
+     *
+     * @param type   the type of event
+     * @param inline whether the event was fired on the calling thread, rather than being scheduled
+     * @since 1.5.12
+     */
+    public void recordFired(@NotNull Class<?> type, boolean inline) {
+        final Counter counter = getCounter(type);
+        (inline ? counter.inline : counter.scheduled).increment();
+    }
+
+    /**
+     * Record an event having been skipped, as nothing was listening for it
+     *
+     * @param type the type of event
+     * @since 1.5.12
+     */
+    public void recordSkipped(@NotNull Class<?> type) {
+        getCounter(type).skipped.increment();
+    }
+
+    /**
+     * Get the current counts for each type of event that has been dispatched, by event class name
+     *
+     * @return the counts, sorted by event name
+     * @since 1.5.12
+     */
+    @NotNull
+    public Map<String, Counts> getCounts() {
+        final Map<String, Counts> counts = new TreeMap<>();
+        counters.forEach((type, counter) -> counts.put(type.getSimpleName(), new Counts(
+                counter.inline.sum(), counter.scheduled.sum(), counter.skipped.sum()
+        )));
+        return counts;
+    }
+
+    @NotNull
+    private Counter getCounter(@NotNull Class<?> type) {
+        return counters.computeIfAbsent(type, t -> new Counter());
+    }
+
+    /**
+     * How events of a type have been dispatched
+     *
+     * @param inline    the number of events fired on the calling thread
+     * @param scheduled the number of events scheduled to be fired on the server thread
+     * @param skipped   the number of events not fired, as nothing was listening for them
+     * @since 1.5.12
+     */
+    public record Counts(long inline, long scheduled, long skipped) {
+
+        public long total() {
+            return inline + scheduled + skipped;
+        }
+
+    }
+
+    private static final class Counter {
+        private final LongAdder inline = new LongAdder();
+        private final LongAdder scheduled = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+    }
+
+}
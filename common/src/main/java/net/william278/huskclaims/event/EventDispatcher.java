@@ -44,7 +44,10 @@ import java.util.function.Consumer;
 public interface EventDispatcher extends EventProvider {
 
     /**
-     * Fire an event synchronously, then run a callback asynchronously
+     * Fire an event synchronously, then run a callback asynchronously.
+     * <p>
+     * If nothing is listening for the event, it is not fired and the callback is run straight away. If this is
+     * called on the server thread, the event is fired immediately rather than being scheduled.
      *
      * @param event    The event to fire
      * @param callback The callback to run after the event has been fired
@@ -52,11 +55,43 @@ public interface EventDispatcher extends EventProvider {
      * @since 1.0
      */
     default <T extends Event> void fireEvent(@NotNull T event, @Nullable Consumer<T> callback) {
-        getPlugin().runSync(() -> {
+        if (!hasListeners(event)) {
+            getEventDispatchCounters().recordSkipped(event.getClass());
+            if (callback != null) {
+                getPlugin().runAsync(() -> callback.accept(event));
+            }
+            return;
+        }
+
+        final boolean inline = getPlugin().isSyncThread();
+        getEventDispatchCounters().recordFired(event.getClass(), inline);
+        final Runnable fire = () -> {
             if (!fireIsCancelled(event) && callback != null) {
                 getPlugin().runAsync(() -> callback.accept(event));
             }
-        });
+        };
+        if (inline) {
+            fire.run();
+            return;
+        }
+        getPlugin().runSync(fire);
+    }
+
+    /**
+     * Fire an event on this thread, unless nothing is listening for it, and return whether the event was canceled
+     *
+     * @param event The event to fire
+     * @param <T>   The type of event to fire
+     * @return Whether the event was canceled
+     * @since 1.5.12
+     */
+    default <T extends Event> boolean fireIsCancelledIfListened(@NotNull T event) {
+        if (!hasListeners(event)) {
+            getEventDispatchCounters().recordSkipped(event.getClass());
+            return false;
+        }
+        getEventDispatchCounters().recordFired(event.getClass(), true);
+        return fireIsCancelled(event);
     }
 
     /**
@@ -69,6 +104,27 @@ public interface EventDispatcher extends EventProvider {
      */
     <T extends Event> boolean fireIsCancelled(@NotNull T event);
 
+    /**
+     * Get whether anything is listening for an event. Platforms that can't tell always return {@code true}
+     *
+     * @param event The event
+     * @param <T>   The type of event
+     * @return Whether the event has listeners
+     * @since 1.5.12
+     */
+    default <T extends Event> boolean hasListeners(@NotNull T event) {
+        return true;
+    }
+
+    /**
+     * Get the counts of how each type of event has been dispatched
+     *
+     * @return the event dispatch counters
+     * @since 1.5.12
+     */
+    @NotNull
+    EventDispatchCounters getEventDispatchCounters();
+
     default void fireClaimBlocksChangeEvent(@NotNull User user, long oldClaimBlocks, long newClaimBlocks,
                                             @NotNull SavedUserProvider.ClaimBlockSource reason,
                                             @NotNull Consumer<ClaimBlocksChangeEvent> callback) {
@@ -118,13 +174,13 @@ public interface EventDispatcher extends EventProvider {
     default boolean fireIsCancelledEnterClaimEvent(@NotNull OnlineUser user, @NotNull Claim claim,
                                                    @NotNull ClaimWorld claimWorld,
                                                    @NotNull Position enteredFrom, @NotNull Position enteredTo) {
-        return fireIsCancelled(getEnterClaimEvent(user, claim, claimWorld, enteredFrom, enteredTo));
+        return fireIsCancelledIfListened(getEnterClaimEvent(user, claim, claimWorld, enteredFrom, enteredTo));
     }
 
     default boolean fireIsCancelledExitClaimEvent(@NotNull OnlineUser user, @NotNull Claim claim,
                                                   @NotNull ClaimWorld claimWorld,
                                                   @NotNull Position exitedFrom, @NotNull Position exitedTo) {
-        return fireIsCancelled(getExitClaimEvent(user, claim, claimWorld, exitedFrom, exitedTo));
+        return fireIsCancelledIfListened(getExitClaimEvent(user, claim, claimWorld, exitedFrom, exitedTo));
     }
 
     default void fireResizeChildClaimEvent(@NotNull OnlineUser resizer, @NotNull Claim parent,
@@ -182,7 +238,7 @@ public interface EventDispatcher extends EventProvider {
     default Optional<ClaimWorldPruneEvent> fireIsCancelledClaimWorldPruneEvent(@NotNull ClaimWorld world,
                                                                                @NotNull Map<User, Long> userMap) {
         final ClaimWorldPruneEvent event = getClaimWorldPruneEvent(world, userMap);
-        return !fireIsCancelled(event) ? Optional.of(event) : Optional.empty();
+        return !fireIsCancelledIfListened(event) ? Optional.of(event) : Optional.empty();
     }
 
     @NotNull
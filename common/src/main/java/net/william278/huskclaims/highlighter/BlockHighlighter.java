@@ -19,11 +19,10 @@
 
 package net.william278.huskclaims.highlighter;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
-import com.google.common.collect.Sets;
-import lombok.AllArgsConstructor;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import lombok.Getter;
 import net.william278.huskclaims.HuskClaims;
 import net.william278.huskclaims.claim.ClaimWorld;
@@ -33,22 +32,41 @@ import net.william278.huskclaims.position.World;
 import net.william278.huskclaims.user.OnlineUser;
 import net.william278.huskclaims.util.BlockProvider;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
 
 public abstract class BlockHighlighter<B extends BlockHighlighter.HighlightBlock> implements Highlighter {
 
     public static final int VIEWING_RANGE = 78;
 
     protected final HuskClaims plugin;
-    protected final Multimap<UUID, HighlightBlock> replacedBlocks;
+    protected final Map<UUID, Long2ObjectMap<B>> highlightedBlocks;
 
     protected BlockHighlighter(@NotNull HuskClaims plugin) {
         this.plugin = plugin;
-        this.replacedBlocks = Multimaps.newListMultimap(
-                Maps.newConcurrentMap(), CopyOnWriteArrayList::new
-        );
+        this.highlightedBlocks = Maps.newConcurrentMap();
+    }
+
+    /**
+     * Get the number of users currently being shown highlights
+     *
+     * @return the number of users
+     * @since 1.5.12
+     */
+    public int getHighlightedUsers() {
+        return highlightedBlocks.size();
+    }
+
+    /**
+     * Get the total number of blocks currently highlighted to users
+     *
+     * @return the number of highlighted blocks
+     * @since 1.5.12
+     */
+    public long getHighlightedBlockCount() {
+        return highlightedBlocks.values().stream().mapToLong(Map::size).sum();
     }
 
     @Override
@@ -61,52 +79,193 @@ public abstract class BlockHighlighter<B extends BlockHighlighter.HighlightBlock
         final ClaimWorld claimWorld = optionalClaimWorld.get();
 
         // Get the point map to be highlighted
-        final Set<B> highlightBlocks = Sets.newHashSet();
         final Position position = user.getPosition();
         final Map<Region.Point, Highlightable.Type> points = Maps.newHashMap();
         toHighlight.forEach(h -> points.putAll(h.getHighlightPoints(claimWorld, showOverlap, position, VIEWING_RANGE)));
 
-        // Synchronously highlight
+        // Synchronously highlight, only queueing blocks that have changed since the last highlight to be sent
         plugin.runSync(position, () -> {
+            if (!plugin.getOnlineUserMap().containsKey(user.getUuid())) {
+                return;
+            }
             final Map<HighlightBlock, Highlightable.Type> blocks = plugin.getSurfaceBlocksAt(points, world, position);
-            final Collection<HighlightBlock> userBlocks = replacedBlocks.get(user.getUuid());
-            if (!userBlocks.isEmpty() && userBlocks.size() == blocks.size()
-                    && blocks.entrySet().stream().allMatch(b -> userBlocks.stream()
-                    .anyMatch(b2 -> b2.getPosition().equals(b.getKey().position)))) {
+            final Long2ObjectMap<B> shown = highlightedBlocks.getOrDefault(user.getUuid(), new Long2ObjectOpenHashMap<>());
+            final Diff<B> diff = Diff.compute(shown, blocks, (origin, type) -> getHighlightBlock(origin, type, plugin));
+            if (diff.isEmpty()) {
                 return;
             }
 
-            this.stopHighlighting(user);
-            blocks.forEach((b, t) -> {
-                B block = getHighlightBlock(b.getPosition(), t, plugin);
-                cacheBlock(user, b, block);
-                highlightBlocks.add(block);
-            });
+            highlightedBlocks.put(user.getUuid(), diff.getHighlighted());
+            plugin.getHighlightScheduler().submit(this, user, position, diff.getRemoved(), diff.getAdded());
+        });
+    }
 
-            this.showBlocks(user, highlightBlocks);
+    @Override
+    public void stopHighlighting(@NotNull OnlineUser user) {
+        if (!highlightedBlocks.containsKey(user.getUuid())) {
+            return;
+        }
+        plugin.runSync(() -> {
+            final Long2ObjectMap<B> shown = highlightedBlocks.remove(user.getUuid());
+            if (shown != null && !shown.isEmpty()) {
+                plugin.getHighlightScheduler().submit(this, user, user.getPosition(), shown.values(), List.of());
+            }
         });
     }
 
-    public abstract void cacheBlock(@NotNull OnlineUser user, @NotNull HighlightBlock origin, @NotNull B block);
+    // The user's client is gone, so their highlights are dropped without being hidden
+    @Override
+    public void removeUser(@NotNull UUID user) {
+        highlightedBlocks.remove(user);
+        plugin.getHighlightScheduler().cancel(user);
+    }
 
+    /**
+     * Create a highlight block to show in place of a surface block
+     *
+     * @param origin the surface block being highlighted
+     * @param type   the type of highlight
+     * @param plugin the plugin instance
+     * @return the highlight block
+     * @since 1.5.12
+     */
     @NotNull
-    public abstract B getHighlightBlock(@NotNull Position position, @NotNull Highlightable.Type type,
+    public abstract B getHighlightBlock(@NotNull HighlightBlock origin, @NotNull Highlightable.Type type,
                                         @NotNull HuskClaims plugin);
 
     public abstract void showBlocks(@NotNull OnlineUser user, @NotNull Collection<B> blocks);
 
+    /**
+     * Stop showing highlight blocks to a user, restoring what was there before
+     *
+     * @param user   the user to hide the blocks from
+     * @param blocks the highlight blocks to hide
+     * @since 1.5.12
+     */
+    public abstract void hideBlocks(@NotNull OnlineUser user, @NotNull Collection<B> blocks);
+
+    /**
+     * Pack a block position into a {@code long}, for keying highlighted blocks
+     *
+     * @param position the position to pack
+     * @return the packed position
+     * @since 1.5.12
+     */
+    public static long packPosition(@NotNull Position position) {
+        return packPosition(position.getBlockX(), (int) Math.floor(position.getY()), position.getBlockZ());
+    }
+
+    /**
+     * Pack block coordinates into a {@code long} (26 bits X, 26 bits Z, 12 bits Y). The world is not part of the
+     * key, so blocks at the same coordinates in different worlds share one.
+     *
+     * @param x the block X coordinate
+     * @param y the block Y coordinate
+     * @param z the block Z coordinate
+     * @return the packed position
+     * @since 1.5.12
+     */
+    public static long packPosition(int x, int y, int z) {
+        return ((x & 0x3FFFFFFL) << 38) | ((z & 0x3FFFFFFL) << 12) | (y & 0xFFFL);
+    }
+
+    /**
+     * The difference between the blocks currently highlighted to a user and the blocks that should be
+     *
+     * @param <B> the highlight block type
+     * @since 1.5.12
+     */
+    @Getter
+    public static final class Diff<B extends HighlightBlock> {
+
+        private final Long2ObjectMap<B> highlighted;
+        private final List<B> added;
+        private final List<B> removed;
+
+        private Diff(@NotNull Long2ObjectMap<B> highlighted, @NotNull List<B> added, @NotNull List<B> removed) {
+            this.highlighted = highlighted;
+            this.added = added;
+            this.removed = removed;
+        }
+
+        /**
+         * Compute the diff between shown highlight blocks and the surface blocks that should now be highlighted.
+         * <p>
+         * Blocks already shown at the same position in the same world with the same type are kept; blocks at new
+         * positions (or whose type or world changed) are created with the factory and added, and everything else
+         * shown is removed.
+         *
+         * @param shown   the currently shown highlight blocks, keyed by {@link #packPosition(Position) position}
+         * @param blocks  the surface blocks to highlight, mapped to their highlight type
+         * @param factory creates a highlight block from a surface block and highlight type
+         * @param <B>     the highlight block type
+         * @return the diff
+         */
+        @NotNull
+        public static <B extends HighlightBlock> Diff<B> compute(
+                @NotNull Long2ObjectMap<B> shown, @NotNull Map<HighlightBlock, Highlightable.Type> blocks,
+                @NotNull BiFunction<HighlightBlock, Highlightable.Type, B> factory
+        ) {
+            final Long2ObjectMap<B> highlighted = new Long2ObjectOpenHashMap<>(blocks.size());
+            final List<B> added = Lists.newArrayList();
+            final List<B> removed = Lists.newArrayList();
+            blocks.forEach((origin, type) -> {
+                final long key = packPosition(origin.getPosition());
+                if (highlighted.containsKey(key)) {
+                    return;
+                }
+                final B existing = shown.get(key);
+                if (existing != null && existing.getType() == type && isSameWorld(existing, origin)) {
+                    highlighted.put(key, existing);
+                    return;
+                }
+                final B block = factory.apply(origin, type);
+                highlighted.put(key, block);
+                added.add(block);
+            });
+            for (Long2ObjectMap.Entry<B> entry : shown.long2ObjectEntrySet()) {
+                if (highlighted.get(entry.getLongKey()) != entry.getValue()) {
+                    removed.add(entry.getValue());
+                }
+            }
+            return new Diff<>(highlighted, added, removed);
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty();
+        }
+
+        // Position keys leave out the world, so check it matches; blocks in a highlight usually share one instance
+        private static boolean isSameWorld(@NotNull HighlightBlock shown, @NotNull HighlightBlock origin) {
+            final World world = shown.getPosition().getWorld();
+            return world == origin.getPosition().getWorld() || world.equals(origin.getPosition().getWorld());
+        }
+
+    }
+
     /**
      * Represents a highlighted block
      *
      * @since 1.0
      */
     @Getter
-    @AllArgsConstructor
     public static class HighlightBlock {
 
         protected final Position position;
         protected final BlockProvider.MaterialBlock block;
+        @Nullable
+        protected final Highlightable.Type type;
 
+        public HighlightBlock(@NotNull Position position, @NotNull BlockProvider.MaterialBlock block,
+                              @Nullable Highlightable.Type type) {
+            this.position = position;
+            this.block = block;
+            this.type = type;
+        }
+
+        public HighlightBlock(@NotNull Position position, @NotNull BlockProvider.MaterialBlock block) {
+            this(position, block, null);
+        }
 
         @NotNull
         private Map.Entry<Position, BlockProvider.MaterialBlock> toEntry() {
@@ -19,15 +19,25 @@
 
 package net.william278.huskclaims.highlighter;
 
+import com.google.common.collect.Maps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import lombok.Getter;
 import net.william278.huskclaims.HuskClaims;
 import net.william278.huskclaims.position.Position;
 import net.william278.huskclaims.user.OnlineUser;
+import net.william278.huskclaims.util.BlockProvider.MaterialBlock;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collection;
+import java.util.Map;
 
 /**
  * Highlighter that uses ghost blocks - used to highlight {@link Highlightable}s to a user in-game
+ * <p>
+ * Block updates are batched by chunk section, so each batch can be sent as a single multi-block change packet.
+ * How many are sent each tick is limited by the {@link HighlightScheduler}, which sends a user at most
+ * {@link HighlightScheduler#MAX_SECTIONS_PER_TICK} sections of shows and hides per tick.
  */
 public class BlockUpdateHighlighter extends BlockHighlighter<BlockUpdateHighlighter.UpdateHighlightBlock> {
 
@@ -37,31 +47,44 @@ public class BlockUpdateHighlighter extends BlockHighlighter<BlockUpdateHighligh
         super(plugin);
     }
 
-    @Override
-    public void cacheBlock(@NotNull OnlineUser user, @NotNull HighlightBlock origin,
-                           @NotNull UpdateHighlightBlock block) {
-        replacedBlocks.put(user.getUuid(), origin);
-    }
-
     @Override
     @NotNull
-    public UpdateHighlightBlock getHighlightBlock(@NotNull Position position, @NotNull Highlightable.Type type,
+    public UpdateHighlightBlock getHighlightBlock(@NotNull HighlightBlock origin, @NotNull Highlightable.Type type,
                                                   @NotNull HuskClaims plugin) {
-        return new UpdateHighlightBlock(position, type, plugin);
+        return new UpdateHighlightBlock(origin, type, plugin);
     }
 
     @Override
     public void showBlocks(@NotNull OnlineUser user, @NotNull Collection<UpdateHighlightBlock> blocks) {
-        this.sendBlockUpdates(user, blocks);
+        sendUpdates(user, HighlightBlock.getMap(blocks));
     }
 
     @Override
-    public void stopHighlighting(@NotNull OnlineUser user) {
-        plugin.runSync(() -> this.sendBlockUpdates(user, replacedBlocks.removeAll(user.getUuid())));
+    public void hideBlocks(@NotNull OnlineUser user, @NotNull Collection<UpdateHighlightBlock> blocks) {
+        sendUpdates(user, HighlightBlock.getMap(blocks.stream().map(UpdateHighlightBlock::getOrigin).toList()));
     }
 
-    private void sendBlockUpdates(@NotNull OnlineUser user, @NotNull Collection<? extends HighlightBlock> blocks) {
-        plugin.sendBlockUpdates(user, HighlightBlock.getMap(blocks));
+    // Send block updates to a user, a chunk section at a time
+    private void sendUpdates(@NotNull OnlineUser user, @NotNull Map<Position, MaterialBlock> blocks) {
+        getSections(blocks).forEach(section -> plugin.sendBlockUpdates(user, section));
+    }
+
+    /**
+     * Split block updates into batches by the chunk section (16x16x16 blocks) they are in
+     *
+     * @param blocks the block updates
+     * @return the block updates in each chunk section
+     * @since 1.5.12
+     */
+    @NotNull
+    public static Collection<Map<Position, MaterialBlock>> getSections(@NotNull Map<Position, MaterialBlock> blocks) {
+        final Long2ObjectMap<Map<Position, MaterialBlock>> sections = new Long2ObjectLinkedOpenHashMap<>();
+        blocks.forEach((position, block) -> sections.computeIfAbsent(
+                packPosition(position.getBlockX() >> 4, (int) Math.floor(position.getY()) >> 4,
+                        position.getBlockZ() >> 4),
+                key -> Maps.newHashMap()
+        ).put(position, block));
+        return sections.values();
     }
 
     @Override
@@ -69,11 +92,16 @@ public class BlockUpdateHighlighter extends BlockHighlighter<BlockUpdateHighligh
         return PRIORITY;
     }
 
+    @Getter
     public static class UpdateHighlightBlock extends HighlightBlock {
 
-        private UpdateHighlightBlock(@NotNull Position position, @NotNull Highlightable.Type block,
+        // The block that was there before being highlighted, restored when hidden
+        private final HighlightBlock origin;
+
+        private UpdateHighlightBlock(@NotNull HighlightBlock origin, @NotNull Highlightable.Type type,
                                      @NotNull HuskClaims plugin) {
-            super(position, plugin.getSettings().getHighlighter().getBlock(block, plugin));
+            super(origin.getPosition(), plugin.getSettings().getHighlighter().getBlock(type, plugin), type);
+            this.origin = origin;
         }
 
     }
@@ -0,0 +1,197 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.highlighter;
+
+import com.google.common.collect.Maps;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A pool of display entities used to highlight blocks, kept per player so displays can be repositioned and
+ * retextured when a highlight changes rather than being removed and spawned again.
+ * <p>
+ * The number of live displays (in use or idle in a pool) is capped per player and across the server. When a cap is
+ * reached, no more displays are handed out until some are released. Pools that have not been used for a while are
+ * reclaimed, removing their idle displays, and a user's whole pool is removed when they leave the server.
+ *
+ * @param <D> the display entity type
+ * @since 1.5.12
+ */
+public class DisplayPool<D> {
+
+    private final Map<UUID, UserPool<D>> pools = Maps.newConcurrentMap();
+    private final AtomicInteger live = new AtomicInteger();
+    private final int maxPerUser;
+    private final int maxTotal;
+    private final long idleTimeoutMillis;
+
+    public DisplayPool(int maxPerUser, int maxTotal, long idleTimeoutMillis) {
+        this.maxPerUser = maxPerUser;
+        this.maxTotal = maxTotal;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Take a display from a user's pool, spawning a new one if none are idle and the caps allow it
+     *
+     * @param user     the user the display will be shown to
+     * @param reusable whether an idle display can be reused; idle displays that can't are dropped from the pool
+     *                 without being removed, so this should only fail for displays that no longer need removing
+     * @param spawner  spawns a new display
+     * @return the display, or {@code null} if the per-player or server-wide cap has been reached
+     * @since 1.5.12
+     */
+    @Nullable
+    public D acquire(@NotNull UUID user, @NotNull Predicate<D> reusable, @NotNull Supplier<D> spawner) {
+        final UserPool<D> pool = pools.computeIfAbsent(user, uuid -> new UserPool<>());
+        synchronized (pool) {
+            pool.lastUsed = System.currentTimeMillis();
+            for (D idle = pool.idle.poll(); idle != null; idle = pool.idle.poll()) {
+                if (reusable.test(idle)) {
+                    pool.inUse.add(idle);
+                    return idle;
+                }
+
+                // Drop idle displays that can't be reused, e.g. ones the server removed when their chunk unloaded
+                live.decrementAndGet();
+            }
+            if (pool.inUse.size() + pool.spawning >= maxPerUser) {
+                return null;
+            }
+            if (live.incrementAndGet() > maxTotal) {
+                live.decrementAndGet();
+                return null;
+            }
+            pool.spawning++;
+        }
+
+        final D display;
+        try {
+            display = spawner.get();
+        } catch (RuntimeException e) {
+            synchronized (pool) {
+                pool.spawning--;
+            }
+            live.decrementAndGet();
+            throw e;
+        }
+        synchronized (pool) {
+            pool.spawning--;
+            pool.inUse.add(display);
+        }
+        return display;
+    }
+
+    /**
+     * Return a display to a user's pool, to be reused for their next highlight. Displays no longer held for the
+     * user, such as ones removed when they left, are ignored.
+     *
+     * @param user    the user the display was shown to
+     * @param display the display, which should already be hidden from the user
+     * @since 1.5.12
+     */
+    public void release(@NotNull UUID user, @NotNull D display) {
+        final UserPool<D> pool = pools.get(user);
+        if (pool == null) {
+            return;
+        }
+        synchronized (pool) {
+            if (!pool.inUse.remove(display)) {
+                return;
+            }
+            pool.lastUsed = System.currentTimeMillis();
+            pool.idle.push(display);
+        }
+    }
+
+    /**
+     * Remove every display held for a user, whether in use or idle, such as when they leave the server
+     *
+     * @param user    the user whose displays to remove
+     * @param remover removes a display from the world
+     * @since 1.5.12
+     */
+    public void releaseAll(@NotNull UUID user, @NotNull Consumer<D> remover) {
+        final UserPool<D> pool = pools.remove(user);
+        if (pool == null) {
+            return;
+        }
+        final List<D> removed;
+        synchronized (pool) {
+            removed = new ArrayList<>(pool.inUse.size() + pool.idle.size());
+            removed.addAll(pool.inUse);
+            removed.addAll(pool.idle);
+            pool.inUse.clear();
+            pool.idle.clear();
+            live.addAndGet(-removed.size());
+        }
+        removed.forEach(remover);
+    }
+
+    /**
+     * Remove the idle displays of pools that have not been used within the idle timeout
+     *
+     * @param remover removes a display from the world
+     * @since 1.5.12
+     */
+    public void reclaimIdle(@NotNull Consumer<D> remover) {
+        final long now = System.currentTimeMillis();
+        pools.forEach((user, pool) -> {
+            final List<D> reclaimed;
+            synchronized (pool) {
+                if (pool.idle.isEmpty() || now - pool.lastUsed < idleTimeoutMillis) {
+                    return;
+                }
+                reclaimed = new ArrayList<>(pool.idle);
+                pool.idle.clear();
+                live.addAndGet(-reclaimed.size());
+                if (pool.inUse.isEmpty() && pool.spawning == 0) {
+                    pools.remove(user, pool);
+                }
+            }
+            reclaimed.forEach(remover);
+        });
+    }
+
+    /**
+     * Get the number of live displays across all pools, whether in use or idle
+     *
+     * @return the number of live displays
+     * @since 1.5.12
+     */
+    public int getLiveCount() {
+        return live.get();
+    }
+
+    // The displays held for a single user
+    private static final class UserPool<D> {
+        private final Deque<D> idle = new ArrayDeque<>();
+        private final Set<D> inUse = Collections.newSetFromMap(new IdentityHashMap<>());
+        private int spawning;
+        private long lastUsed;
+    }
+
+}
@@ -0,0 +1,378 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.highlighter;
+
+import com.google.common.collect.Maps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.position.Position;
+import net.william278.huskclaims.user.OnlineUser;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schedules the showing and hiding of highlight blocks across the whole server.
+ * <p>
+ * {@link BlockHighlighter}s queue the blocks they need to show and hide here rather than sending them straight away.
+ * Each tick, the scheduler hands out a global budget of blocks (block changes and display spawns) round-robin
+ * across users with queued work, so a burst of highlights is spread over several ticks rather than all landing at
+ * once. Each user's hides are sent first, then their shows, nearest to them first.
+ * <p>
+ * Each user is also sent blocks in at most {@link #MAX_SECTIONS_PER_TICK} chunk sections per tick, as a
+ * {@link BlockUpdateHighlighter} sends each section as its own packet. The rest of their share of the budget is
+ * left for other users.
+ * <p>
+ * A new budget is only handed out once every batch from the last one has been sent on the server thread, so when
+ * the server is lagging, batches are not stacked up behind each other and at most one budget is sent per tick.
+ *
+ * @since 1.5.12
+ */
+public class HighlightScheduler {
+
+    /**
+     * The maximum number of chunk sections (16x16x16 blocks) of blocks shown or hidden to a single user per tick
+     *
+     * @since 1.5.12
+     */
+    public static final int MAX_SECTIONS_PER_TICK = 24;
+    private static final Duration TICK = Duration.ofMillis(50);
+
+    private final HuskClaims plugin;
+    private final Map<QueueKey, UserQueue<?>> queues = Maps.newConcurrentMap();
+    private final AtomicInteger queuedBlocks = new AtomicInteger();
+    private final AtomicInteger inFlightBatches = new AtomicInteger();
+    private final AtomicLong processedBlocks = new AtomicLong();
+    private final AtomicLong saturatedTicks = new AtomicLong();
+    private int rotation;
+
+    public HighlightScheduler(@NotNull HuskClaims plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start processing queued highlight work each tick
+     *
+     * @since 1.5.12
+     */
+    public void start() {
+        plugin.getRepeatingTask(this::tick, TICK, TICK).run();
+    }
+
+    /**
+     * Queue highlight blocks to be hidden from and shown to a user.
+     * <p>
+     * Hiding a block that is still queued to be shown cancels both, so it is never sent.
+     *
+     * @param highlighter the highlighter the blocks belong to
+     * @param user        the user to show and hide the blocks for
+     * @param viewer      the position of the user, used to show the nearest blocks first
+     * @param hide        the blocks to hide
+     * @param show        the blocks to show
+     * @param <B>         the highlight block type
+     * @since 1.5.12
+     */
+    @SuppressWarnings("unchecked")
+    public <B extends BlockHighlighter.HighlightBlock> void submit(@NotNull BlockHighlighter<B> highlighter,
+                                                                 @NotNull OnlineUser user, @NotNull Position viewer,
+                                                                 @NotNull Collection<B> hide,
+                                                                 @NotNull Collection<B> show) {
+        if (hide.isEmpty() && show.isEmpty()) {
+            return;
+        }
+        queues.compute(new QueueKey(user.getUuid(), highlighter), (key, existing) -> {
+            final UserQueue<B> queue = existing != null ? (UserQueue<B>) existing : new UserQueue<>(highlighter, user);
+            queuedBlocks.addAndGet(queue.add(viewer, hide, show));
+            return queue;
+        });
+    }
+
+    /**
+     * Drop the highlight work queued for a user, such as when they leave the server. Batches already handed out to
+     * be sent to them are skipped.
+     *
+     * @param user the UUID of the user
+     * @since 1.5.12
+     */
+    public void cancel(@NotNull UUID user) {
+        queues.entrySet().removeIf(entry -> {
+            if (!entry.getKey().user().equals(user)) {
+                return false;
+            }
+            queuedBlocks.addAndGet(-entry.getValue().cancel());
+            return true;
+        });
+    }
+
+    // Hand this tick's budget out across queued users, then send each user's share on their region's thread
+    private void tick() {
+        if (inFlightBatches.get() > 0) {
+            return;
+        }
+        final List<UserQueue<?>> active = new ArrayList<>(queues.values());
+        if (active.isEmpty()) {
+            return;
+        }
+        Collections.rotate(active, rotation++ % active.size());
+
+        // Round-robin, splitting what's left of the budget evenly between users who still have work queued
+        final int budget = Math.max(1, plugin.getSettings().getHighlighter().getMaxBlocksPerTick());
+        int remaining = budget;
+        boolean progressed = true;
+        while (remaining > 0 && progressed) {
+            progressed = false;
+            final int share = Math.max(1, remaining / active.size());
+            for (UserQueue<?> queue : active) {
+                final int taken = queue.take(Math.min(share, remaining));
+                remaining -= taken;
+                progressed |= taken > 0;
+                if (remaining <= 0) {
+                    break;
+                }
+            }
+        }
+        if (remaining <= 0) {
+            saturatedTicks.incrementAndGet();
+        }
+        queuedBlocks.addAndGet(remaining - budget);
+        processedBlocks.addAndGet(budget - remaining);
+
+        active.forEach(queue -> {
+            queue.dispatch(plugin, inFlightBatches);
+            queues.computeIfPresent(queue.getKey(), (key, q) -> q == queue && q.isEmpty() ? null : q);
+        });
+    }
+
+    /**
+     * Get the number of highlight blocks waiting to be shown or hidden
+     *
+     * @return the number of queued blocks
+     * @since 1.5.12
+     */
+    public int getQueuedBlocks() {
+        return Math.max(0, queuedBlocks.get());
+    }
+
+    /**
+     * Get the number of users with highlight blocks waiting to be shown or hidden
+     *
+     * @return the number of users with queued blocks
+     * @since 1.5.12
+     */
+    public int getQueuedUsers() {
+        return (int) queues.keySet().stream().map(QueueKey::user).distinct().count();
+    }
+
+    /**
+     * Get the total number of highlight blocks shown or hidden by the scheduler
+     *
+     * @return the number of processed blocks
+     * @since 1.5.12
+     */
+    public long getProcessedBlocks() {
+        return processedBlocks.get();
+    }
+
+    /**
+     * Get the number of ticks in which the whole block budget was used, deferring work to later ticks
+     *
+     * @return the number of budget-limited ticks
+     * @since 1.5.12
+     */
+    public long getSaturatedTicks() {
+        return saturatedTicks.get();
+    }
+
+    // Highlight blocks are queued separately for each highlighter a user has blocks shown or hidden by
+    private record QueueKey(@NotNull UUID user, @NotNull BlockHighlighter<?> highlighter) {
+    }
+
+    // The highlight blocks queued for a single user by a highlighter
+    private static final class UserQueue<B extends BlockHighlighter.HighlightBlock> {
+
+        private final BlockHighlighter<B> highlighter;
+        private final OnlineUser user;
+        private final Queue<B> hides = new ArrayDeque<>();
+        private final Queue<PendingShow<B>> shows = new PriorityQueue<>(
+                Comparator.<PendingShow<B>>comparingLong(pending -> pending.distance)
+        );
+        private final Long2ObjectMap<PendingShow<B>> pendingShows = new Long2ObjectOpenHashMap<>();
+        private List<B> hideBatch = new ArrayList<>();
+        private List<B> showBatch = new ArrayList<>();
+        private final LongSet hideSections = new LongOpenHashSet();
+        private final LongSet showSections = new LongOpenHashSet();
+        private Position viewer;
+        private volatile boolean cancelled;
+
+        private UserQueue(@NotNull BlockHighlighter<B> highlighter, @NotNull OnlineUser user) {
+            this.highlighter = highlighter;
+            this.user = user;
+        }
+
+        // Queue blocks, returning the change in the number of queued blocks
+        private synchronized int add(@NotNull Position viewer, @NotNull Collection<B> hide,
+                                     @NotNull Collection<B> show) {
+            this.viewer = viewer;
+            int added = 0;
+            for (B block : hide) {
+                final long key = BlockHighlighter.packPosition(block.getPosition());
+                final PendingShow<B> pending = pendingShows.get(key);
+                if (pending != null && pending.block == block) {
+                    pendingShows.remove(key);
+                    pending.cancelled = true;
+                    added--;
+                    continue;
+                }
+                hides.add(block);
+                added++;
+            }
+            for (B block : show) {
+                final PendingShow<B> pending = new PendingShow<>(block, getDistance(viewer, block));
+                pendingShows.put(BlockHighlighter.packPosition(block.getPosition()), pending);
+                shows.add(pending);
+                added++;
+            }
+            return added;
+        }
+
+        // Move up to a number of blocks into the batch to send this tick, hides first, returning how many were moved.
+        // Stops early once the batch would span more than the per-user section budget
+        private synchronized int take(int max) {
+            int taken = 0;
+            while (taken < max && !hides.isEmpty() && fitsSection(hideSections, hides.peek())) {
+                hideBatch.add(hides.poll());
+                taken++;
+            }
+            while (taken < max && !shows.isEmpty()) {
+                final PendingShow<B> pending = shows.peek();
+                if (pending.cancelled) {
+                    shows.poll();
+                    continue;
+                }
+                if (!fitsSection(showSections, pending.block)) {
+                    break;
+                }
+                shows.poll();
+                pendingShows.remove(BlockHighlighter.packPosition(pending.block.getPosition()));
+                showBatch.add(pending.block);
+                taken++;
+            }
+            return taken;
+        }
+
+        // Whether a block's chunk section is already in this tick's batch, or can be added within the section budget
+        private boolean fitsSection(@NotNull LongSet sections, @NotNull B block) {
+            final Position position = block.getPosition();
+            final long section = BlockHighlighter.packPosition(position.getBlockX() >> 4,
+                    (int) Math.floor(position.getY()) >> 4, position.getBlockZ() >> 4);
+            if (sections.contains(section)) {
+                return true;
+            }
+            if (hideSections.size() + showSections.size() >= MAX_SECTIONS_PER_TICK) {
+                return false;
+            }
+            return sections.add(section);
+        }
+
+        // Drop everything queued and stop batches in flight from being sent, returning how many queued blocks dropped
+        private synchronized int cancel() {
+            cancelled = true;
+            final int dropped = hides.size() + pendingShows.size();
+            hides.clear();
+            shows.clear();
+            pendingShows.clear();
+            hideBatch.clear();
+            showBatch.clear();
+            hideSections.clear();
+            showSections.clear();
+            return dropped;
+        }
+
+        // Send this tick's batch of blocks to the user, counting it as in flight until it has been sent
+        private void dispatch(@NotNull HuskClaims plugin, @NotNull AtomicInteger inFlight) {
+            final List<B> hide;
+            final List<B> show;
+            final Position position;
+            synchronized (this) {
+                if (hideBatch.isEmpty() && showBatch.isEmpty()) {
+                    return;
+                }
+                hide = hideBatch;
+                show = showBatch;
+                position = viewer;
+                hideBatch = new ArrayList<>();
+                showBatch = new ArrayList<>();
+                hideSections.clear();
+                showSections.clear();
+            }
+            inFlight.incrementAndGet();
+            plugin.runSync(position, () -> {
+                try {
+                    if (cancelled) {
+                        return;
+                    }
+                    if (!hide.isEmpty()) {
+                        highlighter.hideBlocks(user, hide);
+                    }
+                    if (!show.isEmpty()) {
+                        highlighter.showBlocks(user, show);
+                    }
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+
+        @NotNull
+        private QueueKey getKey() {
+            return new QueueKey(user.getUuid(), highlighter);
+        }
+
+        private synchronized boolean isEmpty() {
+            return hides.isEmpty() && pendingShows.isEmpty() && hideBatch.isEmpty() && showBatch.isEmpty();
+        }
+
+        private static long getDistance(@NotNull Position viewer, @NotNull BlockHighlighter.HighlightBlock block) {
+            final long dx = block.getPosition().getBlockX() - viewer.getBlockX();
+            final long dz = block.getPosition().getBlockZ() - viewer.getBlockZ();
+            return dx * dx + dz * dz;
+        }
+
+    }
+
+    // A block queued to be shown, which is skipped if hidden again before it is sent
+    private static final class PendingShow<B> {
+        private final B block;
+        private final long distance;
+        private boolean cancelled;
+
+        private PendingShow(@NotNull B block, long distance) {
+            this.block = block;
+            this.distance = distance;
+        }
+    }
+
+}
@@ -26,6 +26,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * A highlighter for claims - used to highlight {@link Highlightable}s to a user in-game
@@ -55,6 +56,15 @@ public interface Highlighter {
      */
     void stopHighlighting(@NotNull OnlineUser user);
 
+    /**
+     * Forget a user who has left the server, removing anything held to highlight blocks to them
+     *
+     * @param user The UUID of the user who left
+     * @since 1.5.12
+     */
+    default void removeUser(@NotNull UUID user) {
+    }
+
     /**
      * Highlight something for a user
      *
@@ -20,6 +20,7 @@
 package net.william278.huskclaims.highlighter;
 
 import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.metrics.Metric;
 import net.william278.huskclaims.user.OnlineUser;
 import org.jetbrains.annotations.NotNull;
 
@@ -56,6 +57,8 @@ public interface HighlighterProvider {
     @NotNull
     default Highlighter getHighlighter(@NotNull OnlineUser user) {
         Highlighter highlighter = getHighlighterCache().get(user.getUuid());
+        getPlugin().getMetricsRegistry().increment(Metric.CACHE_LOOKUPS,
+                "highlighters", highlighter != null ? "hit" : "miss");
         if (highlighter == null) {
             highlighter = getHighlighters().stream().filter(h -> h.canUse(user)).findFirst().orElseThrow(
                     () -> new IllegalStateException("No available highlighter for %s".formatted(user.getName())));
@@ -64,6 +67,15 @@ public interface HighlighterProvider {
         return highlighter;
     }
 
+    /**
+     * Get the scheduler that spreads the showing and hiding of highlight blocks across ticks
+     *
+     * @return the {@link HighlightScheduler}
+     * @since 1.5.12
+     */
+    @NotNull
+    HighlightScheduler getHighlightScheduler();
+
     /**
      * Register a claim highlighter
      *
@@ -83,6 +95,7 @@ public interface HighlighterProvider {
      */
     default void loadHighlighters() {
         registerHighlighter(new BlockUpdateHighlighter(getPlugin()));
+        getHighlightScheduler().start();
     }
 
     @NotNull
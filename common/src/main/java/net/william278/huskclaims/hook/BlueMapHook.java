@@ -19,6 +19,7 @@
 
 package net.william278.huskclaims.hook;
 
+import com.flowpowered.math.vector.Vector2d;
 import de.bluecolored.bluemap.api.BlueMapAPI;
 import de.bluecolored.bluemap.api.BlueMapMap;
 import de.bluecolored.bluemap.api.BlueMapWorld;
@@ -26,26 +27,23 @@ import de.bluecolored.bluemap.api.markers.MarkerSet;
 import de.bluecolored.bluemap.api.markers.ShapeMarker;
 import de.bluecolored.bluemap.api.math.Color;
 import de.bluecolored.bluemap.api.math.Shape;
-import net.kyori.adventure.text.format.TextColor;
 import net.william278.desertwell.util.ThrowingConsumer;
 import net.william278.huskclaims.HuskClaims;
-import net.william278.huskclaims.claim.Claim;
 import net.william278.huskclaims.claim.ClaimWorld;
+import net.william278.huskclaims.claim.Region;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.logging.Level;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @PluginHook(
         name = "BlueMap",
         register = PluginHook.Register.ON_ENABLE
 )
-public class BlueMapHook extends MapHook {
+public class BlueMapHook extends SyncedMapHook {
 
     private Map<String, MarkerSet> claimsMarkerSets;
 
@@ -59,17 +57,31 @@ public class BlueMapHook extends MapHook {
     public void load() {
         this.claimsMarkerSets = new ConcurrentHashMap<>();
 
+        // Keep marker sets already on the maps (e.g. after a reload), so only changed claims need redrawing
+        final AtomicBoolean recreated = new AtomicBoolean(false);
         for (Map.Entry<String, ClaimWorld> world : plugin.getClaimWorlds().entrySet()) {
             this.editMapWorld(world.getValue(), (mapWorld -> {
-                final MarkerSet claimMarkers = MarkerSet.builder().label(getSettings().getMarkerSetName()).build();
+                final MarkerSet claimMarkers = mapWorld.getMaps().stream()
+                        .map(map -> map.getMarkerSets().get(getMarkerSetKey()))
+                        .filter(Objects::nonNull).findFirst()
+                        .orElseGet(() -> {
+                            recreated.set(true);
+                            return MarkerSet.builder().label(getSettings().getMarkerSetName()).build();
+                        });
+                claimMarkers.setLabel(getSettings().getMarkerSetName());
 
                 for (BlueMapMap map : mapWorld.getMaps()) {
-                    map.getMarkerSets().put(getMarkerSetKey(), claimMarkers);
+                    if (map.getMarkerSets().put(getMarkerSetKey(), claimMarkers) != claimMarkers) {
+                        recreated.set(true);
+                    }
                 }
 
                 claimsMarkerSets.put(world.getKey(), claimMarkers);
             }));
         }
+        if (recreated.get()) {
+            plugin.getMapMarkerSync().reset(this);
+        }
 
         this.markAllClaims();
     }
@@ -78,83 +90,69 @@ public class BlueMapHook extends MapHook {
         BlueMapAPI.getInstance().flatMap(api -> api.getWorld(world.getName(plugin))).ifPresent(editor);
     }
 
+    // Markers are left on the maps when unloading, to be reconciled when the hook is next loaded
     @Override
     public void unload() {
-        unMarkAllClaims();
     }
 
     private void editClaimsMarkerSet(@NotNull ClaimWorld world, @NotNull ThrowingConsumer<MarkerSet> editor) {
         editMapWorld(world, (mapWorld -> {
             if (claimsMarkerSets != null) {
-                editor.accept(claimsMarkerSets.get(world.getName(plugin)));
+                final MarkerSet markerSet = claimsMarkerSets.get(world.getName(plugin));
+                if (markerSet != null) {
+                    editor.accept(markerSet);
+                }
             }
         }));
     }
 
     @Override
-    public void markClaim(@NotNull Claim claim, @NotNull ClaimWorld claimWorld) {
-        final Optional<String> color = getClaimColor(claim).map(TextColor::asHexString);
-        if (color.isEmpty()) {
-            return;
-        }
-        this.editClaimsMarkerSet(claimWorld, (markerSet -> {
-            final String markerId = getClaimMarkerKey(claim, claimWorld);
-            markerSet.remove(markerId);
-            markerSet.put(markerId, getClaimMarker(claim, claimWorld, color.get()));
-        }));
+    protected void addMarker(@NotNull MapMarker marker) {
+        this.editClaimsMarkerSet(marker.getWorld(),
+                (markerSet -> markerSet.put(marker.getId(), getShapeMarker(marker))));
     }
 
     @NotNull
-    private ShapeMarker getClaimMarker(@NotNull Claim claim, @NotNull ClaimWorld claimWorld, @NotNull String hex) {
-        final Color color = new Color(hex);
-        final int x1 = claim.getRegion().getNearCorner().getBlockX() - 1;
-        final int z1 = claim.getRegion().getNearCorner().getBlockZ() - 1;
-        final int x2 = claim.getRegion().getFarCorner().getBlockX() + 1;
-        final int z2 = claim.getRegion().getFarCorner().getBlockZ() + 1;
-        return ShapeMarker.builder()
-                .label(claim.getOwnerName(claimWorld, plugin))
+    private ShapeMarker getShapeMarker(@NotNull MapMarker marker) {
+        final Color color = new Color(marker.getColor().asHexString());
+        final ShapeMarker.Builder builder = ShapeMarker.builder()
+                .label(marker.getOwnerName())
                 .fillColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), 0.5f))
                 .lineColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), 1f))
-                .shape(Shape.createRect(x1, z1, x2, z2), 64)
                 .lineWidth(1)
-                .depthTestEnabled(false)
-                .build();
-    }
+                .depthTestEnabled(false);
+        if (marker.isPolygon()) {
+            return builder
+                    .shape(getShape(Objects.requireNonNull(marker.getOutline())), 64)
+                    .holes(marker.getHoles().stream().map(this::getShape).toArray(Shape[]::new))
+                    .build();
+        }
 
-    @Override
-    public void markClaims(@NotNull Iterable<Claim> claims, @NotNull ClaimWorld claimWorld) {
-        claims.forEach(claim -> {
-            markClaim(claim, claimWorld);
-            claim.getChildren().forEach(child -> markClaim(child, claimWorld));
-        });
+        final int x1 = marker.getRegion().getNearX() - 1;
+        final int z1 = marker.getRegion().getNearZ() - 1;
+        final int x2 = marker.getRegion().getFarX() + 1;
+        final int z2 = marker.getRegion().getFarZ() + 1;
+        return builder.shape(Shape.createRect(x1, z1, x2, z2), 64).build();
     }
 
-
-    @Override
-    public void unMarkClaim(@NotNull Claim claim, @NotNull ClaimWorld claimWorld) {
-        this.editClaimsMarkerSet(claimWorld, (markerSet -> markerSet.remove(getClaimMarkerKey(claim, claimWorld))));
-        claim.getChildren().forEach(child -> this.editClaimsMarkerSet(claimWorld, (markerSet -> markerSet.remove(getClaimMarkerKey(child, claimWorld)))));
+    @NotNull
+    private Shape getShape(@NotNull List<Region.Point> points) {
+        return new Shape(points.stream()
+                .map(point -> new Vector2d(point.getBlockX(), point.getBlockZ()))
+                .toArray(Vector2d[]::new));
     }
 
     @Override
-    public void unMarkClaimsBy(@Nullable UUID owner) {
-        plugin.getWorlds().forEach(world -> plugin.getClaimWorld(world).ifPresent(
-                claimWorld -> claimWorld.getClaimsByUser(owner).forEach(claim -> unMarkClaim(claim, claimWorld))
-        ));
+    protected void removeMarker(@NotNull String id, @NotNull ClaimWorld world) {
+        this.editClaimsMarkerSet(world, (markerSet -> markerSet.remove(id)));
     }
 
     @Override
-    public void unMarkAllClaims() {
-        this.claimsMarkerSets.values().forEach(markerSet ->
-                markerSet.getMarkers().keySet().forEach(markerSet::remove));
+    protected void clearMarkers() {
+        if (claimsMarkerSets != null) {
+            this.claimsMarkerSets.values().forEach(markerSet ->
+                    markerSet.getMarkers().keySet().forEach(markerSet::remove));
+        }
     }
 
-    @Override
-    public void markAllClaims() {
-        plugin.getClaimWorlds().forEach((name, claimWorld) -> {
-            final Collection<Claim> claims = claimWorld.getClaims();
-            markClaims(claims, claimWorld);
-            plugin.log(Level.INFO, "Populated web map with %s claims in %s".formatted(claims.size(), name));
-        });
-    }
 }
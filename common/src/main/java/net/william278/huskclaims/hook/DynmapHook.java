@@ -19,9 +19,7 @@
 
 package net.william278.huskclaims.hook;
 
-import net.kyori.adventure.text.format.TextColor;
 import net.william278.huskclaims.HuskClaims;
-import net.william278.huskclaims.claim.Claim;
 import net.william278.huskclaims.claim.ClaimWorld;
 import net.william278.huskclaims.claim.Region;
 import org.apache.commons.text.StringEscapeUtils;
@@ -32,10 +30,10 @@ import org.dynmap.markers.MarkerSet;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.logging.Level;
 
 
@@ -43,7 +41,7 @@ import java.util.logging.Level;
         name = "Dynmap",
         register = PluginHook.Register.ON_ENABLE
 )
-public class DynmapHook extends MapHook {
+public class DynmapHook extends SyncedMapHook {
 
     @Nullable
     private DynmapCommonAPI dynmapApi;
@@ -64,101 +62,84 @@ public class DynmapHook extends MapHook {
     @Override
     public void load() {
         getDynmap().ifPresent(api -> {
-            unMarkAllClaims();
+            // Markers already in the set (e.g. after a reload) are kept, so only changed claims need redrawing
+            if (api.getMarkerAPI().getMarkerSet(getMarkerSetKey()) == null) {
+                plugin.getMapMarkerSync().reset(this);
+            }
             getMarkerSet();
             plugin.log(Level.INFO, "Enabled Dynmap markers hook. Populating web map with claims...");
             markAllClaims();
         });
     }
 
+    // Markers are left on the map when unloading, to be reconciled when the hook is next loaded
     @Override
     public void unload() {
-        unMarkAllClaims();
-    }
-
-    @Override
-    public void markClaim(@NotNull Claim claim, @NotNull ClaimWorld claimWorld) {
-        plugin.runSync(() -> getMarkerSet().ifPresent(markerSet -> {
-            addMarker(claim, claimWorld, markerSet);
-            claim.getChildren().forEach(child -> addMarker(child, claimWorld, markerSet));
-        }));
     }
 
     @Override
-    public void markClaims(@NotNull Iterable<Claim> claims, @NotNull ClaimWorld claimWorld) {
-        plugin.runSync(() -> getMarkerSet().ifPresent(
-                markerSet -> claims.forEach(claim -> {
-                    addMarker(claim, claimWorld, markerSet);
-                    claim.getChildren().forEach(child -> addMarker(child, claimWorld, markerSet));
-                })
-        ));
+    protected void applyMarkerUpdates(@NotNull Runnable updates) {
+        plugin.runSync(updates);
     }
 
     @Override
-    public void unMarkClaim(@NotNull Claim claim, @NotNull ClaimWorld claimWorld) {
-        getMarkerSet().ifPresent(markerSet -> {
-            markerSet.findAreaMarker(getClaimMarkerKey(claim, claimWorld)).deleteMarker();
-            claim.getChildren().forEach(c -> markerSet.findAreaMarker(getClaimMarkerKey(c, claimWorld)).deleteMarker());
-        });
+    protected void addMarker(@NotNull MapMarker marker) {
+        getMarkerSet().ifPresent(markerSet -> addMarker(marker, markerSet));
     }
 
     @Override
-    public void unMarkClaimsBy(@Nullable UUID owner) {
-        plugin.getWorlds().forEach(world -> plugin.getClaimWorld(world).ifPresent(
-                claimWorld -> claimWorld.getClaimsByUser(owner).forEach(claim -> unMarkClaim(claim, claimWorld))
-        ));
+    protected void removeMarker(@NotNull String id, @NotNull ClaimWorld world) {
+        getMarkerSet().map(markerSet -> markerSet.findAreaMarker(id)).ifPresent(AreaMarker::deleteMarker);
     }
 
+    // Dynmap area markers can't have holes
     @Override
-    public void unMarkAllClaims() {
-        plugin.runSync(() -> getMarkerSet().ifPresent(markerSet -> markerSet.getAreaMarkers()
-                .forEach(AreaMarker::deleteMarker)));
+    protected boolean isSupportingHoles() {
+        return false;
     }
 
     @Override
-    public void markAllClaims() {
-        plugin.getClaimWorlds().forEach((name, claimWorld) -> {
-            final Collection<Claim> claims = claimWorld.getClaims();
-            markClaims(claims, claimWorld);
-            plugin.log(Level.INFO, "Populated web map with %s claims in %s".formatted(claims.size(), name));
-        });
+    protected void clearMarkers() {
+        getMarkerSet().ifPresent(markerSet -> markerSet.getAreaMarkers().forEach(AreaMarker::deleteMarker));
     }
 
-    private void addMarker(@NotNull Claim claim, @NotNull ClaimWorld claimWorld, @NotNull MarkerSet markerSet) {
-        final Optional<Integer> color = getClaimColor(claim).map(TextColor::value);
-        if (color.isEmpty()) {
-            return;
+    private void addMarker(@NotNull MapMarker mapMarker, @NotNull MarkerSet markerSet) {
+        final int color = mapMarker.getColor().value();
+        final String id = mapMarker.getId();
+        final String label = mapMarker.getLabel();
+
+        // Get the corners of the marker; merged claim polygons are updated in place, so always set their corners
+        final double[] x;
+        final double[] z;
+        if (mapMarker.isPolygon()) {
+            final List<Region.Point> outline = Objects.requireNonNull(mapMarker.getOutline());
+            x = outline.stream().mapToDouble(Region.Point::getBlockX).toArray();
+            z = outline.stream().mapToDouble(Region.Point::getBlockZ).toArray();
+        } else {
+            final Region.Point near = mapMarker.getRegion().getNearCorner();
+            final Region.Point far = mapMarker.getRegion().getFarCorner();
+            x = new double[]{near.getBlockX(), far.getBlockX()};
+            z = new double[]{near.getBlockZ(), far.getBlockZ()};
         }
-        final String id = getClaimMarkerKey(claim, claimWorld);
-        final String label = String.format(getSettings().getLabelFormat(), claim.getOwnerName(claimWorld, plugin));
 
         // Find a marker to update or create a new one
         AreaMarker marker = markerSet.findAreaMarker(id);
         if (marker == null) {
-            final Region.Point near = claim.getRegion().getNearCorner();
-            final Region.Point far = claim.getRegion().getFarCorner();
             final String worldName = plugin.getClaimWorlds().entrySet().stream()
-                    .filter(entry -> entry.getValue().equals(claimWorld)).map(Map.Entry::getKey)
+                    .filter(entry -> entry.getValue().equals(mapMarker.getWorld())).map(Map.Entry::getKey)
                     .findFirst().orElse(null);
 
             marker = markerSet.createAreaMarker(
-                    id, StringEscapeUtils.escapeHtml4(label), false, worldName,
-                    new double[]{
-                            near.getBlockX(),
-                            far.getBlockX()
-                    },
-                    new double[]{
-                            near.getBlockZ(),
-                            far.getBlockZ()
-                    },
-                    false
+                    id, StringEscapeUtils.escapeHtml4(label), false, worldName, x, z, false
             );
+        } else if (mapMarker.isPolygon()) {
+            marker.setCornerLocations(x, z);
         }
 
         // Set the fill and stroke colors
         marker.setRangeY(64, 64);
-        marker.setFillStyle(0.5f, color.get());
-        marker.setLineStyle(1, 1, color.get());
+        marker.setFillStyle(0.5f, color);
+        marker.setLineStyle(1, 1, color);
         marker.setLabel(label);
     }
 
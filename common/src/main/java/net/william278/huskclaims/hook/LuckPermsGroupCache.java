@@ -0,0 +1,151 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.hook;
+
+import net.luckperms.api.event.EventBus;
+import net.luckperms.api.event.EventSubscription;
+import net.luckperms.api.event.LuckPermsEvent;
+import net.luckperms.api.event.context.ContextUpdateEvent;
+import net.luckperms.api.event.group.GroupCreateEvent;
+import net.luckperms.api.event.group.GroupDataRecalculateEvent;
+import net.luckperms.api.event.group.GroupDeleteEvent;
+import net.luckperms.api.event.node.NodeMutateEvent;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+import net.luckperms.api.event.user.UserUnloadEvent;
+import net.luckperms.api.model.user.User;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A cache of the names of the LuckPerms groups each user inherits, used to check
+ * {@link LuckPermsHook.GroupTrustTag group trust tags} without re-resolving inheritance on every trust check.
+ * <p>
+ * Entries are kept up to date by LuckPerms events. A user's entry is dropped when their data is recalculated
+ * or they are unloaded. All entries are dropped when a group is created, deleted or edited, or a player's contexts
+ * change, as these can affect the inheritance of any user.
+ *
+ * @since 1.5.12
+ */
+public class LuckPermsGroupCache {
+
+    private final Function<UUID, Set<String>> loader;
+    private final Map<UUID, Set<String>> inheritedGroups = new ConcurrentHashMap<>();
+    private final List<EventSubscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Create a group cache
+     *
+     * @param loader function returning the names of the groups a user inherits, or {@code null} if the user is not
+     *               loaded by LuckPerms
+     * @since 1.5.12
+     */
+    public LuckPermsGroupCache(@NotNull Function<UUID, Set<String>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Subscribe to the LuckPerms events that invalidate cached groups
+     *
+     * @param eventBus the LuckPerms event bus
+     * @since 1.5.12
+     */
+    public void subscribe(@NotNull EventBus eventBus) {
+        subscribe(eventBus, UserDataRecalculateEvent.class, e -> invalidate(e.getUser().getUniqueId()));
+        subscribe(eventBus, UserUnloadEvent.class, e -> invalidate(e.getUser().getUniqueId()));
+        subscribe(eventBus, NodeMutateEvent.class, e -> {
+            if (e.getTarget() instanceof User user) {
+                invalidate(user.getUniqueId());
+                return;
+            }
+            invalidateAll();
+        });
+        subscribe(eventBus, GroupDataRecalculateEvent.class, e -> invalidateAll());
+        subscribe(eventBus, GroupCreateEvent.class, e -> invalidateAll());
+        subscribe(eventBus, GroupDeleteEvent.class, e -> invalidateAll());
+        subscribe(eventBus, ContextUpdateEvent.class, e -> invalidateAll());
+    }
+
+    /**
+     * Returns whether a user inherits a LuckPerms group. Users not loaded by LuckPerms inherit no groups
+     *
+     * @param uuid  the user's UUID
+     * @param group the name of the group
+     * @return {@code true} if the user inherits the group
+     * @since 1.5.12
+     */
+    public boolean isMember(@NotNull UUID uuid, @NotNull String group) {
+        final Set<String> groups = inheritedGroups.computeIfAbsent(uuid, loader);
+        return groups != null && groups.contains(group);
+    }
+
+    /**
+     * Drop a user's cached groups
+     *
+     * @param uuid the user's UUID
+     * @since 1.5.12
+     */
+    public void invalidate(@NotNull UUID uuid) {
+        inheritedGroups.remove(uuid);
+    }
+
+    /**
+     * Drop all cached groups
+     *
+     * @since 1.5.12
+     */
+    public void invalidateAll() {
+        inheritedGroups.clear();
+    }
+
+    /**
+     * Get the number of users with cached groups
+     *
+     * @return the number of cached users
+     * @since 1.5.12
+     */
+    public int size() {
+        return inheritedGroups.size();
+    }
+
+    /**
+     * Unsubscribe from LuckPerms events and drop all cached groups
+     *
+     * @since 1.5.12
+     */
+    public void close() {
+        subscriptions.forEach(EventSubscription::close);
+        subscriptions.clear();
+        invalidateAll();
+    }
+
+    private <T extends LuckPermsEvent> void subscribe(@NotNull EventBus eventBus, @NotNull Class<T> event,
+                                                      @NotNull Consumer<? super T> handler) {
+        subscriptions.add(eventBus.subscribe(event, handler));
+    }
+
+}
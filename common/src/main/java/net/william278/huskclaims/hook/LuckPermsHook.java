@@ -19,23 +19,31 @@
 
 package net.william278.huskclaims.hook;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import net.luckperms.api.LuckPerms;
 import net.luckperms.api.LuckPermsProvider;
+import net.luckperms.api.event.EventBus;
+import net.luckperms.api.event.EventSubscription;
+import net.luckperms.api.event.group.GroupDataRecalculateEvent;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
 import net.luckperms.api.model.group.Group;
 import net.luckperms.api.model.group.GroupManager;
-import net.luckperms.api.model.user.UserManager;
 import net.luckperms.api.query.QueryOptions;
 import net.william278.huskclaims.HuskClaims;
 import net.william278.huskclaims.config.Locales;
 import net.william278.huskclaims.trust.TrustTag;
 import net.william278.huskclaims.user.User;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
 import java.util.logging.Level;
+import java.util.stream.Collectors;
 
 @PluginHook(
         name = "LuckPerms",
@@ -44,29 +52,53 @@ import java.util.logging.Level;
 public class LuckPermsHook extends Hook {
 
     private LuckPerms luckPerms;
+    private LuckPermsGroupCache groupCache;
     private final Set<String> groupTags;
+    private final List<EventSubscription<?>> subscriptions;
 
     protected LuckPermsHook(@NotNull HuskClaims plugin) {
         super(plugin);
         groupTags = Sets.newHashSet();
+        subscriptions = Lists.newArrayList();
     }
 
     @Override
     public void load() throws IllegalStateException {
         this.luckPerms = LuckPermsProvider.get();
+        subscribePermissionChanges();
 
         // Load LuckPerms group tags
         if (plugin.getSettings().getTrustTags().isEnabled()) {
             plugin.log(Level.INFO, "Registering LuckPerms group trust tags...");
+            this.groupCache = new LuckPermsGroupCache(this::getInheritedGroups);
+            this.groupCache.subscribe(luckPerms.getEventBus());
             loadGroupTags();
         }
     }
 
+    // Resolve the names of the groups a user inherits, or null if they aren't loaded by LuckPerms
+    @Nullable
+    private Set<String> getInheritedGroups(@NotNull UUID uuid) {
+        return Optional.ofNullable(luckPerms.getUserManager().getUser(uuid))
+                .map(user -> user.getInheritedGroups(QueryOptions.defaultContextualOptions()).stream()
+                        .map(Group::getName)
+                        .collect(Collectors.toUnmodifiableSet()))
+                .orElse(null);
+    }
+
+    // Retake users' permission snapshots when LuckPerms recalculates their permissions
+    private void subscribePermissionChanges() {
+        final EventBus events = luckPerms.getEventBus();
+        subscriptions.add(events.subscribe(UserDataRecalculateEvent.class,
+                e -> plugin.invalidatePermissions(e.getUser().getUniqueId())));
+        subscriptions.add(events.subscribe(GroupDataRecalculateEvent.class, e -> plugin.invalidatePermissions()));
+    }
+
     private void loadGroupTags() {
         final GroupManager groups = luckPerms.getGroupManager();
         groups.loadAllGroups().thenRun(() -> groups.getLoadedGroups().forEach(group -> {
             try {
-                final GroupTrustTag tag = new GroupTrustTag(group, luckPerms.getUserManager(), plugin);
+                final GroupTrustTag tag = new GroupTrustTag(group, groupCache, plugin);
                 groupTags.add(tag.getName());
                 plugin.registerTrustTag(tag);
             } catch (Throwable e) {
@@ -78,15 +110,21 @@ public class LuckPermsHook extends Hook {
     @Override
     public void unload() {
         groupTags.forEach(plugin::unregisterTrustTag);
+        subscriptions.forEach(EventSubscription::close);
+        subscriptions.clear();
+        if (groupCache != null) {
+            groupCache.close();
+        }
     }
 
     public static class GroupTrustTag extends TrustTag {
 
         public static final String USE_PERMISSION = "huskclaims.trust.luckperms";
-        private final UserManager users;
-        private final Group group;
+        private final LuckPermsGroupCache groupCache;
+        private final String group;
 
-        protected GroupTrustTag(@NotNull Group group, @NotNull UserManager users, @NotNull HuskClaims plugin) {
+        protected GroupTrustTag(@NotNull Group group, @NotNull LuckPermsGroupCache groupCache,
+                                @NotNull HuskClaims plugin) {
             super(
                     String.format(
                             "%s%s",
@@ -99,16 +137,13 @@ public class LuckPermsHook extends Hook {
                     plugin.getSettings().getHooks().getLuckPerms().isTrustTagUsePermission() ? USE_PERMISSION : null,
                     false
             );
-            this.group = group;
-            this.users = users;
+            this.group = group.getName();
+            this.groupCache = groupCache;
         }
 
         @Override
         public boolean includes(@NotNull User trustable) {
-            return Optional.ofNullable(users.getUser(trustable.getUuid()))
-                    .map(user -> user.getInheritedGroups(QueryOptions.defaultContextualOptions()))
-                    .map(groups -> groups.contains(group))
-                    .orElse(false);
+            return groupCache.isMember(trustable.getUuid(), group);
         }
 
     }
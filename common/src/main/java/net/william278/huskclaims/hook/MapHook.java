@@ -32,6 +32,13 @@ import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * A hook that draws claims on a web map.
+ * <p>
+ * Implementations mark and un-mark claims on the map themselves. Extend {@link SyncedMapHook} instead to have
+ * changes applied in batches off the main thread by the plugin's {@link MapMarkerSync}, only drawing individual
+ * {@link MapMarker}s.
+ */
 public abstract class MapHook extends Hook {
 
     protected MapHook(@NotNull HuskClaims plugin) {
@@ -52,6 +59,16 @@ public abstract class MapHook extends Hook {
 
     public abstract void unMarkAllClaims();
 
+    /**
+     * Remove every claim marker from the map straight away on the calling thread, for when the plugin is shutting
+     * down. By default, this calls {@link #unMarkAllClaims()}
+     *
+     * @since 1.5.12
+     */
+    public void unMarkAllClaimsNow() {
+        unMarkAllClaims();
+    }
+
     public abstract void markAllClaims();
 
     @NotNull
@@ -62,10 +79,10 @@ public abstract class MapHook extends Hook {
     @NotNull
     protected String getClaimMarkerKey(@NotNull Claim claim, @NotNull ClaimWorld world) {
         return plugin.getKey(
-                Integer.toString(claim.getRegion().getNearCorner().getBlockX()),
-                Integer.toString(claim.getRegion().getNearCorner().getBlockZ()),
-                Integer.toString(claim.getRegion().getFarCorner().getBlockX()),
-                Integer.toString(claim.getRegion().getFarCorner().getBlockZ()),
+                Integer.toString(claim.getRegion().getNearX()),
+                Integer.toString(claim.getRegion().getNearZ()),
+                Integer.toString(claim.getRegion().getFarX()),
+                Integer.toString(claim.getRegion().getFarZ()),
                 Integer.toString(world.getId())
         ).toString();
     }
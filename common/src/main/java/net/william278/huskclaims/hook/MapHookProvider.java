@@ -60,10 +60,47 @@ public interface MapHookProvider {
         getMapHooks().forEach(MapHook::unMarkAllClaims);
     }
 
+    /**
+     * Clear every claim marker from web maps on the calling thread, for use while shutting down, when tasks can
+     * no longer be scheduled
+     *
+     * @since 1.5.12
+     */
+    default void clearAllMapMarkersNow() {
+        getMapHooks().forEach(MapHook::unMarkAllClaimsNow);
+    }
+
     default void markAllClaims() {
         getMapHooks().forEach(MapHook::markAllClaims);
     }
 
+    /**
+     * Get the sync used to apply claim marker changes to web maps
+     *
+     * @return the {@link MapMarkerSync}
+     * @since 1.5.12
+     */
+    @NotNull
+    MapMarkerSync getMapMarkerSync();
+
+    /**
+     * Start applying queued claim marker changes to web maps
+     *
+     * @since 1.5.12
+     */
+    default void startMapMarkerSync() {
+        getMapMarkerSync().start();
+    }
+
+    /**
+     * Clear markers left on web maps by map hooks that are no longer loaded
+     *
+     * @since 1.5.12
+     */
+    default void pruneMapMarkers() {
+        getMapMarkerSync().prune(getMapHooks());
+    }
+
     @NotNull
     Set<Hook> getHooks();
 
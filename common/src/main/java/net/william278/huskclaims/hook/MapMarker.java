@@ -0,0 +1,100 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.hook;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.kyori.adventure.text.format.TextColor;
+import net.william278.huskclaims.claim.ClaimWorld;
+import net.william278.huskclaims.claim.Region;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A snapshot of how a claim, or several merged claims, is drawn on a web map, taken when the claim is marked.
+ * <p>
+ * Markers are compared by {@link #isDrawnSameAs(MapMarker) what they draw}, so a claim that is re-marked without
+ * anything visible having changed is not redrawn.
+ *
+ * @since 1.5.12
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class MapMarker {
+
+    private final String id;
+    private final ClaimWorld world;
+    @Nullable
+    private final UUID owner;
+    private final Region region;
+    private final TextColor color;
+    private final String ownerName;
+    private final String label;
+    private final boolean childClaim;
+    @Nullable
+    private final List<Region.Point> outline;
+    private final List<List<Region.Point>> holes;
+
+    MapMarker(@NotNull String id, @NotNull ClaimWorld world, @Nullable UUID owner, @NotNull Region region,
+              @NotNull TextColor color, @NotNull String ownerName, @NotNull String label, boolean childClaim) {
+        this(id, world, owner, region, color, ownerName, label, childClaim, null, List.of());
+    }
+
+    /**
+     * Get whether this marker is a polygon of merged claims, rather than the rectangle of its region
+     *
+     * @return whether this marker has an {@link #getOutline() outline}
+     * @since 1.5.12
+     */
+    public boolean isPolygon() {
+        return outline != null;
+    }
+
+    /**
+     * Get the owner of the claim this marker is for
+     *
+     * @return the claim owner, or empty if this marker is for an admin claim
+     * @since 1.5.12
+     */
+    public Optional<UUID> getOwner() {
+        return Optional.ofNullable(owner);
+    }
+
+    /**
+     * Get whether this marker draws exactly the same as another marker
+     *
+     * @param other the other marker
+     * @return whether everything drawn by the markers is equal
+     * @since 1.5.12
+     */
+    public boolean isDrawnSameAs(@NotNull MapMarker other) {
+        return region.equals(other.region) && color.value() == other.color.value()
+                && ownerName.equals(other.ownerName) && label.equals(other.label) && childClaim == other.childClaim
+                && (owner == null) == (other.owner == null)
+                && Objects.equals(outline, other.outline) && holes.equals(other.holes);
+    }
+
+}
@@ -0,0 +1,569 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.hook;
+
+import com.google.common.collect.Maps;
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.claim.ClaimWorld;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+/**
+ * Synchronizes claim markers with the web maps of loaded {@link SyncedMapHook}s.
+ * <p>
+ * Marking and un-marking claims queues an update against each marker's id, replacing any update for that marker
+ * still waiting to be applied. Each tick, queued updates are applied off the main thread in batches capped by the
+ * {@code max_updates_per_tick} setting, which every marker drawn or removed counts against, including each marker
+ * of a group. Changes beyond the cap are made in later ticks. A copy of every marker on each map is kept, so updates
+ * that wouldn't change what is drawn are dropped, and markers are kept across hooks being reloaded, then reconciled
+ * against the claims when the hook marks all claims again.
+ * <p>
+ * Markers can also be queued as a {@link MarkerGroup}, whose markers are only worked out when the group is applied.
+ * This lets several changes to claims drawn together, such as merged claims with the same owner, be coalesced
+ * into a single recalculation.
+ *
+ * @since 1.5.12
+ */
+public class MapMarkerSync {
+
+    private static final Duration TICK = Duration.ofMillis(50);
+
+    // How many unchanged updates can be skipped for each one applied in a tick
+    private static final int SKIPPED_PER_APPLIED = 16;
+
+    private final HuskClaims plugin;
+    private final Map<String, HookMarkers> hooks = Maps.newConcurrentMap();
+    private final AtomicLong appliedUpdates = new AtomicLong();
+    private final AtomicLong skippedUpdates = new AtomicLong();
+
+    public MapMarkerSync(@NotNull HuskClaims plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start applying queued marker updates each tick
+     *
+     * @since 1.5.12
+     */
+    public void start() {
+        plugin.getRepeatingTask(this::tick, TICK, TICK).run();
+    }
+
+    /**
+     * Queue a marker to be added to, or updated on, a hook's map
+     *
+     * @param hook   the hook to mark on
+     * @param marker the marker
+     * @since 1.5.12
+     */
+    public void mark(@NotNull SyncedMapHook hook, @NotNull MapMarker marker) {
+        getMarkers(hook).queue(new Update(marker.getId(), marker.getWorld(), marker.getOwner().orElse(null), marker,
+                null));
+    }
+
+    /**
+     * Queue a group of markers to be worked out and drawn on a hook's map. Markers previously drawn for the group
+     * that are no longer part of it are removed.
+     *
+     * @param hook  the hook to mark on
+     * @param group the marker group
+     * @since 1.5.12
+     */
+    public void markGroup(@NotNull SyncedMapHook hook, @NotNull MarkerGroup group) {
+        getMarkers(hook).queue(new Update(group.key(), group.world(), group.owner(), null, group));
+    }
+
+    /**
+     * Queue a marker, or every marker in a group, to be removed from a hook's map
+     *
+     * @param hook  the hook to un-mark on
+     * @param id    the marker id or group key
+     * @param world the claim world the marker is in
+     * @since 1.5.12
+     */
+    public void unMark(@NotNull SyncedMapHook hook, @NotNull String id, @NotNull ClaimWorld world) {
+        getMarkers(hook).queue(new Update(id, world, null, null, null));
+    }
+
+    /**
+     * Queue the removal of every marker on a hook's map for claims owned by a user
+     *
+     * @param hook  the hook to un-mark on
+     * @param owner the claim owner, or {@code null} to remove admin claim markers
+     * @since 1.5.12
+     */
+    public void unMarkBy(@NotNull SyncedMapHook hook, @Nullable UUID owner) {
+        getMarkers(hook).queueRemovalsBy(owner);
+    }
+
+    /**
+     * Reconcile a hook's map with a complete set of markers and groups. Markers not in the set are removed, and
+     * only markers that have changed are redrawn.
+     *
+     * @param hook    the hook to mark on
+     * @param markers every marker that should be on the map
+     * @param groups  every marker group that should be on the map
+     * @param worlds  the claim worlds the markers were taken from; markers in other worlds are left alone
+     * @since 1.5.12
+     */
+    public void markAll(@NotNull SyncedMapHook hook, @NotNull Collection<MapMarker> markers,
+                        @NotNull Collection<MarkerGroup> groups, @NotNull Collection<ClaimWorld> worlds) {
+        getMarkers(hook).reconcile(markers, groups, worlds);
+    }
+
+    /**
+     * Forget what is drawn on a hook's map, for when the hook's marker store has been recreated empty.
+     * Markers queued afterward will all be drawn.
+     *
+     * @param hook the hook whose markers were lost
+     * @since 1.5.12
+     */
+    public void reset(@NotNull SyncedMapHook hook) {
+        getMarkers(hook).reset(false, false);
+    }
+
+    /**
+     * Drop queued updates for a hook and clear every marker from its map
+     *
+     * @param hook the hook to clear
+     * @since 1.5.12
+     */
+    public void clear(@NotNull SyncedMapHook hook) {
+        getMarkers(hook).reset(true, false);
+    }
+
+    /**
+     * Drop queued updates for a hook and clear every marker from its map straight away on the calling thread, for
+     * when the plugin is shutting down and scheduled tasks may no longer run
+     *
+     * @param hook the hook to clear
+     * @since 1.5.12
+     */
+    public void clearNow(@NotNull SyncedMapHook hook) {
+        getMarkers(hook).reset(true, true);
+    }
+
+    /**
+     * Clear markers left behind by hooks which are no longer loaded, such as after a reload disables them
+     *
+     * @param loaded the map hooks currently loaded
+     * @since 1.5.12
+     */
+    public void prune(@NotNull Collection<MapHook> loaded) {
+        final Set<String> names = loaded.stream().map(Hook::getName).collect(Collectors.toSet());
+        hooks.entrySet().removeIf(entry -> {
+            if (names.contains(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().reset(true, false);
+            return true;
+        });
+    }
+
+    @NotNull
+    private HookMarkers getMarkers(@NotNull SyncedMapHook hook) {
+        final HookMarkers markers = hooks.computeIfAbsent(hook.getName(), name -> new HookMarkers());
+        markers.hook = hook;
+        return markers;
+    }
+
+    // Apply queued updates, splitting the budget evenly between hooks whose last batch has been drawn
+    private void tick() {
+        final List<HookMarkers> active = hooks.values().stream()
+                .filter(markers -> !markers.applying && markers.hasQueued()).toList();
+        if (active.isEmpty()) {
+            return;
+        }
+        final int budget = Math.max(1, plugin.getSettings().getHooks().getMap().getMaxUpdatesPerTick());
+        final int share = Math.max(1, budget / active.size());
+        for (HookMarkers markers : active) {
+            try {
+                markers.apply(share);
+            } catch (Throwable e) {
+                plugin.log(Level.WARNING, "Failed to update %s markers".formatted(markers.hook.getName()), e);
+            }
+        }
+    }
+
+    /**
+     * Get the number of marker updates waiting to be applied
+     *
+     * @return the number of queued updates
+     * @since 1.5.12
+     */
+    public int getQueuedUpdates() {
+        return hooks.values().stream().mapToInt(HookMarkers::getQueued).sum();
+    }
+
+    /**
+     * Get the number of markers currently drawn on web maps, across all map hooks
+     *
+     * @return the number of drawn markers
+     * @since 1.5.12
+     */
+    public int getDrawnMarkers() {
+        return hooks.values().stream().mapToInt(HookMarkers::getDrawn).sum();
+    }
+
+    /**
+     * Get the total number of markers added, redrawn or removed on web maps
+     *
+     * @return the number of applied updates
+     * @since 1.5.12
+     */
+    public long getAppliedUpdates() {
+        return appliedUpdates.get();
+    }
+
+    /**
+     * Get the total number of queued updates dropped because they wouldn't have changed a map
+     *
+     * @return the number of skipped updates
+     * @since 1.5.12
+     */
+    public long getSkippedUpdates() {
+        return skippedUpdates.get();
+    }
+
+    /**
+     * A group of markers drawn together, worked out when the group is applied
+     *
+     * @param key     a key unique to the group, distinct from marker ids
+     * @param world   the claim world the group's markers are in
+     * @param owner   the owner of the group's claims, or {@code null} for admin claims
+     * @param markers supplies the group's markers. This is called off the main thread
+     * @since 1.5.12
+     */
+    public record MarkerGroup(@NotNull String key, @NotNull ClaimWorld world, @Nullable UUID owner,
+                              @NotNull Supplier<List<MapMarker>> markers) {
+    }
+
+    // A queued update to a marker or group; an update with neither removes the marker or group
+    private record Update(@NotNull String id, @NotNull ClaimWorld world, @Nullable UUID owner,
+                          @Nullable MapMarker marker, @Nullable MarkerGroup group) {
+
+        private boolean isRemoval() {
+            return marker == null && group == null;
+        }
+
+        @NotNull
+        private Update toRemoval() {
+            return new Update(id, world, owner, null, null);
+        }
+
+    }
+
+    // A change to make to a map: drawing a marker, recording a group once its markers are drawn, or, with neither,
+    // removing a marker
+    private record Change(@NotNull String id, @NotNull ClaimWorld world, @Nullable MapMarker marker,
+                          @Nullable DrawnGroup group) {
+
+        private boolean isMarkerChange() {
+            return group == null;
+        }
+
+    }
+
+    // The ids of markers drawn for a group
+    private record DrawnGroup(@NotNull ClaimWorld world, @Nullable UUID owner, @NotNull Set<String> ids) {
+    }
+
+    // The markers drawn on, and queued for, a single hook's map
+    private final class HookMarkers {
+
+        private final Map<String, MapMarker> drawn = new HashMap<>();
+        private final Map<String, DrawnGroup> groups = new HashMap<>();
+        private final LinkedHashMap<String, Update> queued = new LinkedHashMap<>();
+        // Changes worked out from queued updates but not yet made, such as the rest of a large group's markers
+        private final Queue<Change> backlog = new ArrayDeque<>();
+        private volatile SyncedMapHook hook;
+        private volatile boolean applying;
+        private int generation;
+
+        private synchronized void queue(@NotNull Update update) {
+            queued.put(update.id(), update);
+        }
+
+        private synchronized void queueRemovalsBy(@Nullable UUID owner) {
+            forEachMarker((id, marker) -> {
+                if (Objects.equals(marker.getOwner().orElse(null), owner)) {
+                    queued.put(id, new Update(id, marker.getWorld(), owner, null, null));
+                }
+            });
+            forEachGroup((key, group) -> {
+                if (Objects.equals(group.owner(), owner)) {
+                    queued.put(key, new Update(key, group.world(), owner, null, null));
+                }
+            });
+            queued.replaceAll((id, update) -> !update.isRemoval() && Objects.equals(update.owner(), owner)
+                    ? update.toRemoval() : update);
+        }
+
+        private synchronized void reconcile(@NotNull Collection<MapMarker> markers,
+                                            @NotNull Collection<MarkerGroup> markerGroups,
+                                            @NotNull Collection<ClaimWorld> worlds) {
+            final Map<String, Update> updates = new LinkedHashMap<>(markers.size() + markerGroups.size());
+            markers.forEach(marker -> updates.put(marker.getId(), new Update(marker.getId(), marker.getWorld(),
+                    marker.getOwner().orElse(null), marker, null)));
+            markerGroups.forEach(group -> updates.put(group.key(), new Update(group.key(), group.world(),
+                    group.owner(), null, group)));
+
+            // Markers of groups being redrawn are removed when the group is applied, if no longer part of it
+            final Set<String> regrouped = new HashSet<>();
+            forEachGroup((key, group) -> {
+                if (updates.containsKey(key)) {
+                    regrouped.addAll(group.ids());
+                } else if (worlds.contains(group.world())) {
+                    queued.put(key, new Update(key, group.world(), group.owner(), null, null));
+                }
+            });
+            forEachMarker((id, marker) -> {
+                if (!updates.containsKey(id) && !regrouped.contains(id) && worlds.contains(marker.getWorld())) {
+                    queued.put(id, new Update(id, marker.getWorld(), marker.getOwner().orElse(null), null, null));
+                }
+            });
+            queued.replaceAll((id, update) -> !update.isRemoval() && !updates.containsKey(id)
+                    && worlds.contains(update.world()) ? update.toRemoval() : update);
+            queued.putAll(updates);
+        }
+
+        private void reset(boolean clearMap, boolean now) {
+            synchronized (this) {
+                drawn.clear();
+                groups.clear();
+                generation++;
+                if (clearMap) {
+                    queued.clear();
+                    backlog.clear();
+                }
+            }
+            if (!clearMap) {
+                return;
+            }
+            final SyncedMapHook hook = this.hook;
+            if (now) {
+                hook.clearMarkers();
+            } else {
+                hook.applyMarkerUpdates(hook::clearMarkers);
+            }
+        }
+
+        // Make up to a number of marker changes, each marker drawn or removed counting once, including those of
+        // groups. Queued updates are only worked out into changes once the backlog of earlier ones has been made,
+        // skipping updates that change nothing. What is drawn is only recorded once the map has been updated, and no
+        // more changes are made until then
+        private void apply(int max) {
+            final List<MarkerGroup> markerGroups = new ArrayList<>();
+            final int queueGeneration;
+            int skipped = 0;
+            synchronized (this) {
+                queueGeneration = generation;
+                final Iterator<Update> iterator = backlog.isEmpty()
+                        ? queued.values().iterator() : Collections.emptyIterator();
+                while (iterator.hasNext() && backlog.size() + markerGroups.size() < max
+                       && skipped < max * SKIPPED_PER_APPLIED) {
+                    final Update update = iterator.next();
+                    iterator.remove();
+                    if (update.group() != null) {
+                        markerGroups.add(update.group());
+                    } else if (update.marker() == null ? !remove(update.id()) : !draw(update.marker())) {
+                        skipped++;
+                    }
+                }
+            }
+
+            // Work out the markers of groups outside the lock, as this can take a while
+            final Map<MarkerGroup, List<MapMarker>> grouped = new LinkedHashMap<>();
+            markerGroups.forEach(group -> grouped.put(group, group.markers().get()));
+            final List<Change> batch;
+            final int batchGeneration;
+            synchronized (this) {
+                // Groups worked out before the map was reset are dropped; they are queued again when re-marked
+                if (queueGeneration == generation) {
+                    for (Map.Entry<MarkerGroup, List<MapMarker>> entry : grouped.entrySet()) {
+                        skipped += drawGroup(entry.getKey(), entry.getValue());
+                    }
+                }
+                batchGeneration = generation;
+                batch = takeBacklog(max);
+            }
+            skippedUpdates.addAndGet(skipped);
+            if (batch.stream().noneMatch(Change::isMarkerChange)) {
+                batch.forEach(change -> recordGroup(
+                        batchGeneration, change.id(), Objects.requireNonNull(change.group())
+                ));
+                return;
+            }
+
+            final SyncedMapHook hook = this.hook;
+            applying = true;
+            try {
+                hook.applyMarkerUpdates(() -> {
+                    try {
+                        for (Change change : batch) {
+                            if (change.group() != null) {
+                                recordGroup(batchGeneration, change.id(), change.group());
+                            } else if (change.marker() != null) {
+                                hook.addMarker(change.marker());
+                                record(batchGeneration, change.id(), change.marker());
+                            } else {
+                                hook.removeMarker(change.id(), change.world());
+                                record(batchGeneration, change.id(), null);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        plugin.log(Level.WARNING, "Failed to update %s markers".formatted(hook.getName()), e);
+                    } finally {
+                        applying = false;
+                    }
+                });
+            } catch (Throwable e) {
+                applying = false;
+                throw e;
+            }
+        }
+
+        // Take up to a number of marker changes off the backlog, along with the records of groups they complete
+        @NotNull
+        private List<Change> takeBacklog(int max) {
+            final List<Change> batch = new ArrayList<>(Math.min(max, backlog.size()));
+            int changes = 0;
+            while (!backlog.isEmpty() && (changes < max || !backlog.element().isMarkerChange())) {
+                final Change change = backlog.remove();
+                batch.add(change);
+                if (change.isMarkerChange()) {
+                    changes++;
+                }
+            }
+            return batch;
+        }
+
+        // Record a marker change once it has been made on the map, unless the map has been reset since
+        private synchronized void record(int batchGeneration, @NotNull String id, @Nullable MapMarker marker) {
+            if (batchGeneration != generation) {
+                return;
+            }
+            if (marker != null) {
+                drawn.put(id, marker);
+            } else {
+                drawn.remove(id);
+            }
+            appliedUpdates.incrementAndGet();
+        }
+
+        // Record the markers of a group once they have all been drawn, unless the map has been reset since
+        private synchronized void recordGroup(int batchGeneration, @NotNull String key, @NotNull DrawnGroup group) {
+            if (batchGeneration != generation) {
+                return;
+            }
+            if (group.ids().isEmpty()) {
+                groups.remove(key);
+            } else {
+                groups.put(key, group);
+            }
+        }
+
+        // Add a marker to the backlog to be drawn if it differs from what is drawn
+        private boolean draw(@NotNull MapMarker marker) {
+            final MapMarker previous = drawn.get(marker.getId());
+            if (previous != null && !hook.isMarkerChanged(previous, marker)) {
+                return false;
+            }
+            backlog.add(new Change(marker.getId(), marker.getWorld(), marker, null));
+            return true;
+        }
+
+        // Add a marker, or every marker in a group, to the backlog to be removed if drawn
+        private boolean remove(@NotNull String id) {
+            final MapMarker marker = drawn.get(id);
+            if (marker != null) {
+                backlog.add(new Change(id, marker.getWorld(), null, null));
+                return true;
+            }
+            final DrawnGroup group = groups.remove(id);
+            if (group != null) {
+                group.ids().forEach(this::remove);
+                return true;
+            }
+            return false;
+        }
+
+        // Add the changed markers of a group and the removal of its old markers to the backlog, followed by the
+        // group's record; returns the number of unchanged markers
+        private int drawGroup(@NotNull MarkerGroup group, @NotNull List<MapMarker> markers) {
+            final Set<String> ids = markers.stream().map(MapMarker::getId).collect(Collectors.toSet());
+            final DrawnGroup previous = groups.get(group.key());
+            if (previous != null) {
+                previous.ids().stream().filter(id -> !ids.contains(id)).forEach(this::remove);
+            }
+            int unchanged = 0;
+            for (MapMarker marker : markers) {
+                if (!draw(marker)) {
+                    unchanged++;
+                }
+            }
+            backlog.add(new Change(group.key(), group.world(), null,
+                    new DrawnGroup(group.world(), group.owner(), ids)));
+            return unchanged;
+        }
+
+        // Run an action for each marker drawn, or waiting in the backlog to be drawn
+        private void forEachMarker(@NotNull BiConsumer<String, MapMarker> action) {
+            drawn.forEach(action);
+            backlog.forEach(change -> {
+                if (change.marker() != null) {
+                    action.accept(change.id(), change.marker());
+                }
+            });
+        }
+
+        // Run an action for each group drawn, or waiting in the backlog to be recorded
+        private void forEachGroup(@NotNull BiConsumer<String, DrawnGroup> action) {
+            groups.forEach(action);
+            backlog.forEach(change -> {
+                if (change.group() != null) {
+                    action.accept(change.id(), change.group());
+                }
+            });
+        }
+
+        private synchronized boolean hasQueued() {
+            return !queued.isEmpty() || !backlog.isEmpty();
+        }
+
+        private synchronized int getQueued() {
+            return queued.size() + backlog.size();
+        }
+
+        private synchronized int getDrawn() {
+            return drawn.size();
+        }
+
+    }
+
+}
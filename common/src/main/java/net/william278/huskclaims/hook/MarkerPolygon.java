@@ -0,0 +1,350 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.hook;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.william278.huskclaims.claim.Region;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A polygon formed by the union of touching or overlapping claim regions, with holes where the regions enclose
+ * unclaimed land. Used to draw many claims with the same owner as a single map marker.
+ * <p>
+ * Vertices are block corner coordinates, so a region spanning blocks {@code 0} to {@code 9} has edges at {@code 0}
+ * and {@code 10}. The outline winds counter-clockwise and holes clockwise, taking {@code z} as the vertical axis.
+ *
+ * @param <T> the type of item the merged regions belong to
+ * @since 1.5.12
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class MarkerPolygon<T> {
+
+    // The most grid cells to rasterize the regions into before giving up on merging them
+    private static final int MAX_CELLS = 1 << 20;
+    private static final int[] DX = {1, 0, -1, 0};
+    private static final int[] DZ = {0, 1, 0, -1};
+
+    @Nullable
+    private final List<Region.Point> outline;
+    private final List<List<Region.Point>> holes;
+    private final List<T> members;
+
+    /**
+     * Get whether the members could be merged into a single outline. If not, they should be drawn individually.
+     *
+     * @return whether this polygon has an outline
+     * @since 1.5.12
+     */
+    public boolean isMerged() {
+        return outline != null;
+    }
+
+    /**
+     * Get the total number of vertices in the outline and holes of this polygon
+     *
+     * @return the vertex count
+     * @since 1.5.12
+     */
+    public int getVertexCount() {
+        return (outline != null ? outline.size() : 0) + holes.stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Merge items into polygons by the union of their regions. Each polygon covers one connected area; regions that
+     * only touch diagonally at a corner are not connected.
+     *
+     * @param items    the items to merge
+     * @param regionOf function getting the region of an item
+     * @param <T>      the item type
+     * @return the merged polygons, each listing the items it is made from
+     * @since 1.5.12
+     */
+    @NotNull
+    public static <T> List<MarkerPolygon<T>> union(@NotNull Collection<T> items,
+                                                   @NotNull Function<T, Region> regionOf) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        final List<T> members = new ArrayList<>(items);
+        final int count = members.size();
+        final int[] minX = new int[count];
+        final int[] minZ = new int[count];
+        final int[] maxX = new int[count];
+        final int[] maxZ = new int[count];
+        for (int i = 0; i < count; i++) {
+            final Region region = regionOf.apply(members.get(i));
+            minX[i] = region.getNearX();
+            minZ[i] = region.getNearZ();
+            maxX[i] = region.getFarX() + 1;
+            maxZ[i] = region.getFarZ() + 1;
+        }
+
+        // Group regions that touch or overlap, so each group can be rasterized on its own
+        final int[] parents = new int[count];
+        Arrays.setAll(parents, i -> i);
+        final Integer[] byMinX = new Integer[count];
+        Arrays.setAll(byMinX, i -> i);
+        Arrays.sort(byMinX, Comparator.comparingInt(i -> minX[i]));
+        for (int i = 0; i < count; i++) {
+            final int a = byMinX[i];
+            for (int j = i + 1; j < count && minX[byMinX[j]] <= maxX[a]; j++) {
+                final int b = byMinX[j];
+                if (minZ[b] <= maxZ[a] && minZ[a] <= maxZ[b]) {
+                    parents[find(parents, a)] = find(parents, b);
+                }
+            }
+        }
+        final Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            groups.computeIfAbsent(find(parents, i), k -> new ArrayList<>()).add(i);
+        }
+
+        final List<MarkerPolygon<T>> polygons = new ArrayList<>(groups.size());
+        for (List<Integer> group : groups.values()) {
+            final List<T> groupMembers = group.stream().map(members::get).toList();
+            if (group.size() == 1) {
+                final int i = group.get(0);
+                polygons.add(new MarkerPolygon<>(List.of(
+                        Region.Point.at(minX[i], minZ[i]), Region.Point.at(maxX[i], minZ[i]),
+                        Region.Point.at(maxX[i], maxZ[i]), Region.Point.at(minX[i], maxZ[i])
+                ), List.of(), groupMembers));
+                continue;
+            }
+            polygons.addAll(merge(group.stream().mapToInt(Integer::intValue).toArray(),
+                    minX, minZ, maxX, maxZ, groupMembers));
+        }
+        return polygons;
+    }
+
+    // Merge a group of touching regions by rasterizing them onto a grid of their compressed edge coordinates
+    @NotNull
+    private static <T> List<MarkerPolygon<T>> merge(int[] group, int[] allMinX, int[] allMinZ, int[] allMaxX,
+                                                    int[] allMaxZ, @NotNull List<T> members) {
+        final int count = group.length;
+        final int[] minX = new int[count];
+        final int[] minZ = new int[count];
+        final int[] maxX = new int[count];
+        final int[] maxZ = new int[count];
+        for (int i = 0; i < count; i++) {
+            minX[i] = allMinX[group[i]];
+            minZ[i] = allMinZ[group[i]];
+            maxX[i] = allMaxX[group[i]];
+            maxZ[i] = allMaxZ[group[i]];
+        }
+
+        // Compress the region edges into a grid, giving up if it would be too large
+        final int[] xs = getEdges(minX, maxX);
+        final int[] zs = getEdges(minZ, maxZ);
+        final int width = xs.length - 1;
+        final int height = zs.length - 1;
+        if ((long) width * height > MAX_CELLS) {
+            return List.of(new MarkerPolygon<>(null, List.of(), members));
+        }
+        final BitSet covered = new BitSet(width * height);
+        final int[] firstCell = new int[count];
+        for (int i = 0; i < count; i++) {
+            final int x1 = Arrays.binarySearch(xs, minX[i]);
+            final int x2 = Arrays.binarySearch(xs, maxX[i]);
+            final int z1 = Arrays.binarySearch(zs, minZ[i]);
+            final int z2 = Arrays.binarySearch(zs, maxZ[i]);
+            for (int z = z1; z < z2; z++) {
+                covered.set(z * width + x1, z * width + x2);
+            }
+            firstCell[i] = z1 * width + x1;
+        }
+
+        // Label the connected areas of covered cells, then group the items by the area they're in
+        final int[] labels = new int[width * height];
+        final int areas = labelAreas(covered, labels, width, height);
+        final List<List<T>> areaMembers = new ArrayList<>(areas);
+        for (int i = 0; i < areas; i++) {
+            areaMembers.add(new ArrayList<>());
+        }
+        for (int i = 0; i < count; i++) {
+            areaMembers.get(labels[firstCell[i]] - 1).add(members.get(i));
+        }
+
+        final List<MarkerPolygon<T>> polygons = new ArrayList<>(areas);
+        for (int area = 1; area <= areas; area++) {
+            polygons.add(trace(area, labels, xs, zs, areaMembers.get(area - 1)));
+        }
+        return polygons;
+    }
+
+    private static int find(int[] parents, int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    // Get the sorted, distinct edge coordinates of regions along an axis
+    @NotNull
+    private static int[] getEdges(int[] min, int[] max) {
+        final int[] edges = new int[min.length * 2];
+        System.arraycopy(min, 0, edges, 0, min.length);
+        System.arraycopy(max, 0, edges, min.length, max.length);
+        return Arrays.stream(edges).sorted().distinct().toArray();
+    }
+
+    // Flood fill 4-connected areas of covered cells with labels from 1, returning the number of areas
+    private static int labelAreas(@NotNull BitSet covered, int[] labels, int width, int height) {
+        final int[] stack = new int[width * height];
+        int areas = 0;
+        for (int start = covered.nextSetBit(0); start >= 0; start = covered.nextSetBit(start + 1)) {
+            if (labels[start] != 0) {
+                continue;
+            }
+            labels[start] = ++areas;
+            int size = 0;
+            stack[size++] = start;
+            while (size > 0) {
+                final int cell = stack[--size];
+                final int x = cell % width;
+                final int z = cell / width;
+                for (int direction = 0; direction < 4; direction++) {
+                    final int nx = x + DX[direction];
+                    final int nz = z + DZ[direction];
+                    if (nx < 0 || nz < 0 || nx >= width || nz >= height) {
+                        continue;
+                    }
+                    final int neighbor = nz * width + nx;
+                    if (covered.get(neighbor) && labels[neighbor] == 0) {
+                        labels[neighbor] = areas;
+                        stack[size++] = neighbor;
+                    }
+                }
+            }
+        }
+        return areas;
+    }
+
+    // Trace the boundary of a labelled area into an outline and holes
+    @NotNull
+    private static <T> MarkerPolygon<T> trace(int area, int[] labels, int[] xs, int[] zs, @NotNull List<T> members) {
+        final int width = xs.length - 1;
+        final int height = zs.length - 1;
+        final int columns = xs.length;
+
+        // Collect the directed boundary edges of the area, keeping the area on the left of each edge
+        final Map<Integer, List<Edge>> edges = new HashMap<>();
+        for (int cell = 0; cell < labels.length; cell++) {
+            if (labels[cell] != area) {
+                continue;
+            }
+            final int x = cell % width;
+            final int z = cell / width;
+            for (int direction = 0; direction < 4; direction++) {
+                // The neighbor on the right of the edge along each direction
+                final int nx = x + DX[(direction + 3) % 4];
+                final int nz = z + DZ[(direction + 3) % 4];
+                if (nx >= 0 && nz >= 0 && nx < width && nz < height && labels[nz * width + nx] == area) {
+                    continue;
+                }
+                final int fromX = x + (direction == 1 || direction == 2 ? 1 : 0);
+                final int fromZ = z + (direction == 2 || direction == 3 ? 1 : 0);
+                final int from = fromZ * columns + fromX;
+                edges.computeIfAbsent(from, k -> new ArrayList<>(2)).add(new Edge(from, direction));
+            }
+        }
+
+        // Follow edges into rings, turning left where two rings touch at a vertex. Rings are started from vertices
+        // with one edge first, so a ring isn't started partway through the other ring touching it
+        List<Region.Point> outline = null;
+        final List<List<Region.Point>> holes = new ArrayList<>();
+        final List<Edge> starts = new ArrayList<>(edges.size());
+        edges.values().forEach(starts::addAll);
+        starts.sort(Comparator.comparingInt(edge -> edges.get(edge.from).size()));
+        for (Edge start : starts) {
+            if (start.used) {
+                continue;
+            }
+            final List<Region.Point> ring = new ArrayList<>();
+            Edge edge = start;
+            while (!edge.used) {
+                edge.used = true;
+                final int to = edge.from + DZ[edge.direction] * columns + DX[edge.direction];
+                final Edge next = getNext(edges.get(to), edge.direction);
+                if (next.direction != edge.direction) {
+                    ring.add(Region.Point.at(xs[to % columns], zs[to / columns]));
+                }
+                edge = next;
+            }
+            if (getSignedArea(ring) > 0) {
+                if (outline != null) {
+                    return new MarkerPolygon<>(null, List.of(), members);
+                }
+                outline = ring;
+            } else {
+                holes.add(ring);
+            }
+        }
+        return outline != null ? new MarkerPolygon<>(outline, holes, members)
+                : new MarkerPolygon<>(null, List.of(), members);
+    }
+
+    // Get the next edge from a vertex, preferring a left turn, then straight on, then a right turn
+    @NotNull
+    private static Edge getNext(@NotNull List<Edge> candidates, int direction) {
+        Edge next = null;
+        for (int turn : new int[]{1, 0, 3}) {
+            for (Edge candidate : candidates) {
+                if (!candidate.used && candidate.direction == (direction + turn) % 4) {
+                    return candidate;
+                }
+                if (next == null && candidate.direction == (direction + turn) % 4) {
+                    next = candidate;
+                }
+            }
+        }
+        return Objects.requireNonNull(next, "Boundary edges do not form a ring");
+    }
+
+    private static long getSignedArea(@NotNull List<Region.Point> ring) {
+        long area = 0;
+        for (int i = 0; i < ring.size(); i++) {
+            final Region.Point a = ring.get(i);
+            final Region.Point b = ring.get((i + 1) % ring.size());
+            area += (long) a.getBlockX() * b.getBlockZ() - (long) b.getBlockX() * a.getBlockZ();
+        }
+        return area;
+    }
+
+    // A directed edge of a boundary, running one grid step along a direction from a vertex
+    private static final class Edge {
+        private final int from;
+        private final int direction;
+        private boolean used;
+
+        private Edge(int from, int direction) {
+            this.from = from;
+            this.direction = direction;
+        }
+    }
+
+}
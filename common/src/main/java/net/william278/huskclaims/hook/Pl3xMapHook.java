@@ -29,28 +29,28 @@ import net.pl3x.map.core.event.world.WorldUnloadedEvent;
 import net.pl3x.map.core.markers.Point;
 import net.pl3x.map.core.markers.layer.SimpleLayer;
 import net.pl3x.map.core.markers.marker.Marker;
+import net.pl3x.map.core.markers.marker.Polygon;
+import net.pl3x.map.core.markers.marker.Polyline;
 import net.pl3x.map.core.markers.option.Options;
 import net.pl3x.map.core.markers.option.Tooltip;
 import net.pl3x.map.core.util.Colors;
 import net.william278.huskclaims.HuskClaims;
-import net.william278.huskclaims.claim.Claim;
 import net.william278.huskclaims.claim.ClaimWorld;
+import net.william278.huskclaims.claim.Region;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Level;
 
 @PluginHook(
         name = "Pl3xMap",
         register = PluginHook.Register.ON_ENABLE
 )
-public class Pl3xMapHook extends MapHook {
+public class Pl3xMapHook extends SyncedMapHook {
 
     private static final String CLAIMS_LAYER = "claim_markers";
-    private final ConcurrentHashMap<ClaimWorld, ConcurrentLinkedQueue<Claim>> claims = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ClaimWorld, ConcurrentHashMap<String, MapMarker>> markers = new ConcurrentHashMap<>();
 
     public Pl3xMapHook(@NotNull HuskClaims plugin) {
         super(plugin);
@@ -67,10 +67,11 @@ public class Pl3xMapHook extends MapHook {
     }
 
     @NotNull
-    public Options getMarkerOptions(@NotNull Claim claim, @NotNull ClaimWorld claimWorld, @NotNull TextColor color, int weight) {
+    public Options getMarkerOptions(@NotNull MapMarker marker, int weight) {
+        final TextColor color = marker.getColor();
         return Options.builder()
                 .strokeWeight(weight)
-                .tooltip(new Tooltip(claim.getOwnerName(claimWorld, plugin)).setDirection(Tooltip.Direction.TOP))
+                .tooltip(new Tooltip(marker.getOwnerName()).setDirection(Tooltip.Direction.TOP))
                 .fillColor(Colors.argb(255 / 2, color.red(), color.green(), color.blue()))
                 .strokeColor(Colors.rgb((int) (color.red() * 0.7), (int) (color.green() * 0.7), (int) (color.blue() * 0.7)))
                 .build();
@@ -84,59 +85,33 @@ public class Pl3xMapHook extends MapHook {
             Pl3xMap.api().getWorldRegistry().forEach(this::registerLayers);
         }
 
+        // Markers are held by this hook, so all claims are drawn afresh
+        plugin.getMapMarkerSync().reset(this);
         plugin.log(Level.INFO, "Enabled Pl3xMap markers hook. Populating web map with claims...");
         markAllClaims();
     }
 
     @Override
     public void unload() {
-        unMarkAllClaims();
+        clearMarkers();
     }
 
     @Override
-    public void markClaim(@NotNull Claim claim, @NotNull ClaimWorld claimWorld) {
-        final ConcurrentLinkedQueue<Claim> claimQueue = claims.computeIfAbsent(claimWorld, k -> new ConcurrentLinkedQueue<>());
-        claimQueue.add(claim);
-        claimQueue.addAll(claim.getChildren());
+    protected void addMarker(@NotNull MapMarker marker) {
+        markers.computeIfAbsent(marker.getWorld(), k -> new ConcurrentHashMap<>()).put(marker.getId(), marker);
     }
 
     @Override
-    public void markClaims(@NotNull Iterable<Claim> claims, @NotNull ClaimWorld claimWorld) {
-        final ConcurrentLinkedQueue<Claim> claimQueue = this.claims.computeIfAbsent(claimWorld, k -> new ConcurrentLinkedQueue<>());
-        claims.forEach(c -> {
-            claimQueue.add(c);
-            claimQueue.addAll(c.getChildren());
-        });
-    }
-
-    @Override
-    public void unMarkClaim(@NotNull Claim claim, @NotNull ClaimWorld claimWorld) {
-        final ConcurrentLinkedQueue<Claim> claimQueue = claims.get(claimWorld);
-        if (claimQueue != null) {
-            claimQueue.remove(claim);
-            claim.getChildren().forEach(claimQueue::remove);
+    protected void removeMarker(@NotNull String id, @NotNull ClaimWorld world) {
+        final ConcurrentHashMap<String, MapMarker> worldMarkers = markers.get(world);
+        if (worldMarkers != null) {
+            worldMarkers.remove(id);
         }
     }
 
     @Override
-    public void unMarkClaimsBy(@Nullable UUID owner) {
-        claims.forEach((claimWorld, claimQueue) -> claimQueue.stream()
-                .filter(claim -> claim.getOwner().map(o -> Objects.equals(o, owner)).orElse(false))
-                .forEach(claim -> unMarkClaim(claim, claimWorld)));
-    }
-
-    @Override
-    public void unMarkAllClaims() {
-        claims.clear();
-    }
-
-    @Override
-    public void markAllClaims() {
-        plugin.getClaimWorlds().forEach((name, claimWorld) -> {
-            final Collection<Claim> claims = claimWorld.getClaims();
-            markClaims(claims, claimWorld);
-            plugin.log(Level.INFO, "Populated web map with %s claims in %s".formatted(claims.size(), name));
-        });
+    protected void clearMarkers() {
+        markers.clear();
     }
 
     public static class ClaimsLayer extends SimpleLayer {
@@ -158,29 +133,45 @@ public class Pl3xMapHook extends MapHook {
             final Optional<ClaimWorld> world = Optional.ofNullable(hook.plugin.getClaimWorlds().get(mapWorld.getName()));
 
             world.ifPresent(claimWorld -> {
-                ConcurrentLinkedQueue<Claim> claimQueue = hook.claims.get(claimWorld);
-
-                if (claimQueue != null) {
-                    claimQueue.forEach(claim -> {
-                        final Optional<TextColor> color = hook.getClaimColor(claim);
-                        if (color.isEmpty()) {
-                            return;
-                        }
+                final ConcurrentHashMap<String, MapMarker> worldMarkers = hook.markers.get(claimWorld);
 
+                if (worldMarkers != null) {
+                    worldMarkers.values().forEach(marker -> {
                         //used to see child claims above parent claims
-                        final int weight = !claim.isChildClaim() ? claim.getOwner().map(o -> 2).orElse(1) : 0;
+                        final int weight = !marker.isChildClaim() ? marker.getOwner().map(o -> 2).orElse(1) : 0;
 
+                        if (marker.isPolygon()) {
+                            markers.add(getPolygon(marker).setOptions(hook.getMarkerOptions(marker, weight)));
+                            return;
+                        }
                         markers.add(Marker.rectangle(
-                                hook.getClaimMarkerKey(claim, world.get()),
-                                Point.of(claim.getRegion().getNearCorner().getBlockX(), claim.getRegion().getNearCorner().getBlockZ()),
-                                Point.of(claim.getRegion().getFarCorner().getBlockX(), (claim.getRegion().getFarCorner().getBlockZ()))
-                        ).setOptions(hook.getMarkerOptions(claim, world.get(), color.get(), weight)));
+                                marker.getId(),
+                                Point.of(marker.getRegion().getNearCorner().getBlockX(), marker.getRegion().getNearCorner().getBlockZ()),
+                                Point.of(marker.getRegion().getFarCorner().getBlockX(), (marker.getRegion().getFarCorner().getBlockZ()))
+                        ).setOptions(hook.getMarkerOptions(marker, weight)));
                     });
                 }
             });
 
             return markers;
         }
+
+        // Get a polygon of merged claims; the first polyline is its outline, the rest are holes
+        @NotNull
+        private static Polygon getPolygon(@NotNull MapMarker marker) {
+            final List<Polyline> polylines = new ArrayList<>();
+            polylines.add(getPolyline(marker.getId() + "_outline", Objects.requireNonNull(marker.getOutline())));
+            for (int i = 0; i < marker.getHoles().size(); i++) {
+                polylines.add(getPolyline(marker.getId() + "_hole_" + i, marker.getHoles().get(i)));
+            }
+            return Marker.polygon(marker.getId(), polylines.toArray(Polyline[]::new));
+        }
+
+        @NotNull
+        private static Polyline getPolyline(@NotNull String key, @NotNull List<Region.Point> points) {
+            return Marker.polyline(key, points.stream()
+                    .map(point -> Point.of(point.getBlockX(), point.getBlockZ())).toArray(Point[]::new));
+        }
     }
 
     @SuppressWarnings("unused")
@@ -0,0 +1,293 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.hook;
+
+import net.kyori.adventure.text.format.TextColor;
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.claim.Claim;
+import net.william278.huskclaims.claim.ClaimWorld;
+import net.william278.huskclaims.claim.Region;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * A {@link MapHook} whose claims are marked and un-marked through the plugin's {@link MapMarkerSync}, which applies
+ * changes to the map in batches off the main thread. Implementations only draw individual {@link MapMarker}s when
+ * asked to by the sync.
+ * <p>
+ * If merging owner markers is enabled, the top-level claims of each owner in a world are queued as a group, and
+ * merged into {@link MarkerPolygon}s when the group is drawn.
+ *
+ * @since 1.5.12
+ */
+public abstract class SyncedMapHook extends MapHook {
+
+    // Top-level claims by owner and world, for merging into polygons
+    private final Map<OwnerClaims, Set<Claim>> ownerClaims = new ConcurrentHashMap<>();
+
+    protected SyncedMapHook(@NotNull HuskClaims plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public void markClaim(@NotNull Claim claim, @NotNull ClaimWorld claimWorld) {
+        if (isMergingMarkers() && !claim.isChildClaim()) {
+            final OwnerClaims owner = new OwnerClaims(claimWorld, claim.getOwner().orElse(null));
+            ownerClaims.computeIfAbsent(owner, k -> ConcurrentHashMap.newKeySet()).add(claim);
+            getSync().markGroup(this, getMarkerGroup(owner));
+        } else {
+            queueMarker(claim, claimWorld);
+        }
+        claim.getChildrenView().forEach(child -> queueMarker(child, claimWorld));
+    }
+
+    @Override
+    public void markClaims(@NotNull Iterable<Claim> claims, @NotNull ClaimWorld claimWorld) {
+        claims.forEach(claim -> markClaim(claim, claimWorld));
+    }
+
+    @Override
+    public void unMarkClaim(@NotNull Claim claim, @NotNull ClaimWorld claimWorld) {
+        if (isMergingMarkers() && !claim.isChildClaim()) {
+            final OwnerClaims owner = new OwnerClaims(claimWorld, claim.getOwner().orElse(null));
+            final Set<Claim> claims = ownerClaims.get(owner);
+            if (claims != null) {
+                claims.remove(claim);
+            }
+            getSync().markGroup(this, getMarkerGroup(owner));
+        } else {
+            getSync().unMark(this, getClaimMarkerKey(claim, claimWorld), claimWorld);
+        }
+        claim.getChildrenView().forEach(child -> getSync().unMark(
+                this, getClaimMarkerKey(child, claimWorld), claimWorld
+        ));
+    }
+
+    @Override
+    public void unMarkClaimsBy(@Nullable UUID owner) {
+        ownerClaims.keySet().removeIf(claims -> Objects.equals(claims.owner(), owner));
+        getSync().unMarkBy(this, owner);
+    }
+
+    @Override
+    public void unMarkAllClaims() {
+        ownerClaims.clear();
+        getSync().clear(this);
+    }
+
+    /**
+     * Remove every claim marker from the map straight away on the calling thread, rather than through the
+     * scheduler, for when the plugin is shutting down
+     *
+     * @since 1.5.12
+     */
+    @Override
+    public void unMarkAllClaimsNow() {
+        ownerClaims.clear();
+        getSync().clearNow(this);
+    }
+
+    @Override
+    public void markAllClaims() {
+        final boolean merging = isMergingMarkers();
+        final List<MapMarker> markers = new ArrayList<>();
+        ownerClaims.clear();
+        plugin.getClaimWorlds().forEach((name, claimWorld) -> {
+            final Collection<Claim> claims = claimWorld.getClaims();
+            claims.forEach(claim -> {
+                if (merging) {
+                    ownerClaims.computeIfAbsent(new OwnerClaims(claimWorld, claim.getOwner().orElse(null)),
+                            k -> ConcurrentHashMap.newKeySet()).add(claim);
+                } else {
+                    getClaimMarker(claim, claimWorld).ifPresent(markers::add);
+                }
+                claim.getChildrenView().forEach(child -> getClaimMarker(child, claimWorld).ifPresent(markers::add));
+            });
+            plugin.log(Level.INFO, "Populating web map with %s claims in %s".formatted(claims.size(), name));
+        });
+        final List<MapMarkerSync.MarkerGroup> groups = ownerClaims.keySet().stream()
+                .map(this::getMarkerGroup).toList();
+        getSync().markAll(this, markers, groups, plugin.getClaimWorlds().values());
+    }
+
+    /**
+     * Draw a marker on the map, replacing any existing marker with the same id
+     *
+     * @param marker the marker to draw
+     * @since 1.5.12
+     */
+    protected abstract void addMarker(@NotNull MapMarker marker);
+
+    /**
+     * Remove a marker from the map
+     *
+     * @param id    the id of the marker
+     * @param world the claim world the marker is in
+     * @since 1.5.12
+     */
+    protected abstract void removeMarker(@NotNull String id, @NotNull ClaimWorld world);
+
+    /**
+     * Remove every claim marker from the map
+     *
+     * @since 1.5.12
+     */
+    protected abstract void clearMarkers();
+
+    /**
+     * Run a batch of marker changes. Override this if the map's API must be called from a particular thread.
+     *
+     * @param updates the marker changes to run
+     * @since 1.5.12
+     */
+    protected void applyMarkerUpdates(@NotNull Runnable updates) {
+        updates.run();
+    }
+
+    /**
+     * Get whether this hook can draw polygon markers with holes. If not, merged claims that enclose unclaimed land
+     * are marked individually instead.
+     *
+     * @return whether polygon holes are supported
+     * @since 1.5.12
+     */
+    protected boolean isSupportingHoles() {
+        return true;
+    }
+
+    /**
+     * Get whether a marker would be drawn differently by this hook than the marker already drawn with its id, used
+     * to skip redrawing unchanged markers
+     *
+     * @param drawn  the marker already drawn
+     * @param marker the marker to draw
+     * @return whether the marker needs redrawing
+     * @since 1.5.12
+     */
+    protected boolean isMarkerChanged(@NotNull MapMarker drawn, @NotNull MapMarker marker) {
+        return !marker.isDrawnSameAs(drawn);
+    }
+
+    // Queue a claim's marker, or its removal if claims of its type are hidden
+    private void queueMarker(@NotNull Claim claim, @NotNull ClaimWorld claimWorld) {
+        getClaimMarker(claim, claimWorld).ifPresentOrElse(
+                marker -> getSync().mark(this, marker),
+                () -> getSync().unMark(this, getClaimMarkerKey(claim, claimWorld), claimWorld)
+        );
+    }
+
+    @NotNull
+    protected final Optional<MapMarker> getClaimMarker(@NotNull Claim claim, @NotNull ClaimWorld claimWorld) {
+        return getClaimColor(claim).map(color -> {
+            final String ownerName = claim.getOwnerName(claimWorld, plugin);
+            return new MapMarker(
+                    getClaimMarkerKey(claim, claimWorld), claimWorld, claim.getOwner().orElse(null),
+                    claim.getRegion(), color, ownerName, String.format(getSettings().getLabelFormat(), ownerName),
+                    claim.isChildClaim()
+            );
+        });
+    }
+
+    private boolean isMergingMarkers() {
+        return getSettings().isMergeOwnerMarkers();
+    }
+
+    @NotNull
+    private MapMarkerSync.MarkerGroup getMarkerGroup(@NotNull OwnerClaims owner) {
+        final String ownerKey = owner.owner() != null ? owner.owner().toString() : "admin";
+        return new MapMarkerSync.MarkerGroup(
+                plugin.getKey("owner", ownerKey, Integer.toString(owner.world().getId())).toString(),
+                owner.world(), owner.owner(), () -> getMergedMarkers(owner)
+        );
+    }
+
+    // Merge an owner's claims into polygon markers, falling back to marking claims individually where they don't
+    // merge, or would form a polygon with too many vertices or holes the map can't draw
+    @NotNull
+    private List<MapMarker> getMergedMarkers(@NotNull OwnerClaims owner) {
+        final List<Claim> claims = List.copyOf(ownerClaims.getOrDefault(owner, Set.of()));
+        if (claims.isEmpty()) {
+            return List.of();
+        }
+        final Optional<TextColor> color = getClaimColor(claims.get(0));
+        if (color.isEmpty()) {
+            return List.of();
+        }
+
+        final String ownerName = claims.get(0).getOwnerName(owner.world(), plugin);
+        final String label = String.format(getSettings().getLabelFormat(), ownerName);
+        final int maxVertices = getSettings().getMaxMergedMarkerVertices();
+        final List<MapMarker> markers = new ArrayList<>();
+        final Set<String> ids = new HashSet<>();
+        for (MarkerPolygon<Claim> polygon : MarkerPolygon.union(claims, Claim::getRegion)) {
+            if (!polygon.isMerged() || polygon.getMembers().size() == 1 || polygon.getVertexCount() > maxVertices
+                || (!polygon.getHoles().isEmpty() && !isSupportingHoles())) {
+                polygon.getMembers().forEach(claim -> getClaimMarker(claim, owner.world()).ifPresent(markers::add));
+                continue;
+            }
+
+            final List<Region.Point> outline = Objects.requireNonNull(polygon.getOutline());
+            final Region bounds = Region.from(
+                    Region.Point.at(outline.stream().mapToInt(Region.Point::getBlockX).min().orElse(0),
+                            outline.stream().mapToInt(Region.Point::getBlockZ).min().orElse(0)),
+                    Region.Point.at(outline.stream().mapToInt(Region.Point::getBlockX).max().orElse(0) - 1,
+                            outline.stream().mapToInt(Region.Point::getBlockZ).max().orElse(0) - 1)
+            );
+            final String id = getPolygonMarkerKey(owner, bounds, ids);
+            markers.add(new MapMarker(
+                    id, owner.world(), owner.owner(), bounds, color.get(), ownerName, label, false,
+                    outline, polygon.getHoles()
+            ));
+        }
+        return markers;
+    }
+
+    // Key merged markers by their bounds, so they keep their id while unrelated claims of the owner change
+    @NotNull
+    private String getPolygonMarkerKey(@NotNull OwnerClaims owner, @NotNull Region bounds, @NotNull Set<String> ids) {
+        final String base = plugin.getKey(
+                "owner", owner.owner() != null ? owner.owner().toString() : "admin",
+                Integer.toString(bounds.getNearX()),
+                Integer.toString(bounds.getNearZ()),
+                Integer.toString(bounds.getFarX()),
+                Integer.toString(bounds.getFarZ()),
+                Integer.toString(owner.world().getId())
+        ).toString();
+        String id = base;
+        for (int i = 1; !ids.add(id); i++) {
+            id = base + "_" + i;
+        }
+        return id;
+    }
+
+    @NotNull
+    private MapMarkerSync getSync() {
+        return plugin.getMapMarkerSync();
+    }
+
+    // The top-level claims of an owner in a world
+    private record OwnerClaims(@NotNull ClaimWorld world, @Nullable UUID owner) {
+    }
+
+}
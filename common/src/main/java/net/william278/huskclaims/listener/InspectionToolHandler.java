@@ -94,7 +94,7 @@ public interface InspectionToolHandler {
     // Highlight the claim for the user and send a message
     private void highlightClaim(@NotNull OnlineUser user, @NotNull Claim claim, @NotNull ClaimWorld world) {
         final List<Claim> claims = Lists.newArrayList(claim);
-        claims.addAll(claim.getChildren());
+        claims.addAll(claim.getChildrenView());
         getPlugin().getHighlighter(user).startHighlighting(user, user.getWorld(), claims);
         getPlugin().getLocales().getLocale("land_claimed_by", claim.getOwnerName(world, getPlugin()))
                 .ifPresent(user::sendMessage);
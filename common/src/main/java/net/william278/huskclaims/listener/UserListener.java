@@ -21,23 +21,25 @@ package net.william278.huskclaims.listener;
 
 import net.william278.huskclaims.HuskClaims;
 import net.william278.huskclaims.claim.ClaimingMode;
-import net.william278.huskclaims.command.IgnoreClaimsCommand;
 import net.william278.huskclaims.config.Settings;
 import net.william278.huskclaims.user.OnlineUser;
+import net.william278.huskclaims.user.PermissionSnapshot;
 import net.william278.huskclaims.user.Preferences;
 import org.jetbrains.annotations.NotNull;
 
 public interface UserListener {
 
     default void onUserJoin(@NotNull OnlineUser user) {
+        getPlugin().getUserNameIndex().setOnline(user);
         getPlugin().runAsync(() -> {
             getPlugin().cacheSavedUser(user);
             final Preferences prefs = getPlugin().getCachedUserPreferences(user.getUuid()).orElse(Preferences.DEFAULTS);
             final Settings.ClaimSettings settings = getPlugin().getSettings().getClaims();
 
-            // Check if user is ignoring claims, remind/toggle as needed
+            // Take a snapshot of the user's permissions, then check if they're ignoring claims, remind/toggle as needed
+            final PermissionSnapshot permissions = user.getPermissions();
             if (prefs.isIgnoringClaims()) {
-                checkIgnoringClaimsOnLogin(user);
+                checkIgnoringClaimsOnLogin(user, permissions);
             }
 
             // Check the user's claim mode, toggle as needed
@@ -59,6 +61,8 @@ public interface UserListener {
         }
         getPlugin().getOnlineUserMap().remove(user.getUuid());
         getPlugin().getHighlighterCache().remove(user.getUuid());
+        getPlugin().getHighlighters().forEach(highlighter -> highlighter.removeUser(user.getUuid()));
+        getPlugin().getUserNameIndex().setOffline(user);
     }
 
     default void onUserSwitchHeldItem(@NotNull OnlineUser user, @NotNull String mainHand, @NotNull String offHand) {
@@ -76,8 +80,8 @@ public interface UserListener {
     }
 
     // Check if a user is ignoring claims on join and if they can't do so anymore, toggle
-    private void checkIgnoringClaimsOnLogin(@NotNull OnlineUser u) {
-        if (getPlugin().canUseCommand(IgnoreClaimsCommand.class, u)) {
+    private void checkIgnoringClaimsOnLogin(@NotNull OnlineUser u, @NotNull PermissionSnapshot permissions) {
+        if (permissions.canIgnoreClaims()) {
             getPlugin().getLocales().getLocale("ignoring_claims_reminder")
                     .ifPresent(u::sendMessage);
             return;
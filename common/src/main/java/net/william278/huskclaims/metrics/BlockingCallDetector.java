@@ -0,0 +1,183 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.database.TimedDatabase;
+import net.william278.huskclaims.network.Message;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Debug tool that finds database and broker calls made on the server thread, which stall the server while they wait.
+ * <p>
+ * Calls are grouped by what was called and where it was called from. For each group, the number of calls, the total
+ * and longest time spent waiting, and the stack of the slowest call are kept. Calls made off the server thread only
+ * cost a thread check.
+ *
+ * @since 1.5.12
+ */
+public class BlockingCallDetector {
+
+    // Number of frames kept in the stack of the slowest call at each call site
+    private static final int SAMPLE_DEPTH = 16;
+    // Classes that wrap database and broker calls, skipped when finding where a call was made from
+    private static final Set<String> WRAPPERS = Set.of(
+            BlockingCallDetector.class.getName(), TimedDatabase.class.getName(), Message.class.getName()
+    );
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private final HuskClaims plugin;
+    private final Map<String, CallSite> callSites = new ConcurrentHashMap<>();
+    @Getter
+    @Setter
+    private volatile boolean enabled = false;
+
+    public BlockingCallDetector(@NotNull HuskClaims plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Record a call that has just returned, if it was made on the server thread
+     *
+     * @param call       what was called, e.g. {@code Database#getUser}
+     * @param startNanos the {@link System#nanoTime()} reading taken when the call was made
+     * @since 1.5.12
+     */
+    public void record(@NotNull String call, long startNanos) {
+        if (!enabled || !plugin.isSyncThread()) {
+            return;
+        }
+        final long nanos = System.nanoTime() - startNanos;
+        final List<StackWalker.StackFrame> stack = WALKER.walk(frames -> frames
+                .filter(frame -> !WRAPPERS.contains(frame.getClassName()))
+                .limit(SAMPLE_DEPTH)
+                .toList());
+        final String caller = stack.isEmpty() ? "unknown" : format(stack.get(0));
+        callSites.computeIfAbsent(call + " " + caller, k -> new CallSite(call, caller)).record(nanos, stack);
+    }
+
+    /**
+     * Get the call sites that have spent the longest blocking the server thread in total
+     *
+     * @param limit the maximum number of call sites to return
+     * @return reports of the worst call sites, worst first
+     * @since 1.5.12
+     */
+    @NotNull
+    public List<Report> getWorstOffenders(int limit) {
+        return callSites.values().stream()
+                .map(CallSite::toReport)
+                .sorted(Comparator.comparingLong(Report::totalNanos).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Clear all recorded calls
+     *
+     * @since 1.5.12
+     */
+    public void reset() {
+        callSites.clear();
+    }
+
+    // Format a frame as Class.method:line, naming lambdas after the method they were declared in
+    @NotNull
+    private static String format(@NotNull StackWalker.StackFrame frame) {
+        final String className = frame.getClassName();
+        String method = frame.getMethodName();
+        if (method.startsWith("lambda$") && method.indexOf('$', 7) > 7) {
+            method = method.substring(7, method.indexOf('$', 7));
+        }
+        return "%s.%s:%s".formatted(className.substring(className.lastIndexOf('.') + 1), method,
+                frame.getLineNumber());
+    }
+
+    /**
+     * A report of the blocking calls made from a call site
+     *
+     * @param call       what was called
+     * @param caller     where it was called from
+     * @param calls      the number of calls made on the server thread
+     * @param totalNanos the total time spent in those calls, in nanoseconds
+     * @param maxNanos   the time spent in the slowest call, in nanoseconds
+     * @param stack      the stack of the slowest call, innermost frame first
+     * @since 1.5.12
+     */
+    public record Report(@NotNull String call, @NotNull String caller, long calls, long totalNanos, long maxNanos,
+                         @NotNull List<String> stack) {
+
+        /**
+         * Get a one-line summary of the report
+         *
+         * @return the summary
+         * @since 1.5.12
+         */
+        @NotNull
+        public String getSummary() {
+            return "%s at %s: %,d calls, %s total, %s max".formatted(call, caller, calls,
+                    Histogram.formatDuration(totalNanos), Histogram.formatDuration(maxNanos));
+        }
+
+    }
+
+    // The calls made to something from one place
+    private static final class CallSite {
+
+        private final String call;
+        private final String caller;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private volatile List<String> stack = List.of();
+
+        private CallSite(@NotNull String call, @NotNull String caller) {
+            this.call = call;
+            this.caller = caller;
+        }
+
+        // Count a call, keeping its stack if it's the slowest yet
+        private void record(long nanos, @NotNull List<StackWalker.StackFrame> frames) {
+            calls.increment();
+            totalNanos.add(nanos);
+            if (nanos > maxNanos.get()) {
+                maxNanos.accumulate(nanos);
+                stack = frames.stream().map(BlockingCallDetector::format).toList();
+            }
+        }
+
+        @NotNull
+        private Report toReport() {
+            return new Report(call, caller, calls.sum(), totalNanos.sum(), maxNanos.get(), stack);
+        }
+
+    }
+
+}
@@ -0,0 +1,348 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.metrics;
+
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.claim.Claim;
+import net.william278.huskclaims.claim.ClaimWorld;
+import net.william278.huskclaims.highlighter.BlockHighlighter;
+import net.william278.huskclaims.highlighter.Highlighter;
+import net.william278.huskclaims.user.AuditLogger;
+import net.william278.huskclaims.user.Preferences;
+import net.william278.huskclaims.user.SavedUser;
+import net.william278.huskclaims.util.datastrcture.ConcurrentLong2ObjectMap;
+import net.william278.huskclaims.util.datastrcture.ConcurrentObject2ObjectMap;
+import org.jetbrains.annotations.Blocking;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Estimates the heap retained by the plugin's major data structures, cheaply enough to run on a live server.
+ * <p>
+ * Rather than walking the heap, structures are counted and their contents multiplied by per-object sizes calibrated
+ * for a 64-bit HotSpot JVM with compressed references and 8-byte alignment, the default for heaps under 32GB. Objects
+ * shared between structures, such as operation types, trust levels and worlds, are not counted. Estimates are
+ * intended to show which structure is growing, not to match a heap dump exactly.
+ *
+ * @since 1.5.12
+ */
+public class HeapEstimator {
+
+    // Sizes of common objects, in bytes
+    private static final long UUID_OBJECT = 32;
+    private static final long STRING = 24;
+    private static final long ARRAY = 16;
+    private static final long REFERENCE = 4;
+    private static final long OFFSET_DATE_TIME = 96;
+    private static final long CONCURRENT_HASH_MAP = 64;
+    private static final long CONCURRENT_HASH_MAP_NODE = 32;
+    private static final long HASH_MAP = 48;
+    private static final long HASH_MAP_NODE = 32;
+    private static final long LINKED_HASH_MAP = 56;
+    private static final long LINKED_HASH_MAP_NODE = 40;
+    private static final long TREE_MAP = 48;
+    private static final long TREE_MAP_NODE = 40;
+    private static final long SET_VIEW = 16;
+    private static final long OPEN_HASH_MAP = 64;
+    private static final long STRIPE = 24 + 48; // Stripe holder and its StampedLock
+    private static final long STRIPED_MAP = 16 + 24 + ARRAY + 16 * REFERENCE;
+    private static final int STRIPES = 16;
+
+    // Sizes of plugin objects, in bytes
+    private static final long CLAIM = 64;
+    private static final long REGION = 32;
+    private static final long OPERATION_TYPE_SET = 24;
+    private static final long SAVED_USER = 48;
+    private static final long USER = 24;
+    private static final long PREFERENCES = 24;
+    private static final long LOG_ENTRY = 24;
+    private static final long HIGHLIGHT_BLOCK = 24 + 48 + 24; // Block, its position, and its share of map slots
+    private static final long QUEUED_HIGHLIGHT = 32 + 12;
+    private static final long MARKED_DROP = 24 + 48 + 2 * REFERENCE;
+    private static final long TRACKED_ITEM = 16;
+    private static final long CLAIM_LIST_ENTRY = 16 + 16 + REFERENCE;
+    private static final long DRAWN_MARKER = 24 + STRING + 56;
+
+    // Load factors and initial capacities of claim world indexes, mirroring those in ClaimWorld
+    private static final float PERFORMANCE_LOAD_FACTOR = 0.6f;
+    private static final float LOW_LATENCY_LOAD_FACTOR = 0.25f;
+    private static final int WORLD_INDEX_CAPACITY = 1024;
+    private static final int CHUNK_SET_CAPACITY = 4;
+    private static final int USER_SET_CAPACITY = 8;
+
+    private final HuskClaims plugin;
+
+    public HeapEstimator(@NotNull HuskClaims plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Estimate the heap retained by the plugin's major data structures. This walks every loaded claim, so should be
+     * called off the server thread
+     *
+     * @return the estimates, grouped into sections
+     * @since 1.5.12
+     */
+    @NotNull
+    @Blocking
+    public List<Section> estimate() {
+        final List<Section> sections = new ArrayList<>();
+        new TreeMap<>(plugin.getClaimWorlds()).forEach((name, world) -> sections.add(estimateClaimWorld(name, world)));
+        sections.add(estimateUserCaches());
+        sections.add(estimateHighlighting());
+        sections.add(estimateDrops());
+        sections.add(estimateListCaches());
+        return sections;
+    }
+
+    @NotNull
+    private Section estimateClaimWorld(@NotNull String name, @NotNull ClaimWorld world) {
+        final long[] claims = new long[2];
+        world.getUserClaims().values().forEach(owned -> owned.forEach(claim -> estimateClaim(claim, claims)));
+
+        long chunkIndex = stripedMap(world.getCachedClaims(), world.getCachedClaims().size(),
+                WORLD_INDEX_CAPACITY, PERFORMANCE_LOAD_FACTOR);
+        for (Set<Claim> chunkClaims : world.getCachedClaims().values()) {
+            chunkIndex += SET_VIEW + stripedMap(null, chunkClaims.size(), CHUNK_SET_CAPACITY, LOW_LATENCY_LOAD_FACTOR);
+        }
+
+        long userIndex = stripedMap(world.getUserClaims(), world.getUserClaims().size(),
+                WORLD_INDEX_CAPACITY, PERFORMANCE_LOAD_FACTOR);
+        for (Set<Claim> owned : world.getUserClaims().values()) {
+            userIndex += UUID_OBJECT + SET_VIEW
+                    + stripedMap(null, owned.size(), USER_SET_CAPACITY, LOW_LATENCY_LOAD_FACTOR);
+        }
+
+        final Map<UUID, String> names = world.getUserCache();
+        long userCache = names instanceof ConcurrentObject2ObjectMap<?, ?>
+                ? stripedMap(names, names.size(), WORLD_INDEX_CAPACITY, PERFORMANCE_LOAD_FACTOR) : map(names);
+        for (String username : names.values()) {
+            userCache += UUID_OBJECT + string(username);
+        }
+
+        return new Section("World: " + name, List.of(
+                new Entry("Claims", claims[0], claims[1]),
+                new Entry("Chunk index", world.getCachedClaims().size(), chunkIndex),
+                new Entry("Chunk coverage", world.getCoveredChunkCount(), stripedMap(null,
+                        world.getCoveredChunkCount(), WORLD_INDEX_CAPACITY, PERFORMANCE_LOAD_FACTOR)),
+                new Entry("User claim index", world.getUserClaims().size(), userIndex),
+                new Entry("User name cache", names.size(), userCache)
+        ));
+    }
+
+    // Add a claim and its children to a running count and total
+    private void estimateClaim(@NotNull Claim claim, long @NotNull [] total) {
+        long bytes = CLAIM + REGION + OPERATION_TYPE_SET + (claim.getOwner().isPresent() ? UUID_OBJECT : 0);
+        final Map<UUID, String> users = claim.getTrustedUsersView();
+        final Map<String, String> groups = claim.getTrustedGroupsView();
+        final Map<String, String> tags = claim.getTrustedTagsView();
+        final Map<UUID, UUID> bans = claim.getBannedUsersView();
+        final Set<Claim> children = claim.getChildrenView();
+        bytes += claimCollection(users.size()) + users.size() * UUID_OBJECT;
+        bytes += claimCollection(groups.size()) + claimCollection(tags.size());
+        bytes += claimCollection(bans.size()) + bans.size() * 2 * UUID_OBJECT;
+        bytes += claimCollection(children.size()) + (children.isEmpty() ? 0 : SET_VIEW);
+        for (Map<String, String> names : List.of(groups, tags)) {
+            for (Map.Entry<String, String> entry : names.entrySet()) {
+                bytes += string(entry.getKey());
+            }
+        }
+        total[0]++;
+        total[1] += bytes;
+        children.forEach(child -> estimateClaim(child, total));
+    }
+
+    @NotNull
+    private Section estimateUserCaches() {
+        long savedUsers = map(plugin.getUserCache());
+        for (SavedUser user : plugin.getUserCache().values()) {
+            savedUsers += SAVED_USER + USER + UUID_OBJECT + string(user.getUser().getName()) + OFFSET_DATE_TIME;
+            final Preferences preferences = user.getPreferences();
+            savedUsers += PREFERENCES + map(preferences.getLogEntries());
+            for (Map.Entry<String, AuditLogger.Entry> entry : preferences.getLogEntries().entrySet()) {
+                savedUsers += string(entry.getKey()) + LOG_ENTRY + string(entry.getValue().getMessage())
+                        + (entry.getValue().getUser() != null ? USER + UUID_OBJECT : 0);
+            }
+        }
+        return new Section("Users", List.of(
+                new Entry("Saved user cache", plugin.getUserCache().size(), savedUsers)
+        ));
+    }
+
+    @NotNull
+    private Section estimateHighlighting() {
+        long users = 0;
+        long blocks = 0;
+        for (Highlighter highlighter : plugin.getHighlighters()) {
+            if (highlighter instanceof BlockHighlighter<?> blockHighlighter) {
+                users += blockHighlighter.getHighlightedUsers();
+                blocks += blockHighlighter.getHighlightedBlockCount();
+            }
+        }
+        final long queued = plugin.getHighlightScheduler().getQueuedBlocks();
+        return new Section("Highlighting", List.of(
+                new Entry("Highlighted blocks", blocks, users * (CONCURRENT_HASH_MAP_NODE + OPEN_HASH_MAP)
+                        + blocks * HIGHLIGHT_BLOCK),
+                new Entry("Queued highlight blocks", queued, queued * QUEUED_HIGHLIGHT),
+                new Entry("Highlighter cache", plugin.getHighlighterCache().size(),
+                        map(plugin.getHighlighterCache()) + plugin.getHighlighterCache().size() * UUID_OBJECT),
+                new Entry("Map markers", plugin.getMapMarkerSync().getDrawnMarkers(),
+                        (long) plugin.getMapMarkerSync().getDrawnMarkers() * (HASH_MAP_NODE + DRAWN_MARKER))
+        ));
+    }
+
+    @NotNull
+    private Section estimateDrops() {
+        long trackedItems = map(plugin.getTrackedItems());
+        long trackedCount = 0;
+        for (Set<?> stacks : plugin.getTrackedItems().values()) {
+            trackedItems += UUID_OBJECT + set(stacks) + stacks.size() * TRACKED_ITEM;
+            trackedCount += stacks.size();
+        }
+        final int marked = plugin.getMarkedDrops().size();
+        return new Section("Drops", List.of(
+                new Entry("Marked drops", marked, marked * MARKED_DROP),
+                new Entry("Tracked items", trackedCount, trackedItems)
+        ));
+    }
+
+    @NotNull
+    private Section estimateListCaches() {
+        final int entries = plugin.getCachedClaimListEntries();
+        return new Section("Commands", List.of(
+                new Entry("Claim list caches", entries, entries * CLAIM_LIST_ENTRY)
+        ));
+    }
+
+    // Estimate a map's own structure, excluding its keys and values
+    private static long map(@NotNull Map<?, ?> map) {
+        final int size = map.size();
+        if (map instanceof ConcurrentHashMap<?, ?>) {
+            return CONCURRENT_HASH_MAP + table(size) + size * CONCURRENT_HASH_MAP_NODE;
+        } else if (map instanceof LinkedHashMap<?, ?>) {
+            return LINKED_HASH_MAP + table(size) + size * LINKED_HASH_MAP_NODE;
+        } else if (map instanceof SortedMap<?, ?> || map.getClass().getSimpleName().equals("LinkedTreeMap")) {
+            return TREE_MAP + size * TREE_MAP_NODE;
+        }
+        return HASH_MAP + table(size) + size * HASH_MAP_NODE;
+    }
+
+    // Estimate one of a claim's collections, which are shared empty ones until written, then concurrent hash maps
+    private static long claimCollection(int size) {
+        return size == 0 ? 0 : CONCURRENT_HASH_MAP + table(size) + size * CONCURRENT_HASH_MAP_NODE;
+    }
+
+    // Estimate a set's own structure, excluding its elements
+    private static long set(@NotNull Set<?> set) {
+        final int size = set.size();
+        if (set instanceof ConcurrentHashMap.KeySetView<?, ?>) {
+            return SET_VIEW + CONCURRENT_HASH_MAP + table(size) + size * CONCURRENT_HASH_MAP_NODE;
+        } else if (set instanceof CopyOnWriteArraySet<?>) {
+            return SET_VIEW + 24 + align(ARRAY + size * REFERENCE);
+        } else if (set instanceof LinkedHashSet<?>) {
+            return SET_VIEW + LINKED_HASH_MAP + table(size) + size * LINKED_HASH_MAP_NODE;
+        }
+        return SET_VIEW + HASH_MAP + table(size) + size * HASH_MAP_NODE;
+    }
+
+    // Estimate the structure of a lock-striped fastutil map, excluding its values. Longs keys are stored inline
+    private static long stripedMap(@Nullable Object map, int size, int initialCapacity, float loadFactor) {
+        final long keyBytes = map instanceof ConcurrentLong2ObjectMap<?> ? 8 : REFERENCE;
+        final long slots = openHashSlots(Math.max(initialCapacity / STRIPES + 1, (size + STRIPES - 1) / STRIPES),
+                loadFactor);
+        return STRIPED_MAP + STRIPES * (STRIPE + OPEN_HASH_MAP
+                + align(ARRAY + slots * keyBytes) + align(ARRAY + slots * REFERENCE));
+    }
+
+    // Get the number of slots in the arrays of a fastutil open hash map sized for a number of entries
+    private static long openHashSlots(int entries, float loadFactor) {
+        return Math.max(2, Long.highestOneBit(Math.max(1, (long) Math.ceil(entries / loadFactor)) - 1) << 1) + 1;
+    }
+
+    // Estimate the bucket table of a java.util hash map holding a number of entries
+    private static long table(int entries) {
+        if (entries == 0) {
+            return 0;
+        }
+        final long capacity = Math.max(16, Long.highestOneBit((long) Math.ceil(entries / 0.75f) - 1) << 1);
+        return align(ARRAY + capacity * REFERENCE);
+    }
+
+    private static long string(@Nullable String string) {
+        return string == null ? 0 : STRING + align(ARRAY + string.length());
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Format a number of bytes for display, in the largest binary unit it fills
+     *
+     * @param bytes the number of bytes
+     * @return the formatted size
+     * @since 1.5.12
+     */
+    @NotNull
+    public static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        final int unit = (63 - Long.numberOfLeadingZeros(bytes)) / 10;
+        return "%.1f %siB".formatted(bytes / (double) (1L << (unit * 10)), "KMGT".charAt(unit - 1));
+    }
+
+    /**
+     * A group of related structures
+     *
+     * @param name    the name of the group
+     * @param entries the estimates for each structure in the group
+     * @since 1.5.12
+     */
+    public record Section(@NotNull String name, @NotNull List<Entry> entries) {
+
+        /**
+         * Get the total estimated size of the structures in this group
+         *
+         * @return the total size, in bytes
+         * @since 1.5.12
+         */
+        public long getBytes() {
+            return entries.stream().mapToLong(Entry::bytes).sum();
+        }
+
+    }
+
+    /**
+     * The estimated size of a structure
+     *
+     * @param name  the name of the structure
+     * @param count the number of items held by the structure
+     * @param bytes the estimated retained size of the structure, in bytes
+     * @since 1.5.12
+     */
+    public record Entry(@NotNull String name, long count, long bytes) {
+    }
+
+}
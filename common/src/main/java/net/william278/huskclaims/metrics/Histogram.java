@@ -0,0 +1,183 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations, in nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets, as in an HDR histogram: each power of two is split into
+ * {@value #SUB_BUCKETS} equal buckets, so any recorded value is reported to within about 6% of its true value while
+ * recording stays a single atomic increment. Values up to {@code 2^40} nanoseconds (about 18 minutes) are tracked;
+ * longer ones are counted in the top bucket.
+ *
+ * @since 1.5.12
+ */
+public class Histogram {
+
+    // Each power of two is divided into 2^SUB_BUCKET_BITS buckets
+    private static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a duration
+     *
+     * @param nanos the duration, in nanoseconds
+     * @since 1.5.12
+     */
+    public void record(long nanos) {
+        final long value = Math.max(0, nanos);
+        buckets.incrementAndGet(getBucket(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Record the time elapsed since a {@link System#nanoTime()} reading
+     *
+     * @param startNanos the reading taken when the timed work started
+     * @since 1.5.12
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Take a snapshot of the recorded values
+     *
+     * @return the snapshot
+     * @since 1.5.12
+     */
+    @NotNull
+    public Snapshot snapshot() {
+        final long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return new Snapshot(counts, count.sum(), sum.sum(), max.get());
+    }
+
+    /**
+     * Format a duration for display, in milliseconds or microseconds
+     *
+     * @param nanos the duration, in nanoseconds
+     * @return the formatted duration
+     * @since 1.5.12
+     */
+    @NotNull
+    public static String formatDuration(long nanos) {
+        return nanos >= 1_000_000 ? "%.2fms".formatted(nanos / 1_000_000d) : "%.1fµs".formatted(nanos / 1_000d);
+    }
+
+    // Get the index of the bucket a value is counted in
+    static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+        if (exponent == MAX_EXPONENT && value >= 1L << (MAX_EXPONENT + 1)) {
+            return BUCKETS - 1;
+        }
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // Get the highest value counted in a bucket
+    static long getBucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * A point-in-time copy of a histogram, which can be merged with others
+     *
+     * @param buckets the count of values in each bucket
+     * @param count   the number of recorded values
+     * @param sum     the sum of recorded values, in nanoseconds
+     * @param max     the highest recorded value, in nanoseconds
+     * @since 1.5.12
+     */
+    public record Snapshot(long @NotNull [] buckets, long count, long sum, long max) {
+
+        /**
+         * An empty snapshot
+         *
+         * @since 1.5.12
+         */
+        public static final Snapshot EMPTY = new Snapshot(new long[BUCKETS], 0, 0, 0);
+
+        /**
+         * Get the value at a quantile of the recorded values
+         *
+         * @param quantile the quantile, from 0 to 1
+         * @return the value at the quantile, in nanoseconds, or 0 if nothing has been recorded
+         * @since 1.5.12
+         */
+        public long getQuantile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(getBucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Merge this snapshot with another
+         *
+         * @param other the other snapshot
+         * @return a snapshot of the values recorded in both
+         * @since 1.5.12
+         */
+        @NotNull
+        public Snapshot merge(@NotNull Snapshot other) {
+            final long[] merged = buckets.clone();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += other.buckets[i];
+            }
+            return new Snapshot(merged, count + other.count, sum + other.sum, Math.max(max, other.max));
+        }
+
+    }
+
+}
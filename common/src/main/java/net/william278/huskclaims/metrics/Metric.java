@@ -0,0 +1,86 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.metrics;
+
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * The performance metrics recorded by the plugin, exported in the Prometheus text format
+ *
+ * @since 1.5.12
+ */
+@Getter
+public enum Metric {
+    CLAIM_LOOKUPS(Type.HISTOGRAM, "huskclaims_claim_lookup_seconds",
+            "Time taken to resolve the claim at a position, by caller", "caller"),
+    OPERATION_CHECKS(Type.COUNTER, "huskclaims_operation_checks_total",
+            "Operations checked against claims and the wilderness, by operation type and result", "type", "result"),
+    DATABASE_CALLS(Type.HISTOGRAM, "huskclaims_database_call_seconds",
+            "Time taken by database calls, by method", "method"),
+    DATABASE_POOL_CONNECTIONS(Type.GAUGE, "huskclaims_database_pool_connections",
+            "Connections in the database connection pool, by state", "state"),
+    TASK_QUEUE_DEPTH(Type.GAUGE, "huskclaims_task_queue_depth",
+            "Queued database writes waiting to be run"),
+    BROKER_MESSAGES(Type.COUNTER, "huskclaims_broker_messages_total",
+            "Messages sent to and received from other servers, by direction and message type", "direction", "type"),
+    CACHE_LOOKUPS(Type.COUNTER, "huskclaims_cache_lookups_total",
+            "Lookups of cached data, by cache and whether the data was cached", "cache", "result"),
+    EVENT_DISPATCHES(Type.COUNTER, "huskclaims_event_dispatches_total",
+            "API events dispatched, by event and how they were dispatched", "event", "dispatch");
+
+    private final Type type;
+    @NotNull
+    private final String exposedName;
+    @NotNull
+    private final String help;
+    @NotNull
+    private final List<String> labels;
+
+    Metric(@NotNull Type type, @NotNull String exposedName, @NotNull String help, @NotNull String... labels) {
+        this.type = type;
+        this.exposedName = exposedName;
+        this.help = help;
+        this.labels = List.of(labels);
+    }
+
+    /**
+     * Types of metric
+     *
+     * @since 1.5.12
+     */
+    @Getter
+    public enum Type {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        HISTOGRAM("summary");
+
+        // The type of the metric in the Prometheus text format; histograms are exposed as quantile summaries
+        @NotNull
+        private final String exposedType;
+
+        Type(@NotNull String exposedType) {
+            this.exposedType = exposedType;
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.metrics;
+
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.config.Settings;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Provides the plugin's internal performance {@link MetricsRegistry metrics}
+ *
+ * @since 1.5.12
+ */
+public interface MetricsProvider {
+
+    /**
+     * Get the registry of internal performance metrics
+     *
+     * @return the {@link MetricsRegistry}
+     * @since 1.5.12
+     */
+    @NotNull
+    MetricsRegistry getMetricsRegistry();
+
+    /**
+     * Get the detector for database and broker calls made on the server thread
+     *
+     * @return the {@link BlockingCallDetector}
+     * @since 1.5.12
+     */
+    @NotNull
+    BlockingCallDetector getBlockingCallDetector();
+
+    /**
+     * Enable or disable recording metrics and detecting blocking calls, register gauges for state kept elsewhere, and start the exporter
+     *
+     * @since 1.5.12
+     */
+    default void loadMetricsRegistry() {
+        final Settings.MetricsSettings settings = getPlugin().getSettings().getMetrics();
+        final MetricsRegistry registry = getMetricsRegistry();
+        registry.setEnabled(settings.isEnabled());
+        getBlockingCallDetector().setEnabled(settings.isDetectBlockingCalls());
+        if (!settings.isEnabled()) {
+            return;
+        }
+
+        registry.registerGauge(Metric.TASK_QUEUE_DEPTH, () -> getPlugin().getTaskQueue().size());
+        registry.registerCollector(Metric.EVENT_DISPATCHES, () -> {
+            final Map<List<String>, Number> values = new HashMap<>();
+            getPlugin().getEventDispatchCounters().getCounts().forEach((event, counts) -> {
+                values.put(List.of(event, "inline"), counts.inline());
+                values.put(List.of(event, "scheduled"), counts.scheduled());
+                values.put(List.of(event, "skipped"), counts.skipped());
+            });
+            return values;
+        });
+
+        if (settings.isWriteFile() || settings.isServeHttp()) {
+            final PrometheusExporter exporter = new PrometheusExporter(getPlugin(), settings);
+            try {
+                exporter.start();
+                registry.setExporter(exporter);
+            } catch (IOException e) {
+                getPlugin().log(Level.WARNING, "Failed to start serving metrics on port %s"
+                        .formatted(settings.getHttpPort()), e);
+                exporter.close();
+            }
+        }
+    }
+
+    /**
+     * Stop writing and serving metrics
+     *
+     * @since 1.5.12
+     */
+    default void closeMetricsExporter() {
+        getMetricsRegistry().getExporter().ifPresent(PrometheusExporter::close);
+        getMetricsRegistry().setExporter(null);
+    }
+
+    @NotNull
+    HuskClaims getPlugin();
+
+}
@@ -0,0 +1,318 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A lightweight registry of the plugin's internal performance {@link Metric metrics}.
+ * <p>
+ * Each metric is a family of counters, gauges or {@link Histogram histograms}, one per combination of label values.
+ * Recording to an existing counter or histogram is lock-free, and recording does nothing while the registry is
+ * disabled. On hot paths, record through a {@link Handle}, which looks its counter or histogram up once rather than
+ * on every call.
+ *
+ * @since 1.5.12
+ */
+public class MetricsRegistry {
+
+    // Orders label value lists element by element
+    private static final Comparator<List<String>> LABEL_ORDER = (a, b) -> {
+        for (int i = 0; i < Math.min(a.size(), b.size()); i++) {
+            final int compared = a.get(i).compareTo(b.get(i));
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return Integer.compare(a.size(), b.size());
+    };
+    // Recorded to while the registry is disabled, and never read
+    private static final Histogram DISCARDED = new Histogram() {
+        @Override
+        public void record(long nanos) {
+        }
+    };
+
+    private final Family[] families = Arrays.stream(Metric.values()).map(Family::new).toArray(Family[]::new);
+    @Getter
+    @Setter
+    private volatile boolean enabled = true;
+    // Incremented each time the registry is reset, so handles look their counter or histogram up again
+    private volatile int generation;
+    @Nullable
+    @Setter
+    private PrometheusExporter exporter;
+
+    /**
+     * Increment a counter
+     *
+     * @param metric the counter metric
+     * @param labels the label values of the counter
+     * @since 1.5.12
+     */
+    public void increment(@NotNull Metric metric, @NotNull String... labels) {
+        if (enabled) {
+            families[metric.ordinal()].get(labels, k -> new Counter()).value.increment();
+        }
+    }
+
+    /**
+     * Get a histogram to record durations to
+     *
+     * @param metric the histogram metric
+     * @param labels the label values of the histogram
+     * @return the histogram, or one that discards values if the registry is disabled
+     * @since 1.5.12
+     */
+    @NotNull
+    public Histogram getHistogram(@NotNull Metric metric, @NotNull String... labels) {
+        if (!enabled) {
+            return DISCARDED;
+        }
+        return families[metric.ordinal()].get(labels, k -> new Histogram());
+    }
+
+    /**
+     * Create a handle to the counter or histogram of a metric with fixed label values, to keep in a constant and
+     * record to on hot paths
+     *
+     * @param metric the counter or histogram metric
+     * @param labels the label values
+     * @return the handle
+     * @throws IllegalArgumentException if the metric is a gauge, or the wrong number of label values are given
+     * @since 1.5.12
+     */
+    @NotNull
+    public static Handle handle(@NotNull Metric metric, @NotNull String... labels) {
+        return new Handle(metric, labels);
+    }
+
+    /**
+     * Increment a counter through a handle
+     *
+     * @param counter the handle to the counter
+     * @since 1.5.12
+     */
+    public void increment(@NotNull Handle counter) {
+        if (enabled) {
+            counter.<Counter>resolve(this).value.increment();
+        }
+    }
+
+    /**
+     * Start timing work to be recorded with {@link #recordSince(Handle, long)}
+     *
+     * @return a {@link System#nanoTime()} reading, or {@code 0} without reading the clock if the registry is disabled
+     * @since 1.5.12
+     */
+    public long startTiming() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record the time elapsed since {@link #startTiming()} to a histogram through a handle
+     *
+     * @param histogram the handle to the histogram
+     * @param start     the reading returned by {@link #startTiming()}; nothing is recorded if it is {@code 0}
+     * @since 1.5.12
+     */
+    public void recordSince(@NotNull Handle histogram, long start) {
+        if (enabled && start != 0) {
+            histogram.<Histogram>resolve(this).recordSince(start);
+        }
+    }
+
+    /**
+     * Register a gauge, whose value is read each time metrics are exported
+     *
+     * @param metric the gauge metric
+     * @param value  supplier of the gauge's value
+     * @param labels the label values of the gauge
+     * @since 1.5.12
+     */
+    public void registerGauge(@NotNull Metric metric, @NotNull DoubleSupplier value, @NotNull String... labels) {
+        families[metric.ordinal()].children.put(List.of(labels), new Gauge(value));
+    }
+
+    /**
+     * Register a collector for a metric whose values are kept elsewhere, read each time metrics are exported
+     *
+     * @param metric    the metric
+     * @param collector supplier of the metric's values, keyed by label values
+     * @since 1.5.12
+     */
+    public void registerCollector(@NotNull Metric metric, @NotNull Supplier<Map<List<String>, Number>> collector) {
+        families[metric.ordinal()].collector = collector;
+    }
+
+    /**
+     * Get the current values of a counter or gauge metric
+     *
+     * @param metric the metric
+     * @return the values, keyed by label values, in label order
+     * @since 1.5.12
+     */
+    @NotNull
+    public SortedMap<List<String>, Double> getValues(@NotNull Metric metric) {
+        final Family family = families[metric.ordinal()];
+        final SortedMap<List<String>, Double> values = new TreeMap<>(LABEL_ORDER);
+        family.children.forEach((labels, child) -> {
+            if (child instanceof Counter counter) {
+                values.put(labels, (double) counter.value.sum());
+            } else if (child instanceof Gauge gauge) {
+                values.put(labels, gauge.value.getAsDouble());
+            }
+        });
+        final Supplier<Map<List<String>, Number>> collector = family.collector;
+        if (collector != null) {
+            collector.get().forEach((labels, value) -> values.put(labels, value.doubleValue()));
+        }
+        return values;
+    }
+
+    /**
+     * Get snapshots of the histograms of a histogram metric
+     *
+     * @param metric the metric
+     * @return the snapshots, keyed by label values, in label order
+     * @since 1.5.12
+     */
+    @NotNull
+    public SortedMap<List<String>, Histogram.Snapshot> getSnapshots(@NotNull Metric metric) {
+        final SortedMap<List<String>, Histogram.Snapshot> snapshots = new TreeMap<>(LABEL_ORDER);
+        families[metric.ordinal()].children.forEach((labels, child) -> {
+            if (child instanceof Histogram histogram) {
+                snapshots.put(labels, histogram.snapshot());
+            }
+        });
+        return snapshots;
+    }
+
+    /**
+     * Get the Prometheus exporter publishing this registry's metrics, if one is running
+     *
+     * @return the exporter, if running
+     * @since 1.5.12
+     */
+    public Optional<PrometheusExporter> getExporter() {
+        return Optional.ofNullable(exporter);
+    }
+
+    /**
+     * Clear all recorded counters and histograms. Gauges and collectors are kept
+     *
+     * @since 1.5.12
+     */
+    public void reset() {
+        for (Family family : families) {
+            family.children.values().removeIf(child -> !(child instanceof Gauge));
+        }
+        generation++;
+    }
+
+    // The counters, gauges or histograms of a metric, keyed by label values
+    private static final class Family {
+
+        private final Metric metric;
+        private final Map<List<String>, Object> children = new ConcurrentHashMap<>();
+        @Nullable
+        private volatile Supplier<Map<List<String>, Number>> collector;
+
+        private Family(@NotNull Metric metric) {
+            this.metric = metric;
+        }
+
+        @NotNull
+        @SuppressWarnings("unchecked")
+        private <T> T get(@NotNull String[] labels, @NotNull Function<List<String>, T> creator) {
+            if (labels.length != metric.getLabels().size()) {
+                throw new IllegalArgumentException("Metric %s takes %s label(s), but %s were given"
+                        .formatted(metric.getExposedName(), metric.getLabels().size(), labels.length));
+            }
+            return (T) children.computeIfAbsent(List.of(labels), creator);
+        }
+
+    }
+
+    /**
+     * A counter or histogram of a metric with fixed label values. The counter or histogram is looked up in a
+     * registry the first time it is recorded to, then kept until the registry is reset, so recording through a
+     * handle neither allocates nor hashes label values.
+     *
+     * @since 1.5.12
+     */
+    public static final class Handle {
+
+        private final Metric metric;
+        private final String[] labels;
+        @Nullable
+        private volatile Binding binding;
+
+        private Handle(@NotNull Metric metric, @NotNull String[] labels) {
+            if (metric.getType() == Metric.Type.GAUGE) {
+                throw new IllegalArgumentException("Metric %s is a gauge".formatted(metric.getExposedName()));
+            }
+            if (labels.length != metric.getLabels().size()) {
+                throw new IllegalArgumentException("Metric %s takes %s label(s), but %s were given"
+                        .formatted(metric.getExposedName(), metric.getLabels().size(), labels.length));
+            }
+            this.metric = metric;
+            this.labels = labels.clone();
+        }
+
+        // Get the counter or histogram in a registry, looking it up again if the registry differs or was reset
+        @NotNull
+        @SuppressWarnings("unchecked")
+        private <T> T resolve(@NotNull MetricsRegistry registry) {
+            final Binding bound = binding;
+            final int generation = registry.generation;
+            if (bound != null && bound.registry() == registry && bound.generation() == generation) {
+                return (T) bound.child();
+            }
+            final Object child = registry.families[metric.ordinal()].get(labels,
+                    k -> metric.getType() == Metric.Type.COUNTER ? new Counter() : new Histogram());
+            binding = new Binding(registry, generation, child);
+            return (T) child;
+        }
+
+    }
+
+    // The counter or histogram a handle records to, in a registry as of a reset
+    private record Binding(@NotNull MetricsRegistry registry, int generation, @NotNull Object child) {
+    }
+
+    private static final class Counter {
+        private final LongAdder value = new LongAdder();
+    }
+
+    private record Gauge(@NotNull DoubleSupplier value) {
+    }
+
+}
@@ -0,0 +1,198 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.config.Settings;
+import net.william278.huskclaims.util.Task;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Publishes a {@link MetricsRegistry} in the Prometheus text exposition format, by periodically writing it to a file
+ * (for the node exporter's textfile collector, for example) and/or by serving it over HTTP. The HTTP endpoint is only
+ * bound to the loopback interface, so metrics are never exposed beyond the machine the server runs on.
+ *
+ * @since 1.5.12
+ */
+public class PrometheusExporter implements AutoCloseable {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final HuskClaims plugin;
+    private final Settings.MetricsSettings settings;
+    @Nullable
+    private Task.Repeating fileTask;
+    @Nullable
+    private HttpServer server;
+
+    public PrometheusExporter(@NotNull HuskClaims plugin, @NotNull Settings.MetricsSettings settings) {
+        this.plugin = plugin;
+        this.settings = settings;
+    }
+
+    /**
+     * Start writing the metrics file and serving metrics over HTTP, as configured
+     *
+     * @throws IOException if the HTTP server could not be started
+     * @since 1.5.12
+     */
+    public void start() throws IOException {
+        if (settings.isWriteFile()) {
+            final Duration interval = Duration.ofSeconds(Math.max(1, settings.getFileIntervalSeconds()));
+            fileTask = plugin.getRepeatingTask(this::writeFile, interval, interval);
+            fileTask.run();
+        }
+        if (settings.isServeHttp()) {
+            server = HttpServer.create(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), settings.getHttpPort()), 0
+            );
+            server.createContext("/metrics", this::handleRequest);
+            server.start();
+            plugin.log(Level.INFO, "Serving metrics at http://localhost:%s/metrics".formatted(settings.getHttpPort()));
+        }
+    }
+
+    /**
+     * Write the metrics file, replacing the previous one in a single step so it is never read half-written
+     *
+     * @since 1.5.12
+     */
+    public void writeFile() {
+        final Path file = plugin.getConfigDirectory().resolve(settings.getFileName());
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.writeString(temp, format(plugin.getMetricsRegistry()), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            plugin.log(Level.WARNING, "Failed to write metrics file", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (fileTask != null) {
+            fileTask.cancel();
+            fileTask = null;
+        }
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    // Respond to a scrape of the HTTP endpoint
+    private void handleRequest(@NotNull HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            final byte[] body = format(plugin.getMetricsRegistry()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Format the metrics in a registry in the Prometheus text exposition format. Durations are given in seconds
+     *
+     * @param registry the registry
+     * @return the formatted metrics
+     * @since 1.5.12
+     */
+    @NotNull
+    public static String format(@NotNull MetricsRegistry registry) {
+        final StringBuilder text = new StringBuilder();
+        for (Metric metric : Metric.values()) {
+            text.append("# HELP ").append(metric.getExposedName()).append(' ').append(metric.getHelp()).append('\n');
+            text.append("# TYPE ").append(metric.getExposedName()).append(' ')
+                    .append(metric.getType().getExposedType()).append('\n');
+            if (metric.getType() == Metric.Type.HISTOGRAM) {
+                registry.getSnapshots(metric).forEach((labels, snapshot) -> {
+                    for (double quantile : QUANTILES) {
+                        appendSample(text, metric.getExposedName(), metric.getLabels(), labels,
+                                Map.entry("quantile", Double.toString(quantile)), snapshot.getQuantile(quantile) / 1e9);
+                    }
+                    appendSample(text, metric.getExposedName() + "_sum", metric.getLabels(), labels,
+                            null, snapshot.sum() / 1e9);
+                    appendSample(text, metric.getExposedName() + "_count", metric.getLabels(), labels,
+                            null, snapshot.count());
+                });
+                continue;
+            }
+            registry.getValues(metric).forEach((labels, value) -> appendSample(
+                    text, metric.getExposedName(), metric.getLabels(), labels, null, value
+            ));
+        }
+        return text.toString();
+    }
+
+    private static void appendSample(@NotNull StringBuilder text, @NotNull String name, @NotNull List<String> names,
+                                     @NotNull List<String> values, @Nullable Map.Entry<String, String> extra,
+                                     double value) {
+        text.append(name);
+        if (!names.isEmpty() || extra != null) {
+            text.append('{');
+            for (int i = 0; i < names.size(); i++) {
+                appendLabel(text.append(i > 0 ? "," : ""), names.get(i), values.get(i));
+            }
+            if (extra != null) {
+                appendLabel(text.append(names.isEmpty() ? "" : ","), extra.getKey(), extra.getValue());
+            }
+            text.append('}');
+        }
+        text.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            text.append((long) value);
+        } else {
+            text.append(value);
+        }
+        text.append('\n');
+    }
+
+    private static void appendLabel(@NotNull StringBuilder text, @NotNull String name, @NotNull String value) {
+        text.append(name).append("=\"").append(value
+                .replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n")
+        ).append('"');
+    }
+
+}
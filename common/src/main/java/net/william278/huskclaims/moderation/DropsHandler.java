@@ -27,12 +27,16 @@ import net.william278.huskclaims.user.OnlineUser;
 import net.william278.huskclaims.user.User;
 import org.jetbrains.annotations.NotNull;
 
+import java.time.Duration;
 import java.util.*;
 
 public interface DropsHandler {
 
+    // How often marked drops that were never matched to a spawned item are reaped
+    Duration MARKED_DROP_REAP_PERIOD = Duration.ofSeconds(15);
+
     @NotNull
-    Map<UUID, List<DroppedItem>> getMarkedDrops();
+    MarkedDropIndex getMarkedDrops();
 
     @NotNull
     Map<UUID, Set<GroundStack>> getTrackedItems();
@@ -42,7 +46,7 @@ public interface DropsHandler {
         if (!getSettings().isLockItems()) {
             return;
         }
-        getMarkedDrops().put(user.getUuid(), Lists.newArrayList(items));
+        getMarkedDrops().mark(user.getUuid(), items);
         getPlugin().getLocales().getLocale("death_drops_locked")
                 .ifPresent(user::sendMessage);
     }
@@ -51,10 +55,7 @@ public interface DropsHandler {
         if (!getSettings().isLockItems()) {
             return;
         }
-        removeIfMarkedDropper(item.getStack()).ifPresent(owner -> {
-            lockDrop(owner, item);
-            getMarkedDrops().get(owner).remove(item.getStack());
-        });
+        removeIfMarkedDropper(item.getStack()).ifPresent(owner -> lockDrop(owner, item));
     }
 
     default void lockDrop(@NotNull UUID owner, @NotNull GroundStack item) {
@@ -89,10 +90,14 @@ public interface DropsHandler {
     }
 
     default Optional<UUID> removeIfMarkedDropper(@NotNull DroppedItem item) {
-        return getMarkedDrops().entrySet().stream()
-                .filter(entry -> entry.getValue().contains(item))
-                .map(Map.Entry::getKey)
-                .findFirst();
+        return getMarkedDrops().take(item);
+    }
+
+    default void startMarkedDropReaper() {
+        getPlugin().getRepeatingTask(
+                () -> getMarkedDrops().reap(),
+                MARKED_DROP_REAP_PERIOD, MARKED_DROP_REAP_PERIOD
+        ).run();
     }
 
     @NotNull
@@ -101,6 +106,13 @@ public interface DropsHandler {
     interface DroppedItem {
         // How far to count death dropped stacks as equal, from their spawn origin (in blocks)
         double DEATH_DROPS_EQUAL_RANGE = 5.0d;
+
+        @NotNull
+        String getWorldName();
+
+        double getX();
+
+        double getZ();
     }
 
     interface GroundStack {
@@ -0,0 +1,253 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.moderation;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * An index of death drops that have been marked for locking, but whose item entities have not yet spawned.
+ * <p>
+ * Marked drops are bucketed by world and chunk, so matching a spawned item is a lookup of the few buckets
+ * within {@link DropsHandler.DroppedItem#DEATH_DROPS_EQUAL_RANGE} of it, rather than a scan of every marked drop.
+ * Drops are also indexed by the owner they were marked for. Each owner may only have a capped number of marked
+ * drops, and drops expire after a while if they never spawn (e.g. because another plugin removed them).
+ *
+ * @since 1.5.12
+ */
+public class MarkedDropIndex {
+
+    // How long a marked drop waits to be matched to a spawned item entity before it is reaped
+    public static final Duration DEFAULT_EXPIRY = Duration.ofSeconds(30);
+    // The most drops that may be marked for one owner (a full inventory, plus armor & offhand, is 41 stacks)
+    public static final int DEFAULT_MAX_PER_OWNER = 128;
+
+    private final Map<String, Long2ObjectMap<List<Entry>>> buckets = new HashMap<>();
+    private final Map<UUID, List<Entry>> byOwner = new HashMap<>();
+    private final long expiryMillis;
+    private final int maxPerOwner;
+    private final LongSupplier clock;
+    private int size;
+
+    public MarkedDropIndex() {
+        this(DEFAULT_EXPIRY, DEFAULT_MAX_PER_OWNER, System::currentTimeMillis);
+    }
+
+    MarkedDropIndex(@NotNull Duration expiry, int maxPerOwner, @NotNull LongSupplier clock) {
+        this.expiryMillis = expiry.toMillis();
+        this.maxPerOwner = maxPerOwner;
+        this.clock = clock;
+    }
+
+    /**
+     * Mark drops for locking to an owner, replacing any drops previously marked for them
+     *
+     * @param owner the owner to lock the drops to when they spawn
+     * @param drops the drops to mark
+     * @since 1.5.12
+     */
+    public synchronized void mark(@NotNull UUID owner, @NotNull Collection<? extends DropsHandler.DroppedItem> drops) {
+        remove(owner);
+        final long expiresAt = clock.getAsLong() + expiryMillis;
+        final List<Entry> entries = new ArrayList<>(Math.min(drops.size(), maxPerOwner));
+        for (DropsHandler.DroppedItem drop : drops) {
+            if (entries.size() >= maxPerOwner) {
+                break;
+            }
+            final Entry entry = new Entry(owner, drop, expiresAt);
+            getBucket(drop.getWorldName(), chunkKey(drop.getX(), drop.getZ())).add(entry);
+            entries.add(entry);
+        }
+        if (!entries.isEmpty()) {
+            byOwner.put(owner, entries);
+            size += entries.size();
+        }
+    }
+
+    /**
+     * Find a marked drop equal to a spawned item and remove it from the index
+     *
+     * @param item the spawned item
+     * @return the owner the matched drop was marked for, if one was found
+     * @since 1.5.12
+     */
+    public synchronized Optional<UUID> take(@NotNull DropsHandler.DroppedItem item) {
+        final Long2ObjectMap<List<Entry>> world = buckets.get(item.getWorldName());
+        if (world == null) {
+            return Optional.empty();
+        }
+        final double range = DropsHandler.DroppedItem.DEATH_DROPS_EQUAL_RANGE;
+        final int minX = chunk(item.getX() - range), maxX = chunk(item.getX() + range);
+        final int minZ = chunk(item.getZ() - range), maxZ = chunk(item.getZ() + range);
+        final long now = clock.getAsLong();
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                final List<Entry> bucket = world.get(chunkKey(x, z));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Entry entry : bucket) {
+                    if (entry.expiresAt() > now && item.equals(entry.drop())) {
+                        removeEntry(entry);
+                        return Optional.of(entry.owner());
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Remove all drops marked for an owner
+     *
+     * @param owner the owner whose marked drops should be removed
+     * @since 1.5.12
+     */
+    public synchronized void remove(@NotNull UUID owner) {
+        final List<Entry> entries = byOwner.remove(owner);
+        if (entries == null) {
+            return;
+        }
+        entries.forEach(this::unbucket);
+        size -= entries.size();
+    }
+
+    /**
+     * Remove all marked drops that have expired without being matched
+     *
+     * @return the number of drops reaped
+     * @since 1.5.12
+     */
+    public synchronized int reap() {
+        final long now = clock.getAsLong();
+        int reaped = 0;
+        final Iterator<List<Entry>> owners = byOwner.values().iterator();
+        while (owners.hasNext()) {
+            final List<Entry> entries = owners.next();
+            final Iterator<Entry> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                final Entry entry = iterator.next();
+                if (entry.expiresAt() <= now) {
+                    iterator.remove();
+                    unbucket(entry);
+                    reaped++;
+                }
+            }
+            if (entries.isEmpty()) {
+                owners.remove();
+            }
+        }
+        size -= reaped;
+        return reaped;
+    }
+
+    /**
+     * Get the number of drops marked for an owner
+     *
+     * @param owner the owner
+     * @return the number of drops marked for them
+     * @since 1.5.12
+     */
+    public synchronized int size(@NotNull UUID owner) {
+        final List<Entry> entries = byOwner.get(owner);
+        return entries == null ? 0 : entries.size();
+    }
+
+    /**
+     * Get the total number of marked drops in the index
+     *
+     * @return the number of marked drops
+     * @since 1.5.12
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    // Remove a matched entry from both its chunk bucket and its owner's entries
+    private void removeEntry(@NotNull Entry entry) {
+        unbucket(entry);
+        final List<Entry> entries = byOwner.get(entry.owner());
+        if (entries != null && entries.remove(entry) && entries.isEmpty()) {
+            byOwner.remove(entry.owner());
+        }
+        size--;
+    }
+
+    // Remove an entry from its chunk bucket, dropping the bucket (and world) once empty
+    private void unbucket(@NotNull Entry entry) {
+        final String worldName = entry.drop().getWorldName();
+        final Long2ObjectMap<List<Entry>> world = buckets.get(worldName);
+        if (world == null) {
+            return;
+        }
+        final long key = chunkKey(entry.drop().getX(), entry.drop().getZ());
+        final List<Entry> bucket = world.get(key);
+        if (bucket != null && bucket.remove(entry) && bucket.isEmpty()) {
+            world.remove(key);
+            if (world.isEmpty()) {
+                buckets.remove(worldName);
+            }
+        }
+    }
+
+    @NotNull
+    private List<Entry> getBucket(@NotNull String worldName, long key) {
+        final Long2ObjectMap<List<Entry>> world = buckets.computeIfAbsent(worldName, w -> new Long2ObjectOpenHashMap<>());
+        List<Entry> bucket = world.get(key);
+        if (bucket == null) {
+            bucket = new ArrayList<>(4);
+            world.put(key, bucket);
+        }
+        return bucket;
+    }
+
+    private static int chunk(double coordinate) {
+        return (int) Math.floor(coordinate) >> 4;
+    }
+
+    private static long chunkKey(double x, double z) {
+        return chunkKey(chunk(x), chunk(z));
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    // Entries are compared by identity, as drops compare equal to any similar stack nearby
+    private record Entry(@NotNull UUID owner, @NotNull DropsHandler.DroppedItem drop, long expiresAt) {
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.moderation;
+
+import it.unimi.dsi.fastutil.chars.Char2IntMap;
+import it.unimi.dsi.fastutil.chars.Char2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * A filter for masking filtered words out of sign text, compiled once from the filtered word list.
+ * <p>
+ * Words are compiled into an Aho-Corasick automaton, so a line is filtered in a single linear pass regardless
+ * of how many words are filtered. Every character covered by a match of any word is replaced, including where
+ * matches overlap. Matching ignores case for ASCII letters only, as the case-insensitive regex this replaces did.
+ *
+ * @since 1.5.12
+ */
+public class SignFilter {
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+
+    // Transitions of each state, as a range of edges sorted by character; the root also has a dense ASCII row
+    private final int[] edgeOffsets;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] rootAscii = new int[128];
+    private final int[] fail;
+    // The length of the longest word ending at each state, including via its suffix states (0 if none)
+    private final int[] longestMatch;
+
+    private SignFilter(@NotNull List<Char2IntMap> trie, @NotNull IntArrayList lengths) {
+        final int states = trie.size();
+        this.edgeOffsets = new int[states + 1];
+        for (int state = 0; state < states; state++) {
+            edgeOffsets[state + 1] = edgeOffsets[state] + trie.get(state).size();
+        }
+        this.edgeChars = new char[edgeOffsets[states]];
+        this.edgeTargets = new int[edgeOffsets[states]];
+        for (int state = 0; state < states; state++) {
+            final char[] chars = trie.get(state).keySet().toCharArray();
+            Arrays.sort(chars);
+            for (int i = 0; i < chars.length; i++) {
+                edgeChars[edgeOffsets[state] + i] = chars[i];
+                edgeTargets[edgeOffsets[state] + i] = trie.get(state).get(chars[i]);
+            }
+        }
+        Arrays.fill(rootAscii, NONE);
+        for (char c = 0; c < rootAscii.length; c++) {
+            rootAscii[c] = find(ROOT, c);
+        }
+
+        this.longestMatch = lengths.toIntArray();
+        this.fail = new int[states];
+        buildFailureLinks();
+    }
+
+    /**
+     * Compile a filter for a list of words. Empty words are ignored
+     *
+     * @param words the words to filter
+     * @return the compiled filter
+     * @since 1.5.12
+     */
+    @NotNull
+    public static SignFilter compile(@NotNull Collection<String> words) {
+        // Build the trie of case-folded words
+        final List<Char2IntMap> trie = new ArrayList<>();
+        final IntArrayList lengths = new IntArrayList();
+        trie.add(newState());
+        lengths.add(0);
+        for (String word : words) {
+            int state = ROOT;
+            for (int i = 0; i < word.length(); i++) {
+                final char c = fold(word.charAt(i));
+                int next = trie.get(state).get(c);
+                if (next == NONE) {
+                    next = trie.size();
+                    trie.get(state).put(c, next);
+                    trie.add(newState());
+                    lengths.add(0);
+                }
+                state = next;
+            }
+            if (state != ROOT) {
+                lengths.set(state, Math.max(lengths.getInt(state), word.length()));
+            }
+        }
+        return new SignFilter(trie, lengths);
+    }
+
+    /**
+     * Mask all filtered words in a line of text
+     *
+     * @param line        the line to filter
+     * @param replaceWith the character to replace each character of a filtered word with
+     * @return the filtered line; the same instance if nothing was filtered
+     * @since 1.5.12
+     */
+    @NotNull
+    public String filter(@NotNull String line, char replaceWith) {
+        if (fail.length == 1 || line.isEmpty()) {
+            return line;
+        }
+
+        // Find matches, recording the span each covers as +1 at its start and -1 after its end
+        int[] coverage = null;
+        int state = ROOT;
+        for (int i = 0; i < line.length(); i++) {
+            state = next(state, fold(line.charAt(i)));
+            final int length = longestMatch[state];
+            if (length > 0) {
+                if (coverage == null) {
+                    coverage = new int[line.length() + 1];
+                }
+                coverage[i - length + 1]++;
+                coverage[i + 1]--;
+            }
+        }
+        if (coverage == null) {
+            return line;
+        }
+
+        // Replace covered characters. Line terminators are never replaced, and surrogate pairs are replaced once
+        final StringBuilder filtered = new StringBuilder(line.length());
+        int covering = 0;
+        for (int i = 0; i < line.length(); i++) {
+            covering += coverage[i];
+            final char c = line.charAt(i);
+            if (covering <= 0 || isLineTerminator(c)) {
+                filtered.append(c);
+                continue;
+            }
+            filtered.append(replaceWith);
+            if (Character.isHighSurrogate(c) && i + 1 < line.length() && Character.isLowSurrogate(line.charAt(i + 1))) {
+                covering += coverage[++i];
+            }
+        }
+        return filtered.toString();
+    }
+
+    /**
+     * Get the number of states in the compiled automaton
+     *
+     * @return the number of states
+     * @since 1.5.12
+     */
+    public int size() {
+        return fail.length;
+    }
+
+    // Follow failure links until a transition on a character exists, or the root is reached
+    private int next(int state, char c) {
+        while (state != ROOT) {
+            final int next = find(state, c);
+            if (next != NONE) {
+                return next;
+            }
+            state = fail[state];
+        }
+        final int next = c < rootAscii.length ? rootAscii[c] : find(ROOT, c);
+        return next != NONE ? next : ROOT;
+    }
+
+    // Binary search the sorted edges of a state for a character
+    private int find(int state, char c) {
+        int low = edgeOffsets[state];
+        int high = edgeOffsets[state + 1] - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final char edge = edgeChars[mid];
+            if (edge < c) {
+                low = mid + 1;
+            } else if (edge > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return NONE;
+    }
+
+    // Breadth-first, link each state to the state of its longest proper suffix in the trie
+    private void buildFailureLinks() {
+        final IntArrayList queue = new IntArrayList();
+        for (int edge = edgeOffsets[ROOT]; edge < edgeOffsets[ROOT + 1]; edge++) {
+            queue.add(edgeTargets[edge]);
+        }
+        for (int head = 0; head < queue.size(); head++) {
+            final int state = queue.getInt(head);
+            for (int edge = edgeOffsets[state]; edge < edgeOffsets[state + 1]; edge++) {
+                final int child = edgeTargets[edge];
+                fail[child] = next(fail[state], edgeChars[edge]);
+                longestMatch[child] = Math.max(longestMatch[child], longestMatch[fail[child]]);
+                queue.add(child);
+            }
+        }
+    }
+
+    @NotNull
+    private static Char2IntMap newState() {
+        final Char2IntMap state = new Char2IntOpenHashMap(2);
+        state.defaultReturnValue(NONE);
+        return state;
+    }
+
+    // Fold ASCII letters to lower case, matching Pattern.CASE_INSENSITIVE without UNICODE_CASE
+    private static char fold(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    // Characters a regex '.' does not match
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+}
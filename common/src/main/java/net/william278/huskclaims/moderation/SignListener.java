@@ -27,8 +27,6 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.StringJoiner;
-import java.util.regex.Pattern;
 
 /**
  * Interface for handling sign edits / placements, for moderation.
@@ -54,7 +52,7 @@ public interface SignListener {
         return edit;
     }
 
-    // Filter sign text against regex
+    // Filter sign text against the compiled filtered words
     private Optional<List<String>> filterSignText(@NotNull List<String> text) {
         final Settings.ModerationSettings.SignSettings signs = getPlugin().getSettings().getModeration().getSigns();
         if (!signs.isFilterMessages() || signs.getFilteredWords().isEmpty()) {
@@ -62,30 +60,16 @@ public interface SignListener {
         }
 
         boolean isFiltered = false;
+        final SignFilter filter = getPlugin().getSignFilter();
         final List<String> filtered = Lists.newArrayList();
         for (String line : text) {
-            final String afterFilter = getFiltered(line, signs.getFilteredWords(), signs.getReplacementCharacter());
+            final String afterFilter = filter.filter(line, signs.getReplacementCharacter());
             filtered.add(afterFilter);
             isFiltered = isFiltered || !afterFilter.equals(line);
         }
         return isFiltered ? Optional.of(filtered) : Optional.empty();
     }
 
-    @NotNull
-    private String getFiltered(@NotNull String line, @NotNull List<String> words, char replaceWith) {
-        return Pattern.compile(getFiltered(words), Pattern.CASE_INSENSITIVE).matcher(line)
-                .replaceAll(String.valueOf(replaceWith));
-    }
-
-    @NotNull
-    static String getFiltered(@NotNull List<String> illegal) {
-        final StringJoiner pattern = new StringJoiner("|");
-        illegal.forEach(word -> pattern.add(
-                String.format("(?<=(?=%s).{0,%d}).", Pattern.quote(word), word.length() - 1)
-        ));
-        return pattern.toString();
-    }
-
     @NotNull
     HuskClaims getPlugin();
 
@@ -23,10 +23,12 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.metrics.Metric;
 import net.william278.huskclaims.user.OnlineUser;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Locale;
 import java.util.logging.Level;
 
 /**
@@ -48,6 +50,8 @@ public abstract class Broker implements MessageHandler {
         if (message.getSourceServer().equals(getServer())) {
             return;
         }
+        plugin.getMetricsRegistry().increment(Metric.BROKER_MESSAGES,
+                "received", message.getType().name().toLowerCase(Locale.ENGLISH));
         switch (message.getType()) {
             case REQUEST_USER_LIST -> handleRequestUserList(message, receiver);
             case UPDATE_USER_LIST -> handleUpdateUserList(message);
@@ -24,9 +24,12 @@ import com.google.gson.annotations.SerializedName;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import net.william278.huskclaims.metrics.Metric;
 import net.william278.huskclaims.user.OnlineUser;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Locale;
+
 /**
  * Represents a message sent by a {@link Broker} cross-server. See {@link #builder()} for
  * a builder to create a message.
@@ -74,7 +77,11 @@ public class Message {
     public void send(@NotNull Broker broker, @NotNull OnlineUser sender) {
         this.sender = sender.getName();
         this.sourceServer = broker.getServer();
+        broker.getPlugin().getMetricsRegistry().increment(Metric.BROKER_MESSAGES,
+                "sent", type.name().toLowerCase(Locale.ENGLISH));
+        final long start = System.nanoTime();
         broker.send(this, sender);
+        broker.getPlugin().getBlockingCallDetector().record(broker.getClass().getSimpleName() + "#send", start);
     }
 
     /**
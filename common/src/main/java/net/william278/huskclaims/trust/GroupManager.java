@@ -57,6 +57,15 @@ public interface GroupManager {
      */
     void setUserGroups(@NotNull Map<UUID, Set<UserGroup>> userGroups);
 
+    /**
+     * Get the index of user groups by name and member
+     *
+     * @return the user group index
+     * @since 1.5.12
+     */
+    @NotNull
+    UserGroupIndex getUserGroupIndex();
+
     /**
      * Set the user groups for a player
      *
@@ -65,6 +74,7 @@ public interface GroupManager {
      */
     default void setUserGroups(@NotNull UUID owner, @NotNull Set<UserGroup> userGroups) {
         getUserGroups().put(owner, userGroups);
+        getUserGroupIndex().setGroups(owner, userGroups);
     }
 
     /**
@@ -88,7 +98,20 @@ public interface GroupManager {
      * @since 1.0
      */
     default Optional<UserGroup> getUserGroup(@NotNull UUID owner, @NotNull String name) {
-        return getUserGroups(owner).stream().filter(group -> group.name().equalsIgnoreCase(name)).findFirst();
+        return getUserGroupIndex().getGroup(owner, name);
+    }
+
+    /**
+     * Returns whether a user is a member of a user group
+     *
+     * @param owner The owner of the group
+     * @param name  The name of the group
+     * @param user  The user to check
+     * @return {@code true} if the group exists and the user is a member of it
+     * @since 1.5.12
+     */
+    default boolean isUserGroupMember(@NotNull UUID owner, @NotNull String name, @NotNull User user) {
+        return getUserGroupIndex().isMember(user.getUuid(), owner, name);
     }
 
     /**
@@ -106,6 +129,7 @@ public interface GroupManager {
         }
         final UserGroup group = new UserGroup(owner.getUuid(), name, members);
         getUserGroups(owner.getUuid()).add(group);
+        getUserGroupIndex().index(group);
         getDatabase().addUserGroup(group);
         publishGroupChange(owner);
     }
@@ -124,6 +148,7 @@ public interface GroupManager {
                                @NotNull Consumer<UserGroup> editor, @NotNull Runnable notPresent) {
         getUserGroup(owner.getUuid(), groupName).ifPresentOrElse(group -> {
             editor.accept(group);
+            getUserGroupIndex().index(group);
             getDatabase().updateUserGroup(owner.getUuid(), groupName, group);
             publishGroupChange(owner);
         }, notPresent);
@@ -147,6 +172,7 @@ public interface GroupManager {
         final UserGroup group = optionalGroup.get();
         getDatabase().deleteUserGroup(group);
         getUserGroups(owner.getUuid()).remove(group);
+        getUserGroupIndex().remove(group);
         publishGroupChange(owner);
         return true;
     }
@@ -172,6 +198,7 @@ public interface GroupManager {
         // Load, then cache all users groups from the database
         final Map<UUID, Set<UserGroup>> groups = getDatabase().getAllUserGroups();
         this.setUserGroups(groups);
+        getUserGroupIndex().setAll(groups);
 
         final long totalGroups = groups.values().stream().mapToLong(Set::size).sum();
         getPlugin().log(Level.INFO, String.format("Loaded %s user group(s) by %s user(s) in %s seconds",
@@ -0,0 +1,134 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.trust;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * A lookup table of the configured {@link TrustLevel}s, built each time trust levels are loaded.
+ * <p>
+ * Each level is given a dense integer handle (its index in the table), and its ID is mapped to that handle, so
+ * resolving a trust level ID stored in a claim is a hash lookup and an array read rather than a scan of every level.
+ * The table also holds the canonical instance of each ID, which claims share rather than keeping their own copies.
+ *
+ * @since 1.5.12
+ */
+public final class TrustLevelTable {
+
+    // Returned by getHandle when no trust level has an ID
+    public static final int NO_HANDLE = -1;
+
+    private final TrustLevel[] levels;
+    private final Optional<TrustLevel>[] found;
+    private final Object2IntMap<String> handles;
+
+    @SuppressWarnings("unchecked")
+    public TrustLevelTable(@NotNull List<TrustLevel> trustLevels) {
+        this.levels = trustLevels.toArray(TrustLevel[]::new);
+        this.found = new Optional[levels.length];
+        this.handles = new Object2IntOpenHashMap<>(levels.length * 2);
+        this.handles.defaultReturnValue(NO_HANDLE);
+
+        // Index exact and case-folded IDs; where IDs clash, the first level takes precedence
+        for (int handle = 0; handle < levels.length; handle++) {
+            found[handle] = Optional.of(levels[handle]);
+            handles.putIfAbsent(levels[handle].getId(), handle);
+        }
+        for (int handle = 0; handle < levels.length; handle++) {
+            handles.putIfAbsent(fold(levels[handle].getId()), handle);
+        }
+    }
+
+    /**
+     * Get the handle of a trust level by ID (case-insensitive)
+     *
+     * @param id the trust level ID
+     * @return the handle, or {@link #NO_HANDLE} if no trust level has the ID
+     * @since 1.5.12
+     */
+    public int getHandle(@NotNull String id) {
+        final int handle = handles.getInt(id);
+        return handle != NO_HANDLE ? handle : handles.getInt(fold(id));
+    }
+
+    /**
+     * Get a trust level by its handle
+     *
+     * @param handle the handle
+     * @return the trust level
+     * @throws ArrayIndexOutOfBoundsException if the handle is not valid for this table
+     * @since 1.5.12
+     */
+    @NotNull
+    public TrustLevel get(int handle) {
+        return levels[handle];
+    }
+
+    /**
+     * Find a trust level by ID (case-insensitive)
+     *
+     * @param id the trust level ID
+     * @return the trust level, if found
+     * @since 1.5.12
+     */
+    public Optional<TrustLevel> find(@NotNull String id) {
+        final int handle = getHandle(id);
+        return handle != NO_HANDLE ? found[handle] : Optional.empty();
+    }
+
+    /**
+     * Get the canonical instance of a trust level ID. IDs which don't exactly match a trust level are returned as-is
+     *
+     * @param id the trust level ID
+     * @return the canonical instance of the ID, if the ID matches a trust level exactly, otherwise the ID passed
+     * @since 1.5.12
+     */
+    @NotNull
+    public String intern(@NotNull String id) {
+        final int handle = handles.getInt(id);
+        if (handle == NO_HANDLE) {
+            return id;
+        }
+        final String canonical = levels[handle].getId();
+        return canonical.equals(id) ? canonical : id;
+    }
+
+    /**
+     * Get the number of trust levels in the table
+     *
+     * @return the number of trust levels
+     * @since 1.5.12
+     */
+    public int size() {
+        return levels.length;
+    }
+
+    @NotNull
+    private static String fold(@NotNull String id) {
+        return id.toLowerCase(Locale.ENGLISH);
+    }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.trust;
+
+import net.william278.huskclaims.user.User;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index of loaded {@link UserGroup}s, for looking groups up by name and checking group membership without
+ * scanning every group and member list.
+ * <p>
+ * Groups are indexed by owner and case-folded name, and each member's UUID maps to the keys of the groups they are
+ * in. The {@link GroupManager} keeps the index up to date as groups are loaded, created, edited and deleted.
+ * It is safe to query off the server thread.
+ *
+ * @since 1.5.12
+ */
+public class UserGroupIndex {
+
+    private final Map<UUID, Map<String, UserGroup>> groupsByName = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<GroupKey>> memberships = new ConcurrentHashMap<>();
+    // The members each group was last indexed with, so they can be unindexed when it's edited or deleted
+    private final Map<GroupKey, Set<UUID>> indexedMembers = new HashMap<>();
+
+    /**
+     * Replace the indexed groups with all loaded groups
+     *
+     * @param groups map of group owners to their groups
+     * @since 1.5.12
+     */
+    public synchronized void setAll(@NotNull Map<UUID, ? extends Collection<UserGroup>> groups) {
+        groupsByName.clear();
+        memberships.clear();
+        indexedMembers.clear();
+        groups.values().forEach(owned -> owned.forEach(this::index));
+    }
+
+    /**
+     * Replace the indexed groups of an owner
+     *
+     * @param owner  the owner of the groups
+     * @param groups the owner's groups
+     * @since 1.5.12
+     */
+    public synchronized void setGroups(@NotNull UUID owner, @NotNull Collection<UserGroup> groups) {
+        final Map<String, UserGroup> owned = groupsByName.remove(owner);
+        if (owned != null) {
+            owned.values().forEach(this::unindexMembers);
+        }
+        groups.forEach(this::index);
+    }
+
+    /**
+     * Index a group that has been created, or re-index a group whose members have been edited
+     *
+     * @param group the group to index
+     * @since 1.5.12
+     */
+    public synchronized void index(@NotNull UserGroup group) {
+        unindexMembers(group);
+        groupsByName.computeIfAbsent(group.groupOwner(), owner -> new ConcurrentHashMap<>())
+                .put(fold(group.name()), group);
+
+        final GroupKey key = GroupKey.of(group);
+        final Set<UUID> members = new HashSet<>(group.members().size());
+        for (User member : group.members()) {
+            members.add(member.getUuid());
+            memberships.computeIfAbsent(member.getUuid(), uuid -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        indexedMembers.put(key, members);
+    }
+
+    /**
+     * Remove a deleted group from the index
+     *
+     * @param group the group to remove
+     * @since 1.5.12
+     */
+    public synchronized void remove(@NotNull UserGroup group) {
+        unindexMembers(group);
+        final Map<String, UserGroup> owned = groupsByName.get(group.groupOwner());
+        if (owned != null) {
+            owned.remove(fold(group.name()));
+            if (owned.isEmpty()) {
+                groupsByName.remove(group.groupOwner());
+            }
+        }
+    }
+
+    /**
+     * Get a group by its owner and name (case-insensitive)
+     *
+     * @param owner the owner of the group
+     * @param name  the name of the group
+     * @return the group, if found
+     * @since 1.5.12
+     */
+    public Optional<UserGroup> getGroup(@NotNull UUID owner, @NotNull String name) {
+        return Optional.ofNullable(groupsByName.get(owner)).map(owned -> owned.get(fold(name)));
+    }
+
+    /**
+     * Returns whether a user is a member of a group
+     *
+     * @param member the UUID of the user
+     * @param owner  the owner of the group
+     * @param name   the name of the group (case-insensitive)
+     * @return {@code true} if the group exists and the user is a member of it
+     * @since 1.5.12
+     */
+    public boolean isMember(@NotNull UUID member, @NotNull UUID owner, @NotNull String name) {
+        final Set<GroupKey> groups = memberships.get(member);
+        return groups != null && groups.contains(new GroupKey(owner, fold(name)));
+    }
+
+    /**
+     * Get the groups a user is a member of
+     *
+     * @param member the UUID of the user
+     * @return the groups the user is a member of
+     * @since 1.5.12
+     */
+    @NotNull
+    public List<UserGroup> getMemberships(@NotNull UUID member) {
+        final Set<GroupKey> groups = memberships.getOrDefault(member, Set.of());
+        final List<UserGroup> found = new ArrayList<>(groups.size());
+        for (GroupKey key : groups) {
+            getGroup(key.owner(), key.name()).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    /**
+     * Get the number of indexed groups
+     *
+     * @return the number of indexed groups
+     * @since 1.5.12
+     */
+    public int size() {
+        return groupsByName.values().stream().mapToInt(Map::size).sum();
+    }
+
+    // Remove the memberships a group was last indexed with
+    private void unindexMembers(@NotNull UserGroup group) {
+        final GroupKey key = GroupKey.of(group);
+        final Set<UUID> members = indexedMembers.remove(key);
+        if (members == null) {
+            return;
+        }
+        for (UUID member : members) {
+            memberships.computeIfPresent(member, (uuid, groups) -> {
+                groups.remove(key);
+                return groups.isEmpty() ? null : groups;
+            });
+        }
+    }
+
+    @NotNull
+    private static String fold(@NotNull String name) {
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+
+    // Identifies a group by its owner and case-folded name
+    private record GroupKey(@NotNull UUID owner, @NotNull String name) {
+        @NotNull
+        private static GroupKey of(@NotNull UserGroup group) {
+            return new GroupKey(group.groupOwner(), fold(group.name()));
+        }
+    }
+
+}
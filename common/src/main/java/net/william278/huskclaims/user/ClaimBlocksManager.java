@@ -85,7 +85,8 @@ public interface ClaimBlocksManager {
         // Determine max claim blocks
         long maxClaimBlocks = getPlugin().getSettings().getClaims().getMaximumClaimBlocks();
         if (user instanceof OnlineUser onlineUser) {
-            maxClaimBlocks = onlineUser.getNumericalPermission(MAX_CLAIM_BLOCKS_PERMISSION).orElse(maxClaimBlocks);
+            maxClaimBlocks = onlineUser.getPermissions().getNumericalPermission(MAX_CLAIM_BLOCKS_PERMISSION)
+                    .orElse(maxClaimBlocks);
         }
         if (maxClaimBlocks < 0) {
             maxClaimBlocks = Long.MAX_VALUE;
@@ -150,7 +151,7 @@ public interface ClaimBlocksManager {
             return;
         }
 
-        final long hourlyBlocks = user.getNumericalPermission(HOURLY_BLOCKS_PERMISSION)
+        final long hourlyBlocks = user.getPermissions().getNumericalPermission(HOURLY_BLOCKS_PERMISSION)
                 .orElse(getPlugin().getSettings().getClaims().getHourlyClaimBlocks()) / HOURLY_BLOCKS_UPDATES;
         if (hourlyBlocks <= 0) {
             return;
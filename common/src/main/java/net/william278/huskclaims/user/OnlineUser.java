@@ -39,6 +39,7 @@ import java.util.UUID;
 public abstract class OnlineUser extends User implements OperationUser, CommandUser {
 
     private long lastCommandExecutionTime = -1;
+    private volatile PermissionSnapshot permissions;
     protected final HuskClaims plugin;
 
     protected OnlineUser(@NotNull String username, @NotNull UUID uuid, @NotNull HuskClaims plugin) {
@@ -97,6 +98,31 @@ public abstract class OnlineUser extends User implements OperationUser, CommandU
 
     public abstract Optional<Long> getNumericalPermission(@NotNull String prefix);
 
+    /**
+     * Get a snapshot of this user's HuskClaims permissions, taking a new one if it has been invalidated
+     *
+     * @return the user's permission snapshot
+     * @since 1.5.12
+     */
+    @NotNull
+    public PermissionSnapshot getPermissions() {
+        PermissionSnapshot snapshot = permissions;
+        if (snapshot == null) {
+            snapshot = new PermissionSnapshot(plugin, this);
+            permissions = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Discard this user's permission snapshot, so a new one is taken when next needed
+     *
+     * @since 1.5.12
+     */
+    public void invalidatePermissions() {
+        permissions = null;
+    }
+
     public abstract boolean isSneaking();
 
     public abstract void teleport(@NotNull Position position, boolean instant);
@@ -0,0 +1,117 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.user;
+
+import net.william278.cloplib.operation.OperationType;
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.command.IgnoreClaimsCommand;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A snapshot of an online user's HuskClaims permissions, so permission checks on hot paths don't query the
+ * platform permission system each time.
+ * <p>
+ * Ignore-claims flags are resolved when the snapshot is taken. Per-operation bypass permissions and numerical
+ * permissions are resolved on first use, then kept for the life of the snapshot. A user's snapshot is taken when
+ * they join and is discarded when their permissions change or the plugin is reloaded (see
+ * {@link UserProvider#invalidatePermissions()}).
+ *
+ * @since 1.5.12
+ */
+public final class PermissionSnapshot {
+
+    private final HuskClaims plugin;
+    private final OnlineUser user;
+
+    private final boolean canIgnoreClaims;
+    private final boolean canIgnoreBans;
+    private final boolean canIgnorePrivateClaims;
+    private final boolean canIgnoreAllOperations;
+    private final Map<OperationType, Boolean> ignorableOperations = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Long>> numericalPermissions = new ConcurrentHashMap<>();
+
+    PermissionSnapshot(@NotNull HuskClaims plugin, @NotNull OnlineUser user) {
+        this.plugin = plugin;
+        this.user = user;
+        this.canIgnoreClaims = plugin.canUseCommand(IgnoreClaimsCommand.class, user);
+        this.canIgnoreBans = plugin.canUseCommand(IgnoreClaimsCommand.class, user, "bans");
+        this.canIgnorePrivateClaims = plugin.canUseCommand(IgnoreClaimsCommand.class, user, "private");
+        this.canIgnoreAllOperations = plugin.canUseCommand(IgnoreClaimsCommand.class, user, "operations", "*");
+    }
+
+    /**
+     * Returns whether the user may ignore claims
+     *
+     * @return {@code true} if the user has permission to use the ignore claims command
+     * @since 1.5.12
+     */
+    public boolean canIgnoreClaims() {
+        return canIgnoreClaims;
+    }
+
+    /**
+     * Returns whether the user may bypass claim bans while ignoring claims
+     *
+     * @return {@code true} if the user has the ban bypass permission
+     * @since 1.5.12
+     */
+    public boolean canIgnoreBans() {
+        return canIgnoreBans;
+    }
+
+    /**
+     * Returns whether the user may enter private claims while ignoring claims
+     *
+     * @return {@code true} if the user has the private claim bypass permission
+     * @since 1.5.12
+     */
+    public boolean canIgnorePrivateClaims() {
+        return canIgnorePrivateClaims;
+    }
+
+    /**
+     * Returns whether the user may bypass an operation type while ignoring claims
+     *
+     * @param type the operation type
+     * @return {@code true} if the user has the wildcard or the operation-specific bypass permission
+     * @since 1.5.12
+     */
+    public boolean canIgnoreOperation(@NotNull OperationType type) {
+        return canIgnoreAllOperations || ignorableOperations.computeIfAbsent(type, (t) -> plugin.canUseCommand(
+                IgnoreClaimsCommand.class, user, "operations", t.asMinimalString()
+        ));
+    }
+
+    /**
+     * Get the highest value of a numerical permission the user has, such as {@code huskclaims.hourly_blocks.100}
+     *
+     * @param prefix the permission prefix, including the trailing dot
+     * @return the highest value, if the user has any permission with the prefix
+     * @since 1.5.12
+     */
+    public Optional<Long> getNumericalPermission(@NotNull String prefix) {
+        return numericalPermissions.computeIfAbsent(prefix, user::getNumericalPermission);
+    }
+
+}
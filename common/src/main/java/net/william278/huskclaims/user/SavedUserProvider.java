@@ -20,6 +20,7 @@
 package net.william278.huskclaims.user;
 
 import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.metrics.Metric;
 import net.william278.huskclaims.network.Message;
 import net.william278.huskclaims.network.Payload;
 import org.jetbrains.annotations.Blocking;
@@ -47,7 +48,10 @@ public interface SavedUserProvider extends ClaimBlocksManager {
 
     @Blocking
     default Optional<SavedUser> getSavedUser(@NotNull UUID uuid) {
-        return getCachedSavedUser(uuid).or(() -> {
+        final Optional<SavedUser> cached = getCachedSavedUser(uuid);
+        getPlugin().getMetricsRegistry().increment(Metric.CACHE_LOOKUPS,
+                "saved_users", cached.isPresent() ? "hit" : "miss");
+        return cached.or(() -> {
             final Optional<SavedUser> savedUser = getPlugin().getDatabase().getUser(uuid);
             savedUser.ifPresent(saved -> getUserCache().put(uuid, saved));
             return savedUser;
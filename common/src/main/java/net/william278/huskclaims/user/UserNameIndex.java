@@ -0,0 +1,146 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.user;
+
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * A sorted, incrementally maintained index of usernames, used for tab-completing player names.
+ * <p>
+ * Names are keyed case-folded in a skip list, so a prefix lookup is a range scan over the matching names only,
+ * rather than a sort and filter of every known user. The index holds users online on this server, users online
+ * elsewhere on the network, and users who have recently gone offline. It is safe to query off the server thread.
+ *
+ * @since 1.5.12
+ */
+public class UserNameIndex {
+
+    // How long users who have gone offline remain in the index for
+    private static final long OFFLINE_RETENTION_MINUTES = 30;
+    private static final int MAX_OFFLINE_USERS = 2500;
+
+    private final ConcurrentNavigableMap<String, User> names = new ConcurrentSkipListMap<>();
+    private final Map<UUID, String> indexedKeys = new ConcurrentHashMap<>();
+    private final Set<UUID> onlineUsers = ConcurrentHashMap.newKeySet();
+    private final ExpiringMap<UUID, User> offlineUsers = ExpiringMap.builder()
+            .expiration(OFFLINE_RETENTION_MINUTES, TimeUnit.MINUTES)
+            .expirationPolicy(ExpirationPolicy.CREATED)
+            .maxSize(MAX_OFFLINE_USERS)
+            .expirationListener((UUID uuid, User user) -> this.onOfflineExpired(user))
+            .build();
+
+    /**
+     * Index a user who is online, either on this server or elsewhere on the network
+     *
+     * @param user the user to index
+     * @since 1.5.12
+     */
+    public void setOnline(@NotNull User user) {
+        offlineUsers.remove(user.getUuid());
+        onlineUsers.add(user.getUuid());
+        index(user);
+    }
+
+    /**
+     * Mark an indexed user as having gone offline. They will remain suggestable for a while, then be removed
+     *
+     * @param user the user who went offline
+     * @since 1.5.12
+     */
+    public void setOffline(@NotNull User user) {
+        if (onlineUsers.remove(user.getUuid())) {
+            offlineUsers.put(user.getUuid(), User.of(user.getUuid(), user.getName()));
+        }
+    }
+
+    /**
+     * Get the names of indexed users whose name starts with a prefix (case-insensitive), in alphabetical order
+     *
+     * @param prefix the prefix to match
+     * @param limit  the maximum number of names to return
+     * @param filter filter indexed users must pass to be returned
+     * @return the matching names
+     * @since 1.5.12
+     */
+    @NotNull
+    public List<String> getMatching(@NotNull String prefix, int limit, @NotNull Predicate<User> filter) {
+        final String from = fold(prefix);
+        final Collection<User> range = from.isEmpty() ? names.values()
+                : names.subMap(from, true, from + Character.MAX_VALUE, false).values();
+
+        final List<String> matches = new ArrayList<>(Math.min(limit, 16));
+        for (User user : range) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            if (filter.test(user)) {
+                matches.add(user.getName());
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Get the number of indexed names
+     *
+     * @return the number of indexed names
+     * @since 1.5.12
+     */
+    public int size() {
+        return names.size();
+    }
+
+    // Index a user by their current name, dropping the key of their previous name if they have been renamed
+    // A plain User copy is stored so the index never retains platform player objects
+    private void index(@NotNull User user) {
+        final String key = fold(user.getName());
+        final String previous = indexedKeys.put(user.getUuid(), key);
+        if (previous != null && !previous.equals(key)) {
+            names.remove(previous, user);
+        }
+        names.put(key, User.of(user.getUuid(), user.getName()));
+    }
+
+    // Remove a user who has been offline for long enough, unless they came back in the meantime
+    private void onOfflineExpired(@NotNull User user) {
+        if (onlineUsers.contains(user.getUuid())) {
+            return;
+        }
+        final String key = indexedKeys.remove(user.getUuid());
+        if (key != null) {
+            names.remove(key, user);
+        }
+    }
+
+    @NotNull
+    private static String fold(@NotNull String name) {
+        return name.toLowerCase(Locale.ENGLISH).trim();
+    }
+
+}
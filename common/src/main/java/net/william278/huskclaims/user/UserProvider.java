@@ -20,13 +20,13 @@
 package net.william278.huskclaims.user;
 
 import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.hook.LuckPermsHook;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -36,6 +36,9 @@ import java.util.stream.Stream;
  */
 public interface UserProvider {
 
+    // How often permission snapshots are retaken when permission changes can't be listened for
+    Duration PERMISSION_REFRESH_PERIOD = Duration.ofSeconds(30);
+
     @NotNull
     Map<UUID, OnlineUser> getOnlineUserMap();
 
@@ -45,6 +48,9 @@ public interface UserProvider {
     @NotNull
     Map<String, List<User>> getGlobalUserList();
 
+    @NotNull
+    UserNameIndex getUserNameIndex();
+
     @NotNull
     @Unmodifiable
     default Collection<OnlineUser> getOnlineUsers() {
@@ -60,15 +66,61 @@ public interface UserProvider {
     }
 
     default void setUserList(@NotNull String server, @NotNull List<User> players) {
-        getGlobalUserList().values().forEach(list -> {
-            list.removeAll(players);
-            list.removeAll(getPlugin().getOnlineUsers());
-        });
+        final List<User> previous = getGlobalUserList().getOrDefault(server, List.of());
+        final Set<UUID> listed = players.stream().map(User::getUuid).collect(Collectors.toSet());
+        getGlobalUserList().values().forEach(list -> list.removeIf(
+                user -> listed.contains(user.getUuid()) || getOnlineUserMap().containsKey(user.getUuid())
+        ));
         getGlobalUserList().put(server, players);
+
+        // Update the name index with users who joined or left the network
+        players.forEach(getUserNameIndex()::setOnline);
+        if (previous.isEmpty()) {
+            return;
+        }
+        final Set<UUID> online = new HashSet<>(getOnlineUserMap().keySet());
+        getGlobalUserList().values().forEach(list -> list.forEach(user -> online.add(user.getUuid())));
+        previous.stream().filter(user -> !online.contains(user.getUuid())).forEach(getUserNameIndex()::setOffline);
     }
 
     default boolean isUserOnline(@NotNull User user) {
-        return getUserList().contains(user);
+        return getOnlineUserMap().containsKey(user.getUuid())
+                || getGlobalUserList().values().stream().anyMatch(list -> list.contains(user));
+    }
+
+    /**
+     * Discard an online user's permission snapshot, if they are online
+     *
+     * @param uuid the user's UUID
+     * @since 1.5.12
+     */
+    default void invalidatePermissions(@NotNull UUID uuid) {
+        final OnlineUser user = getOnlineUserMap().get(uuid);
+        if (user != null) {
+            user.invalidatePermissions();
+        }
+    }
+
+    /**
+     * Discard the permission snapshots of all online users
+     *
+     * @since 1.5.12
+     */
+    default void invalidatePermissions() {
+        getOnlineUserMap().values().forEach(OnlineUser::invalidatePermissions);
+    }
+
+    /**
+     * Periodically retake permission snapshots, unless LuckPerms is hooked into to retake them as permissions change
+     *
+     * @since 1.5.12
+     */
+    default void startPermissionRefresh() {
+        getPlugin().getRepeatingTask(() -> {
+            if (getPlugin().getHook(LuckPermsHook.class).isEmpty()) {
+                invalidatePermissions();
+            }
+        }, PERMISSION_REFRESH_PERIOD, PERMISSION_REFRESH_PERIOD).run();
     }
 
     @NotNull
@@ -22,6 +22,7 @@ package net.william278.huskclaims.util;
 import net.william278.cloplib.operation.OperationType;
 import net.william278.huskclaims.HuskClaims;
 import net.william278.huskclaims.hook.Hook;
+import net.william278.huskclaims.metrics.BlockingCallDetector;
 import net.william278.huskclaims.user.CommandUser;
 import net.william278.huskclaims.user.OnlineUser;
 import net.william278.toilet.DumpOptions;
@@ -36,6 +37,7 @@ import org.jetbrains.annotations.NotNull;
 import static net.william278.toilet.DumpOptions.*;
 
 import java.awt.*;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -86,8 +88,8 @@ public interface DumpProvider {
     @Blocking
     private PluginStatus getPluginStatus() {
         return PluginStatus.builder()
-                .blocks(List.of(getSystemStatus(), getClaimStatus(), getHookStatus(),
-                        getHighlightersStatus(), getOperationTypeStatus()))
+                .blocks(List.of(getSystemStatus(), getMetricsStatus(), getBlockingCallsStatus(), getClaimStatus(),
+                        getHookStatus(), getHighlightersStatus(), getOperationTypeStatus()))
                 .build();
     }
 
@@ -111,6 +113,31 @@ public interface DumpProvider {
         );
     }
 
+    @NotNull
+    @Blocking
+    private PluginStatus.MapStatusBlock getMetricsStatus() {
+        final Map<String, String> metrics = new LinkedHashMap<>();
+        metrics.put("Claim Lookups", StatusLine.CLAIM_LOOKUPS.getValue(getPlugin()));
+        metrics.put("Operation Checks", StatusLine.OPERATION_CHECKS.getValue(getPlugin()));
+        metrics.put("Database Calls", StatusLine.DATABASE_CALLS.getValue(getPlugin()));
+        metrics.put("Database Pool", StatusLine.DATABASE_POOL.getValue(getPlugin()));
+        metrics.put("Task Queue", StatusLine.TASK_QUEUE.getValue(getPlugin()));
+        metrics.put("Broker Messages", StatusLine.BROKER_MESSAGES.getValue(getPlugin()));
+        metrics.put("Cache Hit Ratios", StatusLine.CACHE_HIT_RATIOS.getValue(getPlugin()));
+        metrics.put("Event Dispatches", StatusLine.EVENT_DISPATCHES.getValue(getPlugin()));
+        return new PluginStatus.MapStatusBlock(metrics, "Performance Metrics", "fa6-solid:gauge-high");
+    }
+
+    @NotNull
+    @Blocking
+    private PluginStatus.ListStatusBlock getBlockingCallsStatus() {
+        return new PluginStatus.ListStatusBlock(
+                getPlugin().getBlockingCallDetector().getWorstOffenders(20).stream()
+                        .map(BlockingCallDetector.Report::getSummary).toList(),
+                "Blocking Calls on Server Thread", "fa6-solid:hourglass-half"
+        );
+    }
+
     @NotNull
     @Blocking
     private PluginStatus.ChartStatusBlock getClaimStatus() {
@@ -26,10 +26,17 @@ import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import net.william278.huskclaims.HuskClaims;
 import net.william278.huskclaims.hook.Importer;
+import net.william278.huskclaims.metrics.Histogram;
+import net.william278.huskclaims.metrics.Metric;
 import org.apache.commons.text.WordUtils;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public enum StatusLine {
     PLUGIN_VERSION(plugin -> Component.text("v" + plugin.getPluginVersion().toStringWithoutMetadata())
@@ -66,6 +73,62 @@ public enum StatusLine {
             plugin.getHighlighters().stream().map(hook -> Component.text(hook.getClass().getSimpleName())
                     .hoverEvent(Component.text("Priority: %s".formatted(hook.getPriority())))).toList()
     )),
+    HIGHLIGHT_QUEUE(plugin -> Component.text("%s blocks for %s users".formatted(
+            plugin.getHighlightScheduler().getQueuedBlocks(), plugin.getHighlightScheduler().getQueuedUsers()
+    )).hoverEvent(Component.text("Processed: %s blocks, budget-limited ticks: %s".formatted(
+            plugin.getHighlightScheduler().getProcessedBlocks(), plugin.getHighlightScheduler().getSaturatedTicks()
+    )))),
+    MAP_MARKER_QUEUE(plugin -> Component.text("%s updates".formatted(
+            plugin.getMapMarkerSync().getQueuedUpdates()
+    )).hoverEvent(Component.text("Applied: %s updates, unchanged: %s updates".formatted(
+            plugin.getMapMarkerSync().getAppliedUpdates(), plugin.getMapMarkerSync().getSkippedUpdates()
+    )))),
+    CLAIM_LOOKUPS(plugin -> getLatencies(plugin, Metric.CLAIM_LOOKUPS)),
+    OPERATION_CHECKS(plugin -> {
+        final Map<String, Double> results = sumBy(plugin.getMetricsRegistry().getValues(Metric.OPERATION_CHECKS), 1);
+        return Component.text("%,d allowed, %,d denied".formatted(
+                results.getOrDefault("allowed", 0d).longValue(), results.getOrDefault("denied", 0d).longValue()
+        )).hoverEvent(getBreakdown(plugin.getMetricsRegistry().getValues(Metric.OPERATION_CHECKS).entrySet().stream()
+                .map(e -> "%s %s: %,d".formatted(e.getKey().get(0), e.getKey().get(1), e.getValue().longValue()))));
+    }),
+    DATABASE_CALLS(plugin -> getLatencies(plugin, Metric.DATABASE_CALLS)),
+    DATABASE_POOL(plugin -> {
+        final Map<String, Double> pool = sumBy(
+                plugin.getMetricsRegistry().getValues(Metric.DATABASE_POOL_CONNECTIONS), 0
+        );
+        return pool.isEmpty() ? Component.text("N/A") : Component.text(
+                "%d active, %d idle, %d waiting".formatted(pool.getOrDefault("active", 0d).intValue(),
+                        pool.getOrDefault("idle", 0d).intValue(), pool.getOrDefault("awaiting", 0d).intValue())
+        );
+    }),
+    TASK_QUEUE(plugin -> Component.text("%s queued writes".formatted(plugin.getTaskQueue().size()))),
+    BROKER_MESSAGES(plugin -> {
+        final Map<String, Double> directions = sumBy(
+                plugin.getMetricsRegistry().getValues(Metric.BROKER_MESSAGES), 0
+        );
+        return Component.text("%,d sent, %,d received".formatted(
+                directions.getOrDefault("sent", 0d).longValue(), directions.getOrDefault("received", 0d).longValue()
+        )).hoverEvent(getBreakdown(plugin.getMetricsRegistry().getValues(Metric.BROKER_MESSAGES).entrySet().stream()
+                .map(e -> "%s %s: %,d".formatted(e.getKey().get(0), e.getKey().get(1), e.getValue().longValue()))));
+    }),
+    CACHE_HIT_RATIOS(plugin -> {
+        final Map<String, double[]> caches = new TreeMap<>();
+        plugin.getMetricsRegistry().getValues(Metric.CACHE_LOOKUPS).forEach((labels, value) -> caches
+                .computeIfAbsent(labels.get(0), k -> new double[2])[labels.get(1).equals("hit") ? 0 : 1] += value);
+        return caches.isEmpty() ? Component.text("N/A") : Component.text(caches.entrySet().stream()
+                .map(e -> "%s %.1f%%".formatted(e.getKey(),
+                        e.getValue()[0] * 100 / (e.getValue()[0] + e.getValue()[1])))
+                .collect(Collectors.joining(", ")));
+    }),
+    EVENT_DISPATCHES(plugin -> {
+        final Map<String, Double> dispatches = sumBy(
+                plugin.getMetricsRegistry().getValues(Metric.EVENT_DISPATCHES), 1
+        );
+        return Component.text("%,d inline, %,d scheduled, %,d skipped".formatted(
+                dispatches.getOrDefault("inline", 0d).longValue(), dispatches.getOrDefault("scheduled", 0d).longValue(),
+                dispatches.getOrDefault("skipped", 0d).longValue()
+        ));
+    }),
     LOADED_HOOKS(plugin -> Component.join(
             JoinConfiguration.commas(true),
             plugin.getHooks().stream().filter(hook -> !(hook instanceof Importer))
@@ -99,6 +162,41 @@ public enum StatusLine {
         return PlainTextComponentSerializer.plainText().serialize(supplier.apply(plugin));
     }
 
+    // Get the overall latency of a histogram metric, with the latency of each of its histograms on hover
+    @NotNull
+    private static Component getLatencies(@NotNull HuskClaims plugin, @NotNull Metric metric) {
+        final Map<List<String>, Histogram.Snapshot> snapshots = plugin.getMetricsRegistry().getSnapshots(metric);
+        final Histogram.Snapshot total = snapshots.values().stream()
+                .reduce(Histogram.Snapshot.EMPTY, Histogram.Snapshot::merge);
+        return Component.text(getLatency(total)).hoverEvent(getBreakdown(snapshots.entrySet().stream()
+                .map(e -> "%s: %s".formatted(String.join(" ", e.getKey()), getLatency(e.getValue())))));
+    }
+
+    @NotNull
+    private static String getLatency(@NotNull Histogram.Snapshot snapshot) {
+        if (snapshot.count() == 0) {
+            return "N/A";
+        }
+        return "p50 %s, p99 %s, max %s (%,d calls)".formatted(
+                Histogram.formatDuration(snapshot.getQuantile(0.5)),
+                Histogram.formatDuration(snapshot.getQuantile(0.99)),
+                Histogram.formatDuration(snapshot.max()), snapshot.count()
+        );
+    }
+
+    // Total the values of a metric by one of its labels
+    @NotNull
+    private static Map<String, Double> sumBy(@NotNull Map<List<String>, Double> values, int label) {
+        final Map<String, Double> totals = new TreeMap<>();
+        values.forEach((labels, value) -> totals.merge(labels.get(label), value, Double::sum));
+        return totals;
+    }
+
+    @NotNull
+    private static Component getBreakdown(@NotNull Stream<String> lines) {
+        return Component.join(JoinConfiguration.newlines(), lines.map(Component::text).toList());
+    }
+
     @NotNull
     private static Component getBoolean(boolean value) {
         return Component.text(value ? "Yes" : "No", value ? NamedTextColor.GREEN : NamedTextColor.RED);
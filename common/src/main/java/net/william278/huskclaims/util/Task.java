@@ -107,6 +107,11 @@ public interface Task extends Runnable {
         Task.Repeating getRepeatingTask(@NotNull Runnable runnable, @NotNull Duration repeatPeriod,
                                         @NotNull Duration initialDelay);
 
+        // Whether the current thread is the one sync tasks are run on
+        default boolean isSyncThread() {
+            return false;
+        }
+
         @NotNull
         default Task.Sync runSyncDelayed(@NotNull Runnable runnable, Duration initialDelay) {
             final Task.Sync task = getSyncTask(runnable, initialDelay);
@@ -0,0 +1,182 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.util.datastrcture;
+
+import net.william278.cloplib.operation.OperationType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A compact, thread-safe set of {@link OperationType}s, held as a bitset.
+ * <p>
+ * Each operation type is assigned a bit the first time any set sees it. The first 64 types are held in a single
+ * {@code long}, so a set is one small object however many types it holds; any types beyond these are held in an
+ * overflow set, created only when needed. Reads are lock-free, while writes are synchronized. Iterators are weakly
+ * consistent, iterating the types held when they were created, in the order the types were first seen.
+ *
+ * @since 1.5.12
+ */
+public class OperationTypeSet extends AbstractSet<OperationType> {
+
+    private static final int WORD_BITS = Long.SIZE;
+
+    // Bit indices of operation types, assigned in the order they are first seen
+    private static final ConcurrentMap<OperationType, Integer> INDICES = new ConcurrentHashMap<>();
+    private static final List<OperationType> TYPES = new CopyOnWriteArrayList<>();
+
+    private volatile long bits;
+    @Nullable
+    private volatile Set<OperationType> overflow;
+
+    public OperationTypeSet() {
+    }
+
+    public OperationTypeSet(@NotNull Collection<OperationType> types) {
+        addAll(types);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof OperationType type)) {
+            return false;
+        }
+        final Integer index = INDICES.get(type);
+        if (index == null) {
+            return false;
+        }
+        if (index < WORD_BITS) {
+            return (bits & (1L << index)) != 0;
+        }
+        final Set<OperationType> overflow = this.overflow;
+        return overflow != null && overflow.contains(type);
+    }
+
+    @Override
+    public synchronized boolean add(@NotNull OperationType type) {
+        final int index = getIndex(type);
+        if (index < WORD_BITS) {
+            final long bit = 1L << index;
+            if ((bits & bit) != 0) {
+                return false;
+            }
+            bits |= bit;
+            return true;
+        }
+        if (overflow == null) {
+            overflow = ConcurrentHashMap.newKeySet();
+        }
+        return overflow.add(type);
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+        if (!(o instanceof OperationType type)) {
+            return false;
+        }
+        final Integer index = INDICES.get(type);
+        if (index == null) {
+            return false;
+        }
+        if (index < WORD_BITS) {
+            final long bit = 1L << index;
+            if ((bits & bit) == 0) {
+                return false;
+            }
+            bits &= ~bit;
+            return true;
+        }
+        return overflow != null && overflow.remove(type);
+    }
+
+    @Override
+    public synchronized void clear() {
+        bits = 0;
+        overflow = null;
+    }
+
+    @Override
+    public int size() {
+        final Set<OperationType> overflow = this.overflow;
+        return Long.bitCount(bits) + (overflow != null ? overflow.size() : 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @NotNull
+    @Override
+    public Iterator<OperationType> iterator() {
+        final long snapshot = bits;
+        final Set<OperationType> overflow = this.overflow;
+        final Iterator<OperationType> overflowing = overflow != null
+                ? List.copyOf(overflow).iterator() : Collections.emptyIterator();
+        return new Iterator<>() {
+            private long remaining = snapshot;
+            @Nullable
+            private OperationType last;
+
+            @Override
+            public boolean hasNext() {
+                return remaining != 0 || overflowing.hasNext();
+            }
+
+            @Override
+            public OperationType next() {
+                if (remaining == 0) {
+                    return last = overflowing.next();
+                }
+                final int index = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                return last = TYPES.get(index);
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException("next() has not been called");
+                }
+                OperationTypeSet.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    // Get the bit index of an operation type, assigning it the next index if it hasn't been seen before
+    private static int getIndex(@NotNull OperationType type) {
+        final Integer index = INDICES.get(type);
+        if (index != null) {
+            return index;
+        }
+        synchronized (TYPES) {
+            return INDICES.computeIfAbsent(type, t -> {
+                TYPES.add(t);
+                return TYPES.size() - 1;
+            });
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.claim;
+
+import com.google.common.collect.Sets;
+import net.william278.huskclaims.claim.ClaimWorld.ChunkOccupancy;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Chunk Occupancy Tests")
+public class ChunkOccupancyTests {
+
+    @Test
+    @DisplayName("Test Chunks Are Classified By Claim Coverage")
+    public void testClassification() {
+        final Claim covering = createClaim(0, 0, 47, 40);
+        final Claim neighbour = createClaim(48, 0, 60, 10);
+        final ClaimWorld world = ClaimWorld.convert(Set.of(covering, neighbour), Map.of(), Set.of());
+
+        assertEquals(ChunkOccupancy.SINGLE, world.getChunkOccupancy(chunk(0, 0)));
+        assertEquals(ChunkOccupancy.SINGLE, world.getChunkOccupancy(chunk(2, 1)));
+        assertEquals(ChunkOccupancy.MIXED, world.getChunkOccupancy(chunk(0, 2)));
+        assertEquals(ChunkOccupancy.MIXED, world.getChunkOccupancy(chunk(3, 0)));
+        assertEquals(ChunkOccupancy.UNCLAIMED, world.getChunkOccupancy(chunk(5, 5)));
+        assertEquals(ChunkOccupancy.UNCLAIMED, world.getChunkOccupancy(chunk(-1, 0)));
+
+        // Claims with children are not treated as covering a chunk alone
+        covering.addChild(createClaim(2, 2, 4, 4));
+        assertEquals(ChunkOccupancy.MIXED, world.getChunkOccupancy(chunk(0, 0)));
+    }
+
+    @Test
+    @DisplayName("Test Classification Updates As Claims Change")
+    public void testIncrementalUpdates() {
+        final Claim claim = createClaim(0, 0, 31, 31);
+        final ClaimWorld world = ClaimWorld.convert(Set.of(claim), Map.of(), Set.of());
+        assertEquals(ChunkOccupancy.SINGLE, world.getChunkOccupancy(chunk(1, 1)));
+
+        world.resizeClaim(claim, Region.from(Region.Point.at(0, 0), Region.Point.at(20, 20)));
+        assertEquals(ChunkOccupancy.SINGLE, world.getChunkOccupancy(chunk(0, 0)));
+        assertEquals(ChunkOccupancy.MIXED, world.getChunkOccupancy(chunk(1, 1)));
+        assertTrue(world.getParentClaimAt(Region.Point.at(25, 25)).isEmpty());
+
+        final Claim overlapping = createClaim(10, 10, 12, 12);
+        world.addClaim(overlapping);
+        assertEquals(ChunkOccupancy.MIXED, world.getChunkOccupancy(chunk(0, 0)));
+        world.removeClaim(overlapping);
+        assertEquals(ChunkOccupancy.SINGLE, world.getChunkOccupancy(chunk(0, 0)));
+
+        world.removeClaim(claim);
+        assertEquals(ChunkOccupancy.UNCLAIMED, world.getChunkOccupancy(chunk(0, 0)));
+        assertTrue(world.getParentClaimAt(Region.Point.at(5, 5)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Claim Lookups Match Region Checks")
+    public void testLookupEquivalence() {
+        final Random random = new Random(278);
+        final Set<Claim> claims = new HashSet<>();
+        for (int i = 0; i < 400; i++) {
+            final int x = (i % 20) * 80 + random.nextInt(8), z = (i / 20) * 80 + random.nextInt(8);
+            claims.add(createClaim(x, z, x + 8 + random.nextInt(64), z + 8 + random.nextInt(64)));
+        }
+        final ClaimWorld world = ClaimWorld.convert(claims, Map.of(), Set.of());
+
+        int single = 0;
+        for (int i = 0; i < 50_000; i++) {
+            final Region.Point point = Region.Point.at(random.nextInt(1700) - 50, random.nextInt(1700) - 50);
+            final Optional<Claim> expected = claims.stream()
+                    .filter(claim -> claim.getRegion().contains(point)).findFirst();
+            assertEquals(expected, world.getParentClaimAt(point));
+            if (world.getChunkOccupancy(point.getLongChunkCoords()) == ChunkOccupancy.SINGLE) {
+                single++;
+            }
+        }
+        assertTrue(single > 0);
+    }
+
+    private static long chunk(int x, int z) {
+        return ((long) x << 32) | (z & 0xffffffffL);
+    }
+
+    @NotNull
+    private static Claim createClaim(int x1, int z1, int x2, int z2) {
+        return new Claim(UUID.randomUUID(), Region.from(Region.Point.at(x1, z1), Region.Point.at(x2, z2)),
+                new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(),
+                new ConcurrentHashMap<>(), Sets.newConcurrentHashSet(), true, Set.of(), false);
+    }
+
+}
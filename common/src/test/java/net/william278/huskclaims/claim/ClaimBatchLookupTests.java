@@ -0,0 +1,91 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.claim;
+
+import com.google.common.collect.Sets;
+import net.william278.huskclaims.position.Position;
+import net.william278.huskclaims.position.World;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Claim Batch Lookup Tests")
+public class ClaimBatchLookupTests {
+
+    private static final World WORLD = World.of("world", UUID.randomUUID(), "normal");
+
+    @Test
+    @DisplayName("Test Batch Lookups Match Single Lookups")
+    public void testBatchEquivalence() {
+        final Random random = new Random(278);
+        final ClaimWorld world = createWorld(random);
+        for (int i = 0; i < 200; i++) {
+            final List<Position> blast = getExplosion(random.nextInt(1600), random.nextInt(1600), 3 + random.nextInt(6));
+            final Claim[] batch = world.getClaimsAt(blast);
+            for (int j = 0; j < blast.size(); j++) {
+                assertSame(world.getClaimAt(blast.get(j)).orElse(null), batch[j]);
+            }
+        }
+    }
+
+    // Create a world of claims on a grid, some with child claims
+    @NotNull
+    private static ClaimWorld createWorld(@NotNull Random random) {
+        final Set<Claim> claims = new HashSet<>();
+        for (int i = 0; i < 400; i++) {
+            final int x = (i % 20) * 80 + random.nextInt(8), z = (i / 20) * 80 + random.nextInt(8);
+            final Claim claim = createClaim(x, z, x + 24 + random.nextInt(48), z + 24 + random.nextInt(48));
+            if (i % 5 == 0) {
+                claim.addChild(createClaim(x + 2, z + 2, x + 12, z + 12));
+            }
+            claims.add(claim);
+        }
+        return ClaimWorld.convert(claims, Map.of(), Set.of());
+    }
+
+    // Get the block positions in a sphere, as destroyed by an explosion
+    @NotNull
+    private static List<Position> getExplosion(int centerX, int centerZ, int radius) {
+        final List<Position> blocks = new ArrayList<>();
+        for (int x = -radius; x <= radius; x++) {
+            for (int y = -radius; y <= radius; y++) {
+                for (int z = -radius; z <= radius; z++) {
+                    if (x * x + y * y + z * z <= radius * radius) {
+                        blocks.add(Position.at(centerX + x, 64 + y, centerZ + z, WORLD));
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+
+    @NotNull
+    private static Claim createClaim(int x1, int z1, int x2, int z2) {
+        return new Claim(UUID.randomUUID(), Region.from(Region.Point.at(x1, z1), Region.Point.at(x2, z2)),
+                new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(),
+                new ConcurrentHashMap<>(), Sets.newConcurrentHashSet(), true, Set.of(), false);
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.claim;
+
+import com.google.common.collect.Sets;
+import com.google.gson.JsonObject;
+import net.william278.cloplib.operation.OperationType;
+import net.william278.huskclaims.FakeHuskClaims;
+import net.william278.huskclaims.trust.TrustLevel;
+import net.william278.huskclaims.trust.TrustTag;
+import net.william278.huskclaims.trust.UserGroup;
+import net.william278.huskclaims.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Claim Serialization Tests")
+public class ClaimSerializationTests {
+
+    private FakeHuskClaims plugin;
+
+    @BeforeEach
+    public void setup() {
+        plugin = FakeHuskClaims.create();
+    }
+
+    @AfterEach
+    public void teardown() {
+        plugin.close();
+    }
+
+    @Test
+    @DisplayName("Test Claims Survive A Round Trip")
+    public void testRoundTrip() {
+        final UUID trusted = UUID.randomUUID();
+        final Claim claim = createClaim(0, 0, 63, 63, Set.of(OperationType.BLOCK_BREAK, OperationType.CONTAINER_OPEN));
+        claim.setUserTrustLevel(trusted, plugin.getLowestTrustLevel());
+        claim.banUser(User.of(UUID.randomUUID(), "banned"), User.of(UUID.randomUUID(), "arbiter"));
+        claim.addChild(createClaim(4, 4, 12, 12, Set.of()));
+        final Claim bare = createClaim(100, 100, 120, 120, Set.of());
+
+        final ClaimWorld decoded = roundTrip(plugin, ClaimWorld.convert(Set.of(claim, bare), Map.of(), Set.of()));
+        final Claim decodedClaim = decoded.getClaimAt(claim.getRegion().getCenter()).orElseThrow();
+        assertEquals(claim.getRegion(), decodedClaim.getRegion());
+        assertEquals(claim.getTrustedUsersView(), decodedClaim.getTrustedUsersView());
+        assertEquals(claim.getBannedUsersView(), decodedClaim.getBannedUsersView());
+        assertEquals(claim.getDefaultFlags(), decodedClaim.getDefaultFlags());
+        assertEquals(1, decodedClaim.getChildrenView().size());
+        assertSame(decodedClaim, decodedClaim.getChildrenView().iterator().next().getParent().orElseThrow());
+        assertEquals(claim.getCreationTime().map(OffsetDateTime::toInstant),
+                decodedClaim.getCreationTime().map(OffsetDateTime::toInstant));
+
+        // Collections of decoded claims can still be written to
+        final Claim decodedBare = decoded.getClaimAt(bare.getRegion().getCenter()).orElseThrow();
+        assertTrue(decodedBare.getTrustedUsersView().isEmpty());
+        decodedBare.setUserTrustLevel(trusted, plugin.getLowestTrustLevel());
+        decodedBare.addChild(createClaim(104, 104, 110, 110, Set.of()));
+        assertEquals(1, decodedBare.getTrustedUsersView().size());
+        assertEquals(1, decodedBare.getChildrenView().size());
+        assertTrue(decodedClaim.getDefaultFlags().remove(OperationType.BLOCK_BREAK));
+        assertEquals(Set.of(OperationType.CONTAINER_OPEN), decodedClaim.getDefaultFlags());
+    }
+
+    @Test
+    @DisplayName("Test Decoded Claim Collections Can Be Written To")
+    public void testDecodedClaimsAreWritable() {
+        final ClaimWorld world = ClaimWorld.convert(Set.of(createClaim(0, 0, 31, 31, Set.of())), Map.of(), Set.of());
+        final Claim claim = roundTrip(plugin, world).getClaims().iterator().next();
+        final TrustLevel level = plugin.getLowestTrustLevel();
+        final UUID user = UUID.randomUUID();
+
+        claim.setUserTrustLevel(user, level);
+        claim.setGroupTrustLevel(new UserGroup(user, "group", List.of()), level);
+        claim.setTagTrustLevel(TrustTag.getDeletedTag("tag"), level);
+        claim.banUser(User.of(UUID.randomUUID(), "banned"), User.of(user, "arbiter"));
+        claim.addChild(createClaim(4, 4, 12, 12, Set.of()));
+        assertEquals(Map.of(user, level.getId()), claim.getTrustedUsersView());
+        assertEquals(Map.of("group", level.getId()), claim.getTrustedGroupsView());
+        assertEquals(Map.of("tag", level.getId()), claim.getTrustedTagsView());
+        assertEquals(1, claim.getBannedUsersView().size());
+        assertEquals(1, claim.getChildrenView().size());
+    }
+
+    @Test
+    @DisplayName("Test Stored Creation Times Are Read")
+    public void testCreationTimes() {
+        final ClaimWorld world = ClaimWorld.convert(Set.of(createClaim(0, 0, 31, 31, Set.of())), Map.of(), Set.of());
+        final String stored = "2024-03-01T12:30:00.123456789+01:00";
+
+        final JsonObject json = plugin.getGson().toJsonTree(world).getAsJsonObject();
+        final JsonObject claim = json.getAsJsonArray("claims").get(0).getAsJsonObject();
+        assertTrue(claim.get("creation_time").getAsJsonPrimitive().isString());
+        claim.addProperty("creation_time", stored);
+        assertEquals(OffsetDateTime.parse(stored).toInstant().truncatedTo(ChronoUnit.MILLIS),
+                getCreationTime(plugin, json).orElseThrow().toInstant());
+
+        claim.remove("creation_time");
+        assertTrue(getCreationTime(plugin, json).isEmpty());
+        claim.addProperty("creation_time", "not a time");
+        assertTrue(getCreationTime(plugin, json).isEmpty());
+    }
+
+    @NotNull
+    private static ClaimWorld roundTrip(@NotNull FakeHuskClaims plugin, @NotNull ClaimWorld world) {
+        return plugin.getClaimWorldFromJson(0, plugin.getGson().toJson(world));
+    }
+
+    @NotNull
+    private static Optional<OffsetDateTime> getCreationTime(@NotNull FakeHuskClaims plugin, @NotNull JsonObject json) {
+        final ClaimWorld world = plugin.getClaimWorldFromJson(0, plugin.getGson().toJson(json));
+        final Claim claim = world.getClaims().iterator().next();
+
+        // Unknown creation times are omitted when the claim is saved again, as they were before
+        final JsonObject saved = plugin.getGson().toJsonTree(world).getAsJsonObject()
+                .getAsJsonArray("claims").get(0).getAsJsonObject();
+        assertEquals(claim.getCreationTime().isPresent(), saved.has("creation_time"));
+        return claim.getCreationTime();
+    }
+
+    @NotNull
+    private static Claim createClaim(int x1, int z1, int x2, int z2, @NotNull Set<OperationType> flags) {
+        return new Claim(UUID.randomUUID(), Region.from(Region.Point.at(x1, z1), Region.Point.at(x2, z2)),
+                new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(),
+                new ConcurrentHashMap<>(), Sets.newConcurrentHashSet(), true, flags, false);
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.claim;
+
+import com.google.common.collect.Sets;
+import net.william278.huskclaims.trust.TrustLevel;
+import net.william278.huskclaims.trust.TrustLevelTable;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Claim Trust Level Tests")
+public class ClaimTrustLevelTests {
+
+    private static final List<TrustLevel> LEVELS = List.of(
+            level("manage", 400), level("build", 300), level("container", 200), level("access", 100)
+    );
+    private static final TrustLevelTable TABLE = new TrustLevelTable(LEVELS);
+
+    @Test
+    @DisplayName("Test Table Lookups Match Scanning Levels")
+    public void testLookupEquivalence() {
+        for (String id : List.of("manage", "BUILD", "Container", "access", "unknown", "", "buildx")) {
+            assertEquals(scan(id), TABLE.find(id), id);
+        }
+        assertEquals(TrustLevelTable.NO_HANDLE, TABLE.getHandle("unknown"));
+        assertSame(LEVELS.get(1), TABLE.get(TABLE.getHandle("Build")));
+    }
+
+    @Test
+    @DisplayName("Test Interning Only Replaces Exact IDs")
+    public void testIntern() {
+        final String copy = new String("build");
+        assertSame(LEVELS.get(1).getId(), TABLE.intern(copy));
+        final String differentCase = "Build";
+        assertSame(differentCase, TABLE.intern(differentCase));
+        final String unknown = "unknown";
+        assertSame(unknown, TABLE.intern(unknown));
+    }
+
+    @Test
+    @DisplayName("Test Interning Shares Trust Level IDs Across Claims")
+    public void testInternClaims() {
+        final int claimCount = 1_000;
+        final List<Claim> claims = new ArrayList<>(claimCount);
+        final Random random = new Random(278);
+        for (int i = 0; i < claimCount; i++) {
+            claims.add(createClaim(i, random));
+        }
+
+        // Trust level IDs decoded from JSON are each their own String instance
+        assertEquals(claimCount * 5, countIdInstances(claims));
+        claims.forEach(claim -> claim.internTrustLevels(TABLE));
+        assertEquals(LEVELS.size(), countIdInstances(claims));
+        claims.forEach(claim -> claim.getTrustedUsersView().values()
+                .forEach(id -> assertEquals(scan(id), TABLE.find(id), id)));
+    }
+
+    @NotNull
+    private static Claim createClaim(int index, @NotNull Random random) {
+        final ConcurrentHashMap<UUID, String> users = new ConcurrentHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            users.put(UUID.randomUUID(), new String(LEVELS.get(random.nextInt(LEVELS.size())).getId()));
+        }
+        final ConcurrentHashMap<String, String> groups = new ConcurrentHashMap<>(Map.of("friends", new String("build")));
+        final ConcurrentHashMap<String, String> tags = new ConcurrentHashMap<>(Map.of("#public", new String("access")));
+        final int x = (index % 1000) * 32, z = (index / 1000) * 32;
+        return new Claim(UUID.randomUUID(), Region.from(Region.Point.at(x, z), Region.Point.at(x + 20, z + 20)),
+                users, groups, tags, new ConcurrentHashMap<>(), Sets.newConcurrentHashSet(), true, Set.of(), false);
+    }
+
+    // Count the distinct String instances used as trust level IDs across claims
+    private static int countIdInstances(@NotNull List<Claim> claims) {
+        final Set<String> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+        claims.forEach(claim -> {
+            instances.addAll(claim.getTrustedUsersView().values());
+            instances.addAll(claim.getTrustedGroupsView().values());
+            instances.addAll(claim.getTrustedTagsView().values());
+        });
+        return instances.size();
+    }
+
+    @NotNull
+    private static Optional<TrustLevel> scan(@NotNull String id) {
+        return LEVELS.stream().filter(level -> level.getId().equalsIgnoreCase(id)).findFirst();
+    }
+
+    @NotNull
+    private static TrustLevel level(@NotNull String id, int weight) {
+        return TrustLevel.builder().id(id).displayName(id).description(id).weight(weight).build();
+    }
+
+}
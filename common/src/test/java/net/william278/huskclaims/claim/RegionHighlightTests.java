@@ -0,0 +1,110 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.claim;
+
+import net.william278.huskclaims.highlighter.Highlightable;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Region Highlight Tests")
+public class RegionHighlightTests {
+
+    private static final long RANGE = 78;
+    private static final int STEP = 10;
+
+    @Test
+    @DisplayName("Test Huge Region Only Generates Nearby Edge Points")
+    public void testHugeRegionEdge() {
+        final Region region = Region.from(Region.Point.at(-10000, -10000), Region.Point.at(10000, 10000));
+        final Map<Region.Point, Highlightable.Type> points = region.getHighlightPoints(
+                false, false, true, Region.Point.at(0, -10000), RANGE
+        );
+
+        // Points every STEP blocks from x = -70 to x = 70 along the north edge
+        assertEquals(15, points.size());
+        points.forEach((point, type) -> {
+            assertEquals(-10000, point.getBlockZ());
+            assertEquals(Highlightable.Type.ADMIN_EDGE, type);
+        });
+    }
+
+    @Test
+    @DisplayName("Test Huge Region Generates No Points Far From Edges")
+    public void testHugeRegionCenter() {
+        final Region region = Region.from(Region.Point.at(-10000, -10000), Region.Point.at(10000, 10000));
+        assertTrue(region.getHighlightPoints(false, false, false, Region.Point.at(0, 0), RANGE).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Clipped Edge Points Match Filtering Every Edge Point")
+    public void testClippedMatchesFiltered() {
+        final Random random = new Random(278);
+        for (int i = 0; i < 5000; i++) {
+            final int nearX = random.nextInt(1000) - 500;
+            final int nearZ = random.nextInt(1000) - 500;
+            final Region region = Region.from(
+                    Region.Point.at(nearX, nearZ),
+                    Region.Point.at(nearX + random.nextInt(400), nearZ + random.nextInt(400))
+            );
+            final Region.Point viewer = Region.Point.at(random.nextInt(1400) - 700, random.nextInt(1400) - 700);
+            final Set<Region.Point> generated = region.getHighlightPoints(false, false, false, viewer, RANGE)
+                    .keySet().stream().filter(point -> isOnEdgeStep(region, point))
+                    .collect(Collectors.toSet());
+
+            // Generate every point along the edges, then filter by distance
+            final Region.Point near = region.getNearCorner();
+            final Region.Point far = region.getFarCorner();
+            final Set<Region.Point> expected = new HashSet<>();
+            for (int x = near.getBlockX() + STEP; x < far.getBlockX(); x += STEP) {
+                expected.add(Region.Point.at(x, near.getBlockZ()));
+                expected.add(Region.Point.at(x, far.getBlockZ()));
+            }
+            for (int z = near.getBlockZ() + STEP; z < far.getBlockZ(); z += STEP) {
+                expected.add(Region.Point.at(near.getBlockX(), z));
+                expected.add(Region.Point.at(far.getBlockX(), z));
+            }
+            expected.removeIf(point -> point.distanceFrom(viewer) > RANGE);
+            assertEquals(expected, generated);
+        }
+    }
+
+    // Returns if a point is one of the evenly spaced points along an edge, between the corners
+    private static boolean isOnEdgeStep(@NotNull Region region, @NotNull Region.Point point) {
+        final Region.Point near = region.getNearCorner();
+        final Region.Point far = region.getFarCorner();
+        final boolean onXEdge = (point.getBlockZ() == near.getBlockZ() || point.getBlockZ() == far.getBlockZ())
+                && point.getBlockX() > near.getBlockX() && point.getBlockX() < far.getBlockX()
+                && (point.getBlockX() - near.getBlockX()) % STEP == 0;
+        final boolean onZEdge = (point.getBlockX() == near.getBlockX() || point.getBlockX() == far.getBlockX())
+                && point.getBlockZ() > near.getBlockZ() && point.getBlockZ() < far.getBlockZ()
+                && (point.getBlockZ() - near.getBlockZ()) % STEP == 0;
+        return onXEdge || onZEdge;
+    }
+
+}
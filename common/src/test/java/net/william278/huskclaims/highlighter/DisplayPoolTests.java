@@ -0,0 +1,127 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.highlighter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Display Pool Tests")
+public class DisplayPoolTests {
+
+    @Test
+    @DisplayName("Test Released Displays Are Reused")
+    public void testReuse() {
+        final DisplayPool<Object> pool = new DisplayPool<>(10, 100, 60_000);
+        final AtomicInteger spawned = new AtomicInteger();
+        final UUID user = UUID.randomUUID();
+
+        final Object display = pool.acquire(user, d -> true, () -> spawned.incrementAndGet() + "");
+        assertNotNull(display);
+        pool.release(user, display);
+        assertSame(display, pool.acquire(user, d -> true, () -> spawned.incrementAndGet() + ""));
+        assertEquals(1, spawned.get());
+        assertEquals(1, pool.getLiveCount());
+    }
+
+    @Test
+    @DisplayName("Test Per-Player And Server-Wide Caps")
+    public void testCaps() {
+        final DisplayPool<Object> pool = new DisplayPool<>(3, 5, 60_000);
+        final UUID first = UUID.randomUUID();
+        final UUID second = UUID.randomUUID();
+
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(pool.acquire(first, d -> true, Object::new));
+        }
+        assertNull(pool.acquire(first, d -> true, Object::new));
+
+        assertNotNull(pool.acquire(second, d -> true, Object::new));
+        assertNotNull(pool.acquire(second, d -> true, Object::new));
+        assertNull(pool.acquire(second, d -> true, Object::new));
+        assertEquals(5, pool.getLiveCount());
+    }
+
+    @Test
+    @DisplayName("Test Idle Pools Are Reclaimed")
+    public void testReclaim() {
+        final DisplayPool<Object> pool = new DisplayPool<>(10, 100, 0);
+        final UUID user = UUID.randomUUID();
+        final List<Object> acquired = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            acquired.add(pool.acquire(user, d -> true, Object::new));
+        }
+        acquired.subList(0, 3).forEach(display -> pool.release(user, display));
+
+        final List<Object> removed = new ArrayList<>();
+        pool.reclaimIdle(removed::add);
+        assertEquals(3, removed.size());
+        assertEquals(1, pool.getLiveCount());
+    }
+
+    @Test
+    @DisplayName("Test Unusable Idle Displays Are Dropped")
+    public void testUnusableDropped() {
+        final DisplayPool<Object> pool = new DisplayPool<>(10, 100, 60_000);
+        final UUID user = UUID.randomUUID();
+        final Object stale = pool.acquire(user, d -> true, Object::new);
+        assertNotNull(stale);
+        pool.release(user, stale);
+
+        final Object fresh = pool.acquire(user, d -> d != stale, Object::new);
+        assertNotSame(stale, fresh);
+        assertEquals(1, pool.getLiveCount());
+    }
+
+    @Test
+    @DisplayName("Test Quitting Removes Displays In Use")
+    public void testReleaseAll() {
+        final DisplayPool<Object> pool = new DisplayPool<>(3, 3, 60_000);
+        final UUID quitter = UUID.randomUUID();
+        final List<Object> acquired = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            acquired.add(pool.acquire(quitter, d -> true, Object::new));
+        }
+        pool.release(quitter, acquired.get(0));
+        assertNull(pool.acquire(UUID.randomUUID(), d -> true, Object::new));
+
+        final List<Object> removed = new ArrayList<>();
+        pool.releaseAll(quitter, removed::add);
+        assertEquals(3, removed.size());
+        assertTrue(removed.containsAll(acquired));
+        assertEquals(0, pool.getLiveCount());
+
+        // Hiding a removed display afterward must not return it to a pool
+        pool.release(quitter, acquired.get(1));
+        assertEquals(0, pool.getLiveCount());
+        final UUID other = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(pool.acquire(other, d -> true, Object::new));
+        }
+        assertEquals(3, pool.getLiveCount());
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.highlighter;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.william278.huskclaims.highlighter.BlockHighlighter.Diff;
+import net.william278.huskclaims.highlighter.BlockHighlighter.HighlightBlock;
+import net.william278.huskclaims.position.Position;
+import net.william278.huskclaims.position.World;
+import net.william278.huskclaims.util.BlockProvider;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Highlight Diff Tests")
+public class HighlightDiffTests {
+
+    private static final World WORLD = World.of("world", UUID.randomUUID(), "normal");
+    private static final World NETHER = World.of("world_nether", UUID.randomUUID(), "nether");
+    private static final BlockProvider.MaterialBlock STONE = new BlockProvider.MaterialBlock() {
+        @NotNull
+        @Override
+        public String getMaterialKey() {
+            return "minecraft:stone";
+        }
+    };
+
+    @Test
+    @DisplayName("Test Unchanged Highlight Sends Nothing")
+    public void testUnchangedHighlight() {
+        final Map<HighlightBlock, Highlightable.Type> blocks = getLine(0, 100, Highlightable.Type.EDGE);
+        final Diff<HighlightBlock> first = Diff.compute(new Long2ObjectOpenHashMap<>(), blocks, HighlightDiffTests::create);
+        assertEquals(100, first.getAdded().size());
+        assertTrue(first.getRemoved().isEmpty());
+
+        final Diff<HighlightBlock> second = Diff.compute(first.getHighlighted(), getLine(0, 100, Highlightable.Type.EDGE),
+                HighlightDiffTests::create);
+        assertTrue(second.isEmpty());
+        assertEquals(100, second.getHighlighted().size());
+    }
+
+    @Test
+    @DisplayName("Test Moved Highlight Only Sends Changed Blocks")
+    public void testMovedHighlight() {
+        final Long2ObjectMap<HighlightBlock> shown = Diff.compute(new Long2ObjectOpenHashMap<>(),
+                getLine(0, 100, Highlightable.Type.EDGE), HighlightDiffTests::create).getHighlighted();
+
+        final Diff<HighlightBlock> moved = Diff.compute(shown, getLine(10, 100, Highlightable.Type.EDGE),
+                HighlightDiffTests::create);
+        assertEquals(10, moved.getAdded().size());
+        assertEquals(10, moved.getRemoved().size());
+        assertEquals(100, moved.getHighlighted().size());
+        moved.getRemoved().forEach(block -> assertTrue(block.getPosition().getX() < 10));
+        moved.getAdded().forEach(block -> assertTrue(block.getPosition().getX() >= 100));
+    }
+
+    @Test
+    @DisplayName("Test Retyped Blocks Are Replaced")
+    public void testRetypedHighlight() {
+        final Long2ObjectMap<HighlightBlock> shown = Diff.compute(new Long2ObjectOpenHashMap<>(),
+                getLine(0, 50, Highlightable.Type.EDGE), HighlightDiffTests::create).getHighlighted();
+
+        final Diff<HighlightBlock> retyped = Diff.compute(shown, getLine(0, 50, Highlightable.Type.OVERLAP_EDGE),
+                HighlightDiffTests::create);
+        assertEquals(50, retyped.getAdded().size());
+        assertEquals(50, retyped.getRemoved().size());
+        retyped.getAdded().forEach(block -> assertEquals(Highlightable.Type.OVERLAP_EDGE, block.getType()));
+    }
+
+    @Test
+    @DisplayName("Test Repeated Refreshes Only Send Moved Blocks")
+    public void testRepeatedRefreshes() {
+        final int points = 1_000;
+        Long2ObjectMap<HighlightBlock> shown = Diff.compute(new Long2ObjectOpenHashMap<>(),
+                getLine(0, points, Highlightable.Type.EDGE), HighlightDiffTests::create).getHighlighted();
+
+        // Each refresh, the viewer has moved three blocks along the line
+        for (int i = 1; i <= 50; i++) {
+            final Diff<HighlightBlock> diff = Diff.compute(shown, getLine(i * 3, points, Highlightable.Type.EDGE),
+                    HighlightDiffTests::create);
+            assertEquals(3, diff.getAdded().size());
+            assertEquals(3, diff.getRemoved().size());
+            shown = diff.getHighlighted();
+            assertEquals(points, shown.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Test Same Coordinates In Another World Are Replaced")
+    public void testWorldChange() {
+        final Long2ObjectMap<HighlightBlock> shown = Diff.compute(new Long2ObjectOpenHashMap<>(),
+                getLine(0, 50, Highlightable.Type.EDGE), HighlightDiffTests::create).getHighlighted();
+
+        final Diff<HighlightBlock> switched = Diff.compute(shown, getLine(0, 50, Highlightable.Type.EDGE, NETHER),
+                HighlightDiffTests::create);
+        assertEquals(50, switched.getAdded().size());
+        assertEquals(50, switched.getRemoved().size());
+        switched.getAdded().forEach(block -> assertEquals(NETHER, block.getPosition().getWorld()));
+        switched.getRemoved().forEach(block -> assertEquals(WORLD, block.getPosition().getWorld()));
+        switched.getHighlighted().values().forEach(block -> assertEquals(NETHER, block.getPosition().getWorld()));
+    }
+
+    // Get a line of surface blocks along the X axis, from a starting X coordinate
+    @NotNull
+    private static Map<HighlightBlock, Highlightable.Type> getLine(int fromX, int length, Highlightable.Type type) {
+        return getLine(fromX, length, type, WORLD);
+    }
+
+    @NotNull
+    private static Map<HighlightBlock, Highlightable.Type> getLine(int fromX, int length, Highlightable.Type type,
+                                                                   @NotNull World world) {
+        final Map<HighlightBlock, Highlightable.Type> blocks = new LinkedHashMap<>(length);
+        for (int x = fromX; x < fromX + length; x++) {
+            blocks.put(new HighlightBlock(Position.at(x, 64, 0, world), STONE), type);
+        }
+        return blocks;
+    }
+
+    @NotNull
+    private static HighlightBlock create(@NotNull HighlightBlock origin, @NotNull Highlightable.Type type) {
+        return new HighlightBlock(origin.getPosition(), STONE, type);
+    }
+
+}
@@ -0,0 +1,194 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.hook;
+
+import net.luckperms.api.event.EventBus;
+import net.luckperms.api.event.EventSubscription;
+import net.luckperms.api.event.LuckPermsEvent;
+import net.luckperms.api.event.group.GroupDataRecalculateEvent;
+import net.luckperms.api.event.node.NodeMutateEvent;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+import net.luckperms.api.event.user.UserUnloadEvent;
+import net.luckperms.api.model.group.Group;
+import net.luckperms.api.model.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LuckPerms Group Cache Tests")
+public class LuckPermsGroupCacheTests {
+
+    private static final UUID ALICE = UUID.randomUUID();
+    private static final UUID BOB = UUID.randomUUID();
+
+    private final Map<UUID, Set<String>> memberships = new HashMap<>();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private FakeEventBus eventBus;
+    private LuckPermsGroupCache cache;
+
+    @BeforeEach
+    public void setup() {
+        memberships.clear();
+        memberships.put(ALICE, new HashSet<>(Set.of("default", "builder")));
+        memberships.put(BOB, new HashSet<>(Set.of("default")));
+        lookups.set(0);
+        eventBus = new FakeEventBus();
+        cache = new LuckPermsGroupCache(uuid -> {
+            lookups.incrementAndGet();
+            return memberships.containsKey(uuid) ? Set.copyOf(memberships.get(uuid)) : null;
+        });
+        cache.subscribe(eventBus.proxy());
+    }
+
+    @Test
+    @DisplayName("Test Repeated Checks Resolve Groups Once")
+    public void testRepeatedChecks() {
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(cache.isMember(ALICE, "builder"));
+            assertFalse(cache.isMember(BOB, "builder"));
+        }
+        assertEquals(2, lookups.get());
+        assertFalse(cache.isMember(UUID.randomUUID(), "default"));
+    }
+
+    @Test
+    @DisplayName("Test User Recalculation Invalidates Only That User")
+    public void testUserRecalculation() {
+        assertFalse(cache.isMember(BOB, "builder"));
+        assertTrue(cache.isMember(ALICE, "builder"));
+
+        memberships.get(BOB).add("builder");
+        assertFalse(cache.isMember(BOB, "builder"));
+        eventBus.fire(UserDataRecalculateEvent.class, Map.of("getUser", user(BOB)));
+
+        assertTrue(cache.isMember(BOB, "builder"));
+        assertTrue(cache.isMember(ALICE, "builder"));
+        assertEquals(3, lookups.get());
+    }
+
+    @Test
+    @DisplayName("Test Group Changes Invalidate All Users")
+    public void testGroupChanges() {
+        cache.isMember(ALICE, "builder");
+        cache.isMember(BOB, "builder");
+        assertEquals(2, cache.size());
+
+        eventBus.fire(NodeMutateEvent.class, Map.of("getTarget", proxy(Group.class, Map.of("getName", "builder"))));
+        assertEquals(0, cache.size());
+
+        cache.isMember(ALICE, "builder");
+        eventBus.fire(GroupDataRecalculateEvent.class, Map.of());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Test User Node Changes And Unloads Invalidate That User")
+    public void testUserNodeChanges() {
+        cache.isMember(ALICE, "builder");
+        cache.isMember(BOB, "builder");
+
+        memberships.get(ALICE).remove("builder");
+        eventBus.fire(NodeMutateEvent.class, Map.of("getTarget", user(ALICE)));
+        assertEquals(1, cache.size());
+        assertFalse(cache.isMember(ALICE, "builder"));
+
+        memberships.remove(BOB);
+        eventBus.fire(UserUnloadEvent.class, Map.of("getUser", user(BOB)));
+        assertFalse(cache.isMember(BOB, "default"));
+    }
+
+    @Test
+    @DisplayName("Test Closing Unsubscribes From Events")
+    public void testClose() {
+        assertEquals(7, eventBus.handlers.size());
+        cache.isMember(ALICE, "builder");
+        cache.close();
+        assertTrue(eventBus.handlers.isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @NotNull
+    private static User user(@NotNull UUID uuid) {
+        return proxy(User.class, Map.of("getUniqueId", uuid));
+    }
+
+    // Create a stand-in implementation of an API interface, returning fixed values from named getters
+    @NotNull
+    private static <T> T proxy(@NotNull Class<T> type, @NotNull Map<String, Object> getters) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (instance, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(instance);
+                    case "equals" -> instance == args[0];
+                    case "toString" -> type.getSimpleName();
+                    default -> getters.get(method.getName());
+                }));
+    }
+
+    // An event bus that dispatches fired events to subscribed handlers on the calling thread
+    private static final class FakeEventBus {
+
+        private final List<Map.Entry<Class<?>, Consumer<Object>>> handlers = new ArrayList<>();
+
+        @NotNull
+        @SuppressWarnings("unchecked")
+        private EventBus proxy() {
+            return (EventBus) Proxy.newProxyInstance(EventBus.class.getClassLoader(), new Class<?>[]{EventBus.class},
+                    (instance, method, args) -> {
+                        if (!method.getName().equals("subscribe")) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        final Class<?> event = (Class<?>) args[args.length - 2];
+                        final Map.Entry<Class<?>, Consumer<Object>> handler = Map.entry(
+                                event, (Consumer<Object>) args[args.length - 1]
+                        );
+                        handlers.add(handler);
+                        return subscription(handler);
+                    });
+        }
+
+        @NotNull
+        private EventSubscription<?> subscription(@NotNull Map.Entry<Class<?>, Consumer<Object>> handler) {
+            return (EventSubscription<?>) Proxy.newProxyInstance(EventSubscription.class.getClassLoader(),
+                    new Class<?>[]{EventSubscription.class}, (instance, method, args) -> {
+                        if (method.getName().equals("close")) {
+                            handlers.remove(handler);
+                        }
+                        return method.getName().equals("isActive") ? handlers.contains(handler) : null;
+                    });
+        }
+
+        private <T extends LuckPermsEvent> void fire(@NotNull Class<T> type, @NotNull Map<String, Object> getters) {
+            final T event = proxy(type, getters);
+            List.copyOf(handlers).stream()
+                    .filter(handler -> handler.getKey().isAssignableFrom(type))
+                    .forEach(handler -> handler.getValue().accept(event));
+        }
+
+    }
+
+}
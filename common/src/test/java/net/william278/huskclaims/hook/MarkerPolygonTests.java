@@ -0,0 +1,131 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.hook;
+
+import net.william278.huskclaims.claim.Region;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Marker Polygon Tests")
+public class MarkerPolygonTests {
+
+    @Test
+    @DisplayName("Test Adjacent Regions Merge Into A Rectangle")
+    public void testAdjacentRegions() {
+        final List<MarkerPolygon<Region>> polygons = MarkerPolygon.union(List.of(
+                region(0, 0, 9, 9), region(10, 0, 19, 9)
+        ), Function.identity());
+        assertEquals(1, polygons.size());
+        assertTrue(polygons.get(0).isMerged());
+        assertEquals(2, polygons.get(0).getMembers().size());
+        assertEquals(List.of(
+                Region.Point.at(20, 0), Region.Point.at(20, 10), Region.Point.at(0, 10), Region.Point.at(0, 0)
+        ), polygons.get(0).getOutline());
+    }
+
+    @Test
+    @DisplayName("Test Enclosing Regions Merge With A Hole")
+    public void testEnclosingRegions() {
+        final List<MarkerPolygon<Region>> polygons = MarkerPolygon.union(List.of(
+                region(0, 0, 29, 9), region(0, 20, 29, 29), region(0, 10, 9, 19), region(20, 10, 29, 19)
+        ), Function.identity());
+        assertEquals(1, polygons.size());
+        assertEquals(4, polygons.get(0).getOutline().size());
+        assertEquals(1, polygons.get(0).getHoles().size());
+        assertEquals(100, -getArea(polygons.get(0).getHoles().get(0)));
+        assertEquals(8, polygons.get(0).getVertexCount());
+    }
+
+    @Test
+    @DisplayName("Test Diagonally Touching Regions Don't Merge")
+    public void testDiagonalRegions() {
+        final List<MarkerPolygon<Region>> polygons = MarkerPolygon.union(List.of(
+                region(0, 0, 9, 9), region(10, 10, 19, 19)
+        ), Function.identity());
+        assertEquals(2, polygons.size());
+        polygons.forEach(polygon -> assertEquals(1, polygon.getMembers().size()));
+    }
+
+    @Test
+    @DisplayName("Test Merged Polygons Cover The Same Area As Their Regions")
+    public void testRandomRegions() {
+        final Random random = new Random(278);
+        for (int i = 0; i < 2000; i++) {
+            final List<Region> regions = new ArrayList<>();
+            final boolean[][] covered = new boolean[40][40];
+            for (int j = random.nextInt(8) + 1; j > 0; j--) {
+                final int x = random.nextInt(20);
+                final int z = random.nextInt(20);
+                final Region region = region(x, z, x + random.nextInt(8), z + random.nextInt(8));
+                regions.add(region);
+                for (int bx = x; bx <= region.getFarCorner().getBlockX(); bx++) {
+                    for (int bz = z; bz <= region.getFarCorner().getBlockZ(); bz++) {
+                        covered[bx][bz] = true;
+                    }
+                }
+            }
+
+            long expected = 0;
+            for (boolean[] row : covered) {
+                for (boolean cell : row) {
+                    expected += cell ? 1 : 0;
+                }
+            }
+            long area = 0;
+            int members = 0;
+            for (MarkerPolygon<Region> polygon : MarkerPolygon.union(regions, Function.identity())) {
+                assertTrue(polygon.isMerged());
+                members += polygon.getMembers().size();
+                area += getArea(polygon.getOutline());
+                for (List<Region.Point> hole : polygon.getHoles()) {
+                    assertTrue(getArea(hole) < 0);
+                    area += getArea(hole);
+                }
+            }
+            assertEquals(expected, area);
+            assertEquals(regions.size(), members);
+        }
+    }
+
+    @NotNull
+    private static Region region(int x1, int z1, int x2, int z2) {
+        return Region.from(Region.Point.at(x1, z1), Region.Point.at(x2, z2));
+    }
+
+    // Get the signed area of a ring; positive if it winds counter-clockwise
+    private static long getArea(@NotNull List<Region.Point> ring) {
+        long area = 0;
+        for (int i = 0; i < ring.size(); i++) {
+            final Region.Point a = ring.get(i);
+            final Region.Point b = ring.get((i + 1) % ring.size());
+            area += (long) a.getBlockX() * b.getBlockZ() - (long) b.getBlockX() * a.getBlockZ();
+        }
+        return area / 2;
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.metrics;
+
+import net.william278.huskclaims.FakeHuskClaims;
+import net.william278.huskclaims.database.FakeDatabase;
+import net.william278.huskclaims.database.TimedDatabase;
+import net.william278.huskclaims.util.FakeScheduler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Blocking Call Detector Tests")
+public class BlockingCallDetectorTests {
+
+    @Test
+    @DisplayName("Test Server Thread Database Calls Are Reported By Caller")
+    public void testServerThreadCalls() {
+        try (FakeHuskClaims plugin = FakeHuskClaims.create()) {
+            plugin.setDatabase(new TimedDatabase(plugin, new FakeDatabase(plugin)));
+            plugin.getBlockingCallDetector().setEnabled(true);
+
+            for (int i = 0; i < 3; i++) {
+                plugin.getSavedUser(UUID.randomUUID());
+            }
+
+            final List<BlockingCallDetector.Report> reports = plugin.getBlockingCallDetector().getWorstOffenders(10);
+            assertEquals(1, reports.size());
+            final BlockingCallDetector.Report report = reports.get(0);
+            assertEquals("Database#getUser", report.call());
+            assertTrue(report.caller().startsWith("SavedUserProvider."), report.caller());
+            assertEquals(3, report.calls());
+            assertFalse(report.stack().isEmpty());
+            assertTrue(report.maxNanos() <= report.totalNanos());
+        }
+    }
+
+    @Test
+    @DisplayName("Test Off-Thread Calls Are Ignored")
+    public void testOffThreadCalls() {
+        try (FakeScheduler scheduler = FakeScheduler.threaded(2);
+             FakeHuskClaims plugin = FakeHuskClaims.create(scheduler)) {
+            plugin.setDatabase(new TimedDatabase(plugin, new FakeDatabase(plugin)));
+            plugin.getBlockingCallDetector().setEnabled(true);
+
+            plugin.getSavedUser(UUID.randomUUID());
+            assertTrue(plugin.getBlockingCallDetector().getWorstOffenders(10).isEmpty());
+
+            scheduler.callSync(() -> plugin.getSavedUser(UUID.randomUUID()));
+            assertEquals(1, plugin.getBlockingCallDetector().getWorstOffenders(10).size());
+
+            plugin.getBlockingCallDetector().reset();
+            assertTrue(plugin.getBlockingCallDetector().getWorstOffenders(10).isEmpty());
+        }
+    }
+
+}
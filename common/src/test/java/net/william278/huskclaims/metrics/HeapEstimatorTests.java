@@ -0,0 +1,118 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.metrics;
+
+import com.google.common.collect.Sets;
+import net.william278.huskclaims.FakeHuskClaims;
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.claim.Claim;
+import net.william278.huskclaims.claim.ClaimWorld;
+import net.william278.huskclaims.claim.Region;
+import net.william278.huskclaims.position.World;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Heap Estimator Tests")
+public class HeapEstimatorTests {
+
+    private FakeHuskClaims plugin;
+
+    @BeforeEach
+    public void setup() {
+        plugin = FakeHuskClaims.create();
+    }
+
+    @AfterEach
+    public void teardown() {
+        plugin.close();
+    }
+
+    @Test
+    @DisplayName("Test Claims Are Counted Per World")
+    public void testClaimCounts() {
+        plugin.addClaimWorld(World.of("world", UUID.randomUUID(), "normal"), createWorld(50, 0, plugin));
+
+        final List<HeapEstimator.Section> sections = new HeapEstimator(plugin).estimate();
+        final HeapEstimator.Section world = sections.get(0);
+        assertEquals("World: world", world.name());
+        assertEquals(60, getEntry(world, "Claims").count());
+        assertTrue(getEntry(world, "Chunk index").count() > 0);
+        assertTrue(world.getBytes() > 0);
+        sections.forEach(section -> section.entries().forEach(entry -> assertTrue(entry.bytes() >= 0)));
+    }
+
+    @Test
+    @DisplayName("Test Trusted Users Add To Claim Size")
+    public void testTrustedUsers() {
+        plugin.addClaimWorld(World.of("bare", UUID.randomUUID(), "normal"), createWorld(50, 0, plugin));
+        plugin.addClaimWorld(World.of("trusted", UUID.randomUUID(), "normal"), createWorld(50, 10, plugin));
+
+        final List<HeapEstimator.Section> sections = new HeapEstimator(plugin).estimate();
+        assertTrue(getEntry(sections.get(1), "Claims").bytes() > getEntry(sections.get(0), "Claims").bytes());
+    }
+
+    @Test
+    @DisplayName("Test Byte Formatting")
+    public void testFormatBytes() {
+        assertEquals("512 B", HeapEstimator.formatBytes(512));
+        assertEquals("1.5 KiB", HeapEstimator.formatBytes(1536));
+        assertEquals("3.0 MiB", HeapEstimator.formatBytes(3L << 20));
+    }
+
+    @NotNull
+    private static HeapEstimator.Entry getEntry(@NotNull HeapEstimator.Section section, @NotNull String name) {
+        return section.entries().stream()
+                .filter(entry -> entry.name().equals(name))
+                .findFirst().orElseThrow();
+    }
+
+    // Create a world of user-owned claims on a line, every fifth with a child claim
+    @NotNull
+    private static ClaimWorld createWorld(int count, int trustees, @NotNull HuskClaims plugin) {
+        final Set<Claim> claims = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            final Claim claim = createClaim(i * 64, 0, i * 64 + 32, 32);
+            for (int j = 0; j < trustees; j++) {
+                claim.setUserTrustLevel(UUID.randomUUID(), plugin.getLowestTrustLevel());
+            }
+            if (i % 5 == 0) {
+                claim.addChild(createClaim(i * 64 + 2, 2, i * 64 + 12, 12));
+            }
+            claims.add(claim);
+        }
+        return ClaimWorld.convert(claims, Map.of(), Set.of());
+    }
+
+    @NotNull
+    private static Claim createClaim(int x1, int z1, int x2, int z2) {
+        return new Claim(UUID.randomUUID(), Region.from(Region.Point.at(x1, z1), Region.Point.at(x2, z2)),
+                new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>(),
+                new ConcurrentHashMap<>(), Sets.newConcurrentHashSet(), true, Set.of(), false);
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Metrics Registry Tests")
+public class MetricsRegistryTests {
+
+    @ParameterizedTest(name = "Quantile: {0}")
+    @DisplayName("Test Histogram Quantiles Are Accurate")
+    @ValueSource(doubles = {0.5, 0.9, 0.99})
+    public void testHistogramQuantiles(double quantile) {
+        final Histogram histogram = new Histogram();
+        final long[] values = ThreadLocalRandom.current().longs(10_000, 1_000, 50_000_000).sorted().toArray();
+        for (long value : values) {
+            histogram.record(value);
+        }
+
+        final long expected = values[(int) Math.ceil(quantile * values.length) - 1];
+        final long actual = histogram.snapshot().getQuantile(quantile);
+        assertTrue(actual >= expected && actual <= expected * 1.07,
+                "Expected about %s, got %s".formatted(expected, actual));
+    }
+
+    @Test
+    @DisplayName("Test Histogram Buckets Cover Their Values")
+    public void testHistogramBuckets() {
+        for (long value : new long[]{0, 1, 15, 16, 17, 1_000, 123_456_789, 1L << 40, Long.MAX_VALUE}) {
+            final int bucket = Histogram.getBucket(value);
+            assertTrue(bucket >= 0 && bucket < Histogram.BUCKETS);
+            if (bucket < Histogram.BUCKETS - 1) {
+                assertTrue(Histogram.getBucketUpperBound(bucket) >= value);
+                assertTrue(bucket == 0 || Histogram.getBucketUpperBound(bucket - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test Disabled Registry Records Nothing")
+    public void testDisabledRegistry() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.setEnabled(false);
+        registry.increment(Metric.CACHE_LOOKUPS, "saved_users", "hit");
+        registry.getHistogram(Metric.CLAIM_LOOKUPS, "lookup").record(1_000);
+
+        assertTrue(registry.getValues(Metric.CACHE_LOOKUPS).isEmpty());
+        assertTrue(registry.getSnapshots(Metric.CLAIM_LOOKUPS).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Wrong Label Count Is Rejected")
+    public void testWrongLabelCount() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        assertThrows(IllegalArgumentException.class, () -> registry.increment(Metric.CACHE_LOOKUPS, "saved_users"));
+    }
+
+    @Test
+    @DisplayName("Test Handles Record To Their Labels")
+    public void testHandles() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final MetricsRegistry.Handle counter = MetricsRegistry.handle(Metric.CACHE_LOOKUPS, "saved_users", "hit");
+        final MetricsRegistry.Handle histogram = MetricsRegistry.handle(Metric.CLAIM_LOOKUPS, "lookup");
+        registry.increment(counter);
+        registry.increment(counter);
+        registry.recordSince(histogram, registry.startTiming());
+        assertEquals(2.0, registry.getValues(Metric.CACHE_LOOKUPS).get(List.of("saved_users", "hit")));
+        assertEquals(1, registry.getSnapshots(Metric.CLAIM_LOOKUPS).get(List.of("lookup")).count());
+
+        // Handles record to new counters and histograms after a reset
+        registry.reset();
+        registry.increment(counter);
+        assertEquals(1.0, registry.getValues(Metric.CACHE_LOOKUPS).get(List.of("saved_users", "hit")));
+        assertTrue(registry.getSnapshots(Metric.CLAIM_LOOKUPS).isEmpty());
+
+        // Nothing is timed or recorded while disabled
+        registry.setEnabled(false);
+        final long start = registry.startTiming();
+        registry.increment(counter);
+        registry.recordSince(histogram, start);
+        assertEquals(0, start);
+        assertEquals(1.0, registry.getValues(Metric.CACHE_LOOKUPS).get(List.of("saved_users", "hit")));
+        assertTrue(registry.getSnapshots(Metric.CLAIM_LOOKUPS).isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> MetricsRegistry.handle(Metric.CLAIM_LOOKUPS));
+        assertThrows(IllegalArgumentException.class, () -> MetricsRegistry.handle(Metric.TASK_QUEUE_DEPTH));
+    }
+
+    @Test
+    @DisplayName("Test Prometheus Text Format")
+    public void testPrometheusFormat() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.increment(Metric.OPERATION_CHECKS, "block_break", "denied");
+        registry.increment(Metric.OPERATION_CHECKS, "block_break", "denied");
+        registry.getHistogram(Metric.DATABASE_CALLS, "getUser").record(2_000_000);
+        registry.registerGauge(Metric.TASK_QUEUE_DEPTH, () -> 3);
+        registry.registerCollector(Metric.EVENT_DISPATCHES, () -> Map.of(
+                List.of("Quote\"Event", "inline"), 5
+        ));
+
+        final List<String> lines = PrometheusExporter.format(registry).lines().toList();
+        assertTrue(lines.contains("# TYPE huskclaims_operation_checks_total counter"));
+        assertTrue(lines.contains("huskclaims_operation_checks_total{type=\"block_break\",result=\"denied\"} 2"));
+        assertTrue(lines.contains("# TYPE huskclaims_database_call_seconds summary"));
+        assertTrue(lines.contains("huskclaims_database_call_seconds_count{method=\"getUser\"} 1"));
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith(
+                "huskclaims_database_call_seconds{method=\"getUser\",quantile=\"0.99\"} 0.00"
+        )));
+        assertTrue(lines.contains("huskclaims_task_queue_depth 3"));
+        assertTrue(lines.contains("huskclaims_event_dispatches_total{event=\"Quote\\\"Event\",dispatch=\"inline\"} 5"));
+    }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.moderation;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Marked Drop Index Tests")
+public class MarkedDropIndexTests {
+
+    @Test
+    @DisplayName("Test Spawned Items Match Nearby Marked Drops Once")
+    public void testMatchesNearbyDrops() {
+        final MarkedDropIndex index = new MarkedDropIndex();
+        final UUID owner = UUID.randomUUID();
+        index.mark(owner, List.of(new Drop("world", 15.5, 15.5, "diamond"), new Drop("world", 15.5, 15.5, "dirt")));
+
+        // Matches across a chunk border, within range
+        assertEquals(Optional.of(owner), index.take(new Drop("world", 18.5, 17.5, "diamond")));
+        assertTrue(index.take(new Drop("world", 15.5, 15.5, "diamond")).isEmpty());
+        assertTrue(index.take(new Drop("world", 30.5, 15.5, "dirt")).isEmpty());
+        assertTrue(index.take(new Drop("world_nether", 15.5, 15.5, "dirt")).isEmpty());
+        assertEquals(1, index.size(owner));
+        assertEquals(Optional.of(owner), index.take(new Drop("world", 14.0, 16.0, "dirt")));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    @DisplayName("Test Marking Replaces An Owner's Drops, Up To A Cap")
+    public void testOwnerCap() {
+        final MarkedDropIndex index = new MarkedDropIndex(Duration.ofSeconds(30), 10, System::currentTimeMillis);
+        final UUID owner = UUID.randomUUID();
+        index.mark(owner, getDrops(0, 50));
+        assertEquals(10, index.size(owner));
+
+        index.mark(owner, getDrops(1000, 3));
+        assertEquals(3, index.size());
+        assertTrue(index.take(new Drop("world", 0, 0, "item0")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Expired Drops Are Not Matched And Are Reaped")
+    public void testExpiry() {
+        final AtomicLong now = new AtomicLong();
+        final MarkedDropIndex index = new MarkedDropIndex(Duration.ofSeconds(30), 128, now::get);
+        final UUID owner = UUID.randomUUID();
+        index.mark(owner, getDrops(0, 20));
+
+        now.set(Duration.ofSeconds(31).toMillis());
+        assertTrue(index.take(new Drop("world", 0, 0, "item0")).isEmpty());
+        assertEquals(20, index.reap());
+        assertEquals(0, index.size());
+        assertEquals(0, index.size(owner));
+    }
+
+    @Test
+    @DisplayName("Test Items Away From Marked Drops Are Not Matched")
+    public void testUnrelatedSpawns() {
+        final MarkedDropIndex index = new MarkedDropIndex();
+        final int owners = 250;
+        final int perOwner = 40;
+        for (int i = 0; i < owners; i++) {
+            index.mark(UUID.randomUUID(), getDrops(i * 1000, perOwner));
+        }
+        assertEquals(owners * perOwner, index.size());
+
+        // Items spawning from a mob farm, away from any death drops
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(index.take(new Drop("world", -5000 - (i % 64), 64, "item")).isEmpty());
+        }
+        assertEquals(owners * perOwner, index.size());
+    }
+
+    // Get drops at spaced out positions along the X axis
+    @NotNull
+    private static List<Drop> getDrops(int fromX, int count) {
+        final List<Drop> drops = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            drops.add(new Drop("world", fromX + i * 20, 0, "item" + i));
+        }
+        return drops;
+    }
+
+    // A dropped item, equal to others of the same item within range, as platform drops are
+    private record Drop(@NotNull String worldName, double x, double z, @NotNull String item)
+            implements DropsHandler.DroppedItem {
+
+        @NotNull
+        @Override
+        public String getWorldName() {
+            return worldName;
+        }
+
+        @Override
+        public double getX() {
+            return x;
+        }
+
+        @Override
+        public double getZ() {
+            return z;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Drop drop && drop.worldName.equals(worldName) && drop.item.equals(item)
+                   && Math.hypot(drop.x - x, drop.z - z) <= DEATH_DROPS_EQUAL_RANGE;
+        }
+
+        @Override
+        public int hashCode() {
+            return item.hashCode();
+        }
+
+    }
+
+}
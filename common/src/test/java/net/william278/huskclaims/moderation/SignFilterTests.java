@@ -0,0 +1,95 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.moderation;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Sign Filter Tests")
+public class SignFilterTests {
+
+    private static final char REPLACEMENT = '#';
+
+    @Test
+    @DisplayName("Test Filtered Words Are Masked")
+    public void testMasksWords() {
+        final SignFilter filter = SignFilter.compile(List.of("bad", "adverb", "he"));
+        assertEquals("a ### word", filter.filter("a BaD word", REPLACEMENT));
+        assertEquals("######", filter.filter("adverb", REPLACEMENT));
+        assertEquals("#######", filter.filter("badverb", REPLACEMENT));
+        assertEquals("t## ###", filter.filter("the bad", REPLACEMENT));
+        final String clean = "nothing to see";
+        assertSame(clean, filter.filter(clean, REPLACEMENT));
+    }
+
+    @Test
+    @DisplayName("Test Filter Matches Regex Output")
+    public void testMatchesRegex() {
+        final Random random = new Random(278);
+        for (int round = 0; round < 50; round++) {
+            final List<String> words = getWords(random, 1 + random.nextInt(40), "abcAB .\u00e9");
+            final SignFilter filter = SignFilter.compile(words);
+            final Pattern pattern = Pattern.compile(getRegex(words), Pattern.CASE_INSENSITIVE);
+            for (int i = 0; i < 200; i++) {
+                final String line = getWord(random, random.nextInt(30), "abcABC .\u00e9\u00c9");
+                assertEquals(pattern.matcher(line).replaceAll(String.valueOf(REPLACEMENT)),
+                        filter.filter(line, REPLACEMENT), "Filtering \"" + line + "\" by " + words);
+            }
+        }
+    }
+
+    // Get a regex matching each character covered by a filtered word, as signs were filtered before SignFilter
+    @NotNull
+    private static String getRegex(@NotNull List<String> words) {
+        final StringJoiner pattern = new StringJoiner("|");
+        words.forEach(word -> pattern.add(
+                String.format("(?<=(?=%s).{0,%d}).", Pattern.quote(word), word.length() - 1)
+        ));
+        return pattern.toString();
+    }
+
+    @NotNull
+    private static List<String> getWords(@NotNull Random random, int count, @NotNull String alphabet) {
+        final List<String> words = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            words.add(getWord(random, 1 + random.nextInt(6), alphabet));
+        }
+        return words;
+    }
+
+    @NotNull
+    private static String getWord(@NotNull Random random, int length, @NotNull String alphabet) {
+        final StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return word.toString();
+    }
+
+}
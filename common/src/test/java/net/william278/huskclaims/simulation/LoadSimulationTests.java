@@ -0,0 +1,84 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.simulation;
+
+import net.william278.huskclaims.database.SqLiteDatabase;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("simulation")
+@DisplayName("Load Simulation Tests")
+public class LoadSimulationTests {
+
+    private static final long SEED = 278;
+
+    @Test
+    @DisplayName("Test Simulating A Survival Server In Memory")
+    public void testSurvivalInMemory() {
+        final Trace trace = Trace.generate(250, 200, Trace.Mix.SURVIVAL, SEED);
+        final SimulationReport report = LoadSimulator.builder().build().run(trace);
+        assertCompleted(trace, report);
+        assertEquals(Set.of("move", "break", "create", "resize", "trust"), report.getLatencies().keySet());
+        assertTrue(report.getDatabaseWrites() > 0);
+        assertTrue(report.getOpsPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("Test Simulating A Claim-Heavy Server On SQLite")
+    public void testClaimHeavyOnSqLite() {
+        final Trace trace = Trace.generate(100, 100, Trace.Mix.CLAIM_HEAVY, SEED);
+        final SimulationReport report = LoadSimulator.builder()
+                .database(SqLiteDatabase::new)
+                .build().run(trace);
+        assertCompleted(trace, report);
+        assertTrue(report.getLatencies().get("create").getCount() > 0);
+        assertTrue(report.getDatabaseWrites() > 0);
+    }
+
+    @Test
+    @DisplayName("Test Simulating A Network Of Servers")
+    public void testNetwork() {
+        final Trace trace = Trace.generate(300, 100, Trace.Mix.CLAIM_HEAVY, SEED);
+        final SimulationReport report = LoadSimulator.builder()
+                .servers(3)
+                .build().run(trace);
+        assertCompleted(trace, report);
+        assertEquals(3, report.getServers());
+        assertTrue(report.getMessagesSent() > 0);
+        assertTrue(report.getMessagesReceived() > 0);
+        assertTrue(report.getMessagesReceived() <= report.getMessagesSent() * 2);
+    }
+
+    // Assert every action in the trace was performed and timed, without throwing
+    private static void assertCompleted(@NotNull Trace trace, @NotNull SimulationReport report) {
+        assertEquals(trace.size(), report.getActions());
+        assertEquals(trace.ticks().size(), report.getTicks());
+        assertEquals(0, report.getErrors());
+        assertEquals(report.getActions(), report.getLatencies().values().stream()
+                .mapToLong(SimulationReport.Latencies::getCount).sum());
+    }
+
+}
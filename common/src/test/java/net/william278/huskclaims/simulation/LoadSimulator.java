@@ -0,0 +1,319 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.simulation;
+
+import lombok.Builder;
+import net.william278.cloplib.operation.Operation;
+import net.william278.cloplib.operation.OperationType;
+import net.william278.huskclaims.FakeHuskClaims;
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.claim.Claim;
+import net.william278.huskclaims.claim.ClaimWorld;
+import net.william278.huskclaims.claim.Region;
+import net.william278.huskclaims.command.Command;
+import net.william278.huskclaims.config.Server;
+import net.william278.huskclaims.database.Database;
+import net.william278.huskclaims.database.FakeDatabase;
+import net.william278.huskclaims.network.FakeBroker;
+import net.william278.huskclaims.position.Position;
+import net.william278.huskclaims.position.World;
+import net.william278.huskclaims.simulation.Trace.Action;
+import net.william278.huskclaims.trust.TrustLevel;
+import net.william278.huskclaims.user.FakeOnlineUser;
+import net.william278.huskclaims.user.SavedUser;
+import net.william278.huskclaims.util.FakeScheduler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Replays a {@link Trace} against one or more headless {@link FakeHuskClaims} servers, end to end.
+ * <p>
+ * Each server has its own server thread, async worker pool, database and claim world, and servers are linked by an
+ * in-memory {@link FakeBroker}. Actions go through the same entry points the platform listeners and commands use,
+ * and the time each takes on the server thread is recorded. Ticks run back-to-back unless a tick length is set, in
+ * which case the simulation is paced like a real server.
+ */
+@Builder
+public class LoadSimulator {
+
+    private static final World WORLD = World.of("world", UUID.randomUUID(), "normal");
+    private static final int STARTING_CLAIM_BLOCKS = 1_000_000;
+
+    @Builder.Default
+    private final int servers = 1;
+    @Builder.Default
+    private final int asyncThreads = 4;
+    @Builder.Default
+    private final Function<HuskClaims, Database> database = FakeDatabase::new;
+    @Builder.Default
+    private final Duration tickLength = Duration.ZERO;
+    @Builder.Default
+    private final Duration settleTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Run a trace, then wait for the servers to finish any work it left behind
+     *
+     * @param trace the trace to run
+     * @return the report of the run
+     * @throws IllegalStateException if the servers do not finish their work within the settle timeout
+     */
+    @NotNull
+    public SimulationReport run(@NotNull Trace trace) {
+        final List<SimulatedServer> network = startServers();
+        try {
+            final List<FakeOnlineUser> players = joinPlayers(network, trace.players());
+            final SimulationReport.Depths serverQueue = new SimulationReport.Depths();
+            final SimulationReport.Depths asyncQueue = new SimulationReport.Depths();
+            final SimulationReport.Depths writeQueue = new SimulationReport.Depths();
+
+            // Run each tick on every server at once, then sample how far behind they've fallen
+            final long start = System.nanoTime();
+            long nextTick = start;
+            for (List<Action> tick : trace.ticks()) {
+                runTick(network, players, tick);
+                for (SimulatedServer server : network) {
+                    serverQueue.sample(server.scheduler().getServerQueueDepth());
+                    asyncQueue.sample(server.scheduler().getAsyncQueueDepth());
+                    writeQueue.sample(server.plugin().getTaskQueue().size());
+                }
+                nextTick += tickLength.toNanos();
+                LockSupport.parkNanos(nextTick - System.nanoTime());
+            }
+            final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            for (SimulatedServer server : network) {
+                server.scheduler().awaitIdle(settleTimeout);
+            }
+
+            return new SimulationReport(
+                    servers, trace.players(), trace.ticks().size(), trace.size(), elapsed,
+                    mergeLatencies(network), serverQueue, asyncQueue, writeQueue,
+                    network.stream().mapToLong(SimulatedServer::getDatabaseWrites).sum(),
+                    network.stream().mapToLong(server -> server.broker() != null ? server.broker().getSent() : 0).sum(),
+                    network.stream().mapToLong(server -> server.broker() != null ? server.broker().getReceived() : 0).sum(),
+                    network.stream().mapToLong(SimulatedServer::getErrors).sum()
+            );
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Servers did not finish their work after the trace", e);
+        } finally {
+            network.forEach(SimulatedServer::stop);
+        }
+    }
+
+    // Start each server, with its own threads, database and claim world, connected to the others by a broker
+    @NotNull
+    private List<SimulatedServer> startServers() {
+        final FakeBroker.Network brokers = new FakeBroker.Network();
+        final List<SimulatedServer> network = new ArrayList<>(servers);
+        for (int i = 0; i < servers; i++) {
+            final FakeScheduler scheduler = FakeScheduler.threaded(asyncThreads);
+            final FakeHuskClaims plugin = FakeHuskClaims.create(scheduler);
+            plugin.setServerName(Server.of("server-" + i));
+
+            final Database data = database.apply(plugin);
+            data.initialize();
+            plugin.setDatabase(data);
+            final ClaimWorld claimWorld = data.createClaimWorld(WORLD);
+            plugin.addClaimWorld(WORLD, claimWorld);
+
+            FakeBroker broker = null;
+            if (servers > 1) {
+                broker = new FakeBroker(plugin, brokers);
+                broker.initialize();
+                plugin.setBroker(broker);
+            }
+
+            plugin.loadCommands();
+            plugin.loadHighlighters();
+            plugin.startQueuePoller();
+            network.add(new SimulatedServer(plugin, scheduler, claimWorld, broker, getTrustCommand(plugin)));
+        }
+        return network;
+    }
+
+    // Join each player to a server, creating their saved data on every server's database as a shared one would
+    @NotNull
+    private List<FakeOnlineUser> joinPlayers(@NotNull List<SimulatedServer> network, int count) {
+        final List<FakeOnlineUser> players = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final SimulatedServer server = network.get(i % network.size());
+            final int[] home = Trace.getPlotCenter(i, count);
+            final FakeOnlineUser player = new FakeOnlineUser("Player" + i, new UUID(0x5EED, i),
+                    Position.at(home[0] + 0.5, 64, home[1] + 0.5, WORLD), server.plugin());
+            server.plugin().getCommands().forEach(command -> player.grant(command.getPermission()));
+            server.plugin().getOnlineUserMap().put(player.getUuid(), player);
+            server.plugin().getUserNameIndex().setOnline(player);
+            server.plugin().cacheSavedUser(player);
+            server.plugin().getCachedSavedUser(player.getUuid())
+                    .ifPresent(saved -> saved.setClaimBlocks(STARTING_CLAIM_BLOCKS));
+            network.stream().filter(other -> other != server).forEach(other -> other.plugin().getDatabase()
+                    .createUser(SavedUser.createNew(player, other.plugin())));
+            players.add(player);
+        }
+        return players;
+    }
+
+    // Run a tick's actions on the thread of the server each player is on, and wait for every server to finish
+    private void runTick(@NotNull List<SimulatedServer> network, @NotNull List<FakeOnlineUser> players,
+                         @NotNull List<Action> tick) {
+        final CountDownLatch done = new CountDownLatch(network.size());
+        for (int i = 0; i < network.size(); i++) {
+            final SimulatedServer server = network.get(i);
+            final int index = i;
+            server.scheduler().runSync(() -> {
+                try {
+                    tick.stream()
+                            .filter(action -> action.player() % network.size() == index)
+                            .forEach(action -> server.perform(action, players));
+                } finally {
+                    done.countDown();
+                }
+            }, Duration.ZERO);
+        }
+        try {
+            if (!done.await(settleTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("A server did not finish a tick within " + settleTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a tick", e);
+        }
+    }
+
+    @NotNull
+    private static Map<String, SimulationReport.Latencies> mergeLatencies(@NotNull List<SimulatedServer> network) {
+        final Map<String, SimulationReport.Latencies> merged = new HashMap<>();
+        network.forEach(server -> server.latencies().forEach((action, latencies) -> {
+            final SimulationReport.Latencies total = merged.computeIfAbsent(
+                    action, name -> new SimulationReport.Latencies()
+            );
+            for (int i = 0; i < latencies.getCount(); i++) {
+                total.record(latencies.get(i));
+            }
+        }));
+        return merged;
+    }
+
+    // Get the command used to give other players build trust
+    @NotNull
+    private static Command getTrustCommand(@NotNull HuskClaims plugin) {
+        final String alias = plugin.getBuildTrustLevel()
+                .map(TrustLevel::getCommandAliases)
+                .flatMap(aliases -> aliases.stream().findFirst())
+                .orElseThrow(() -> new IllegalStateException("No trust level has a command to grant build trust"));
+        return plugin.getCommands().stream()
+                .filter(command -> command.getName().equals(alias))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Trust command /" + alias + " is not registered"));
+    }
+
+    /**
+     * A server in the simulated network
+     *
+     * @param plugin       the plugin running on the server
+     * @param scheduler    the scheduler running the plugin's tasks
+     * @param claimWorld   the claims in the server's world
+     * @param broker       the broker linking the server to the network, if there are other servers
+     * @param trustCommand the command players use to trust each other
+     * @param latencies    the time taken to perform each kind of action on the server thread
+     * @param failures     the number of actions that threw an exception
+     */
+    private record SimulatedServer(@NotNull FakeHuskClaims plugin, @NotNull FakeScheduler scheduler,
+                                   @NotNull ClaimWorld claimWorld, @Nullable FakeBroker broker,
+                                   @NotNull Command trustCommand,
+                                   @NotNull Map<String, SimulationReport.Latencies> latencies,
+                                   @NotNull AtomicLong failures) {
+
+        private SimulatedServer(@NotNull FakeHuskClaims plugin, @NotNull FakeScheduler scheduler,
+                                @NotNull ClaimWorld claimWorld, @Nullable FakeBroker broker,
+                                @NotNull Command trustCommand) {
+            this(plugin, scheduler, claimWorld, broker, trustCommand, new HashMap<>(), new AtomicLong());
+        }
+
+        // Perform an action through the plugin's platform entry points, timing it
+        private void perform(@NotNull Action action, @NotNull List<FakeOnlineUser> players) {
+            final long start = System.nanoTime();
+            try {
+                handle(action, players);
+            } catch (Throwable e) {
+                failures.incrementAndGet();
+            }
+            latencies.computeIfAbsent(action.getName(), name -> new SimulationReport.Latencies())
+                    .record(System.nanoTime() - start);
+        }
+
+        private void handle(@NotNull Action action, @NotNull List<FakeOnlineUser> players) {
+            final FakeOnlineUser player = players.get(action.player());
+            switch (action) {
+                case Action.Move move -> {
+                    final Position to = Position.at(move.x() + 0.5, 64, move.z() + 0.5, WORLD);
+                    if (!plugin.cancelMovement(player, player.getPosition(), to)) {
+                        player.setPosition(to);
+                    }
+                }
+                case Action.Break block -> plugin.cancelOperation(Operation.of(
+                        player, OperationType.BLOCK_BREAK, Position.at(block.x(), 64, block.z(), WORLD)
+                ));
+                case Action.Create create -> plugin.userCreateClaim(player, claimWorld, Region.from(
+                        Region.Point.at(create.x1(), create.z1()), Region.Point.at(create.x2(), create.z2())
+                ));
+                case Action.Resize resize -> getLatestClaim(player).ifPresent(claim -> plugin.userResizeClaim(
+                        player, claimWorld, claim, claim.getRegion().getResized(
+                                resize.extend(), resize.extend(), resize.extend(), resize.extend()
+                        )
+                ));
+                case Action.Trust trust -> getLatestClaim(player).ifPresent(claim -> {
+                    final Region.Point center = claim.getRegion().getCenter();
+                    player.setPosition(Position.at(center.getBlockX() + 0.5, 64, center.getBlockZ() + 0.5, WORLD));
+                    trustCommand.onExecuted(player, new String[]{players.get(trust.trustee()).getName()});
+                });
+            }
+        }
+
+        @NotNull
+        private Optional<Claim> getLatestClaim(@NotNull FakeOnlineUser player) {
+            final List<Claim> claims = claimWorld.getClaimsByUser(player.getUuid());
+            return claims.isEmpty() ? Optional.empty() : Optional.of(claims.get(claims.size() - 1));
+        }
+
+        private long getDatabaseWrites() {
+            return plugin.getDatabase() instanceof FakeDatabase fake ? fake.getWrites() : 0;
+        }
+
+        private long getErrors() {
+            return scheduler.getErrors() + failures.get();
+        }
+
+        private void stop() {
+            plugin.close();
+            scheduler.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.simulation;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The results of a {@link LoadSimulator} run: throughput, per-action latencies on the server thread, and how far
+ * behind the schedulers and the database write queue fell
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class SimulationReport {
+
+    private final int servers;
+    private final int players;
+    private final int ticks;
+    private final long actions;
+    @NotNull
+    private final Duration elapsed;
+    @NotNull
+    private final Map<String, Latencies> latencies;
+    @NotNull
+    private final Depths serverQueue;
+    @NotNull
+    private final Depths asyncQueue;
+    @NotNull
+    private final Depths writeQueue;
+    private final long databaseWrites;
+    private final long messagesSent;
+    private final long messagesReceived;
+    private final long errors;
+
+    /**
+     * Get the number of actions handled per second of wall-clock time
+     *
+     * @return the action throughput
+     */
+    public double getOpsPerSecond() {
+        return actions / Math.max(elapsed.toNanos() / 1_000_000_000d, 1e-9);
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        final StringBuilder report = new StringBuilder();
+        report.append(String.format("%d server(s), %d players, %d ticks: %d actions in %dms (%.0f ops/sec)%n",
+                servers, players, ticks, actions, elapsed.toMillis(), getOpsPerSecond()));
+        report.append(String.format("  %-8s %9s %10s %10s %10s %10s%n",
+                "action", "count", "p50 (us)", "p99 (us)", "p99.9 (us)", "max (us)"));
+        new TreeMap<>(latencies).forEach((action, times) -> report.append(String.format(
+                "  %-8s %9d %10.1f %10.1f %10.1f %10.1f%n", action, times.getCount(),
+                times.getPercentile(0.5) / 1000d, times.getPercentile(0.99) / 1000d,
+                times.getPercentile(0.999) / 1000d, times.getMax() / 1000d
+        )));
+        report.append(String.format("  queue depths (mean/max): server %s, async %s, writes %s%n",
+                serverQueue, asyncQueue, writeQueue));
+        report.append(String.format("  %d database writes, %d messages sent, %d received, %d errors",
+                databaseWrites, messagesSent, messagesReceived, errors));
+        return report.toString();
+    }
+
+    /**
+     * Latencies recorded for one kind of action, in nanoseconds
+     */
+    public static class Latencies {
+
+        private long[] times = new long[1024];
+        private int count;
+        private boolean sorted;
+
+        void record(long nanos) {
+            if (count == times.length) {
+                times = Arrays.copyOf(times, count * 2);
+            }
+            times[count++] = nanos;
+            sorted = false;
+        }
+
+        long get(int index) {
+            return times[index];
+        }
+
+        /**
+         * Get the number of recorded latencies
+         *
+         * @return the number of latencies
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Get a percentile of the recorded latencies
+         *
+         * @param percentile the percentile, between 0 and 1
+         * @return the latency at that percentile, in nanoseconds
+         */
+        public long getPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            if (!sorted) {
+                Arrays.sort(times, 0, count);
+                sorted = true;
+            }
+            return times[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+        }
+
+        /**
+         * Get the highest recorded latency
+         *
+         * @return the highest latency, in nanoseconds
+         */
+        public long getMax() {
+            return getPercentile(1);
+        }
+
+    }
+
+    /**
+     * Samples of the depth of a queue
+     */
+    public static class Depths {
+
+        private long total;
+        private int samples;
+        @Getter
+        private int max;
+
+        void sample(int depth) {
+            total += depth;
+            samples++;
+            max = Math.max(max, depth);
+        }
+
+        /**
+         * Get the mean sampled queue depth
+         *
+         * @return the mean depth
+         */
+        public double getMean() {
+            return samples == 0 ? 0 : total / (double) samples;
+        }
+
+        @NotNull
+        @Override
+        public String toString() {
+            return String.format("%.1f/%d", getMean(), max);
+        }
+
+    }
+
+}
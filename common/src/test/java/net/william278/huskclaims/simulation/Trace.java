@@ -0,0 +1,181 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.simulation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * A scripted sequence of player actions for the {@link LoadSimulator}, grouped into server ticks.
+ * <p>
+ * Each player is given a home plot on a grid, which they mostly wander around, building and claiming land in. Traces
+ * are generated from a seed, so a run can be repeated exactly to compare the plugin before and after a change.
+ *
+ * @param players the number of players in the trace
+ * @param ticks   the actions performed in each tick
+ */
+public record Trace(int players, @NotNull List<List<Action>> ticks) {
+
+    // The width of each player's home plot
+    static final int PLOT_SIZE = 96;
+
+    /**
+     * Generate a trace
+     *
+     * @param players the number of players
+     * @param ticks   the number of ticks
+     * @param mix     how likely each player is to perform each action in a tick
+     * @param seed    the random seed
+     * @return the trace
+     */
+    @NotNull
+    public static Trace generate(int players, int ticks, @NotNull Mix mix, long seed) {
+        final Random random = new Random(seed);
+        final int[][] positions = new int[players][];
+        for (int player = 0; player < players; player++) {
+            positions[player] = getPlotCenter(player, players);
+        }
+
+        final List<List<Action>> trace = new ArrayList<>(ticks);
+        for (int tick = 0; tick < ticks; tick++) {
+            final List<Action> actions = new ArrayList<>();
+            for (int player = 0; player < players; player++) {
+                final int[] position = positions[player];
+                if (random.nextDouble() < mix.move()) {
+                    walk(position, getPlotCenter(player, players), random);
+                    actions.add(new Action.Move(player, position[0], position[1]));
+                }
+                if (random.nextDouble() < mix.breakBlock()) {
+                    actions.add(new Action.Break(player,
+                            position[0] + random.nextInt(9) - 4, position[1] + random.nextInt(9) - 4));
+                }
+                if (random.nextDouble() < mix.create()) {
+                    final int[] plot = getPlotCorner(player, players);
+                    final int width = 10 + random.nextInt(24);
+                    final int depth = 10 + random.nextInt(24);
+                    final int x = plot[0] + 2 + random.nextInt(PLOT_SIZE - width - 4);
+                    final int z = plot[1] + 2 + random.nextInt(PLOT_SIZE - depth - 4);
+                    actions.add(new Action.Create(player, x, z, x + width - 1, z + depth - 1));
+                }
+                if (random.nextDouble() < mix.resize()) {
+                    actions.add(new Action.Resize(player, 1 + random.nextInt(4)));
+                }
+                if (random.nextDouble() < mix.trust() && players > 1) {
+                    final int trustee = (player + 1 + random.nextInt(players - 1)) % players;
+                    actions.add(new Action.Trust(player, trustee));
+                }
+            }
+            trace.add(actions);
+        }
+        return new Trace(players, trace);
+    }
+
+    /**
+     * Get the total number of actions in the trace
+     *
+     * @return the number of actions
+     */
+    public int size() {
+        return ticks.stream().mapToInt(List::size).sum();
+    }
+
+    // Take a few steps, usually back towards home, sometimes off to explore a neighbour's plot
+    private static void walk(int[] position, int[] home, @NotNull Random random) {
+        for (int axis = 0; axis < 2; axis++) {
+            final int pull = Integer.signum(home[axis] - position[axis]);
+            final int step = random.nextInt(5) - 2;
+            position[axis] += random.nextInt(4) == 0 ? step : step + pull;
+        }
+    }
+
+    @NotNull
+    static int[] getPlotCorner(int player, int players) {
+        final int columns = (int) Math.ceil(Math.sqrt(players));
+        return new int[]{(player % columns) * PLOT_SIZE, (player / columns) * PLOT_SIZE};
+    }
+
+    @NotNull
+    static int[] getPlotCenter(int player, int players) {
+        final int[] corner = getPlotCorner(player, players);
+        return new int[]{corner[0] + PLOT_SIZE / 2, corner[1] + PLOT_SIZE / 2};
+    }
+
+    /**
+     * The chance of each player performing each kind of action in a tick
+     *
+     * @param move       chance of moving
+     * @param breakBlock chance of breaking a block
+     * @param create     chance of creating a claim in their plot
+     * @param resize     chance of growing their most recent claim
+     * @param trust      chance of trusting another player in their most recent claim
+     */
+    public record Mix(double move, double breakBlock, double create, double resize, double trust) {
+
+        /**
+         * A typical survival server, where players mostly move around and build
+         */
+        public static final Mix SURVIVAL = new Mix(0.5, 0.08, 0.002, 0.002, 0.002);
+
+        /**
+         * A server where players are constantly claiming land and managing trust
+         */
+        public static final Mix CLAIM_HEAVY = new Mix(0.5, 0.08, 0.02, 0.02, 0.02);
+
+    }
+
+    /**
+     * An action taken by a player in a trace
+     */
+    public sealed interface Action {
+
+        int player();
+
+        /**
+         * Get the kind of action, used to group latencies in reports
+         *
+         * @return the kind of action
+         */
+        @NotNull
+        default String getName() {
+            return getClass().getSimpleName().toLowerCase(Locale.ENGLISH);
+        }
+
+        record Move(int player, int x, int z) implements Action {
+        }
+
+        record Break(int player, int x, int z) implements Action {
+        }
+
+        record Create(int player, int x1, int z1, int x2, int z2) implements Action {
+        }
+
+        record Resize(int player, int extend) implements Action {
+        }
+
+        record Trust(int player, int trustee) implements Action {
+        }
+
+    }
+
+}
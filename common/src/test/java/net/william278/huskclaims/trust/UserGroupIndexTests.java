@@ -0,0 +1,156 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.trust;
+
+import net.william278.huskclaims.FakeHuskClaims;
+import net.william278.huskclaims.config.Server;
+import net.william278.huskclaims.database.FakeDatabase;
+import net.william278.huskclaims.network.FakeBroker;
+import net.william278.huskclaims.position.Position;
+import net.william278.huskclaims.position.World;
+import net.william278.huskclaims.user.FakeOnlineUser;
+import net.william278.huskclaims.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("User Group Index Tests")
+public class UserGroupIndexTests {
+
+    private static final World WORLD = World.of("world", UUID.randomUUID(), "normal");
+    private static final User ALICE = User.of(UUID.randomUUID(), "Alice");
+    private static final User BOB = User.of(UUID.randomUUID(), "Bob");
+    private static final User CAROL = User.of(UUID.randomUUID(), "Carol");
+
+    private FakeHuskClaims plugin;
+    private FakeOnlineUser owner;
+
+    @BeforeEach
+    public void setup() {
+        plugin = FakeHuskClaims.create();
+        plugin.setServerName(Server.of("server-0"));
+        final FakeDatabase database = new FakeDatabase(plugin);
+        database.initialize();
+        plugin.setDatabase(database);
+        owner = new FakeOnlineUser("Owner", UUID.randomUUID(), Position.at(0, 64, 0, WORLD), plugin);
+    }
+
+    @AfterEach
+    public void teardown() {
+        plugin.close();
+    }
+
+    @Test
+    @DisplayName("Test Created Group Is Indexed By Name And Member")
+    public void testCreateGroup() {
+        plugin.createUserGroup(owner, "Friends", new ArrayList<>(List.of(ALICE, BOB)));
+
+        final UserGroup group = plugin.getUserGroup(owner.getUuid(), "friends").orElseThrow();
+        assertEquals("Friends", group.name());
+        assertTrue(plugin.isUserGroupMember(owner.getUuid(), "FRIENDS", ALICE));
+        assertTrue(plugin.isUserGroupMember(owner.getUuid(), "Friends", BOB));
+        assertFalse(plugin.isUserGroupMember(owner.getUuid(), "Friends", CAROL));
+        assertEquals(List.of(group), plugin.getUserGroupIndex().getMemberships(ALICE.getUuid()));
+        assertEquals(1, plugin.getUserGroupIndex().size());
+        assertThrows(IllegalArgumentException.class,
+                () -> plugin.createUserGroup(owner, "friends", new ArrayList<>()));
+    }
+
+    @Test
+    @DisplayName("Test Edited Group Is Re-Indexed")
+    public void testEditGroup() {
+        plugin.createUserGroup(owner, "Friends", new ArrayList<>(List.of(ALICE, BOB)));
+        plugin.editUserGroup(owner, "friends", group -> {
+            group.removeMember(BOB.getUuid());
+            group.members().add(CAROL);
+        }, () -> fail("Group not found"));
+
+        assertTrue(plugin.isUserGroupMember(owner.getUuid(), "Friends", ALICE));
+        assertFalse(plugin.isUserGroupMember(owner.getUuid(), "Friends", BOB));
+        assertTrue(plugin.isUserGroupMember(owner.getUuid(), "Friends", CAROL));
+        assertTrue(plugin.getUserGroupIndex().getMemberships(BOB.getUuid()).isEmpty());
+        assertEquals(1, plugin.getUserGroupIndex().getMemberships(CAROL.getUuid()).size());
+        assertEquals(1, plugin.getUserGroupIndex().size());
+    }
+
+    @Test
+    @DisplayName("Test Deleted Group Is Removed From Index")
+    public void testDeleteGroup() {
+        plugin.createUserGroup(owner, "Friends", new ArrayList<>(List.of(ALICE)));
+        plugin.createUserGroup(owner, "Builders", new ArrayList<>(List.of(ALICE, BOB)));
+
+        assertTrue(plugin.deleteUserGroup(owner, "FRIENDS"));
+        assertTrue(plugin.getUserGroup(owner.getUuid(), "Friends").isEmpty());
+        assertFalse(plugin.isUserGroupMember(owner.getUuid(), "Friends", ALICE));
+        assertTrue(plugin.isUserGroupMember(owner.getUuid(), "Builders", ALICE));
+        assertEquals(1, plugin.getUserGroupIndex().getMemberships(ALICE.getUuid()).size());
+        assertEquals(1, plugin.getUserGroupIndex().size());
+        assertFalse(plugin.deleteUserGroup(owner, "Friends"));
+
+        assertTrue(plugin.deleteUserGroup(owner, "Builders"));
+        assertTrue(plugin.getUserGroupIndex().getMemberships(ALICE.getUuid()).isEmpty());
+        assertTrue(plugin.getUserGroupIndex().getMemberships(BOB.getUuid()).isEmpty());
+        assertEquals(0, plugin.getUserGroupIndex().size());
+    }
+
+    @Test
+    @DisplayName("Test Group Changes On Another Server Reload The Index")
+    public void testBrokerReload() {
+        final FakeBroker.Network network = new FakeBroker.Network();
+        connect(plugin, network);
+        try (FakeHuskClaims other = FakeHuskClaims.create()) {
+            other.setServerName(Server.of("server-1"));
+            other.setDatabase(plugin.getDatabase());
+            connect(other, network);
+
+            plugin.createUserGroup(owner, "Friends", new ArrayList<>(List.of(ALICE, BOB)));
+            assertTrue(other.getUserGroup(owner.getUuid(), "friends").isPresent());
+            assertTrue(other.isUserGroupMember(owner.getUuid(), "Friends", ALICE));
+            assertEquals(1, other.getUserGroupIndex().getMemberships(BOB.getUuid()).size());
+
+            plugin.editUserGroup(owner, "Friends", group -> group.removeMember(ALICE.getUuid()),
+                    () -> fail("Group not found"));
+            assertFalse(other.isUserGroupMember(owner.getUuid(), "Friends", ALICE));
+            assertTrue(other.getUserGroupIndex().getMemberships(ALICE.getUuid()).isEmpty());
+            assertTrue(other.isUserGroupMember(owner.getUuid(), "Friends", BOB));
+
+            plugin.deleteUserGroup(owner, "Friends");
+            assertTrue(other.getUserGroup(owner.getUuid(), "Friends").isEmpty());
+            assertTrue(other.getUserGroupIndex().getMemberships(BOB.getUuid()).isEmpty());
+            assertEquals(0, other.getUserGroupIndex().size());
+        }
+    }
+
+    // Connect a plugin to a network of servers with an in-memory broker
+    private static void connect(@NotNull FakeHuskClaims plugin, @NotNull FakeBroker.Network network) {
+        final FakeBroker broker = new FakeBroker(plugin, network);
+        broker.initialize();
+        plugin.setBroker(broker);
+    }
+
+}
@@ -0,0 +1,589 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
+import com.google.gson.Gson;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.platform.AudienceProvider;
+import net.william278.cloplib.operation.OperationType;
+import net.william278.desertwell.util.Version;
+import net.william278.huskclaims.claim.*;
+import net.william278.huskclaims.command.Command;
+import net.william278.huskclaims.config.Locales;
+import net.william278.huskclaims.config.Server;
+import net.william278.huskclaims.config.Settings;
+import net.william278.huskclaims.config.TrustLevels;
+import net.william278.huskclaims.database.Database;
+import net.william278.huskclaims.event.*;
+import net.william278.huskclaims.highlighter.BlockHighlighter;
+import net.william278.huskclaims.highlighter.HighlightScheduler;
+import net.william278.huskclaims.highlighter.Highlightable;
+import net.william278.huskclaims.highlighter.Highlighter;
+import net.william278.huskclaims.hook.Hook;
+import net.william278.huskclaims.hook.MapMarkerSync;
+import net.william278.huskclaims.listener.ClaimsListener;
+import net.william278.huskclaims.metrics.BlockingCallDetector;
+import net.william278.huskclaims.metrics.MetricsRegistry;
+import net.william278.huskclaims.moderation.MarkedDropIndex;
+import net.william278.huskclaims.moderation.SignFilter;
+import net.william278.huskclaims.network.Broker;
+import net.william278.huskclaims.position.BlockPosition;
+import net.william278.huskclaims.position.Position;
+import net.william278.huskclaims.position.World;
+import net.william278.huskclaims.trust.*;
+import net.william278.huskclaims.user.*;
+import net.william278.huskclaims.util.FakeScheduler;
+import net.william278.huskclaims.util.FakeTask;
+import net.william278.huskclaims.util.Task;
+import net.william278.toilet.Toilet;
+import org.apache.commons.io.FileUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A headless implementation of the plugin, for exercising common code in tests and benchmarks.
+ * <p>
+ * Settings, trust levels, locales and trust tags are loaded from their defaults as on a real server. Tasks run on the
+ * calling thread unless the plugin is given a {@link FakeScheduler#threaded(int) threaded scheduler}, and nothing
+ * listens for events. There is no platform behind users, blocks or audiences; calls that
+ * would need one are either ignored or throw an {@link UnsupportedOperationException}.
+ */
+@Getter
+public class FakeHuskClaims implements HuskClaims, FakeTask.Supplier, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger("HuskClaims");
+
+    private final Path configDirectory;
+    @Getter(AccessLevel.NONE)
+    private final boolean temporaryDirectory;
+    private final FakeScheduler scheduler;
+    private final Gson gson = getGsonBuilder().create();
+    private final Set<TrustTag> trustTags = ConcurrentHashMap.newKeySet();
+    private final MarkedDropIndex markedDrops = new MarkedDropIndex();
+    private final EventDispatchCounters eventDispatchCounters = new EventDispatchCounters();
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+    private final BlockingCallDetector blockingCallDetector = new BlockingCallDetector(this);
+    private final ConcurrentMap<UUID, Set<GroundStack>> trackedItems = Maps.newConcurrentMap();
+    private final ConcurrentMap<String, List<User>> globalUserList = Maps.newConcurrentMap();
+    private final UserNameIndex userNameIndex = new UserNameIndex();
+    private final ConcurrentMap<UUID, ClaimSelection> claimSelections = Maps.newConcurrentMap();
+    private final ConcurrentMap<UUID, OnlineUser> onlineUserMap = Maps.newConcurrentMap();
+    private final ConcurrentMap<UUID, SavedUser> userCache = Maps.newConcurrentMap();
+    private final ConcurrentMap<UUID, Highlighter> highlighterCache = Maps.newConcurrentMap();
+    private final List<Command> commands = Lists.newArrayList();
+    private final List<Highlighter> highlighters = Lists.newArrayList();
+    private final HighlightScheduler highlightScheduler = new HighlightScheduler(this);
+    private final MapMarkerSync mapMarkerSync = new MapMarkerSync(this);
+    private final UserGroupIndex userGroupIndex = new UserGroupIndex();
+    private final HashMap<String, ClaimWorld> claimWorlds = Maps.newHashMap();
+    private final List<World> worlds = Lists.newCopyOnWriteArrayList();
+    private final Queue<Task.Async> taskQueue = Queues.newConcurrentLinkedQueue();
+    private final List<FakeTask.Repeating> repeatingTasks = Lists.newCopyOnWriteArrayList();
+
+    @Setter
+    private Map<UUID, Set<UserGroup>> userGroups = Maps.newConcurrentMap();
+    @Setter
+    private Set<Hook> hooks = Sets.newHashSet();
+    @Setter
+    private ClaimsListener operationListener;
+    @Setter
+    private Database database;
+    @Setter
+    private Settings settings;
+    @Setter
+    private TrustLevels trustLevels;
+    @Setter
+    private TrustLevelTable trustLevelTable;
+    @Setter
+    private SignFilter signFilter;
+    @Setter
+    private Locales locales;
+    @Setter
+    @Nullable
+    private Broker broker;
+    @Setter
+    @Nullable
+    private Server serverName;
+
+    private FakeHuskClaims(@NotNull Path configDirectory, @NotNull FakeScheduler scheduler,
+                           boolean temporaryDirectory) {
+        this.configDirectory = configDirectory;
+        this.temporaryDirectory = temporaryDirectory;
+        this.scheduler = scheduler;
+        loadSettings();
+        loadTrustLevels();
+        loadLocales();
+        loadTrustTags();
+    }
+
+    public FakeHuskClaims(@NotNull Path configDirectory, @NotNull FakeScheduler scheduler) {
+        this(configDirectory, scheduler, false);
+    }
+
+    public FakeHuskClaims(@NotNull Path configDirectory) {
+        this(configDirectory, FakeScheduler.inline());
+    }
+
+    /**
+     * Create a fake plugin with default configuration files, written to a new temporary directory that is deleted
+     * when the plugin is {@link #close() closed}
+     *
+     * @return the fake plugin
+     */
+    @NotNull
+    public static FakeHuskClaims create() {
+        return create(FakeScheduler.inline());
+    }
+
+    /**
+     * Create a fake plugin with default configuration files, written to a new temporary directory that is deleted
+     * when the plugin is {@link #close() closed}
+     *
+     * @param scheduler the scheduler to run the plugin's tasks
+     * @return the fake plugin
+     */
+    @NotNull
+    public static FakeHuskClaims create(@NotNull FakeScheduler scheduler) {
+        try {
+            return new FakeHuskClaims(Files.createTempDirectory("huskclaims"), scheduler, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create a config directory for the fake plugin", e);
+        }
+    }
+
+    /**
+     * Add a world and its claims to the plugin
+     *
+     * @param world      the world
+     * @param claimWorld the claims in the world
+     */
+    public void addClaimWorld(@NotNull World world, @NotNull ClaimWorld claimWorld) {
+        claimWorlds.put(world.getName(), claimWorld);
+        worlds.add(world);
+    }
+
+    @Override
+    public void loadAPI() {
+    }
+
+    @Override
+    public void loadMetrics() {
+    }
+
+    @Override
+    public void disablePlugin() {
+    }
+
+    @Override
+    public void log(@NotNull Level level, @NotNull String message, @NotNull Throwable... exceptions) {
+        if (exceptions.length > 0) {
+            LOGGER.log(level, message, exceptions[0]);
+            return;
+        }
+        LOGGER.log(level, message);
+    }
+
+    @NotNull
+    @Override
+    public String getServerName() {
+        return serverName != null ? serverName.getName() : "server";
+    }
+
+    @NotNull
+    @Override
+    public List<TrustLevel> getTrustLevels() {
+        return trustLevels.getTrustLevels();
+    }
+
+    @NotNull
+    @Override
+    public Set<OperationType> allowedOwnerOperations() {
+        return trustLevels.getAllowedOwnerOperations();
+    }
+
+    @Override
+    public InputStream getResource(@NotNull String name) {
+        return getClass().getClassLoader().getResourceAsStream(name);
+    }
+
+    @NotNull
+    @Override
+    public OnlineUser getOnlineUser(@NotNull UUID uuid) {
+        final OnlineUser user = onlineUserMap.get(uuid);
+        if (user == null) {
+            throw new IllegalArgumentException("User is not online");
+        }
+        return user;
+    }
+
+    @Override
+    public void setClaimWorlds(@NotNull HashMap<World, ClaimWorld> claimWorlds) {
+        claimWorlds.forEach(this::addClaimWorld);
+    }
+
+    @NotNull
+    @Override
+    public ClaimsListener createListener() {
+        return unsupported();
+    }
+
+    @Override
+    public void registerCommands(@NotNull List<Command> commands) {
+        this.commands.addAll(commands);
+    }
+
+    @Override
+    public void userTransferPet(@NotNull OnlineUser user, @NotNull User newOwner, boolean forceTransfer) {
+    }
+
+    /**
+     * Cancel the plugin's tasks and close its broker and database. If the plugin was {@link #create() created} with
+     * a temporary config directory, the directory and everything written to it (such as SQLite databases) is deleted
+     */
+    @Override
+    public void close() {
+        cancelTasks();
+        closeBroker();
+        closeDatabase();
+        if (temporaryDirectory) {
+            try {
+                FileUtils.deleteDirectory(configDirectory.toFile());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete the fake plugin's config directory", e);
+            }
+        }
+    }
+
+    @Override
+    public Optional<Broker> getBroker() {
+        return Optional.ofNullable(broker);
+    }
+
+    @Override
+    public void closeBroker() {
+        if (broker != null) {
+            broker.close();
+        }
+    }
+
+    @Override
+    public void setupPluginMessagingChannels() {
+    }
+
+    @Override
+    public void closeDatabase() {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    @NotNull
+    @Override
+    public AudienceProvider getAudiences() {
+        return unsupported();
+    }
+
+    @NotNull
+    @Override
+    public Audience getAudience(@NotNull UUID user) {
+        return Audience.empty();
+    }
+
+    @NotNull
+    @Override
+    public ConsoleUser getConsole() {
+        return ConsoleUser.wrap(Audience.empty());
+    }
+
+    @NotNull
+    @Override
+    public Toilet getToilet() {
+        return unsupported();
+    }
+
+    @NotNull
+    @Override
+    public MaterialBlock getBlockFor(@NotNull String materialKey) {
+        return new MaterialBlock() {
+            @NotNull
+            @Override
+            public String getMaterialKey() {
+                return materialKey;
+            }
+        };
+    }
+
+    // Treat every column as having its surface at sea level
+    @NotNull
+    @Override
+    public Map<BlockHighlighter.HighlightBlock, Highlightable.Type> getSurfaceBlocksAt(
+            @NotNull Map<? extends BlockPosition, Highlightable.Type> positions,
+            @NotNull World world, @NotNull Position viewerPosition
+    ) {
+        final MaterialBlock stone = getBlockFor("minecraft:stone");
+        final Map<BlockHighlighter.HighlightBlock, Highlightable.Type> blocks = new LinkedHashMap<>();
+        positions.forEach((position, type) -> blocks.put(
+                new BlockHighlighter.HighlightBlock(Position.at(position, 63, world), stone), type
+        ));
+        return blocks;
+    }
+
+    @Override
+    public void sendBlockUpdates(@NotNull OnlineUser user, @NotNull Map<Position, MaterialBlock> blocks) {
+    }
+
+    @NotNull
+    @Override
+    public CompletableFuture<Optional<Position>> findSafePosition(@NotNull Position position) {
+        return CompletableFuture.completedFuture(Optional.of(position));
+    }
+
+    @Override
+    public boolean isDependencyAvailable(@NotNull String name) {
+        return false;
+    }
+
+    @NotNull
+    @Override
+    public Version getPluginVersion() {
+        return Version.fromString("1.5.12");
+    }
+
+    @NotNull
+    @Override
+    public String getServerType() {
+        return "Fake/1.0";
+    }
+
+    @NotNull
+    @Override
+    public Version getMinecraftVersion() {
+        return Version.fromString("1.21.10");
+    }
+
+    @Override
+    public <T extends Event> boolean hasListeners(@NotNull T event) {
+        return false;
+    }
+
+    @Override
+    public <T extends Event> boolean fireIsCancelled(@NotNull T event) {
+        return false;
+    }
+
+    @NotNull
+    @Override
+    public ClaimBlocksChangeEvent getClaimBlocksChangeEvent(@NotNull User user, long oldBlocks, long newBlocks,
+                                                           @NotNull SavedUserProvider.ClaimBlockSource reason) {
+        return event(ClaimBlocksChangeEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public CreateChildClaimEvent getCreateChildClaimEvent(@NotNull OnlineUser claimer, @NotNull Claim parent,
+                                                         @NotNull Region childRegion, @NotNull ClaimWorld claimWorld) {
+        return event(CreateChildClaimEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public PostCreateChildClaimEvent getPostCreateChildClaimEvent(@NotNull OnlineUser claimer,
+                                                                 @NotNull Claim newChildClaim,
+                                                                 @NotNull ClaimWorld claimWorld) {
+        return event(PostCreateChildClaimEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public CreateClaimEvent getCreateClaimEvent(@NotNull OnlineUser claimer, @Nullable User claimOwner,
+                                               @NotNull Region region, @NotNull ClaimWorld claimWorld) {
+        return event(CreateClaimEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public PostCreateClaimEvent getPostCreateClaimEvent(@NotNull OnlineUser claimer, @NotNull Claim newClaim,
+                                                       @NotNull ClaimWorld claimWorld) {
+        return event(PostCreateClaimEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public DeleteAllClaimsEvent getDeleteAllClaimsEvent(@NotNull OnlineUser deleter, @Nullable User claimOwner,
+                                                       @NotNull Collection<ServerWorldClaim> claims) {
+        return event(DeleteAllClaimsEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public DeleteChildClaimEvent getDeleteChildClaimEvent(@NotNull OnlineUser deleter, @NotNull Claim parent,
+                                                         @NotNull ClaimWorld claimWorld, @NotNull Claim child) {
+        return event(DeleteChildClaimEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public DeleteClaimEvent getDeleteClaimEvent(@NotNull OnlineUser deleter, @NotNull Claim claim,
+                                               @NotNull ClaimWorld claimWorld) {
+        return event(DeleteClaimEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public EnterClaimEvent getEnterClaimEvent(@NotNull OnlineUser user, @NotNull Claim claim,
+                                             @NotNull ClaimWorld claimWorld, @NotNull Position enteredFrom,
+                                             @NotNull Position enteredTo) {
+        return event(EnterClaimEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public ExitClaimEvent getExitClaimEvent(@NotNull OnlineUser user, @NotNull Claim claim,
+                                           @NotNull ClaimWorld claimWorld, @NotNull Position exitedFrom,
+                                           @NotNull Position exitedTo) {
+        return event(ExitClaimEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public ResizeChildClaimEvent getResizeChildClaimEvent(@NotNull OnlineUser resizer, @NotNull Claim parent,
+                                                         @NotNull Claim child, @NotNull Region newRegion,
+                                                         @NotNull ClaimWorld claimWorld) {
+        return event(ResizeChildClaimEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public ResizeClaimEvent getResizeClaimEvent(@NotNull OnlineUser resizer, @NotNull Claim claim,
+                                               @NotNull Region newRegion, @NotNull ClaimWorld claimWorld) {
+        return event(ResizeClaimEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public TrustEvent getTrustEvent(@NotNull OnlineUser user, @NotNull TrustLevel level, @NotNull Trustable trusted,
+                                   @NotNull Claim claim, @NotNull ClaimWorld claimWorld) {
+        return event(TrustEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public UnTrustEvent getUnTrustEvent(@NotNull OnlineUser user, @NotNull TrustLevel level,
+                                       @NotNull Trustable untrusted, @NotNull Claim claim,
+                                       @NotNull ClaimWorld claimWorld) {
+        return event(UnTrustEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public TransferClaimEvent getTransferClaimEvent(@NotNull OnlineUser user, @NotNull Claim claim,
+                                                   @NotNull ClaimWorld claimWorld, @NotNull User newOwner) {
+        return event(TransferClaimEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public ClaimBanEvent getClaimBanEvent(@NotNull OnlineUser user, @NotNull Claim claim,
+                                         @NotNull ClaimWorld claimWorld, @NotNull User bannedUser) {
+        return event(ClaimBanEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public ClaimUnBanEvent getClaimUnBanEvent(@NotNull OnlineUser user, @NotNull Claim claim,
+                                             @NotNull ClaimWorld claimWorld, @NotNull User bannedUser) {
+        return event(ClaimUnBanEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public ClaimMakePrivateEvent getClaimMakePrivateEvent(@NotNull OnlineUser user, @NotNull Claim claim,
+                                                         @NotNull ClaimWorld claimWorld) {
+        return event(ClaimMakePrivateEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public ClaimMakePublicEvent getClaimMakePublicEvent(@NotNull OnlineUser user, @NotNull Claim claim,
+                                                       @NotNull ClaimWorld claimWorld) {
+        return event(ClaimMakePublicEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public ClaimWorldPruneEvent getClaimWorldPruneEvent(@NotNull ClaimWorld claimWorld,
+                                                       @NotNull Map<User, Long> userMap) {
+        return event(ClaimWorldPruneEvent.class);
+    }
+
+    @NotNull
+    @Override
+    public FakeHuskClaims getPlugin() {
+        return this;
+    }
+
+    // Events are never fired by the fake plugin, so stand-ins only need to report their plugin and cancelled state
+    @NotNull
+    private <E extends Event> E event(@NotNull Class<E> type) {
+        final boolean[] cancelled = new boolean[1];
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            return switch (method.getName()) {
+                case "getPlugin" -> this;
+                case "isCancelled" -> cancelled[0];
+                case "setCancelled" -> cancelled[0] = (boolean) args[0];
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> type.getSimpleName();
+                default -> method.getReturnType() == boolean.class ? false : null;
+            };
+        }));
+    }
+
+    // There is no platform behind the fake plugin to provide this
+    @NotNull
+    private static <T> T unsupported() {
+        throw new UnsupportedOperationException("Not supported by the fake plugin");
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.claim;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import lombok.Getter;
+import net.william278.cloplib.operation.OperationType;
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.position.Position;
+import net.william278.huskclaims.position.World;
+import net.william278.huskclaims.trust.TrustLevel;
+import net.william278.huskclaims.trust.TrustTag;
+import net.william278.huskclaims.trust.UserGroup;
+import net.william278.huskclaims.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A generated {@link ClaimWorld}, with a mix of claims resembling a busy server, for benchmarks and load tests.
+ * <p>
+ * Claims are laid out one per cell on a grid, so they never overlap. Most are small, with a long tail of larger
+ * claims and the odd admin claim filling its cell. Some have child claims. Claims trust a handful of players, and
+ * some trust a group of their owner's, or the public tag. Generation is deterministic for a given seed.
+ */
+@Getter
+public class SyntheticClaims {
+
+    // The size of the grid cell each parent claim is placed in
+    public static final int CELL_SIZE = 128;
+    private static final int MAX_SIDE = CELL_SIZE - 8;
+    private static final int MIN_SIDE = 5;
+
+    private final World world;
+    private final ClaimWorld claimWorld;
+    private final List<Claim> claims;
+    private final List<User> players;
+    private final int extent;
+
+    private SyntheticClaims(@NotNull World world, @NotNull ClaimWorld claimWorld, @NotNull List<Claim> claims,
+                            @NotNull List<User> players, int extent) {
+        this.world = world;
+        this.claimWorld = claimWorld;
+        this.claims = claims;
+        this.players = players;
+        this.extent = extent;
+    }
+
+    /**
+     * Generate a claim world, registering the user groups it uses with the plugin
+     *
+     * @param world  the world the claims are in
+     * @param count  the number of parent claims to generate
+     * @param seed   the random seed
+     * @param plugin the plugin, for its trust levels, tags and default flags
+     * @return the generated claims
+     */
+    @NotNull
+    public static SyntheticClaims generate(@NotNull World world, int count, long seed, @NotNull HuskClaims plugin) {
+        final Random random = new Random(seed);
+        final List<User> players = new ArrayList<>();
+        for (int i = 0; i < Math.max(count / 3, 16); i++) {
+            players.add(User.of(new UUID(random.nextLong(), random.nextLong()), "player" + i));
+        }
+
+        final List<TrustLevel> levels = plugin.getTrustLevels();
+        final Optional<TrustTag> publicTag = plugin.getPublicTrustTag();
+        final TrustLevel lowestLevel = plugin.getLowestTrustLevel();
+        final Set<OperationType> defaultFlags = Set.copyOf(plugin.getSettings().getClaims().getDefaultFlags());
+        final Set<OperationType> adminFlags = Set.copyOf(plugin.getSettings().getClaims().getAdminFlags());
+        final Map<UUID, Set<UserGroup>> groups = Maps.newConcurrentMap();
+        final Map<UUID, String> userCache = new HashMap<>();
+
+        final int columns = (int) Math.ceil(Math.sqrt(count));
+        final List<Claim> claims = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final boolean admin = random.nextInt(1000) == 0;
+            final User owner = admin ? null : players.get(getSkewedIndex(random, players.size()));
+            final int width = admin ? MAX_SIDE : getSide(random);
+            final int length = admin ? MAX_SIDE : Math.clamp(Math.round(width * (0.5 + random.nextDouble() * 1.5)),
+                    MIN_SIDE, MAX_SIDE);
+            final int x = (i % columns) * CELL_SIZE + random.nextInt(CELL_SIZE - width);
+            final int z = (i / columns) * CELL_SIZE + random.nextInt(CELL_SIZE - length);
+
+            final Claim claim = createClaim(owner != null ? owner.getUuid() : null, x, z,
+                    x + width - 1, z + length - 1, admin ? adminFlags : defaultFlags);
+            addTrust(claim, random, players, levels);
+            if (owner != null) {
+                userCache.put(owner.getUuid(), owner.getName());
+                if (random.nextInt(10) == 0) {
+                    final UserGroup group = getGroup(owner, random, players, groups);
+                    claim.setGroupTrustLevel(group, levels.get(random.nextInt(levels.size())));
+                }
+                if (random.nextInt(20) == 0) {
+                    publicTag.ifPresent(tag -> claim.setTagTrustLevel(tag, lowestLevel));
+                }
+                if (random.nextInt(50) == 0) {
+                    final User banned = players.get(random.nextInt(players.size()));
+                    if (!banned.equals(owner)) {
+                        claim.banUser(banned, owner);
+                    }
+                }
+            }
+            if (width * length >= 400 && random.nextInt(5) == 0) {
+                addChildren(claim, random, players, levels);
+            }
+            claims.add(claim);
+        }
+
+        plugin.setUserGroups(groups);
+        plugin.getUserGroupIndex().setAll(groups);
+        final ClaimWorld claimWorld = ClaimWorld.convert(Sets.newHashSet(claims), userCache,
+                Set.copyOf(plugin.getSettings().getClaims().getWildernessRules()));
+        return new SyntheticClaims(world, claimWorld, List.copyOf(claims), List.copyOf(players), columns * CELL_SIZE);
+    }
+
+    /**
+     * Get a random position in the world; half of positions are in a claim, the rest anywhere in the claimed area
+     *
+     * @param random the random to use
+     * @return the position
+     */
+    @NotNull
+    public Position getRandomPosition(@NotNull Random random) {
+        if (random.nextBoolean()) {
+            final Region region = claims.get(random.nextInt(claims.size())).getRegion();
+            final Region.Point near = region.getNearCorner();
+            final Region.Point far = region.getFarCorner();
+            return Position.at(near.getBlockX() + random.nextInt(far.getBlockX() - near.getBlockX() + 1),
+                    64, near.getBlockZ() + random.nextInt(far.getBlockZ() - near.getBlockZ() + 1), world);
+        }
+        return Position.at(random.nextInt(extent), 64, random.nextInt(extent), world);
+    }
+
+    // Get a claim side length, mostly small with a long tail of larger claims
+    private static int getSide(@NotNull Random random) {
+        return Math.clamp(Math.round(Math.exp(Math.log(20) + random.nextGaussian() * 0.7)), MIN_SIDE, MAX_SIDE);
+    }
+
+    // Get an index where lower indices are much more likely, as a few players own many claims
+    private static int getSkewedIndex(@NotNull Random random, int size) {
+        return (int) (size * Math.pow(random.nextDouble(), 3));
+    }
+
+    // Trust a few players, most claims trusting none or one or two
+    private static void addTrust(@NotNull Claim claim, @NotNull Random random, @NotNull List<User> players,
+                                 @NotNull List<TrustLevel> levels) {
+        final int roll = random.nextInt(10);
+        final int trusted = roll < 4 ? 0 : roll < 8 ? 1 + random.nextInt(2) : 3 + random.nextInt(6);
+        for (int i = 0; i < trusted; i++) {
+            final User user = players.get(random.nextInt(players.size()));
+            claim.setUserTrustLevel(user.getUuid(), levels.get(random.nextInt(levels.size())));
+        }
+    }
+
+    // Get a group of the owner's, creating it if they don't have one yet
+    @NotNull
+    private static UserGroup getGroup(@NotNull User owner, @NotNull Random random, @NotNull List<User> players,
+                                      @NotNull Map<UUID, Set<UserGroup>> groups) {
+        final Set<UserGroup> owned = groups.computeIfAbsent(owner.getUuid(), uuid -> Sets.newConcurrentHashSet());
+        if (!owned.isEmpty()) {
+            return owned.iterator().next();
+        }
+        final List<User> members = new ArrayList<>();
+        for (int i = 0; i < 2 + random.nextInt(5); i++) {
+            members.add(players.get(random.nextInt(players.size())));
+        }
+        final UserGroup group = new UserGroup(owner.getUuid(), "friends", members);
+        owned.add(group);
+        return group;
+    }
+
+    // Split the claim into side-by-side child claims, leaving a border of the parent around them
+    private static void addChildren(@NotNull Claim claim, @NotNull Random random, @NotNull List<User> players,
+                                    @NotNull List<TrustLevel> levels) {
+        final Region.Point near = claim.getRegion().getNearCorner();
+        final Region.Point far = claim.getRegion().getFarCorner();
+        final int count = 1 + random.nextInt(4);
+        final int width = (far.getBlockX() - near.getBlockX() - 1) / count;
+        if (width < 2) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            final int x = near.getBlockX() + 1 + i * width;
+            final Claim child = createClaim(claim.getOwner().orElse(null), x, near.getBlockZ() + 1,
+                    x + width - 2, far.getBlockZ() - 1, Set.of());
+            child.setInheritParent(random.nextInt(5) != 0);
+            addTrust(child, random, players, levels);
+            claim.addChild(child);
+        }
+    }
+
+    @NotNull
+    private static Claim createClaim(@Nullable UUID owner, int x1, int z1, int x2, int z2, @NotNull Set<OperationType> flags) {
+        return new Claim(owner, Region.from(Region.Point.at(x1, z1), Region.Point.at(x2, z2)),
+                Maps.newConcurrentMap(), Maps.newConcurrentMap(), Maps.newConcurrentMap(), Maps.newConcurrentMap(),
+                Sets.newConcurrentHashSet(), true, Sets.newConcurrentHashSet(flags), false);
+    }
+
+}
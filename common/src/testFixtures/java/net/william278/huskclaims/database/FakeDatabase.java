@@ -0,0 +1,261 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.database;
+
+import com.google.common.collect.Maps;
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.claim.ClaimWorld;
+import net.william278.huskclaims.position.ServerWorld;
+import net.william278.huskclaims.position.World;
+import net.william278.huskclaims.trust.UserGroup;
+import net.william278.huskclaims.user.SavedUser;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory {@link Database}, for tests and simulations that shouldn't touch the disk.
+ * <p>
+ * Claim worlds are stored serialized, as the SQL databases store them, so saving one costs what it would on a real
+ * server. Every call can optionally be delayed, to model the round trip to a remote database.
+ */
+public class FakeDatabase extends Database {
+
+    private final Duration latency;
+    private final ConcurrentMap<UUID, SavedUser> users = Maps.newConcurrentMap();
+    private final ConcurrentMap<UUID, Set<UserGroup>> userGroups = Maps.newConcurrentMap();
+    private final ConcurrentMap<Integer, StoredClaimWorld> claimWorlds = Maps.newConcurrentMap();
+    private final AtomicInteger nextClaimWorldId = new AtomicInteger(1);
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private volatile int schemaVersion;
+    private volatile boolean created;
+
+    public FakeDatabase(@NotNull HuskClaims plugin, @NotNull Duration latency) {
+        super(plugin);
+        this.latency = latency;
+    }
+
+    public FakeDatabase(@NotNull HuskClaims plugin) {
+        this(plugin, Duration.ZERO);
+    }
+
+    @Override
+    protected void executeScript(@NotNull Connection connection, @NotNull String name) {
+    }
+
+    @Override
+    public void initialize() throws IllegalStateException {
+        created = true;
+        schemaVersion = Migration.getLatestVersion();
+        setLoaded(true);
+    }
+
+    @Override
+    public boolean isCreated() {
+        return created;
+    }
+
+    @Override
+    public int getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    @Override
+    public void setSchemaVersion(int version) {
+        this.schemaVersion = version;
+    }
+
+    @Override
+    public Optional<SavedUser> getUser(@NotNull UUID uuid) {
+        read();
+        return Optional.ofNullable(users.get(uuid));
+    }
+
+    @Override
+    public Optional<SavedUser> getUser(@NotNull String username) {
+        read();
+        return users.values().stream()
+                .filter(user -> user.getUser().getName().equalsIgnoreCase(username))
+                .findFirst();
+    }
+
+    @Override
+    public List<SavedUser> getInactiveUsers(long daysInactive) {
+        read();
+        final OffsetDateTime cutoff = OffsetDateTime.now().minusDays(daysInactive);
+        return users.values().stream()
+                .filter(user -> user.getLastLogin().isBefore(cutoff))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void createUser(@NotNull SavedUser user) {
+        write();
+        users.putIfAbsent(user.getUser().getUuid(), user);
+    }
+
+    @Override
+    public void updateUser(@NotNull SavedUser user) {
+        write();
+        users.computeIfPresent(user.getUser().getUuid(), (uuid, existing) -> user);
+    }
+
+    @Override
+    public void createOrUpdateUser(@NotNull SavedUser user) {
+        write();
+        users.put(user.getUser().getUuid(), user);
+    }
+
+    @NotNull
+    @Override
+    public Set<UserGroup> getUserGroups(@NotNull UUID uuid) {
+        read();
+        return new HashSet<>(userGroups.getOrDefault(uuid, Set.of()));
+    }
+
+    @NotNull
+    @Override
+    public Map<UUID, Set<UserGroup>> getAllUserGroups() {
+        read();
+        final Map<UUID, Set<UserGroup>> groups = Maps.newHashMap();
+        userGroups.forEach((owner, owned) -> groups.put(owner, new HashSet<>(owned)));
+        return groups;
+    }
+
+    @Override
+    public void addUserGroup(@NotNull UserGroup group) {
+        write();
+        userGroups.computeIfAbsent(group.groupOwner(), owner -> ConcurrentHashMap.newKeySet()).add(group);
+    }
+
+    @Override
+    public void updateUserGroup(@NotNull UUID owner, @NotNull String name, @NotNull UserGroup newGroup) {
+        write();
+        final Set<UserGroup> owned = userGroups.computeIfAbsent(owner, uuid -> ConcurrentHashMap.newKeySet());
+        owned.removeIf(group -> group.name().equals(name));
+        owned.add(newGroup);
+    }
+
+    @Override
+    public void deleteUserGroup(@NotNull UserGroup group) {
+        write();
+        final Set<UserGroup> owned = userGroups.get(group.groupOwner());
+        if (owned != null) {
+            owned.remove(group);
+        }
+    }
+
+    @NotNull
+    @Override
+    public Map<World, ClaimWorld> getClaimWorlds(@NotNull String server) throws IllegalStateException {
+        read();
+        final Map<World, ClaimWorld> worlds = Maps.newHashMap();
+        claimWorlds.forEach((id, stored) -> {
+            if (stored.world().server().equals(server)) {
+                worlds.put(stored.world().world(), plugin.getClaimWorldFromJson(id, stored.json()));
+            }
+        });
+        return worlds;
+    }
+
+    @NotNull
+    @Override
+    public Map<ServerWorld, ClaimWorld> getAllClaimWorlds() throws IllegalStateException {
+        read();
+        final Map<ServerWorld, ClaimWorld> worlds = Maps.newHashMap();
+        claimWorlds.forEach((id, stored) -> worlds.put(stored.world(), plugin.getClaimWorldFromJson(id, stored.json())));
+        return worlds;
+    }
+
+    @NotNull
+    @Override
+    public ClaimWorld createClaimWorld(@NotNull World world) {
+        write();
+        final ClaimWorld claimWorld = ClaimWorld.create(plugin);
+        final int id = nextClaimWorldId.getAndIncrement();
+        claimWorlds.put(id, new StoredClaimWorld(
+                new ServerWorld(plugin.getServerName(), world), plugin.getGson().toJson(claimWorld)
+        ));
+        claimWorld.updateId(id);
+        return claimWorld;
+    }
+
+    @Override
+    public void updateClaimWorld(@NotNull ClaimWorld claimWorld) {
+        write();
+        final String json = plugin.getGson().toJson(claimWorld);
+        claimWorlds.computeIfPresent(claimWorld.getId(), (id, stored) -> new StoredClaimWorld(stored.world(), json));
+    }
+
+    @Override
+    public void close() {
+        setLoaded(false);
+    }
+
+    /**
+     * Get the number of reads made against the database
+     *
+     * @return the number of reads
+     */
+    public long getReads() {
+        return reads.get();
+    }
+
+    /**
+     * Get the number of writes made against the database
+     *
+     * @return the number of writes
+     */
+    public long getWrites() {
+        return writes.get();
+    }
+
+    private void read() {
+        reads.incrementAndGet();
+        delay();
+    }
+
+    private void write() {
+        writes.incrementAndGet();
+        delay();
+    }
+
+    // Simulate the round trip to a remote database
+    private void delay() {
+        if (!latency.isZero()) {
+            LockSupport.parkNanos(latency.toNanos());
+        }
+    }
+
+    // A serialized claim world, with the server and world it belongs to
+    private record StoredClaimWorld(@NotNull ServerWorld world, @NotNull String json) {
+    }
+
+}
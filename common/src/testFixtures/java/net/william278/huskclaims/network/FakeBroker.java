@@ -0,0 +1,116 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.network;
+
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.user.OnlineUser;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Broker} that passes messages between fake plugins in memory, for simulating a network of servers.
+ * <p>
+ * Messages are encoded and decoded as the Redis broker does, and are received off the server thread.
+ */
+public class FakeBroker extends Broker {
+
+    private final Network network;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+
+    public FakeBroker(@NotNull HuskClaims plugin, @NotNull Network network) {
+        super(plugin);
+        this.network = network;
+    }
+
+    @Override
+    public void initialize() throws RuntimeException {
+        network.brokers.add(this);
+    }
+
+    @Override
+    protected void send(@NotNull Message message, @NotNull OnlineUser sender) {
+        sent.incrementAndGet();
+        final String json = plugin.getGson().toJson(message);
+        network.brokers.stream()
+                .filter(broker -> broker != this)
+                .forEach(broker -> broker.plugin.runAsync(() -> broker.receive(json)));
+    }
+
+    // Decode and handle a message, routing it to a player if it targets one
+    private void receive(@NotNull String json) {
+        received.incrementAndGet();
+        final Message message = plugin.getMessageFromJson(json);
+        if (message.getTargetType() == Message.TargetType.PLAYER) {
+            plugin.getOnlineUsers().stream()
+                    .filter(online -> online.getName().equalsIgnoreCase(message.getTarget()))
+                    .findFirst()
+                    .ifPresent(receiver -> handle(receiver, message));
+            return;
+        }
+        handle(plugin.getOnlineUsers().stream().findAny().orElse(null), message);
+    }
+
+    @Override
+    public void close() {
+        network.brokers.remove(this);
+    }
+
+    /**
+     * Get the number of messages this broker has sent
+     *
+     * @return the number of sent messages
+     */
+    public long getSent() {
+        return sent.get();
+    }
+
+    /**
+     * Get the number of messages this broker has received
+     *
+     * @return the number of received messages
+     */
+    public long getReceived() {
+        return received.get();
+    }
+
+    /**
+     * A network of servers, each connected to it by a {@link FakeBroker}
+     */
+    public static class Network {
+
+        private final List<FakeBroker> brokers = new CopyOnWriteArrayList<>();
+
+        /**
+         * Get the brokers connected to the network
+         *
+         * @return the connected brokers
+         */
+        @NotNull
+        public List<FakeBroker> getBrokers() {
+            return List.copyOf(brokers);
+        }
+
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.user;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.william278.cloplib.listener.InspectorCallbackProvider;
+import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.position.Position;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An online user of the {@link net.william278.huskclaims.FakeHuskClaims fake plugin}, with no player behind it
+ */
+public class FakeOnlineUser extends OnlineUser {
+
+    @Getter
+    private final Set<String> grantedPermissions = ConcurrentHashMap.newKeySet();
+    @Setter
+    private volatile Position position;
+    @Setter
+    private volatile boolean sneaking;
+
+    public FakeOnlineUser(@NotNull String username, @NotNull UUID uuid, @NotNull Position position,
+                          @NotNull HuskClaims plugin) {
+        super(username, uuid, plugin);
+        this.position = position;
+    }
+
+    /**
+     * Grant the user permissions, discarding their permission snapshot so the new ones take effect
+     *
+     * @param permissions the permissions to grant
+     */
+    public void grant(@NotNull String... permissions) {
+        grantedPermissions.addAll(List.of(permissions));
+        invalidatePermissions();
+    }
+
+    @NotNull
+    @Override
+    public Position getPosition() {
+        return position;
+    }
+
+    @Override
+    public void sendPluginMessage(@NotNull String channel, byte[] message) {
+    }
+
+    @Override
+    public boolean hasPermission(@NotNull String permission, boolean isDefault) {
+        return isDefault || hasPermission(permission);
+    }
+
+    @Override
+    public boolean hasPermission(@NotNull String permission) {
+        return grantedPermissions.contains(permission);
+    }
+
+    @Override
+    public boolean isHolding(@NotNull InspectorCallbackProvider.InspectionTool tool) {
+        return false;
+    }
+
+    @Override
+    public Optional<Long> getNumericalPermission(@NotNull String prefix) {
+        return grantedPermissions.stream()
+                .filter(perm -> perm.startsWith(prefix))
+                .map(perm -> perm.substring(prefix.length()))
+                .filter(value -> value.matches("\\d{1,18}"))
+                .map(Long::parseLong)
+                .max(Long::compareTo);
+    }
+
+    @Override
+    public boolean isSneaking() {
+        return sneaking;
+    }
+
+    @Override
+    public void teleport(@NotNull Position position, boolean instant) {
+        this.position = position;
+    }
+
+    @Override
+    public boolean canSee(@NotNull OnlineUser other) {
+        return true;
+    }
+
+}
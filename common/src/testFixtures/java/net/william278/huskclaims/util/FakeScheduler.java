@@ -0,0 +1,279 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the tasks of the {@link net.william278.huskclaims.FakeHuskClaims fake plugin}.
+ * <p>
+ * An {@link #inline() inline} scheduler runs every task on the calling thread, which keeps tests deterministic. A
+ * {@link #threaded(int) threaded} scheduler models a real server instead: sync and repeating tasks run on a single
+ * server thread, async tasks on a bounded pool, so work piles up behind slow tasks as it would in production.
+ */
+public class FakeScheduler implements AutoCloseable {
+
+    @Nullable
+    private final ScheduledThreadPoolExecutor server;
+    @Nullable
+    private final ThreadPoolExecutor async;
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicReference<Throwable> firstError = new AtomicReference<>();
+    private volatile Thread serverThread;
+
+    private FakeScheduler(int asyncThreads) {
+        if (asyncThreads <= 0) {
+            this.server = null;
+            this.async = null;
+            return;
+        }
+        this.server = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "Server thread");
+            thread.setDaemon(true);
+            this.serverThread = thread;
+            return thread;
+        });
+        this.async = new ThreadPoolExecutor(asyncThreads, asyncThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "HuskClaims Async Worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Create a scheduler that runs every task immediately on the calling thread
+     *
+     * @return the scheduler
+     */
+    @NotNull
+    public static FakeScheduler inline() {
+        return new FakeScheduler(0);
+    }
+
+    /**
+     * Create a scheduler with a dedicated server thread and a pool of async worker threads
+     *
+     * @param asyncThreads the number of async worker threads
+     * @return the scheduler
+     */
+    @NotNull
+    public static FakeScheduler threaded(int asyncThreads) {
+        if (asyncThreads <= 0) {
+            throw new IllegalArgumentException("A threaded scheduler needs at least one async thread");
+        }
+        return new FakeScheduler(asyncThreads);
+    }
+
+    /**
+     * Get whether tasks are run on dedicated threads, rather than the calling thread
+     *
+     * @return whether this is a threaded scheduler
+     */
+    public boolean isThreaded() {
+        return server != null;
+    }
+
+    /**
+     * Get whether the calling thread is the one sync tasks run on. Always true for an inline scheduler
+     *
+     * @return whether the calling thread is the server thread
+     */
+    public boolean isServerThread() {
+        return server == null || Thread.currentThread() == serverThread;
+    }
+
+    /**
+     * Run a task on the server thread, after a delay. Inline schedulers ignore the delay
+     *
+     * @param runnable the task
+     * @param delay    the delay before running the task
+     */
+    public void runSync(@NotNull Runnable runnable, @NotNull Duration delay) {
+        if (server == null) {
+            guard(runnable).run();
+            return;
+        }
+        if (delay.isZero() || delay.isNegative()) {
+            server.execute(guard(runnable));
+            return;
+        }
+        server.schedule(guard(runnable), delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Run a task on an async worker thread
+     *
+     * @param runnable the task
+     */
+    public void runAsync(@NotNull Runnable runnable) {
+        if (async == null) {
+            guard(runnable).run();
+            return;
+        }
+        async.execute(guard(runnable));
+    }
+
+    /**
+     * Run a task repeatedly on the server thread. Inline schedulers don't run repeating tasks by themselves; they are
+     * run when the {@link FakeTask.Supplier#tick() supplier is ticked}
+     *
+     * @param runnable the task
+     * @param period   the period between runs
+     * @param delay    the delay before the first run
+     * @return the scheduled task, if this is a threaded scheduler
+     */
+    public Optional<ScheduledFuture<?>> runRepeating(@NotNull Runnable runnable, @NotNull Duration period,
+                                                     @NotNull Duration delay) {
+        if (server == null) {
+            return Optional.empty();
+        }
+        return Optional.of(server.scheduleAtFixedRate(guard(runnable), Math.max(0, delay.toNanos()),
+                Math.max(1, period.toNanos()), TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Run a task on the server thread and wait for it to complete
+     *
+     * @param callable the task
+     * @param <T>      the type of the task result
+     * @return the task result
+     * @throws CompletionException if the task throws
+     */
+    public <T> T callSync(@NotNull Callable<T> callable) {
+        if (isServerThread()) {
+            try {
+                return callable.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }
+        try {
+            return server.submit(callable).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * Wait until the server thread has caught up and the async workers are idle
+     *
+     * @param timeout the maximum time to wait
+     * @throws TimeoutException if the scheduler is still busy after the timeout
+     */
+    public void awaitIdle(@NotNull Duration timeout) throws TimeoutException {
+        if (server == null) {
+            return;
+        }
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        int idleChecks = 0;
+        while (idleChecks < 2) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("Scheduler did not become idle within " + timeout);
+            }
+            callSync(() -> null);
+            final boolean idle = getServerQueueDepth() == 0 && getAsyncQueueDepth() == 0
+                                 && async.getActiveCount() == 0;
+            idleChecks = idle ? idleChecks + 1 : 0;
+            if (!idle) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Get the number of tasks due to run on the server thread that are waiting for it
+     *
+     * @return the server thread backlog
+     */
+    public int getServerQueueDepth() {
+        if (server == null) {
+            return 0;
+        }
+        // Count only due tasks; delayed and repeating tasks sit in the queue until they are next due
+        return (int) server.getQueue().stream()
+                .filter(task -> task instanceof Delayed delayed && delayed.getDelay(TimeUnit.NANOSECONDS) <= 0)
+                .count();
+    }
+
+    /**
+     * Get the number of async tasks waiting for a worker thread
+     *
+     * @return the async backlog
+     */
+    public int getAsyncQueueDepth() {
+        return async != null ? async.getQueue().size() : 0;
+    }
+
+    /**
+     * Get the number of tasks that have thrown an exception
+     *
+     * @return the number of failed tasks
+     */
+    public long getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * Get the first exception thrown by a task
+     *
+     * @return the first exception, if any task has failed
+     */
+    public Optional<Throwable> getFirstError() {
+        return Optional.ofNullable(firstError.get());
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.shutdownNow();
+        }
+        if (async != null) {
+            async.shutdownNow();
+        }
+    }
+
+    // Count exceptions thrown by a task, rather than losing them in an executor
+    @NotNull
+    private Runnable guard(@NotNull Runnable runnable) {
+        return () -> {
+            try {
+                runnable.run();
+            } catch (Throwable e) {
+                errors.incrementAndGet();
+                firstError.compareAndSet(null, e);
+                if (server == null) {
+                    throw e;
+                }
+            }
+        };
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * This file is part of HuskClaims, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskclaims.util;
+
+import net.william278.huskclaims.HuskClaims;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Tasks for the {@link net.william278.huskclaims.FakeHuskClaims fake plugin}, which are run by its
+ * {@link FakeScheduler}
+ */
+public interface FakeTask extends Task {
+
+    class Sync extends Task.Sync implements FakeTask {
+
+        private final FakeScheduler scheduler;
+
+        protected Sync(@NotNull HuskClaims plugin, @NotNull FakeScheduler scheduler,
+                       @NotNull Runnable runnable, @NotNull Duration initialDelay) {
+            super(plugin, runnable, initialDelay);
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void run() {
+            if (!cancelled) {
+                scheduler.runSync(() -> {
+                    if (!cancelled) {
+                        runnable.run();
+                    }
+                }, initialDelay);
+            }
+        }
+
+    }
+
+    class Async extends Task.Async implements FakeTask {
+
+        private final FakeScheduler scheduler;
+
+        protected Async(@NotNull HuskClaims plugin, @NotNull FakeScheduler scheduler, @NotNull Runnable runnable) {
+            super(plugin, runnable);
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void run() {
+            if (!cancelled) {
+                scheduler.runAsync(() -> {
+                    if (!cancelled) {
+                        runnable.run();
+                    }
+                });
+            }
+        }
+
+    }
+
+    class Repeating extends Task.Repeating implements FakeTask {
+
+        private final FakeScheduler scheduler;
+        private volatile boolean started;
+        @Nullable
+        private ScheduledFuture<?> future;
+
+        protected Repeating(@NotNull HuskClaims plugin, @NotNull FakeScheduler scheduler, @NotNull Runnable runnable,
+                            @NotNull Duration repeatPeriod, @NotNull Duration initialDelay) {
+            super(plugin, runnable, repeatPeriod, initialDelay);
+            this.scheduler = scheduler;
+        }
+
+        // Threaded schedulers run the task on the server thread; otherwise it runs each time the supplier is ticked
+        @Override
+        public void run() {
+            if (started) {
+                return;
+            }
+            started = true;
+            future = scheduler.runRepeating(this::tick, repeatPeriod, initialDelay).orElse(null);
+        }
+
+        public void tick() {
+            if (started && !cancelled) {
+                runnable.run();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            super.cancel();
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+
+    }
+
+    interface Supplier extends Task.Supplier {
+
+        @NotNull
+        @Override
+        default Task.Sync getSyncTask(@NotNull Runnable runnable, @NotNull Duration initialDelay) {
+            return new Sync(getPlugin(), getScheduler(), runnable, initialDelay);
+        }
+
+        @NotNull
+        @Override
+        default Task.Async getAsyncTask(@NotNull Runnable runnable) {
+            return new Async(getPlugin(), getScheduler(), runnable);
+        }
+
+        @NotNull
+        @Override
+        default Task.Repeating getRepeatingTask(@NotNull Runnable runnable, @NotNull Duration repeatPeriod,
+                                                @NotNull Duration initialDelay) {
+            final Repeating task = new Repeating(getPlugin(), getScheduler(), runnable, repeatPeriod, initialDelay);
+            getRepeatingTasks().add(task);
+            return task;
+        }
+
+        @Override
+        default boolean isSyncThread() {
+            return getScheduler().isServerThread();
+        }
+
+        /**
+         * Run every started repeating task once, as if a tick of the server had passed. Only needed with an
+         * {@link FakeScheduler#inline() inline} scheduler, as threaded schedulers run repeating tasks by themselves
+         */
+        default void tick() {
+            List.copyOf(getRepeatingTasks()).forEach(Repeating::tick);
+        }
+
+        @Override
+        default void cancelTasks() {
+            getRepeatingTasks().forEach(Repeating::cancel);
+            getRepeatingTasks().clear();
+        }
+
+        @NotNull
+        FakeScheduler getScheduler();
+
+        @NotNull
+        List<Repeating> getRepeatingTasks();
+
+    }
+
+}
@@ -26,6 +26,8 @@ import com.google.common.collect.Sets;
 import com.google.common.primitives.Longs;
 import com.google.gson.Gson;
 import com.pokeskies.fabricpluginmessaging.PluginMessageEvent;
+import it.unimi.dsi.fastutil.shorts.ShortArraySet;
+import it.unimi.dsi.fastutil.shorts.ShortSet;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -42,13 +44,22 @@ import net.kyori.adventure.platform.modcommon.MinecraftServerAudiences;
 //$$ import net.kyori.adventure.platform.fabric.FabricServerAudiences;
 //#endif
 import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.network.packet.s2c.play.ChunkDeltaUpdateS2CPacket;
 import net.minecraft.registry.Registries;
+import net.minecraft.registry.Registry;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.registry.RegistryKeys;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.Pair;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.chunk.ChunkSection;
 import net.william278.cloplib.operation.OperationType;
 import net.william278.desertwell.util.Version;
 import net.william278.huskclaims.api.FabricHuskClaimsAPI;
@@ -60,21 +71,30 @@ import net.william278.huskclaims.config.Server;
 import net.william278.huskclaims.config.Settings;
 import net.william278.huskclaims.config.TrustLevels;
 import net.william278.huskclaims.database.Database;
+import net.william278.huskclaims.event.EventDispatchCounters;
 import net.william278.huskclaims.event.FabricEventDispatcher;
 import net.william278.huskclaims.highlighter.FabricBlockDisplayHighlighter;
+import net.william278.huskclaims.highlighter.HighlightScheduler;
 import net.william278.huskclaims.highlighter.Highlighter;
 import net.william278.huskclaims.hook.FabricHookProvider;
 import net.william278.huskclaims.hook.Hook;
+import net.william278.huskclaims.hook.MapMarkerSync;
 import net.william278.huskclaims.listener.ClaimsListener;
 import net.william278.huskclaims.listener.FabricListener;
+import net.william278.huskclaims.metrics.BlockingCallDetector;
+import net.william278.huskclaims.metrics.MetricsRegistry;
+import net.william278.huskclaims.moderation.MarkedDropIndex;
+import net.william278.huskclaims.moderation.SignFilter;
 import net.william278.huskclaims.network.Broker;
 import net.william278.huskclaims.network.PluginMessageBroker;
 import net.william278.huskclaims.pet.FabricPetHandler;
 import net.william278.huskclaims.position.Position;
 import net.william278.huskclaims.position.World;
 import net.william278.huskclaims.trust.TrustLevel;
+import net.william278.huskclaims.trust.TrustLevelTable;
 import net.william278.huskclaims.trust.TrustTag;
 import net.william278.huskclaims.trust.UserGroup;
+import net.william278.huskclaims.trust.UserGroupIndex;
 import net.william278.huskclaims.user.*;
 import net.william278.huskclaims.util.*;
 import net.william278.toilet.Toilet;
@@ -118,15 +138,22 @@ public class FabricHuskClaims implements DedicatedServerModInitializer, HuskClai
 
     private final Gson gson = getGsonBuilder().create();
     private final Set<TrustTag> trustTags = ConcurrentHashMap.newKeySet();
-    private final Map<UUID, List<DroppedItem>> markedDrops = Maps.newHashMap();
+    private final MarkedDropIndex markedDrops = new MarkedDropIndex();
+    private final EventDispatchCounters eventDispatchCounters = new EventDispatchCounters();
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+    private final BlockingCallDetector blockingCallDetector = new BlockingCallDetector(this);
     private final Map<UUID, Set<GroundStack>> trackedItems = Maps.newHashMap();
     private final ConcurrentMap<String, List<User>> globalUserList = Maps.newConcurrentMap();
+    private final UserNameIndex userNameIndex = new UserNameIndex();
     private final ConcurrentMap<UUID, ClaimSelection> claimSelections = Maps.newConcurrentMap();
     private final ConcurrentMap<UUID, OnlineUser> onlineUserMap = Maps.newConcurrentMap();
     private final ConcurrentMap<UUID, SavedUser> userCache = Maps.newConcurrentMap();
     private final ConcurrentMap<UUID, Highlighter> highlighterCache = Maps.newConcurrentMap();
     private final List<Command> commands = Lists.newArrayList();
     private final List<Highlighter> highlighters = Lists.newArrayList();
+    private final HighlightScheduler highlightScheduler = new HighlightScheduler(this);
+    private final MapMarkerSync mapMarkerSync = new MapMarkerSync(this);
+    private final UserGroupIndex userGroupIndex = new UserGroupIndex();
     private final HashMap<String, ClaimWorld> claimWorlds = Maps.newHashMap();
     private final Queue<Task.Async> taskQueue = Queues.newConcurrentLinkedQueue();
 
@@ -143,6 +170,10 @@ public class FabricHuskClaims implements DedicatedServerModInitializer, HuskClai
     @Setter
     private TrustLevels trustLevels;
     @Setter
+    private TrustLevelTable trustLevelTable;
+    @Setter
+    private SignFilter signFilter;
+    @Setter
     private Locales locales;
     @Setter
     @Nullable
@@ -341,49 +372,47 @@ public class FabricHuskClaims implements DedicatedServerModInitializer, HuskClai
 
     @Override
     public void loadHighlighters() {
-//        HuskClaims.super.loadHighlighters(); // todo - not yet implemented
+        HuskClaims.super.loadHighlighters();
 
-        if (!getSettings().getHighlighter().isBlockDisplays()) {
-            log(Level.WARNING, "Block display highlighting is disabled, but this is the only builtin " +
-                    "highlighter supported on Fabric currently. Enabling anyway.");
+        if (getSettings().getHighlighter().isBlockDisplays()) {
+            registerHighlighter(new FabricBlockDisplayHighlighter(this));
         }
-        registerHighlighter(new FabricBlockDisplayHighlighter(this));
     }
 
     // Pack change data into chunk sections for the ChunkDeltaUpdate packet
     @Override
     public void sendBlockUpdates(@NotNull OnlineUser user, @NotNull Map<Position, MaterialBlock> blocks) {
-        throw new UnsupportedOperationException("Block updates not yet implemented in Fabric HuskClaims");
-        /* todo
-
-        // Get biome registry
-        final net.minecraft.world.World world = Adapter.adapt(user.getWorld(), minecraftServer);
-        final Registry<Biome> biomes = world.getRegistryManager().getOrThrow(RegistryKeys.BIOME);
+        final ServerPlayerEntity player = ((FabricUser) user).getFabricPlayer();
+        //#if MC>=12104
+        final Registry<Biome> biomes = player.getWorld().getRegistryManager().getOrThrow(RegistryKeys.BIOME);
+        //#else
+        //$$ final Registry<Biome> biomes = player.getWorld().getRegistryManager().get(RegistryKeys.BIOME);
+        //#endif
 
-        // Calculate chunk sectors to update
+        // Calculate chunk sections to update
         final Map<ChunkSectionPos, Pair<ShortSet, ChunkSection>> sections = Maps.newHashMap();
-        for (Map.Entry<Position, MaterialBlock> entry : blocks.entrySet()) {
-            final Position pos = entry.getKey();
-            final BlockPos block = BlockPos.ofFloored(pos.getBlockX(), pos.getY(), pos.getBlockZ());
+        Adapter.adapt(blocks, minecraftServer).forEach((location, block) -> {
+            final BlockPos pos = location.blockPos();
             final Pair<ShortSet, ChunkSection> sectionData = sections.computeIfAbsent(
-                    ChunkSectionPos.from(block), ignored -> new Pair<>(new ShortArraySet(), new ChunkSection(biomes))
+                    ChunkSectionPos.from(pos), ignored -> new Pair<>(new ShortArraySet(), new ChunkSection(biomes))
             );
 
-            // Set data
-            final short packed = ChunkSectionPos.packLocal(block);
+            // Set data, restoring the world's own state (rotation, waterlogging, etc.) where its block is sent back
+            final BlockState current = location.world().getBlockState(pos);
+            final short packed = ChunkSectionPos.packLocal(pos);
             sectionData.getLeft().add(packed);
             sectionData.getRight().setBlockState(
                     ChunkSectionPos.unpackLocalX(packed),
                     ChunkSectionPos.unpackLocalY(packed),
                     ChunkSectionPos.unpackLocalZ(packed),
-                    ((BlockMaterialBlock) entry.getValue()).getData().getDefaultState()
+                    current.isOf(block) ? current : block.getDefaultState()
             );
-        }
+        });
 
-        // Send packets for each pos
-        final ServerPlayerEntity player = ((FabricUser) user).getFabricPlayer();
+        // Send a packet for each section
         sections.forEach((section, data) -> player.networkHandler.sendPacket(
-                new ChunkDeltaUpdateS2CPacket(section, data.getLeft(), data.getRight())));*/
+                new ChunkDeltaUpdateS2CPacket(section, data.getLeft(), data.getRight())
+        ));
     }
 
     @Override
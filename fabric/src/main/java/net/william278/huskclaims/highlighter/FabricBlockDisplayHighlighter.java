@@ -30,6 +30,7 @@ import net.minecraft.util.math.BlockPos;
 import net.william278.cloplib.operation.OperationChunk;
 import net.william278.huskclaims.FabricHuskClaims;
 import net.william278.huskclaims.HuskClaims;
+import net.william278.huskclaims.config.Settings;
 import net.william278.huskclaims.hook.GeyserHook;
 import net.william278.huskclaims.position.Position;
 import net.william278.huskclaims.user.FabricUser;
@@ -39,46 +40,63 @@ import net.william278.huskclaims.util.Location;
 import org.jetbrains.annotations.NotNull;
 import org.joml.Vector3f;
 
+import java.time.Duration;
 import java.util.Collection;
+import java.util.UUID;
 
 /**
  * Highlighter that uses {@link DisplayEntity.BlockDisplayEntity}s - used to highlight {@link Highlightable}s to a user in-game
+ * <p>
+ * Displays are pooled per player; when a highlight changes, displays are moved and retextured rather than recreated.
  */
 public class FabricBlockDisplayHighlighter extends BlockHighlighter<FabricBlockDisplayHighlighter.DisplayHighlightBlock> {
 
     private static final int PRIORITY = 1;
 
+    // How often pools are checked for idle displays to remove
+    private static final Duration RECLAIM_PERIOD = Duration.ofSeconds(15);
+
+    private final DisplayPool<DisplayEntity.BlockDisplayEntity> displays;
+
     public FabricBlockDisplayHighlighter(@NotNull HuskClaims plugin) {
         super(plugin);
-    }
-
-    @Override
-    public void cacheBlock(@NotNull OnlineUser user, @NotNull HighlightBlock origin, @NotNull DisplayHighlightBlock block) {
-        replacedBlocks.put(user.getUuid(), block);
+        final Settings.HighlighterSettings settings = plugin.getSettings().getHighlighter();
+        this.displays = new DisplayPool<>(
+                settings.getMaxDisplaysPerPlayer(), settings.getMaxDisplays(),
+                Duration.ofSeconds(settings.getDisplayPoolTimeout()).toMillis()
+        );
+        plugin.getRepeatingTask(
+                () -> displays.reclaimIdle(display -> plugin.runSync(
+                        () -> display.remove(Entity.RemovalReason.DISCARDED)
+                )),
+                RECLAIM_PERIOD, RECLAIM_PERIOD
+        ).run();
     }
 
     @NotNull
     @Override
-    public DisplayHighlightBlock getHighlightBlock(@NotNull Position position, @NotNull Highlightable.Type type,
+    public DisplayHighlightBlock getHighlightBlock(@NotNull HighlightBlock origin, @NotNull Highlightable.Type type,
                                                    @NotNull HuskClaims plugin) {
-        return new DisplayHighlightBlock(position, type, plugin);
+        return new DisplayHighlightBlock(origin.getPosition(), type, plugin);
     }
 
     @Override
     public void showBlocks(@NotNull OnlineUser user, @NotNull Collection<DisplayHighlightBlock> blocks) {
-        blocks.forEach(block -> block.show(user));
+        blocks.forEach(block -> block.show((FabricHuskClaims) plugin, user, displays));
     }
 
     @Override
-    public void stopHighlighting(@NotNull OnlineUser user) {
-        if (!replacedBlocks.containsKey(user.getUuid())) {
-            return;
-        }
-        replacedBlocks.removeAll(user.getUuid()).forEach(block -> {
-            if (block instanceof DisplayHighlightBlock display) {
-                display.remove(user);
-            }
-        });
+    public void hideBlocks(@NotNull OnlineUser user, @NotNull Collection<DisplayHighlightBlock> blocks) {
+        blocks.forEach(block -> block.hide(user, displays));
+    }
+
+    // Remove every display held for a user who has left, including ones still showing their highlight
+    @Override
+    public void removeUser(@NotNull UUID user) {
+        super.removeUser(user);
+        displays.releaseAll(user, display -> plugin.runSync(
+                () -> display.remove(Entity.RemovalReason.DISCARDED)
+        ));
     }
 
     @Override
@@ -105,51 +123,46 @@ public class FabricBlockDisplayHighlighter extends BlockHighlighter<FabricBlockD
                 AffineTransformation.identity().getRightRotation()
         );
 
-        private final DisplayEntity.BlockDisplayEntity display;
-        private Location location;
+        private final boolean glowing;
+        private final int glowColor;
+        private DisplayEntity.BlockDisplayEntity display;
         private EntityTrackerEntry tracker;
 
         private DisplayHighlightBlock(@NotNull Position position, @NotNull Highlightable.Type type,
                                       @NotNull HuskClaims plugin) {
-            super(position, plugin.getSettings().getHighlighter().getBlock(type, plugin));
-            this.display = createEntity(plugin, type);
+            super(position, plugin.getSettings().getHighlighter().getBlock(type, plugin), type);
+            this.glowing = plugin.getSettings().getHighlighter().isGlowEffect();
+            this.glowColor = plugin.getSettings().getHighlighter().getGlowColor(type).getArgb();
         }
 
-        @NotNull
-        private DisplayEntity.BlockDisplayEntity createEntity(@NotNull HuskClaims plugin, @NotNull Highlightable.Type type) {
-            this.location = FabricHuskClaims.Adapter.adapt(position, ((FabricHuskClaims) plugin).getMinecraftServer());
+        // Take a display from the user's pool, move and retexture it, then start tracking it for them
+        private void show(@NotNull FabricHuskClaims plugin, @NotNull OnlineUser user,
+                          @NotNull DisplayPool<DisplayEntity.BlockDisplayEntity> pool) {
+            final Location location = FabricHuskClaims.Adapter.adapt(position, plugin.getMinecraftServer());
 
             // Check the chunk is loaded
             final OperationChunk chunk = position.getChunk();
             if (!location.world().getChunkManager().isChunkLoaded(chunk.getX(), chunk.getZ())) {
-                throw new IllegalStateException("World/chunk is not loaded");
+                return;
+            }
+
+            final DisplayEntity.BlockDisplayEntity display = pool.acquire(
+                    user.getUuid(),
+                    idle -> !idle.isRemoved() && idle.getWorld() == location.world(),
+                    () -> createEntity(location)
+            );
+            if (display == null) {
+                return;
             }
+            this.display = display;
 
-            // Create block display
+            // Move and retexture the display
             final BlockPos blockPos = location.blockPos();
-            final DisplayEntity.BlockDisplayEntity display = new DisplayEntity.BlockDisplayEntity(
-                    EntityType.BLOCK_DISPLAY, location.world());
             display.refreshPositionAndAngles(blockPos.getX(), blockPos.getY(), blockPos.getZ(), 0.0f, 0.0f);
-
-            // Set parameters
             display.setBlockState(((BlockMaterialBlock) this.block).getData().getDefaultState());
-            display.setViewRange(BlockHighlighter.VIEWING_RANGE);
-            display.setNoGravity(true);
-            display.setBrightness(FULL_BRIGHT);
+            display.setGlowing(glowing);
+            display.setGlowColorOverride(glowColor);
 
-            // Scale to prevent z-fighting
-            display.setTransformation(SCALE_TRANSFORMATION);
-
-            // Glow if needed
-            if (plugin.getSettings().getHighlighter().isGlowEffect()) {
-                display.setGlowing(true);
-                display.setGlowColorOverride(plugin.getSettings().getHighlighter().getGlowColor(type).getArgb());
-            }
-
-            return display;
-        }
-
-        public void show(@NotNull OnlineUser user) {
             final ServerPlayerEntity player = ((FabricUser) user).getFabricPlayer();
             //#if MC==12105
             this.tracker = new EntityTrackerEntry(
@@ -170,14 +183,32 @@ public class FabricBlockDisplayHighlighter extends BlockHighlighter<FabricBlockD
             tracker.startTracking(player);
         }
 
-        public void remove(@NotNull OnlineUser user) {
-            final ServerPlayerEntity player = ((FabricUser) user).getFabricPlayer();
+        // Stop tracking the display for the user and return it to their pool
+        private void hide(@NotNull OnlineUser user, @NotNull DisplayPool<DisplayEntity.BlockDisplayEntity> pool) {
+            if (display == null) {
+                return;
+            }
             if (tracker != null) {
-                tracker.stopTracking(player);
+                tracker.stopTracking(((FabricUser) user).getFabricPlayer());
+                tracker = null;
             }
-            display.remove(Entity.RemovalReason.DISCARDED);
+            pool.release(user.getUuid(), display);
+            display = null;
+        }
+
+        @NotNull
+        private static DisplayEntity.BlockDisplayEntity createEntity(@NotNull Location location) {
+            final DisplayEntity.BlockDisplayEntity display = new DisplayEntity.BlockDisplayEntity(
+                    EntityType.BLOCK_DISPLAY, location.world());
+            display.setViewRange(BlockHighlighter.VIEWING_RANGE);
+            display.setNoGravity(true);
+            display.setBrightness(FULL_BRIGHT);
+
+            // Scale to prevent z-fighting
+            display.setTransformation(SCALE_TRANSFORMATION);
+            return display;
         }
 
     }
 
-}
\ No newline at end of file
+}
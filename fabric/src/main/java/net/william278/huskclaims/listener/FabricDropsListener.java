@@ -68,6 +68,22 @@ public interface FabricDropsListener {
                 ? dropLocation.pos().distanceTo(other.getDropLocation().pos()) : Double.MAX_VALUE;
         }
 
+        @NotNull
+        @Override
+        public String getWorldName() {
+            return dropLocation.world().getRegistryKey().getValue().toString();
+        }
+
+        @Override
+        public double getX() {
+            return dropLocation.pos().getX();
+        }
+
+        @Override
+        public double getZ() {
+            return dropLocation.pos().getZ();
+        }
+
         @Override
         public boolean equals(Object obj) {
             return obj instanceof FabricDroppedItem item
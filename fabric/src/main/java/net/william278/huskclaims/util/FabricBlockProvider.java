@@ -20,6 +20,8 @@
 package net.william278.huskclaims.util;
 
 import com.google.common.collect.Maps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.StainedGlassBlock;
@@ -30,7 +32,10 @@ import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.Pair;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.Direction;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.WorldChunk;
 //#if MC==12101
 //$$ import net.minecraft.world.EmptyBlockView;
 //#endif
@@ -43,6 +48,8 @@ import net.william278.huskclaims.position.Position;
 import net.william278.huskclaims.position.World;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -62,41 +69,68 @@ public interface FabricBlockProvider extends BlockProvider {
             @NotNull Map<? extends BlockPosition, Highlightable.Type> positions,
             @NotNull World surfaceWorld, @NotNull Position viewerPos
     ) {
-        final Map<BlockHighlighter.HighlightBlock, Highlightable.Type> blocks = Maps.newHashMap();
         final BlockPos viewerBlock = new BlockPos(viewerPos.getBlockX(), (int) viewerPos.getY(), viewerPos.getBlockZ());
         final ServerWorld world = Adapter.adapt(surfaceWorld, getPlugin().getMinecraftServer());
-        positions.forEach((pos, highlightType) -> {
-            final BlockPos.Mutable loc = new BlockPos.Mutable(pos.getBlockX() - 1, viewerBlock.getY(), pos.getBlockZ() - 1);
-            final boolean loaded = world.isChunkLoaded(loc.getX() >> 4, loc.getZ() >> 4);
-            if (loaded && loc.toCenterPos().distanceTo(viewerBlock.toCenterPos()) <= VIEWING_RANGE) {
+
+        // Group the points in viewing range by chunk, so each chunk is only looked up once
+        final Long2ObjectMap<List<Map.Entry<? extends BlockPosition, Highlightable.Type>>> chunks =
+                new Long2ObjectOpenHashMap<>();
+        for (Map.Entry<? extends BlockPosition, Highlightable.Type> entry : positions.entrySet()) {
+            final int x = entry.getKey().getBlockX() - 1;
+            final int z = entry.getKey().getBlockZ() - 1;
+            final double dx = x - viewerBlock.getX();
+            final double dz = z - viewerBlock.getZ();
+            if (dx * dx + dz * dz <= VIEWING_RANGE * VIEWING_RANGE) {
+                chunks.computeIfAbsent(ChunkPos.toLong(x >> 4, z >> 4), k -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        final Map<BlockHighlighter.HighlightBlock, Highlightable.Type> blocks = Maps.newHashMapWithExpectedSize(
+                positions.size()
+        );
+        for (Long2ObjectMap.Entry<List<Map.Entry<? extends BlockPosition, Highlightable.Type>>> chunkEntry :
+                chunks.long2ObjectEntrySet()) {
+            final int chunkX = ChunkPos.getPackedX(chunkEntry.getLongKey());
+            final int chunkZ = ChunkPos.getPackedZ(chunkEntry.getLongKey());
+            if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                continue;
+            }
+            final WorldChunk chunk = world.getChunk(chunkX, chunkZ);
+            for (Map.Entry<? extends BlockPosition, Highlightable.Type> point : chunkEntry.getValue()) {
+                final BlockPos.Mutable loc = new BlockPos.Mutable(
+                        point.getKey().getBlockX() - 1, viewerBlock.getY(), point.getKey().getBlockZ() - 1
+                );
                 final Pair<BlockPos, Block> block = getSurfaceBlockAt(
-                        loc, world, world.getBottomY(), world.getHeight()
+                        loc, chunk, world.getBottomY(), world.getHeight()
                 );
                 blocks.put(new BlockHighlighter.HighlightBlock(
                         Adapter.adapt(new Location(world, block.getLeft())),
                         new BlockMaterialBlock(block.getRight())
-                ), highlightType);
+                ), point.getValue());
             }
-        });
+        }
         return blocks;
     }
 
-    // Scans up or down relative to where the player is standing to find a good surface block
+    // Scans up or down relative to where the player is standing to find a good surface block. Everything above the
+    // chunk's surface heightmap is air, so when the player is above it, the scan starts from the surface instead
     @NotNull
-    private Pair<BlockPos, Block> getSurfaceBlockAt(@NotNull BlockPos.Mutable block, @NotNull ServerWorld world,
+    private Pair<BlockPos, Block> getSurfaceBlockAt(@NotNull BlockPos.Mutable block, @NotNull WorldChunk chunk,
                                                     int minHeight, int maxHeight) {
-        final Direction direction = !isOccluding(world.getBlockState(block)) ? Direction.DOWN : Direction.UP;
-        while (isObscured(block, world, minHeight, maxHeight)) {
+        final int surface = chunk.sampleHeightmap(Heightmap.Type.WORLD_SURFACE, block.getX(), block.getZ());
+        block.setY(Math.max(minHeight, Math.min(block.getY(), surface)));
+        final Direction direction = !isOccluding(chunk.getBlockState(block)) ? Direction.DOWN : Direction.UP;
+        while (isObscured(block, chunk, minHeight, maxHeight)) {
             block = block.move(direction);
         }
-        return new Pair<>(block, world.getBlockState(block).getBlock());
+        return new Pair<>(block, chunk.getBlockState(block).getBlock());
     }
 
     // Returns if a block would be obscured by the block above it (and that it's within the world boundaries)
-    private boolean isObscured(@NotNull BlockPos.Mutable block, @NotNull ServerWorld world,
+    private boolean isObscured(@NotNull BlockPos.Mutable block, @NotNull WorldChunk chunk,
                                int minHeight, int maxHeight) {
-        return (isOccluding(world.getBlockState(block.offset(Direction.UP, 1))) ||
-               !isOccluding(world.getBlockState(block))) &&
+        return (isOccluding(chunk.getBlockState(block.offset(Direction.UP, 1))) ||
+               !isOccluding(chunk.getBlockState(block))) &&
                block.getY() >= minHeight && (block.getY() < maxHeight - 1);
     }
 
@@ -118,6 +118,11 @@ public interface FabricTask extends Task {
             return new Sync(getPlugin(), runnable, initialDelay);
         }
 
+        @Override
+        default boolean isSyncThread() {
+            return ((FabricHuskClaims) getPlugin()).getMinecraftServer().isOnThread();
+        }
+
         @NotNull
         @Override
         default Task.Async getAsyncTask(@NotNull Runnable runnable) {
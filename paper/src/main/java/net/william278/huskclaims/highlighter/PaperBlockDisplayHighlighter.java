@@ -22,6 +22,7 @@ package net.william278.huskclaims.highlighter;
 import net.william278.huskclaims.BukkitHuskClaims;
 import net.william278.huskclaims.HuskClaims;
 import net.william278.huskclaims.PaperHuskClaims;
+import net.william278.huskclaims.config.Settings;
 import net.william278.huskclaims.hook.GeyserHook;
 import net.william278.huskclaims.position.Position;
 import net.william278.huskclaims.user.BukkitUser;
@@ -32,52 +33,68 @@ import org.bukkit.Location;
 import org.bukkit.entity.BlockDisplay;
 import org.bukkit.entity.Display;
 import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
 import org.bukkit.util.Transformation;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.joml.AxisAngle4f;
 import org.joml.Vector3f;
 
+import java.time.Duration;
 import java.util.Collection;
+import java.util.UUID;
 
 /**
  * Highlighter that uses {@link BlockDisplay} entities - used to highlight {@link Highlightable}s to a user in-game
+ * <p>
+ * Displays are pooled per player; when a highlight changes, displays are moved and retextured rather than respawned.
  */
 public class PaperBlockDisplayHighlighter extends BlockHighlighter<PaperBlockDisplayHighlighter.DisplayHighlightBlock> {
 
     private static final int PRIORITY = 1;
 
+    // How often pools are checked for idle displays to remove
+    private static final Duration RECLAIM_PERIOD = Duration.ofSeconds(15);
+
+    private final DisplayPool<BlockDisplay> displays;
+
     public PaperBlockDisplayHighlighter(@NotNull HuskClaims plugin) {
         super(plugin);
-    }
-
-    @Override
-    public void cacheBlock(@NotNull OnlineUser user, @NotNull HighlightBlock origin, @NotNull DisplayHighlightBlock block) {
-        replacedBlocks.put(user.getUuid(), block);
+        final Settings.HighlighterSettings settings = plugin.getSettings().getHighlighter();
+        this.displays = new DisplayPool<>(
+                settings.getMaxDisplaysPerPlayer(), settings.getMaxDisplays(),
+                Duration.ofSeconds(settings.getDisplayPoolTimeout()).toMillis()
+        );
+        plugin.getRepeatingTask(
+                () -> displays.reclaimIdle(display -> plugin.runSync(display, display::remove)),
+                RECLAIM_PERIOD, RECLAIM_PERIOD
+        ).run();
     }
 
     @NotNull
     @Override
-    public DisplayHighlightBlock getHighlightBlock(@NotNull Position position, @NotNull Highlightable.Type type,
+    public DisplayHighlightBlock getHighlightBlock(@NotNull HighlightBlock origin, @NotNull Highlightable.Type type,
                                                    @NotNull HuskClaims plugin) {
-        return new DisplayHighlightBlock(position, type, plugin);
+        return new DisplayHighlightBlock(origin.getPosition(), type, plugin);
     }
 
     @Override
     public void showBlocks(@NotNull OnlineUser user, @NotNull Collection<DisplayHighlightBlock> blocks) {
-        blocks.forEach(block -> block.show(plugin, user));
+        final Player player = ((BukkitUser) user).getBukkitPlayer();
+        blocks.forEach(block -> block.show((PaperHuskClaims) plugin, player, displays));
     }
 
     @Override
-    public void stopHighlighting(@NotNull OnlineUser user) {
-        if (!replacedBlocks.containsKey(user.getUuid())) {
-            return;
-        }
+    public void hideBlocks(@NotNull OnlineUser user, @NotNull Collection<DisplayHighlightBlock> blocks) {
+        final Player player = ((BukkitUser) user).getBukkitPlayer();
+        blocks.forEach(block -> block.hide((PaperHuskClaims) plugin, player, displays));
+    }
 
-        plugin.runSync(() -> replacedBlocks.removeAll(user.getUuid()).forEach(block -> {
-            if (block instanceof DisplayHighlightBlock display) {
-                plugin.runSync(display.getDisplay(), display::remove);
-            }
-        }));
+    // Remove every display held for a user who has left, including ones still showing their highlight
+    @Override
+    public void removeUser(@NotNull UUID user) {
+        super.removeUser(user);
+        displays.releaseAll(user, display -> plugin.runSync(display, display::remove));
     }
 
     @Override
@@ -104,25 +121,65 @@ public class PaperBlockDisplayHighlighter extends BlockHighlighter<PaperBlockDis
                 new AxisAngle4f(0, 0, 0, 0)
         );
 
-        private final BlockDisplay display;
+        @Nullable
+        private final Color glowColor;
+        @Nullable
+        private BlockDisplay display;
 
         private DisplayHighlightBlock(@NotNull Position position, @NotNull Highlightable.Type type,
                                       @NotNull HuskClaims plugin) {
-            super(position, plugin.getSettings().getHighlighter().getBlock(type, plugin));
-            this.display = createEntity(plugin, type);
+            super(position, plugin.getSettings().getHighlighter().getBlock(type, plugin), type);
+            this.glowColor = plugin.getSettings().getHighlighter().isGlowEffect() ? Color.fromRGB(
+                    plugin.getSettings().getHighlighter().getGlowColor(type).getRgb()
+            ) : null;
         }
 
+        // Take a display from the player's pool, move and retexture it, then show it to them
         @SuppressWarnings("UnstableApiUsage")
-        @NotNull
-        private BlockDisplay createEntity(@NotNull HuskClaims plugin, @NotNull Highlightable.Type type) {
+        private void show(@NotNull PaperHuskClaims plugin, @NotNull Player player,
+                          @NotNull DisplayPool<BlockDisplay> pool) {
             final Location loc = BukkitHuskClaims.Adapter.adapt(position);
             if (!loc.isWorldLoaded() || !loc.getChunk().isLoaded()) {
-                throw new IllegalStateException("World/chunk is not loaded");
+                return;
+            }
+            final BlockDisplay display = pool.acquire(
+                    player.getUniqueId(), BlockDisplay::isValid, () -> createEntity(loc)
+            );
+            if (display == null) {
+                return;
+            }
+            this.display = display;
+            display.setBlock(((BlockDataBlock) this.block).getData());
+            display.setGlowing(glowColor != null);
+            display.setGlowColorOverride(glowColor);
+            if (display.getLocation().equals(loc)) {
+                player.showEntity(plugin, display);
+                return;
+            }
+            display.teleportAsync(loc).thenRun(() -> {
+                if (this.display == display) {
+                    player.showEntity(plugin, display);
+                }
+            });
+        }
+
+        // Hide the display from the player and return it to their pool
+        @SuppressWarnings("UnstableApiUsage")
+        private void hide(@NotNull PaperHuskClaims plugin, @NotNull Player player,
+                          @NotNull DisplayPool<BlockDisplay> pool) {
+            final BlockDisplay display = this.display;
+            if (display == null) {
+                return;
             }
+            this.display = null;
+            player.hideEntity(plugin, display);
+            pool.release(player.getUniqueId(), display);
+        }
 
-            // Create block display
+        @SuppressWarnings("UnstableApiUsage")
+        @NotNull
+        private static BlockDisplay createEntity(@NotNull Location loc) {
             final BlockDisplay display = (BlockDisplay) loc.getWorld().spawnEntity(loc, EntityType.BLOCK_DISPLAY);
-            display.setBlock(((BlockDataBlock) this.block).getData());
             display.setViewRange(BlockHighlighter.VIEWING_RANGE);
             display.setGravity(false);
             display.setPersistent(false);
@@ -131,28 +188,10 @@ public class PaperBlockDisplayHighlighter extends BlockHighlighter<PaperBlockDis
 
             // Scale to prevent z-fighting
             display.setTransformation(SCALE_TRANSFORMATION);
-
-            // Glow if needed
-            if (plugin.getSettings().getHighlighter().isGlowEffect()) {
-                display.setGlowing(true);
-                display.setGlowColorOverride(Color.fromRGB(
-                        plugin.getSettings().getHighlighter().getGlowColor(type).getRgb()
-                ));
-            }
             return display;
         }
 
-        @SuppressWarnings("UnstableApiUsage")
-        public void show(@NotNull HuskClaims plugin, @NotNull OnlineUser user) {
-            ((BukkitUser) user).getBukkitPlayer().showEntity((PaperHuskClaims) plugin, display);
-        }
-
-        public void remove() {
-            if (display != null) {
-                display.remove();
-            }
-        }
-
+        @Nullable
         public BlockDisplay getDisplay() {
             return display;
         }
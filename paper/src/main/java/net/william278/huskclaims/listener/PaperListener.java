@@ -19,14 +19,20 @@
 
 package net.william278.huskclaims.listener;
 
+import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
 import net.kyori.adventure.text.Component;
 import net.william278.huskclaims.BukkitHuskClaims;
+import net.william278.huskclaims.command.BukkitCommand;
+import net.william278.huskclaims.command.UserListTabCompletable;
 import net.william278.huskclaims.moderation.SignWrite;
+import net.william278.huskclaims.user.CommandUser;
 import org.bukkit.block.sign.Side;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.block.SignChangeEvent;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 public class PaperListener extends BukkitListener {
@@ -54,6 +60,30 @@ public class PaperListener extends BukkitListener {
         );
     }
 
+    // Complete user names for user list commands (e.g. /trust) off the server thread from the user name index.
+    // Other arguments are left to be completed on the server thread, as they may read world or claim state
+    @EventHandler(ignoreCancelled = true)
+    public void onAsyncTabComplete(@NotNull AsyncTabCompleteEvent e) {
+        if (!e.isCommand() || e.isHandled() || !e.getBuffer().startsWith("/")) {
+            return;
+        }
+        final String[] input = e.getBuffer().substring(1).split(" ", -1);
+        if (input.length < 2) {
+            return;
+        }
+        final String[] args = Arrays.copyOfRange(input, 1, input.length);
+        if (!(plugin.getServer().getCommandMap().getCommand(input[0]) instanceof BukkitCommand command)
+            || !(command.getCommand() instanceof UserListTabCompletable completable)
+            || !completable.isSuggestingUserNames(args)
+            || !command.testPermissionSilent(e.getSender())) {
+            return;
+        }
+
+        final CommandUser user = e.getSender() instanceof Player p ? plugin.getOnlineUser(p) : plugin.getConsole();
+        e.setCompletions(completable.getUserNameSuggestions(user, args));
+        e.setHandled(true);
+    }
+
     // Apply filter edits to a sign if needed
     private void filterSign(@NotNull SignWrite write, @NotNull SignChangeEvent e) {
         if (write.getFilteredText() == null) {